@@ -33,7 +33,6 @@ import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.SootClass;
 import sootup.core.model.SootMethod;
 import sootup.core.signatures.MethodSignature;
-import sootup.core.signatures.MethodSubSignature;
 import sootup.core.types.VoidType;
 import sootup.core.util.DotExporter;
 import sootup.core.views.View;
@@ -91,7 +90,9 @@ public class ICFGDotExporter {
               // initializers (init and clinit), so need to compute calls to them as well
               for (MethodSignature methodSignature : stmtGraphSet.keySet()) {
                 SootMethod clintMethod =
-                    view.getMethod(methodSignature.getDeclClassType().getStaticInitializer())
+                    view.getMethod(
+                            view.getIdentifierFactory()
+                                .getStaticInitializerSignature(methodSignature.getDeclClassType()))
                         .orElse(null);
                 if (clintMethod != null) {
                   if (!calls.containsKey(stmt.hashCode())) {
@@ -135,10 +136,12 @@ public class ICFGDotExporter {
         subclassmethodSignature -> {
           Optional<? extends SootMethod> method = view.getMethod(target);
           MethodSignature initMethod =
-              new MethodSignature(
-                  subclassmethodSignature.getDeclClassType(),
-                  new MethodSubSignature(
-                      "<init>", Collections.emptyList(), VoidType.getInstance()));
+              view.getIdentifierFactory()
+                  .getMethodSignature(
+                      subclassmethodSignature.getDeclClassType(),
+                      "<init>",
+                      VoidType.getInstance(),
+                      Collections.emptyList());
           if (method.isPresent()
               && !subclassmethodSignature.toString().equals(initMethod.toString())) {
             if (method.get().hasBody()) {
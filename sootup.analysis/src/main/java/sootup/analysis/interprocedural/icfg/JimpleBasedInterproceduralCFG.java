@@ -36,9 +36,12 @@ import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import sootup.callgraph.AbstractCallGraphAlgorithm;
 import sootup.callgraph.CallGraph;
 import sootup.callgraph.CallGraphAlgorithm;
+import sootup.callgraph.CallSiteTable;
 import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
+import sootup.callgraph.DispatchTable;
 import sootup.core.graph.StmtGraph;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.SootClass;
@@ -73,15 +76,23 @@ public class JimpleBasedInterproceduralCFG extends AbstractJimpleBasedICFG {
         @Override
         public Collection<SootMethod> load(Stmt stmt) {
           ArrayList<SootMethod> res = new ArrayList<>();
-          MethodSignature methodSignature = stmt.getInvokeExpr().getMethodSignature();
-          Optional<? extends SootMethod> smOpt = view.getMethod(methodSignature);
-          if (smOpt.isPresent()) {
-            SootMethod sm = smOpt.get();
-            if (sm.hasBody()) {
-              res.add(sm);
-            } else {
-              logger.error(
-                  "Method {} is referenced but has no body!", sm.getSignature(), new Exception());
+          // use the targets recorded by the call graph algorithm if available, statements that
+          // have not been processed by it, e.g. in library methods, call their static target
+          Collection<MethodSignature> targets =
+              cg.getCallSites()
+                  .map(callSites -> (Collection<MethodSignature>) callSites.getTargets(stmt))
+                  .filter(recordedTargets -> !recordedTargets.isEmpty())
+                  .orElseGet(() -> resolveStaticTarget(stmt));
+          for (MethodSignature methodSignature : targets) {
+            Optional<? extends SootMethod> smOpt = view.getMethod(methodSignature);
+            if (smOpt.isPresent()) {
+              SootMethod sm = smOpt.get();
+              if (sm.hasBody()) {
+                res.add(sm);
+              } else {
+                logger.error(
+                    "Method {} is referenced but has no body!", sm.getSignature(), new Exception());
+              }
             }
           }
           res.trimToSize();
@@ -99,6 +110,26 @@ public class JimpleBasedInterproceduralCFG extends AbstractJimpleBasedICFG {
         @Override
         public Collection<Stmt> load(SootMethod method) {
           ArrayList<Stmt> res = new ArrayList<>();
+          Optional<CallSiteTable> callSites = cg.getCallSites();
+          if (callSites.isPresent()) {
+            for (Stmt stmt : callSites.get().getCallSites(method.getSignature())) {
+              if (isIncludedEdge(CGEdgeUtil.findCallGraphEdgeType(stmt.getInvokeExpr()))) {
+                res.add(stmt);
+              }
+            }
+            // implicit calls of static initializers are recorded without a call site, so they are
+            // attributed to the statements triggering the initialization
+            if (isIncludedEdge(CGEdgeUtil.CallGraphEdgeType.CLINIT)
+                && method
+                    .getSignature()
+                    .equals(
+                        view.getIdentifierFactory()
+                            .getStaticInitializerSignature(method.getDeclaringClassType()))) {
+              res.addAll(getStaticInitializerCallSites(method.getSignature()));
+            }
+            res.trimToSize();
+            return res;
+          }
           // only retain callers that are explicit call sites or
           // Thread.start()
           Set<MethodSignature> callsToMethod = cg.callsTo(method.getSignature());
@@ -119,11 +150,7 @@ public class JimpleBasedInterproceduralCFG extends AbstractJimpleBasedICFG {
           for (Pair<MethodSignature, CalleeMethodSignature> callEdge : callEdges) {
             CalleeMethodSignature callee = callEdge.getValue();
             if (callee.getMethodSignature().equals(methodSignature)) {
-              CGEdgeUtil.CallGraphEdgeType edgeType = callee.getEdgeType();
-              if (edgeType.isExplicit()
-                  || edgeType.isFake()
-                  || edgeType.isClinit()
-                  || (includeReflectiveCalls && edgeType.isReflection())) {
+              if (isIncludedEdge(callee.getEdgeType())) {
                 return callee.getSourceStmt();
               }
             }
@@ -141,14 +168,38 @@ public class JimpleBasedInterproceduralCFG extends AbstractJimpleBasedICFG {
       MethodSignature mainMethodSignature,
       boolean enableExceptions,
       boolean includeReflectiveCalls) {
+    this(
+        view,
+        mainMethodSignature,
+        enableExceptions,
+        includeReflectiveCalls,
+        new ClassHierarchyAnalysisAlgorithm(view));
+  }
+
+  /**
+   * Creates the ICFG on top of the call graph built by the given algorithm, e.g. a {@link
+   * sootup.callgraph.VariableTypeAnalysisAlgorithm} for fewer spurious call edges than CHA.
+   */
+  public JimpleBasedInterproceduralCFG(
+      JavaView view,
+      MethodSignature mainMethodSignature,
+      boolean enableExceptions,
+      boolean includeReflectiveCalls,
+      CallGraphAlgorithm callGraphAlgorithm) {
     super(enableExceptions);
     this.includeReflectiveCalls = includeReflectiveCalls;
     this.view = view;
     this.mainMethodSignature = mainMethodSignature;
-    cg = initCallGraph();
+    cg = initCallGraph(callGraphAlgorithm);
     initializeStmtToOwner();
   }
 
+  /** Returns the call graph the ICFG is built on. */
+  @Nonnull
+  public CallGraph getCallGraph() {
+    return cg;
+  }
+
   public String buildICFGGraph(CallGraph callGraph) {
     Map<MethodSignature, StmtGraph> signatureToStmtGraph = new LinkedHashMap<>();
     computeAllCalls(mainMethodSignature, signatureToStmtGraph, callGraph);
@@ -187,11 +238,62 @@ public class JimpleBasedInterproceduralCFG extends AbstractJimpleBasedICFG {
                     nextMethodSignature, signatureToStmtGraph, callGraph, visitedMethods));
   }
 
-  private CallGraph initCallGraph() {
-    CallGraphAlgorithm cga = new ClassHierarchyAnalysisAlgorithm(view);
+  private CallGraph initCallGraph(CallGraphAlgorithm cga) {
     return cga.initialize(Collections.singletonList(mainMethodSignature));
   }
 
+  /**
+   * Returns the table caching the resolved virtual calls of the view, which this ICFG shares with
+   * the call graph algorithms working on the same view.
+   */
+  @Nonnull
+  public DispatchTable getDispatchTable() {
+    return DispatchTable.of(view);
+  }
+
+  /**
+   * Returns whether calls of the given kind are part of the ICFG, i.e. explicit calls, fake edges
+   * like {@link Thread#start()}, static initializers and, if enabled, reflective calls.
+   */
+  protected boolean isIncludedEdge(@Nonnull CGEdgeUtil.CallGraphEdgeType edgeType) {
+    return edgeType.isExplicit()
+        || edgeType.isFake()
+        || edgeType.isClinit()
+        || (includeReflectiveCalls && edgeType.isReflection());
+  }
+
+  /** Returns the statements of the callers of the static initializer that can trigger it. */
+  @Nonnull
+  protected List<Stmt> getStaticInitializerCallSites(@Nonnull MethodSignature staticInitializer) {
+    List<Stmt> res = new ArrayList<>();
+    for (MethodSignature caller : cg.callsTo(staticInitializer)) {
+      Optional<? extends SootMethod> callerOpt = view.getMethod(caller);
+      if (!callerOpt.isPresent() || !callerOpt.get().hasBody()) {
+        continue;
+      }
+      for (Stmt stmt : callerOpt.get().getBody().getStmts()) {
+        if (AbstractCallGraphAlgorithm.resolveStaticInitializerCalls(view, stmt)
+            .anyMatch(staticInitializer::equals)) {
+          res.add(stmt);
+        }
+      }
+    }
+    return res;
+  }
+
+  /**
+   * Returns the method the invoke statement calls according to its signature. The method may be
+   * inherited, so it is looked up in the {@link #getDispatchTable() dispatch table} of the view.
+   */
+  @Nonnull
+  protected Collection<MethodSignature> resolveStaticTarget(@Nonnull Stmt stmt) {
+    MethodSignature signature = stmt.getInvokeExpr().getMethodSignature();
+    return Collections.singletonList(
+        AbstractCallGraphAlgorithm.findConcreteMethod(view, signature)
+            .<MethodSignature>map(SootMethod::getSignature)
+            .orElse(signature));
+  }
+
   protected void initializeStmtToOwner() {
     for (MethodSignature methodSignature : cg.getMethodSignatures()) {
       final Optional<? extends SootMethod> methodOpt = view.getMethod(methodSignature);
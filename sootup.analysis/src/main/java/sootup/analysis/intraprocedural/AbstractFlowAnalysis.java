@@ -82,6 +82,19 @@ public abstract class AbstractFlowAnalysis<F> {
   /** Creates a copy of the <code>source</code> flow object in <code>dest</code>. */
   protected abstract void copy(@Nonnull F source, @Nonnull F dest);
 
+  /**
+   * Copies a <i>fresh</i> flow object into <code>dest</code>. The source is not referenced anywhere
+   * else, which allows {@link FlowSet}s to hand over their storage instead of copying it.
+   */
+  @SuppressWarnings("unchecked")
+  protected void copyFreshToExisting(@Nonnull F source, @Nonnull F dest) {
+    if (source instanceof FlowSet && dest instanceof FlowSet) {
+      ((FlowSet<Object>) source).copyFreshToExisting((FlowSet<Object>) dest);
+    } else {
+      copy(source, dest);
+    }
+  }
+
   /**
    * Carries out the actual flow analysis. Typically called from a concrete FlowAnalysis's
    * constructor.
@@ -98,6 +111,6 @@ public abstract class AbstractFlowAnalysis<F> {
   protected void mergeInto(@Nonnull Stmt succNode, @Nonnull F inout, @Nonnull F in) {
     F tmp = newInitialFlow();
     merge(succNode, inout, in, tmp);
-    copy(tmp, inout);
+    copyFreshToExisting(tmp, inout);
   }
 }
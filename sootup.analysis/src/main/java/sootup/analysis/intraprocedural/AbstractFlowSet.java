@@ -0,0 +1,214 @@
+package sootup.analysis.intraprocedural;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import javax.annotation.Nonnull;
+
+/**
+ * Implements the operations of a {@link FlowSet} in terms of iterating, adding, removing and
+ * looking up single elements. Subclasses override the operations they can implement faster.
+ *
+ * <p>Two flow sets are equal if they contain the same elements, independently of their
+ * implementation, and their hash code is the sum of the hash codes of their elements.
+ *
+ * @param <T> the type of the facts
+ */
+public abstract class AbstractFlowSet<T> implements FlowSet<T> {
+
+  @Nonnull
+  @Override
+  public FlowSet<T> copy() {
+    FlowSet<T> copy = emptySet();
+    copy(copy);
+    return copy;
+  }
+
+  @Override
+  public void copy(@Nonnull FlowSet<T> dest) {
+    if (dest == this) {
+      return;
+    }
+    dest.clear();
+    for (T t : this) {
+      dest.add(t);
+    }
+  }
+
+  @Override
+  public void clear() {
+    for (T t : toList()) {
+      remove(t);
+    }
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  @Override
+  public void add(@Nonnull T obj, @Nonnull FlowSet<T> dest) {
+    copy(dest);
+    dest.add(obj);
+  }
+
+  @Override
+  public void remove(@Nonnull T obj, @Nonnull FlowSet<T> dest) {
+    copy(dest);
+    dest.remove(obj);
+  }
+
+  @Override
+  public boolean isSubSet(@Nonnull FlowSet<T> other) {
+    if (other == this) {
+      return true;
+    }
+    for (T t : other) {
+      if (!contains(t)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean union(@Nonnull FlowSet<T> other) {
+    if (other == this) {
+      return false;
+    }
+    boolean changed = false;
+    for (T t : other) {
+      changed |= add(t);
+    }
+    return changed;
+  }
+
+  @Override
+  public void union(@Nonnull FlowSet<T> other, @Nonnull FlowSet<T> dest) {
+    if (dest == other) {
+      other.union(this);
+    } else {
+      copy(dest);
+      dest.union(other);
+    }
+  }
+
+  @Override
+  public boolean intersection(@Nonnull FlowSet<T> other) {
+    if (other == this) {
+      return false;
+    }
+    boolean changed = false;
+    for (T t : toList()) {
+      if (!other.contains(t)) {
+        changed |= remove(t);
+      }
+    }
+    return changed;
+  }
+
+  @Override
+  public void intersection(@Nonnull FlowSet<T> other, @Nonnull FlowSet<T> dest) {
+    if (dest == other) {
+      other.intersection(this);
+    } else {
+      copy(dest);
+      dest.intersection(other);
+    }
+  }
+
+  @Override
+  public boolean difference(@Nonnull FlowSet<T> other) {
+    if (other == this) {
+      boolean changed = !isEmpty();
+      clear();
+      return changed;
+    }
+    boolean changed = false;
+    for (T t : other) {
+      changed |= remove(t);
+    }
+    return changed;
+  }
+
+  @Override
+  public void difference(@Nonnull FlowSet<T> other, @Nonnull FlowSet<T> dest) {
+    if (dest == other) {
+      // other must not be changed before all its elements are known
+      FlowSet<T> result = copy();
+      result.difference(other);
+      result.copyFreshToExisting(dest);
+    } else {
+      copy(dest);
+      dest.difference(other);
+    }
+  }
+
+  @Nonnull
+  @Override
+  public List<T> toList() {
+    List<T> list = new ArrayList<>(size());
+    for (T t : this) {
+      list.add(t);
+    }
+    return list;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof FlowSet)) {
+      return false;
+    }
+    @SuppressWarnings("unchecked")
+    FlowSet<T> other = (FlowSet<T>) o;
+    return size() == other.size() && isSubSet(other);
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 0;
+    for (T t : this) {
+      hash += t.hashCode();
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    Iterator<T> it = iterator();
+    while (it.hasNext()) {
+      sb.append(it.next());
+      if (it.hasNext()) {
+        sb.append(", ");
+      }
+    }
+    return sb.append('}').toString();
+  }
+}
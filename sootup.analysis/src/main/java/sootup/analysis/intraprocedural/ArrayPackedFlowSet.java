@@ -0,0 +1,296 @@
+package sootup.analysis.intraprocedural;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import javax.annotation.Nonnull;
+
+/**
+ * A flow set over a {@link FlowUniverse}, which packs the indices of its elements into a fixed
+ * array of words. In contrast to {@link BitSetFlowSet}, the array always covers the whole universe,
+ * so operations with other sets of the same class and universe are single loops over the words,
+ * which also find out whether the set has changed.
+ *
+ * @param <T> the type of the facts
+ */
+public class ArrayPackedFlowSet<T> extends AbstractFlowSet<T> implements BoundedFlowSet<T> {
+
+  @Nonnull private final FlowUniverse<T> universe;
+  @Nonnull private long[] words;
+
+  public ArrayPackedFlowSet(@Nonnull FlowUniverse<T> universe) {
+    this(universe, new long[(universe.size() + 63) >>> 6]);
+  }
+
+  private ArrayPackedFlowSet(@Nonnull FlowUniverse<T> universe, @Nonnull long[] words) {
+    this.universe = universe;
+    this.words = words;
+  }
+
+  @Nonnull
+  @Override
+  public FlowUniverse<T> getUniverse() {
+    return universe;
+  }
+
+  /** Returns the words of the set, or null if the other set has not the same class and universe. */
+  private long[] wordsOf(@Nonnull FlowSet<T> other) {
+    if (other instanceof ArrayPackedFlowSet
+        && ((ArrayPackedFlowSet<T>) other).universe == universe) {
+      return ((ArrayPackedFlowSet<T>) other).words;
+    }
+    return null;
+  }
+
+  @Nonnull
+  @Override
+  public ArrayPackedFlowSet<T> copy() {
+    return new ArrayPackedFlowSet<>(universe, words.clone());
+  }
+
+  @Nonnull
+  @Override
+  public ArrayPackedFlowSet<T> emptySet() {
+    return new ArrayPackedFlowSet<>(universe);
+  }
+
+  @Nonnull
+  @Override
+  public ArrayPackedFlowSet<T> topSet() {
+    ArrayPackedFlowSet<T> top = emptySet();
+    top.complement();
+    return top;
+  }
+
+  @Override
+  public void copy(@Nonnull FlowSet<T> dest) {
+    long[] destWords = wordsOf(dest);
+    if (destWords == null) {
+      super.copy(dest);
+    } else if (destWords != words) {
+      System.arraycopy(words, 0, destWords, 0, words.length);
+    }
+  }
+
+  @Override
+  public void copyFreshToExisting(@Nonnull FlowSet<T> dest) {
+    if (wordsOf(dest) == null) {
+      super.copy(dest);
+    } else {
+      ((ArrayPackedFlowSet<T>) dest).words = words;
+    }
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(words, 0L);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    for (long word : words) {
+      if (word != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int size() {
+    int size = 0;
+    for (long word : words) {
+      size += Long.bitCount(word);
+    }
+    return size;
+  }
+
+  @Override
+  public boolean contains(@Nonnull T obj) {
+    int index = universe.indexOf(obj);
+    return index >= 0 && (words[index >>> 6] & (1L << index)) != 0;
+  }
+
+  @Override
+  public boolean add(@Nonnull T obj) {
+    int index = universe.indexOf(obj);
+    if (index < 0) {
+      throw new IllegalArgumentException(obj + " is not part of the universe.");
+    }
+    long word = words[index >>> 6];
+    words[index >>> 6] = word | (1L << index);
+    return words[index >>> 6] != word;
+  }
+
+  @Override
+  public boolean remove(@Nonnull T obj) {
+    int index = universe.indexOf(obj);
+    if (index < 0) {
+      return false;
+    }
+    long word = words[index >>> 6];
+    words[index >>> 6] = word & ~(1L << index);
+    return words[index >>> 6] != word;
+  }
+
+  @Override
+  public boolean isSubSet(@Nonnull FlowSet<T> other) {
+    long[] otherWords = wordsOf(other);
+    if (otherWords == null) {
+      return super.isSubSet(other);
+    }
+    for (int i = 0; i < words.length; i++) {
+      if ((otherWords[i] & ~words[i]) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean union(@Nonnull FlowSet<T> other) {
+    long[] otherWords = wordsOf(other);
+    if (otherWords == null) {
+      return super.union(other);
+    }
+    long changed = 0;
+    for (int i = 0; i < words.length; i++) {
+      long word = words[i] | otherWords[i];
+      changed |= word ^ words[i];
+      words[i] = word;
+    }
+    return changed != 0;
+  }
+
+  @Override
+  public boolean intersection(@Nonnull FlowSet<T> other) {
+    long[] otherWords = wordsOf(other);
+    if (otherWords == null) {
+      return super.intersection(other);
+    }
+    long changed = 0;
+    for (int i = 0; i < words.length; i++) {
+      long word = words[i] & otherWords[i];
+      changed |= word ^ words[i];
+      words[i] = word;
+    }
+    return changed != 0;
+  }
+
+  @Override
+  public boolean difference(@Nonnull FlowSet<T> other) {
+    long[] otherWords = wordsOf(other);
+    if (otherWords == null) {
+      return super.difference(other);
+    }
+    long changed = 0;
+    for (int i = 0; i < words.length; i++) {
+      long word = words[i] & ~otherWords[i];
+      changed |= word ^ words[i];
+      words[i] = word;
+    }
+    return changed != 0;
+  }
+
+  @Override
+  public void complement() {
+    for (int i = 0; i < words.length; i++) {
+      words[i] = ~words[i];
+    }
+    // clear the bits behind the end of the universe
+    int rest = universe.size() & 63;
+    if (rest != 0) {
+      words[words.length - 1] &= (1L << rest) - 1;
+    }
+  }
+
+  @Override
+  public void complement(@Nonnull FlowSet<T> dest) {
+    if (wordsOf(dest) != null) {
+      copy(dest);
+      ((ArrayPackedFlowSet<T>) dest).complement();
+    } else {
+      ArrayPackedFlowSet<T> complement = copy();
+      complement.complement();
+      complement.copy(dest);
+    }
+  }
+
+  /** Returns the index of the next element on or after the given index, or -1. */
+  private int nextSetBit(int fromIndex) {
+    int wordIndex = fromIndex >>> 6;
+    if (wordIndex >= words.length) {
+      return -1;
+    }
+    long word = words[wordIndex] & (-1L << fromIndex);
+    while (word == 0) {
+      if (++wordIndex == words.length) {
+        return -1;
+      }
+      word = words[wordIndex];
+    }
+    return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+  }
+
+  @Nonnull
+  @Override
+  public Iterator<T> iterator() {
+    return new Iterator<T>() {
+      private int next = nextSetBit(0);
+
+      @Override
+      public boolean hasNext() {
+        return next >= 0;
+      }
+
+      @Override
+      public T next() {
+        if (next < 0) {
+          throw new NoSuchElementException();
+        }
+        T t = universe.get(next);
+        next = nextSetBit(next + 1);
+        return t;
+      }
+    };
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof FlowSet) {
+      @SuppressWarnings("unchecked")
+      long[] otherWords = wordsOf((FlowSet<T>) o);
+      if (otherWords != null) {
+        return Arrays.equals(words, otherWords);
+      }
+    }
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    return super.hashCode();
+  }
+}
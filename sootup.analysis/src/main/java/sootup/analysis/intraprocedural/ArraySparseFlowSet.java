@@ -0,0 +1,190 @@
+package sootup.analysis.intraprocedural;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import javax.annotation.Nonnull;
+
+/**
+ * A flow set that keeps its elements in an array, in insertion order. It needs no universe and is
+ * small and fast for sets of a few elements, but its lookups take linear time.
+ *
+ * @param <T> the type of the facts
+ */
+public class ArraySparseFlowSet<T> extends AbstractFlowSet<T> {
+
+  private static final Object[] EMPTY = new Object[0];
+
+  @Nonnull private Object[] elements;
+  private int size;
+
+  public ArraySparseFlowSet() {
+    this.elements = EMPTY;
+  }
+
+  private ArraySparseFlowSet(@Nonnull ArraySparseFlowSet<T> other) {
+    this.elements = other.size == 0 ? EMPTY : Arrays.copyOf(other.elements, other.size);
+    this.size = other.size;
+  }
+
+  @Nonnull
+  @Override
+  public ArraySparseFlowSet<T> copy() {
+    return new ArraySparseFlowSet<>(this);
+  }
+
+  @Nonnull
+  @Override
+  public ArraySparseFlowSet<T> emptySet() {
+    return new ArraySparseFlowSet<>();
+  }
+
+  @Override
+  public void copy(@Nonnull FlowSet<T> dest) {
+    if (dest == this) {
+      return;
+    }
+    if (dest instanceof ArraySparseFlowSet) {
+      ArraySparseFlowSet<T> other = (ArraySparseFlowSet<T>) dest;
+      if (other.elements.length < size) {
+        other.elements = Arrays.copyOf(elements, size);
+      } else {
+        System.arraycopy(elements, 0, other.elements, 0, size);
+        if (other.size > size) {
+          Arrays.fill(other.elements, size, other.size, null);
+        }
+      }
+      other.size = size;
+    } else {
+      super.copy(dest);
+    }
+  }
+
+  @Override
+  public void copyFreshToExisting(@Nonnull FlowSet<T> dest) {
+    if (dest instanceof ArraySparseFlowSet && dest != this) {
+      ArraySparseFlowSet<T> other = (ArraySparseFlowSet<T>) dest;
+      other.elements = elements;
+      other.size = size;
+    } else {
+      copy(dest);
+    }
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(elements, 0, size, null);
+    size = 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  private int indexOf(@Nonnull Object obj) {
+    for (int i = 0; i < size; i++) {
+      if (elements[i].equals(obj)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public boolean contains(@Nonnull T obj) {
+    return indexOf(obj) >= 0;
+  }
+
+  @Override
+  public boolean add(@Nonnull T obj) {
+    if (indexOf(obj) >= 0) {
+      return false;
+    }
+    if (size == elements.length) {
+      elements = Arrays.copyOf(elements, Math.max(4, size * 2));
+    }
+    elements[size++] = obj;
+    return true;
+  }
+
+  @Override
+  public boolean remove(@Nonnull T obj) {
+    int index = indexOf(obj);
+    if (index < 0) {
+      return false;
+    }
+    // the order of the elements does not matter, so the last element takes the free slot
+    elements[index] = elements[--size];
+    elements[size] = null;
+    return true;
+  }
+
+  @Override
+  public boolean intersection(@Nonnull FlowSet<T> other) {
+    if (other == this) {
+      return false;
+    }
+    int oldSize = size;
+    int newSize = 0;
+    for (int i = 0; i < oldSize; i++) {
+      @SuppressWarnings("unchecked")
+      T t = (T) elements[i];
+      if (other.contains(t)) {
+        elements[newSize++] = t;
+      }
+    }
+    Arrays.fill(elements, newSize, oldSize, null);
+    size = newSize;
+    return newSize != oldSize;
+  }
+
+  @Nonnull
+  @Override
+  public Iterator<T> iterator() {
+    return new Iterator<T>() {
+      private final int expectedSize = size;
+      private int next = 0;
+
+      @Override
+      public boolean hasNext() {
+        return next < size;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public T next() {
+        if (expectedSize != size) {
+          throw new ConcurrentModificationException();
+        }
+        if (next >= size) {
+          throw new NoSuchElementException();
+        }
+        return (T) elements[next++];
+      }
+    };
+  }
+}
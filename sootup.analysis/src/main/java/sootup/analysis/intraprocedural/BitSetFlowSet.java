@@ -0,0 +1,255 @@
+package sootup.analysis.intraprocedural;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import javax.annotation.Nonnull;
+
+/**
+ * A flow set over a {@link FlowUniverse}, which is backed by a {@link BitSet} of the indices of its
+ * elements. Operations with other sets of the same class and universe work on the bit sets.
+ *
+ * @param <T> the type of the facts
+ */
+public class BitSetFlowSet<T> extends AbstractFlowSet<T> implements BoundedFlowSet<T> {
+
+  @Nonnull private final FlowUniverse<T> universe;
+  @Nonnull private BitSet bits;
+
+  public BitSetFlowSet(@Nonnull FlowUniverse<T> universe) {
+    this(universe, new BitSet(universe.size()));
+  }
+
+  private BitSetFlowSet(@Nonnull FlowUniverse<T> universe, @Nonnull BitSet bits) {
+    this.universe = universe;
+    this.bits = bits;
+  }
+
+  @Nonnull
+  @Override
+  public FlowUniverse<T> getUniverse() {
+    return universe;
+  }
+
+  /** Returns the bits of the set, or null if the other set has not the same class and universe. */
+  private BitSet bitsOf(@Nonnull FlowSet<T> other) {
+    if (other instanceof BitSetFlowSet && ((BitSetFlowSet<T>) other).universe == universe) {
+      return ((BitSetFlowSet<T>) other).bits;
+    }
+    return null;
+  }
+
+  @Nonnull
+  @Override
+  public BitSetFlowSet<T> copy() {
+    return new BitSetFlowSet<>(universe, (BitSet) bits.clone());
+  }
+
+  @Nonnull
+  @Override
+  public BitSetFlowSet<T> emptySet() {
+    return new BitSetFlowSet<>(universe);
+  }
+
+  @Nonnull
+  @Override
+  public BitSetFlowSet<T> topSet() {
+    BitSetFlowSet<T> top = emptySet();
+    top.bits.set(0, universe.size());
+    return top;
+  }
+
+  @Override
+  public void copy(@Nonnull FlowSet<T> dest) {
+    BitSet destBits = bitsOf(dest);
+    if (destBits == null) {
+      super.copy(dest);
+    } else if (destBits != bits) {
+      destBits.clear();
+      destBits.or(bits);
+    }
+  }
+
+  @Override
+  public void copyFreshToExisting(@Nonnull FlowSet<T> dest) {
+    if (bitsOf(dest) == null) {
+      super.copy(dest);
+    } else {
+      ((BitSetFlowSet<T>) dest).bits = bits;
+    }
+  }
+
+  @Override
+  public void clear() {
+    bits.clear();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return bits.isEmpty();
+  }
+
+  @Override
+  public int size() {
+    return bits.cardinality();
+  }
+
+  @Override
+  public boolean contains(@Nonnull T obj) {
+    int index = universe.indexOf(obj);
+    return index >= 0 && bits.get(index);
+  }
+
+  @Override
+  public boolean add(@Nonnull T obj) {
+    int index = universe.indexOf(obj);
+    if (index < 0) {
+      throw new IllegalArgumentException(obj + " is not part of the universe.");
+    }
+    if (bits.get(index)) {
+      return false;
+    }
+    bits.set(index);
+    return true;
+  }
+
+  @Override
+  public boolean remove(@Nonnull T obj) {
+    int index = universe.indexOf(obj);
+    if (index < 0 || !bits.get(index)) {
+      return false;
+    }
+    bits.clear(index);
+    return true;
+  }
+
+  @Override
+  public boolean isSubSet(@Nonnull FlowSet<T> other) {
+    BitSet otherBits = bitsOf(other);
+    if (otherBits == null) {
+      return super.isSubSet(other);
+    }
+    for (int i = otherBits.nextSetBit(0); i >= 0; i = otherBits.nextSetBit(i + 1)) {
+      if (!bits.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean union(@Nonnull FlowSet<T> other) {
+    BitSet otherBits = bitsOf(other);
+    if (otherBits == null) {
+      return super.union(other);
+    }
+    if (isSubSet(other)) {
+      return false;
+    }
+    bits.or(otherBits);
+    return true;
+  }
+
+  @Override
+  public boolean intersection(@Nonnull FlowSet<T> other) {
+    BitSet otherBits = bitsOf(other);
+    if (otherBits == null) {
+      return super.intersection(other);
+    }
+    int size = bits.cardinality();
+    bits.and(otherBits);
+    return size != bits.cardinality();
+  }
+
+  @Override
+  public boolean difference(@Nonnull FlowSet<T> other) {
+    BitSet otherBits = bitsOf(other);
+    if (otherBits == null) {
+      return super.difference(other);
+    }
+    if (!bits.intersects(otherBits)) {
+      return false;
+    }
+    bits.andNot(otherBits);
+    return true;
+  }
+
+  @Override
+  public void complement() {
+    bits.flip(0, universe.size());
+  }
+
+  @Override
+  public void complement(@Nonnull FlowSet<T> dest) {
+    if (bitsOf(dest) != null) {
+      copy(dest);
+      ((BitSetFlowSet<T>) dest).complement();
+    } else {
+      BitSetFlowSet<T> complement = copy();
+      complement.complement();
+      complement.copy(dest);
+    }
+  }
+
+  @Nonnull
+  @Override
+  public Iterator<T> iterator() {
+    return new Iterator<T>() {
+      private int next = bits.nextSetBit(0);
+
+      @Override
+      public boolean hasNext() {
+        return next >= 0;
+      }
+
+      @Override
+      public T next() {
+        if (next < 0) {
+          throw new NoSuchElementException();
+        }
+        T t = universe.get(next);
+        next = bits.nextSetBit(next + 1);
+        return t;
+      }
+    };
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof FlowSet) {
+      @SuppressWarnings("unchecked")
+      BitSet otherBits = bitsOf((FlowSet<T>) o);
+      if (otherBits != null) {
+        return bits.equals(otherBits);
+      }
+    }
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    return super.hashCode();
+  }
+}
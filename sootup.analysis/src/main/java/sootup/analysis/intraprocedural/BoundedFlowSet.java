@@ -0,0 +1,50 @@
+package sootup.analysis.intraprocedural;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import javax.annotation.Nonnull;
+
+/**
+ * A flow set whose elements are taken from a {@link FlowUniverse}, which allows to build the
+ * complement of the set, e.g. for the initial flow of must analyses.
+ *
+ * @param <T> the type of the facts
+ */
+public interface BoundedFlowSet<T> extends FlowSet<T> {
+
+  /** Returns the universe the elements of this set are taken from. */
+  @Nonnull
+  FlowUniverse<T> getUniverse();
+
+  /**
+   * Replaces the elements of this set by the elements of the universe that are not contained in it.
+   */
+  void complement();
+
+  /** Puts the complement of this set into <code>dest</code>. */
+  void complement(@Nonnull FlowSet<T> dest);
+
+  /** Returns a new flow set of the same implementation, which contains the whole universe. */
+  @Nonnull
+  BoundedFlowSet<T> topSet();
+}
@@ -33,6 +33,9 @@ import sootup.core.jimple.common.stmt.Stmt;
  * An abstract class providing a framework for carrying out dataflow analysis. Subclassing either
  * BackwardFlowAnalysis or ForwardFlowAnalysis and providing implementations for the abstract
  * methods will allow Soot to compute the corresponding flow analysis.
+ *
+ * <p>Flow sets of the {@link FlowSet} library, e.g. {@link ArrayPackedFlowSet}s over a {@link
+ * FlowUniverse} of the facts, are merged and copied in place by the analysis.
  */
 public abstract class FlowAnalysis<A> extends AbstractFlowAnalysis<A> {
 
@@ -499,8 +502,8 @@ public abstract class FlowAnalysis<A> extends AbstractFlowAnalysis<A> {
       if (out.equals(d.outFlow)) {
         return false;
       }
-      // copy back the result, as it has changed (former: copyFreshToExisting)
-      copy(out, d.outFlow);
+      // copy back the result, as it has changed
+      copyFreshToExisting(out, d.outFlow);
       return true;
     }
 
@@ -508,22 +511,4 @@ public abstract class FlowAnalysis<A> extends AbstractFlowAnalysis<A> {
     flowThrough(d.inFlow, d.data, d.outFlow);
     return true;
   }
-
-  /*
-   * Copies a *fresh* copy of in to dest. The input is not referenced somewhere else. This allows
-   * subclasses for a smarter and faster copying.
-   *
-   * @param in
-   * @param dest
-   *
-  protected void copyFreshToExisting(A in, A dest) {
-      if (in instanceof FlowSet && dest instanceof FlowSet) {
-          FlowSet<?> fin = (FlowSet<?>) in;
-          FlowSet fdest = (FlowSet) dest;
-          fin.copyFreshToExisting(fdest);
-      } else {
-          copy(in, dest);
-      }
-  }
-  */
 }
@@ -0,0 +1,125 @@
+package sootup.analysis.intraprocedural;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.List;
+import javax.annotation.Nonnull;
+
+/**
+ * A set of facts of a {@link FlowAnalysis}. Besides the usual set operations, a flow set can write
+ * the result of an operation into another, existing flow set, so that an analysis does not need to
+ * allocate new sets during the fixed point iteration.
+ *
+ * <p>The operations that take a destination set expect it to be of the same implementation as this
+ * set. The destination may be this set or the other operand.
+ *
+ * @param <T> the type of the facts
+ */
+public interface FlowSet<T> extends Iterable<T> {
+
+  /** Returns a new flow set with the same elements as this set. */
+  @Nonnull
+  FlowSet<T> copy();
+
+  /** Returns a new, empty flow set of the same implementation, e.g. with the same universe. */
+  @Nonnull
+  FlowSet<T> emptySet();
+
+  /** Replaces the elements of <code>dest</code> with the elements of this set. */
+  void copy(@Nonnull FlowSet<T> dest);
+
+  /**
+   * Replaces the elements of <code>dest</code> with the elements of this set, which is not used
+   * anymore afterwards. This allows implementations to hand over their internal storage instead of
+   * copying it.
+   */
+  default void copyFreshToExisting(@Nonnull FlowSet<T> dest) {
+    copy(dest);
+  }
+
+  /** Removes all elements. */
+  void clear();
+
+  boolean isEmpty();
+
+  int size();
+
+  boolean contains(@Nonnull T obj);
+
+  /**
+   * Adds the element to this set.
+   *
+   * @return true if the set has changed
+   */
+  boolean add(@Nonnull T obj);
+
+  /** Puts this set with the element added into <code>dest</code>. */
+  void add(@Nonnull T obj, @Nonnull FlowSet<T> dest);
+
+  /**
+   * Removes the element from this set.
+   *
+   * @return true if the set has changed
+   */
+  boolean remove(@Nonnull T obj);
+
+  /** Puts this set with the element removed into <code>dest</code>. */
+  void remove(@Nonnull T obj, @Nonnull FlowSet<T> dest);
+
+  /** Checks whether all elements of <code>other</code> are contained in this set. */
+  boolean isSubSet(@Nonnull FlowSet<T> other);
+
+  /**
+   * Adds the elements of <code>other</code> to this set.
+   *
+   * @return true if the set has changed
+   */
+  boolean union(@Nonnull FlowSet<T> other);
+
+  /** Puts the union of this set and <code>other</code> into <code>dest</code>. */
+  void union(@Nonnull FlowSet<T> other, @Nonnull FlowSet<T> dest);
+
+  /**
+   * Removes the elements from this set that are not contained in <code>other</code>.
+   *
+   * @return true if the set has changed
+   */
+  boolean intersection(@Nonnull FlowSet<T> other);
+
+  /** Puts the intersection of this set and <code>other</code> into <code>dest</code>. */
+  void intersection(@Nonnull FlowSet<T> other, @Nonnull FlowSet<T> dest);
+
+  /**
+   * Removes the elements of <code>other</code> from this set.
+   *
+   * @return true if the set has changed
+   */
+  boolean difference(@Nonnull FlowSet<T> other);
+
+  /** Puts this set without the elements of <code>other</code> into <code>dest</code>. */
+  void difference(@Nonnull FlowSet<T> other, @Nonnull FlowSet<T> dest);
+
+  /** Returns the elements in a new list. */
+  @Nonnull
+  List<T> toList();
+}
@@ -0,0 +1,89 @@
+package sootup.analysis.intraprocedural;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+
+/**
+ * A fixed, indexed set of facts. Flow sets over a universe represent their elements by the indices
+ * of the elements in the universe, e.g. as bits of a bit vector. Flow sets of the same universe can
+ * combine their representations directly, so all flow sets of an analysis should share one
+ * universe.
+ *
+ * @param <T> the type of the facts
+ */
+public final class FlowUniverse<T> implements Iterable<T> {
+
+  @Nonnull private final List<T> elements;
+  @Nonnull private final Map<T, Integer> indices;
+
+  /** Creates a universe of the given elements, which are indexed in iteration order. */
+  public FlowUniverse(@Nonnull Iterable<? extends T> elements) {
+    List<T> list = new ArrayList<>();
+    Map<T, Integer> map = new HashMap<>();
+    for (T element : elements) {
+      if (map.putIfAbsent(element, list.size()) == null) {
+        list.add(element);
+      }
+    }
+    this.elements = Collections.unmodifiableList(list);
+    this.indices = map;
+  }
+
+  public int size() {
+    return elements.size();
+  }
+
+  @Nonnull
+  public T get(int index) {
+    return elements.get(index);
+  }
+
+  /** Returns the index of the element, or -1 if it is not part of the universe. */
+  public int indexOf(@Nonnull Object element) {
+    Integer index = indices.get(element);
+    return index == null ? -1 : index;
+  }
+
+  public boolean contains(@Nonnull Object element) {
+    return indices.containsKey(element);
+  }
+
+  /** Returns the elements in index order. */
+  @Nonnull
+  public List<T> getElements() {
+    return elements;
+  }
+
+  @Nonnull
+  @Override
+  public Iterator<T> iterator() {
+    return elements.iterator();
+  }
+
+  @Override
+  public String toString() {
+    return elements.toString();
+  }
+}
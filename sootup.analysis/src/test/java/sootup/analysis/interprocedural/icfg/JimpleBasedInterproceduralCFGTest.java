@@ -0,0 +1,93 @@
+package sootup.analysis.interprocedural.icfg;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import categories.Java8Test;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.inputlocation.DefaultRTJarAnalysisInputLocation;
+import sootup.java.bytecode.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.views.JavaView;
+
+@Category(Java8Test.class)
+public class JimpleBasedInterproceduralCFGTest {
+
+  private final JavaIdentifierFactory identifierFactory = JavaIdentifierFactory.getInstance();
+
+  private JavaView createView() {
+    List<AnalysisInputLocation<? extends JavaSootClass>> inputLocations = new ArrayList<>();
+    inputLocations.add(new DefaultRTJarAnalysisInputLocation());
+    inputLocations.add(new JavaClassPathAnalysisInputLocation("src/test/resources/icfg/binary"));
+    return new JavaView(inputLocations);
+  }
+
+  private MethodSignature methodSignature(String className, String name, String returnType) {
+    return identifierFactory.getMethodSignature(
+        className, name, returnType, Collections.emptyList());
+  }
+
+  @Test
+  public void staticInitializerCallers() {
+    JavaView view = createView();
+    MethodSignature entryPoint =
+        methodSignature("ICFGStaticInitializerExample", "entryPoint", "void");
+    JimpleBasedInterproceduralCFG icfg =
+        new JimpleBasedInterproceduralCFG(view, entryPoint, false, false);
+
+    MethodSignature next = methodSignature("ICFGCounter", "next", "int");
+    SootMethod staticInitializer =
+        view.getMethod(identifierFactory.getClassType("ICFGCounter").getStaticInitializer()).get();
+    Collection<Stmt> callers = icfg.getCallersOf(staticInitializer);
+
+    // the static initializer is triggered by the call of the static method in the entry point
+    // and by the accesses of the static field in the called method
+    Stmt callOfNext =
+        view.getMethod(entryPoint).get().getBody().getStmts().stream()
+            .filter(stmt -> stmt.containsInvokeExpr())
+            .filter(stmt -> stmt.getInvokeExpr().getMethodSignature().equals(next))
+            .findFirst()
+            .get();
+    assertTrue(callers.contains(callOfNext));
+    List<Stmt> fieldAccesses =
+        view.getMethod(next).get().getBody().getStmts().stream()
+            .filter(Stmt::containsFieldRef)
+            .collect(Collectors.toList());
+    assertEquals(2, fieldAccesses.size());
+    assertTrue(callers.containsAll(fieldAccesses));
+  }
+
+  @Test
+  public void calleesOfUnprocessedCallSite() {
+    JavaView view = createView();
+    JimpleBasedInterproceduralCFG icfg =
+        new JimpleBasedInterproceduralCFG(
+            view,
+            methodSignature("ICFGStaticInitializerExample", "entryPoint", "void"),
+            false,
+            false);
+
+    // the method is not reachable from the entry point, so its call site is not in the call graph
+    MethodSignature next = methodSignature("ICFGCounter", "next", "int");
+    Stmt callOfNext =
+        view.getMethod(methodSignature("ICFGStaticInitializerExample", "unreachable", "void")).get()
+            .getBody().getStmts().stream()
+            .filter(Stmt::containsInvokeExpr)
+            .findFirst()
+            .get();
+    Collection<SootMethod> callees = icfg.getCalleesOfCallAt(callOfNext);
+    assertEquals(1, callees.size());
+    assertEquals(next, callees.iterator().next().getSignature());
+  }
+}
@@ -0,0 +1,152 @@
+package sootup.analysis.interprocedural.ifds;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import heros.InterproceduralCFG;
+import java.util.*;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sootup.analysis.interprocedural.icfg.JimpleBasedInterproceduralCFG;
+import sootup.callgraph.CallGraphAlgorithm;
+import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
+import sootup.callgraph.VariableTypeAnalysisAlgorithm;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.inputlocation.DefaultRTJarAnalysisInputLocation;
+import sootup.java.bytecode.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Runs the taint analysis on ICFGs built with CHA and with VTA call graphs. Without virtual calls
+ * the results have to be the same. With a virtual call, VTA removes the spurious call edge to the
+ * source that CHA adds, and with it the spurious taint.
+ */
+@Category(Java8Test.class)
+public class IFDSCallGraphComparisonTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(IFDSCallGraphComparisonTest.class);
+
+  private static final String[] TEST_CLASSES = {
+    "SimpleTaint",
+    "SimpleTaintSanitized",
+    "FunctionTaint",
+    "FunctionTaintPropagated",
+    "FunctionTaintSanitized"
+  };
+
+  private JavaView createView() {
+    List<AnalysisInputLocation<? extends JavaSootClass>> inputLocations = new ArrayList<>();
+    inputLocations.add(new DefaultRTJarAnalysisInputLocation());
+    inputLocations.add(new JavaClassPathAnalysisInputLocation("src/test/resources/taint/binary"));
+    return new JavaView(inputLocations);
+  }
+
+  private SootMethod entryMethod(JavaView view, String className) {
+    SootClass<?> sc =
+        view.getClass(JavaIdentifierFactory.getInstance().getClassType(className)).get();
+    return sc.getMethods().stream().filter(e -> e.getName().equals("entryPoint")).findFirst().get();
+  }
+
+  private JimpleBasedInterproceduralCFG createICFG(
+      JavaView view, SootMethod entryMethod, CallGraphAlgorithm algorithm, String name) {
+    JimpleBasedInterproceduralCFG icfg =
+        new JimpleBasedInterproceduralCFG(
+            view, entryMethod.getSignature(), false, false, algorithm);
+    logger.debug(
+        "{} with {}: {} methods, {} call edges",
+        entryMethod.getDeclaringClassType().getClassName(),
+        name,
+        icfg.getCallGraph().getMethodSignatures().size(),
+        icfg.getCallGraph().callCount());
+    return icfg;
+  }
+
+  private Set<String> solve(JimpleBasedInterproceduralCFG icfg, SootMethod entryMethod) {
+    IFDSTaintAnalysisProblem problem = new IFDSTaintAnalysisProblem(icfg, entryMethod);
+    JimpleIFDSSolver<?, InterproceduralCFG<Stmt, SootMethod>> solver =
+        new JimpleIFDSSolver(problem);
+    solver.solve(entryMethod.getDeclaringClassType().getClassName());
+
+    List<Stmt> stmts = entryMethod.getBody().getStmts();
+    return solver.ifdsResultsAt(stmts.get(stmts.size() - 1)).stream()
+        .map(Object::toString)
+        .collect(Collectors.toSet());
+  }
+
+  @Test
+  public void testSameResultsWithVariableTypeAnalysis() {
+    for (String className : TEST_CLASSES) {
+      JavaView view = createView();
+      SootMethod entryMethod = entryMethod(view, className);
+
+      Set<String> chaResults =
+          solve(
+              createICFG(view, entryMethod, new ClassHierarchyAnalysisAlgorithm(view), "CHA"),
+              entryMethod);
+      Set<String> vtaResults =
+          solve(
+              createICFG(view, entryMethod, new VariableTypeAnalysisAlgorithm(view), "VTA"),
+              entryMethod);
+
+      assertEquals(className, chaResults, vtaResults);
+    }
+  }
+
+  /**
+   * The receiver of the virtual call in VirtualCallTaint only points to a PublicSource, but CHA
+   * also calls the instantiated SecretSource, whose return value is tainted.
+   */
+  @Test
+  public void testVariableTypeAnalysisRemovesSpuriousTaint() {
+    JavaView view = createView();
+    SootMethod entryMethod = entryMethod(view, "VirtualCallTaint");
+
+    JimpleBasedInterproceduralCFG chaICFG =
+        createICFG(view, entryMethod, new ClassHierarchyAnalysisAlgorithm(view), "CHA");
+    JimpleBasedInterproceduralCFG vtaICFG =
+        createICFG(view, entryMethod, new VariableTypeAnalysisAlgorithm(view), "VTA");
+    JavaIdentifierFactory identifierFactory = JavaIdentifierFactory.getInstance();
+    MethodSignature secretSource =
+        identifierFactory.getMethodSignature(
+            "SecretSource", "get", "java.lang.String", Collections.emptyList());
+    assertTrue(chaICFG.getCallGraph().containsCall(entryMethod.getSignature(), secretSource));
+    assertFalse(vtaICFG.getCallGraph().containsCall(entryMethod.getSignature(), secretSource));
+    assertTrue(vtaICFG.getCallGraph().callCount() < chaICFG.getCallGraph().callCount());
+
+    Set<String> chaResults = solve(chaICFG, entryMethod);
+    Set<String> vtaResults = solve(vtaICFG, entryMethod);
+    assertTrue(chaResults.containsAll(vtaResults));
+    assertEquals(vtaResults.size() + 1, chaResults.size());
+  }
+}
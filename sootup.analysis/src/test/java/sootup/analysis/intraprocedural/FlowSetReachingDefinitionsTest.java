@@ -0,0 +1,230 @@
+package sootup.analysis.intraprocedural;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import java.util.*;
+import java.util.function.Function;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.basic.LValue;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.java.bytecode.inputlocation.DefaultRTJarAnalysisInputLocation;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Runs a reaching definitions analysis with the different flow sets and with plain hash sets on the
+ * bodies of a package of the runtime library, checks that they compute the same facts and logs how
+ * long each implementation takes.
+ */
+@Category(Java8Test.class)
+public class FlowSetReachingDefinitionsTest {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(FlowSetReachingDefinitionsTest.class);
+
+  /** Reaching definitions based on flow sets, where the facts are the defining statements. */
+  private static class FlowSetReachingDefinitions extends ForwardFlowAnalysis<FlowSet<Stmt>> {
+
+    private final FlowSet<Stmt> empty;
+    private final Map<Local, FlowSet<Stmt>> definitions = new HashMap<>();
+
+    FlowSetReachingDefinitions(
+        StmtGraph<?> graph, Function<FlowUniverse<Stmt>, FlowSet<Stmt>> factory) {
+      super(graph);
+      List<Stmt> definingStmts = new ArrayList<>();
+      for (Stmt stmt : graph.getNodes()) {
+        if (!stmt.getDefs().isEmpty()) {
+          definingStmts.add(stmt);
+        }
+      }
+      empty = factory.apply(new FlowUniverse<>(definingStmts));
+      for (Stmt stmt : definingStmts) {
+        for (LValue def : stmt.getDefs()) {
+          if (def instanceof Local) {
+            definitions.computeIfAbsent((Local) def, l -> empty.emptySet()).add(stmt);
+          }
+        }
+      }
+      execute();
+    }
+
+    @Override
+    protected void flowThrough(FlowSet<Stmt> in, Stmt d, FlowSet<Stmt> out) {
+      in.copy(out);
+      for (LValue def : d.getDefs()) {
+        if (def instanceof Local) {
+          out.difference(definitions.get(def));
+        }
+      }
+      if (!d.getDefs().isEmpty()) {
+        out.add(d);
+      }
+    }
+
+    @Override
+    protected FlowSet<Stmt> newInitialFlow() {
+      return empty.emptySet();
+    }
+
+    @Override
+    protected void merge(FlowSet<Stmt> in1, FlowSet<Stmt> in2, FlowSet<Stmt> out) {
+      in1.union(in2, out);
+    }
+
+    @Override
+    protected void copy(FlowSet<Stmt> source, FlowSet<Stmt> dest) {
+      source.copy(dest);
+    }
+  }
+
+  /** The same analysis with hash sets, as clients without a flow set library would write it. */
+  private static class HashSetReachingDefinitions extends ForwardFlowAnalysis<Set<Stmt>> {
+
+    private final Map<Local, Set<Stmt>> definitions = new HashMap<>();
+
+    HashSetReachingDefinitions(StmtGraph<?> graph) {
+      super(graph);
+      for (Stmt stmt : graph.getNodes()) {
+        for (LValue def : stmt.getDefs()) {
+          if (def instanceof Local) {
+            definitions.computeIfAbsent((Local) def, l -> new HashSet<>()).add(stmt);
+          }
+        }
+      }
+      execute();
+    }
+
+    @Override
+    protected void flowThrough(Set<Stmt> in, Stmt d, Set<Stmt> out) {
+      out.clear();
+      out.addAll(in);
+      for (LValue def : d.getDefs()) {
+        if (def instanceof Local) {
+          out.removeAll(definitions.get(def));
+        }
+      }
+      if (!d.getDefs().isEmpty()) {
+        out.add(d);
+      }
+    }
+
+    @Override
+    protected Set<Stmt> newInitialFlow() {
+      return new HashSet<>();
+    }
+
+    @Override
+    protected void merge(Set<Stmt> in1, Set<Stmt> in2, Set<Stmt> out) {
+      out.clear();
+      out.addAll(in1);
+      out.addAll(in2);
+    }
+
+    @Override
+    protected void copy(Set<Stmt> source, Set<Stmt> dest) {
+      dest.clear();
+      dest.addAll(source);
+    }
+  }
+
+  private static List<Body> loadBodies(String packageName) {
+    JavaView view =
+        new JavaView(
+            new DefaultRTJarAnalysisInputLocation(SourceType.Library, Collections.emptyList()));
+    List<Body> bodies = new ArrayList<>();
+    for (JavaSootClass clazz : view.getClasses()) {
+      if (!clazz.getType().getPackageName().getName().equals(packageName)) {
+        continue;
+      }
+      for (SootMethod method : clazz.getMethods()) {
+        if (!method.hasBody()) {
+          continue;
+        }
+        bodies.add(method.getBody());
+      }
+    }
+    return bodies;
+  }
+
+  @Test
+  public void testRuntimeJarBodies() {
+    // the frontend converts all bodies of this package, many of which have traps
+    List<Body> bodies = loadBodies("java.beans.beancontext");
+    assertFalse(bodies.isEmpty());
+
+    Map<String, Function<FlowUniverse<Stmt>, FlowSet<Stmt>>> implementations =
+        new LinkedHashMap<>();
+    implementations.put("ArraySparseFlowSet", universe -> new ArraySparseFlowSet<>());
+    implementations.put("BitSetFlowSet", BitSetFlowSet::new);
+    implementations.put("ArrayPackedFlowSet", ArrayPackedFlowSet::new);
+
+    for (Body body : bodies) {
+      StmtGraph<?> graph = body.getStmtGraph();
+      HashSetReachingDefinitions expected = new HashSetReachingDefinitions(graph);
+      for (Function<FlowUniverse<Stmt>, FlowSet<Stmt>> factory : implementations.values()) {
+        FlowSetReachingDefinitions actual = new FlowSetReachingDefinitions(graph, factory);
+        for (Stmt stmt : graph.getNodes()) {
+          assertEquals(
+              body.getMethodSignature() + " " + stmt,
+              expected.getFlowBefore(stmt),
+              new HashSet<>(actual.getFlowBefore(stmt).toList()));
+        }
+      }
+    }
+
+    // warm up before measuring
+    for (int round = 0; round < 3; round++) {
+      long start = System.nanoTime();
+      for (Body body : bodies) {
+        new HashSetReachingDefinitions(body.getStmtGraph());
+      }
+      long hashSetTime = System.nanoTime() - start;
+      StringBuilder times = new StringBuilder("HashSet: " + hashSetTime / 1000000 + "ms");
+      for (Map.Entry<String, Function<FlowUniverse<Stmt>, FlowSet<Stmt>>> implementation :
+          implementations.entrySet()) {
+        start = System.nanoTime();
+        for (Body body : bodies) {
+          new FlowSetReachingDefinitions(body.getStmtGraph(), implementation.getValue());
+        }
+        times
+            .append(", ")
+            .append(implementation.getKey())
+            .append(": ")
+            .append((System.nanoTime() - start) / 1000000)
+            .append("ms");
+      }
+      logger.info("reaching definitions of {} bodies - {}", bodies.size(), times);
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package sootup.analysis.intraprocedural;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import java.util.*;
+import java.util.function.Supplier;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(Java8Test.class)
+public class FlowSetTest {
+
+  // more than one word of the packed set
+  private final FlowUniverse<String> universe = new FlowUniverse<>(elements(70));
+
+  private static List<String> elements(int count) {
+    List<String> elements = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      elements.add("e" + i);
+    }
+    return elements;
+  }
+
+  private List<Supplier<FlowSet<String>>> implementations() {
+    return Arrays.asList(
+        ArraySparseFlowSet::new,
+        () -> new BitSetFlowSet<>(universe),
+        () -> new ArrayPackedFlowSet<>(universe));
+  }
+
+  private static FlowSet<String> of(Supplier<FlowSet<String>> factory, String... elements) {
+    FlowSet<String> set = factory.get();
+    for (String element : elements) {
+      set.add(element);
+    }
+    return set;
+  }
+
+  @Test
+  public void testElements() {
+    for (Supplier<FlowSet<String>> factory : implementations()) {
+      FlowSet<String> set = factory.get();
+      assertTrue(set.isEmpty());
+      assertTrue(set.add("e1"));
+      assertFalse(set.add("e1"));
+      assertTrue(set.add("e65"));
+      assertTrue(set.contains("e65"));
+      assertFalse(set.contains("e2"));
+      assertEquals(2, set.size());
+      assertEquals(new HashSet<>(Arrays.asList("e1", "e65")), new HashSet<>(set.toList()));
+      assertTrue(set.remove("e1"));
+      assertFalse(set.remove("e1"));
+      assertEquals(Collections.singletonList("e65"), set.toList());
+      set.clear();
+      assertTrue(set.isEmpty());
+    }
+  }
+
+  @Test
+  public void testInPlaceOperations() {
+    for (Supplier<FlowSet<String>> factory : implementations()) {
+      FlowSet<String> set = of(factory, "e1", "e2", "e64");
+      assertTrue(set.union(of(factory, "e2", "e69")));
+      assertEquals(of(factory, "e1", "e2", "e64", "e69"), set);
+      assertFalse(set.union(of(factory, "e1")));
+
+      assertTrue(set.intersection(of(factory, "e1", "e64", "e3")));
+      assertEquals(of(factory, "e1", "e64"), set);
+      assertFalse(set.intersection(of(factory, "e1", "e64")));
+
+      assertTrue(set.difference(of(factory, "e64")));
+      assertEquals(of(factory, "e1"), set);
+      assertFalse(set.difference(of(factory, "e64")));
+
+      assertTrue(set.isSubSet(of(factory, "e1")));
+      assertFalse(set.isSubSet(of(factory, "e1", "e2")));
+    }
+  }
+
+  @Test
+  public void testOperationsIntoDestination() {
+    for (Supplier<FlowSet<String>> factory : implementations()) {
+      FlowSet<String> a = of(factory, "e1", "e2");
+      FlowSet<String> b = of(factory, "e2", "e66");
+      FlowSet<String> dest = of(factory, "e5");
+
+      a.union(b, dest);
+      assertEquals(of(factory, "e1", "e2", "e66"), dest);
+      a.intersection(b, dest);
+      assertEquals(of(factory, "e2"), dest);
+      a.difference(b, dest);
+      assertEquals(of(factory, "e1"), dest);
+      // the operands are not changed
+      assertEquals(of(factory, "e1", "e2"), a);
+      assertEquals(of(factory, "e2", "e66"), b);
+
+      // the destination may be an operand
+      a.difference(b, b);
+      assertEquals(of(factory, "e1"), b);
+      a.union(b, a);
+      assertEquals(of(factory, "e1", "e2"), a);
+
+      FlowSet<String> copy = a.copy();
+      assertEquals(a, copy);
+      copy.add("e3");
+      assertNotEquals(a, copy);
+      copy.copyFreshToExisting(dest);
+      assertEquals(of(factory, "e1", "e2", "e3"), dest);
+    }
+  }
+
+  @Test
+  public void testEqualityAcrossImplementations() {
+    List<Supplier<FlowSet<String>>> implementations = implementations();
+    for (Supplier<FlowSet<String>> factory : implementations) {
+      for (Supplier<FlowSet<String>> otherFactory : implementations) {
+        FlowSet<String> set = of(factory, "e3", "e67");
+        FlowSet<String> other = of(otherFactory, "e67", "e3");
+        assertEquals(set, other);
+        assertEquals(set.hashCode(), other.hashCode());
+
+        set.union(of(otherFactory, "e4"));
+        assertEquals(of(factory, "e3", "e4", "e67"), set);
+      }
+    }
+  }
+
+  @Test
+  public void testComplement() {
+    List<BoundedFlowSet<String>> sets =
+        Arrays.asList(new BitSetFlowSet<>(universe), new ArrayPackedFlowSet<>(universe));
+    for (BoundedFlowSet<String> set : sets) {
+      assertEquals(universe.size(), set.topSet().size());
+      set.add("e0");
+      set.add("e69");
+      set.complement();
+      assertEquals(universe.size() - 2, set.size());
+      assertFalse(set.contains("e69"));
+      assertTrue(set.contains("e68"));
+
+      FlowSet<String> complement = set.emptySet();
+      set.complement(complement);
+      assertEquals(new HashSet<>(Arrays.asList("e0", "e69")), new HashSet<>(complement.toList()));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testElementOutsideOfUniverse() {
+    new ArrayPackedFlowSet<>(universe).add("e70");
+  }
+}
@@ -0,0 +1,26 @@
+public class ICFGStaticInitializerExample {
+
+    public void entryPoint() {
+        int var1 = ICFGCounter.next();
+        this.sink(var1);
+    }
+
+    private void sink(int var1) {
+    }
+
+    public void unreachable() {
+        ICFGCounter.next();
+    }
+}
+
+class ICFGCounter {
+    static int count;
+
+    static {
+        count = 42;
+    }
+
+    static int next() {
+        return count++;
+    }
+}
@@ -0,0 +1,29 @@
+public class VirtualCallTaint {
+
+    private void sink(String s){
+
+    }
+
+    public void entryPoint() {
+        TaintSource unused = new SecretSource();
+        TaintSource source = new PublicSource();
+        String i = source.get();
+        sink(i);
+    }
+}
+
+interface TaintSource {
+    String get();
+}
+
+class SecretSource implements TaintSource {
+    public String get() {
+        return "SECRET";
+    }
+}
+
+class PublicSource implements TaintSource {
+    public String get() {
+        return "PUBLIC";
+    }
+}
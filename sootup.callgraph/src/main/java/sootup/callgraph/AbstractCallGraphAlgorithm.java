@@ -23,14 +23,17 @@ package sootup.callgraph;
  */
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sootup.core.IdentifierFactory;
 import sootup.core.jimple.basic.Value;
-import sootup.core.jimple.common.expr.AbstractInvokeExpr;
 import sootup.core.jimple.common.expr.JStaticInvokeExpr;
 import sootup.core.jimple.common.ref.JStaticFieldRef;
 import sootup.core.jimple.common.stmt.JAssignStmt;
@@ -59,8 +62,29 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
 
   @Nonnull protected final View<? extends SootClass<?>> view;
 
+  private final int parallelism;
+
   protected AbstractCallGraphAlgorithm(@Nonnull View<? extends SootClass<?>> view) {
+    this(view, 1);
+  }
+
+  /**
+   * @param view it contains the data of the classes and methods
+   * @param parallelism the number of threads that process the methods of the work list. If it is
+   *     greater than one, the view has to support concurrent access, e.g. a ConcurrentJavaView.
+   */
+  protected AbstractCallGraphAlgorithm(
+      @Nonnull View<? extends SootClass<?>> view, int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism has to be at least 1");
+    }
     this.view = view;
+    this.parallelism = parallelism;
+  }
+
+  /** Returns the number of threads that process the methods of the work list. */
+  public int getParallelism() {
+    return parallelism;
   }
 
   /**
@@ -78,23 +102,27 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
     MutableCallGraph cg = initializeCallGraph();
 
     Deque<MethodSignature> workList = new ArrayDeque<>(entryPoints);
-    Set<MethodSignature> processed = new HashSet<>();
 
     // implicit edge from entry point to static initializer
     addImplicitEdgesOfEntryPoints(entryPoints, cg, workList);
 
-    processWorkList(view, workList, processed, cg);
+    if (parallelism > 1) {
+      processWorkListInParallel(view, workList, ConcurrentHashMap.newKeySet(), cg);
+    } else {
+      processWorkList(view, workList, new HashSet<>(), cg);
+    }
     return cg;
   }
 
   /**
    * This method creates the mutable call graph which is used in the call graph algorithm. Overwrite
-   * it to change the used mutable call graph
+   * it to change the used mutable call graph. If the parallelism is greater than one, the call
+   * graph has to be thread-safe.
    *
    * @return the initialized call graph used in the call graph algorithm
    */
   protected MutableCallGraph initializeCallGraph() {
-    return new GraphBasedCallGraph();
+    return parallelism > 1 ? new ConcurrentCallGraph() : new GraphBasedCallGraph();
   }
 
   /**
@@ -111,7 +139,9 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
     entryPoints.forEach(
         methodSignature -> {
           SootMethod clintMethod =
-              view.getMethod(methodSignature.getDeclClassType().getStaticInitializer())
+              view.getMethod(
+                      view.getIdentifierFactory()
+                          .getStaticInitializerSignature(methodSignature.getDeclClassType()))
                   .orElse(null);
           if (clintMethod == null) return;
           MethodSignature staticInitSig = clintMethod.getSignature();
@@ -146,63 +176,136 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
       // skip if already processed
       if (processed.contains(currentMethodSignature)) continue;
 
-      // skip if library class
-      SootClass<?> currentClass =
-          view.getClass(currentMethodSignature.getDeclClassType()).orElse(null);
-      if (currentClass == null || currentClass.isLibraryClass()) continue;
-
-      // perform pre-processing if needed
-      preProcessingMethod(view, currentMethodSignature, workList, cg);
-
-      // process the method
-      if (!cg.containsMethod(currentMethodSignature)) cg.addMethod(currentMethodSignature);
-
-      // transform the method signature to the actual SootMethod
-      SootMethod currentMethod =
-          currentClass.getMethod(currentMethodSignature.getSubSignature()).orElse(null);
-
-      // get all call targets of invocations in the method body
-      Stream<MethodSignature> invocationTargets = resolveAllCallsFromSourceMethod(currentMethod);
-
-      // get all call targets of implicit edges in the method body
-      Stream<MethodSignature> implicitTargets =
-          resolveAllImplicitCallsFromSourceMethod(view, currentMethod);
+      if (processMethod(view, currentMethodSignature, workList, cg)) {
+        // set method as processed
+        processed.add(currentMethodSignature);
+      }
+    }
+  }
 
-      // save calls in the call graphs
-      Stream.concat(invocationTargets, implicitTargets)
-          .forEach(
-              t -> {
-                if (!cg.containsMethod(t)) cg.addMethod(t);
-                if (!cg.containsCall(currentMethodSignature, t)) {
-                  cg.addCall(currentMethodSignature, t);
-                  workList.push(t);
-                }
-              });
+  /**
+   * Processes the <code>workList</code> like {@link #processWorkList}, but on {@link
+   * #getParallelism()} threads. Each method is processed by the thread that first adds it to <code>
+   * processed</code>, the methods it discovers are processed by separate tasks. The resulting call
+   * graph contains the same methods and calls as the one built sequentially.
+   *
+   * @param view it contains the classes. It has to support concurrent access.
+   * @param workList it contains the methods to start the call graph generation with.
+   * @param processed the thread-safe set of processed methods to only process the method once.
+   * @param cg the thread-safe call graph object that is filled with the found methods and calls.
+   */
+  final void processWorkListInParallel(
+      View<? extends SootClass<?>> view,
+      Deque<MethodSignature> workList,
+      Set<MethodSignature> processed,
+      MutableCallGraph cg) {
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      pool.invoke(new WorkListTask(null, null, workList, view, processed, cg));
+    } finally {
+      pool.shutdown();
+    }
+  }
 
-      // set method as processed
-      processed.add(currentMethodSignature);
+  /**
+   * Processes a single method of the work list and adds a task for each method it discovers. The
+   * root task has no method and adds a task for each method of the initial work list. A task
+   * completes after the tasks it added have completed, so the root task completes once no new
+   * methods are discovered anymore.
+   */
+  private final class WorkListTask extends CountedCompleter<Void> {
+    @Nullable private final MethodSignature method;
+    @Nonnull private final Deque<MethodSignature> workList;
+    @Nonnull private final View<? extends SootClass<?>> view;
+    @Nonnull private final Set<MethodSignature> processed;
+    @Nonnull private final MutableCallGraph cg;
+
+    private WorkListTask(
+        @Nullable WorkListTask parent,
+        @Nullable MethodSignature method,
+        @Nonnull Deque<MethodSignature> workList,
+        @Nonnull View<? extends SootClass<?>> view,
+        @Nonnull Set<MethodSignature> processed,
+        @Nonnull MutableCallGraph cg) {
+      super(parent);
+      this.method = method;
+      this.workList = workList;
+      this.view = view;
+      this.processed = processed;
+      this.cg = cg;
+    }
 
-      // perform post-processing if needed
-      postProcessingMethod(view, currentMethodSignature, workList, cg);
+    @Override
+    public void compute() {
+      // only the thread that adds the method to the processed set processes it
+      if (method != null && processed.add(method)) {
+        processMethod(view, method, workList, cg);
+      }
+      for (MethodSignature discovered : workList) {
+        if (processed.contains(discovered)) continue;
+        addToPendingCount(1);
+        new WorkListTask(this, discovered, new ArrayDeque<>(), view, processed, cg).fork();
+      }
+      tryComplete();
     }
   }
 
   /**
-   * This method resolves all calls from a given source method. resolveCall is called for each
-   * invoke statement in the body of the source method that is implemented in the corresponding call
-   * graph algorithm.
+   * Processes a single method of the work list, adding its call edges to the graph. Newly
+   * discovered methods are added to the <code>workList</code>. The methods preProcessingMethod and
+   * postProcessingMethod are called before and after the method is processed.
    *
-   * @param sourceMethod this signature is used to access the statements contained method body of
-   *     the specified method
-   * @return a stream containing all resolved callable method signatures by the given source method
+   * @return false if the method has been skipped, because its class is a library class or does not
+   *     exist.
    */
-  @Nonnull
-  Stream<MethodSignature> resolveAllCallsFromSourceMethod(SootMethod sourceMethod) {
-    if (sourceMethod == null || !sourceMethod.hasBody()) return Stream.empty();
+  private boolean processMethod(
+      View<? extends SootClass<?>> view,
+      MethodSignature currentMethodSignature,
+      Deque<MethodSignature> workList,
+      MutableCallGraph cg) {
+    // skip if library class
+    SootClass<?> currentClass =
+        view.getClass(currentMethodSignature.getDeclClassType()).orElse(null);
+    if (currentClass == null || currentClass.isLibraryClass()) return false;
+
+    // perform pre-processing if needed
+    preProcessingMethod(view, currentMethodSignature, workList, cg);
+
+    // process the method
+    if (!cg.containsMethod(currentMethodSignature)) cg.addMethod(currentMethodSignature);
+
+    // transform the method signature to the actual SootMethod
+    SootMethod currentMethod =
+        currentClass.getMethod(currentMethodSignature.getSubSignature()).orElse(null);
+
+    // get all call targets of invocations in the method body and save them with their call sites
+    if (currentMethod != null && currentMethod.hasBody()) {
+      for (Stmt stmt : currentMethod.getBody().getStmts()) {
+        if (!stmt.containsInvokeExpr()) continue;
+        resolveCall(currentMethod, stmt)
+            .forEach(
+                t -> {
+                  if (!cg.containsMethod(t)) cg.addMethod(t);
+                  if (!cg.containsCall(currentMethodSignature, t)) workList.push(t);
+                  cg.addCall(currentMethodSignature, t, stmt);
+                });
+      }
+    }
 
-    return sourceMethod.getBody().getStmts().stream()
-        .filter(Stmt::containsInvokeExpr)
-        .flatMap(s -> resolveCall(sourceMethod, s.getInvokeExpr()));
+    // get all call targets of implicit edges in the method body and save them
+    resolveAllImplicitCallsFromSourceMethod(view, currentMethod)
+        .forEach(
+            t -> {
+              if (!cg.containsMethod(t)) cg.addMethod(t);
+              if (!cg.containsCall(currentMethodSignature, t)) {
+                cg.addCall(currentMethodSignature, t);
+                workList.push(t);
+              }
+            });
+
+    // perform post-processing if needed
+    postProcessingMethod(view, currentMethodSignature, workList, cg);
+    return true;
   }
 
   /**
@@ -233,40 +336,61 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
   @Nonnull
   protected Stream<MethodSignature> resolveAllStaticInitializerCallsFromSourceMethod(
       View<? extends SootClass<?>> view, SootMethod sourceMethod) {
+    return resolveStaticInitializerCalls(view, sourceMethod);
+  }
+
+  /**
+   * Resolves the static initializers that can be triggered by the given method, i.e. of the classes
+   * whose static fields or methods are used or which are instantiated, and of their superclasses.
+   *
+   * @param view it contains the class data
+   * @param sourceMethod the inspected source method
+   * @return a stream containing the method signatures of the static initializers
+   */
+  @Nonnull
+  public static Stream<MethodSignature> resolveStaticInitializerCalls(
+      @Nonnull View<? extends SootClass<?>> view, @Nullable SootMethod sourceMethod) {
     if (sourceMethod == null || !sourceMethod.hasBody()) return Stream.empty();
 
-    Stream.Builder<ClassType> targetsToStaticInitializer = Stream.builder();
+    return sourceMethod.getBody().getStmts().stream()
+        .flatMap(stmt -> resolveStaticInitializerCalls(view, stmt));
+  }
 
-    InstantiateClassValueVisitor instantiateVisitor = new InstantiateClassValueVisitor();
+  /**
+   * Resolves the static initializers that can be triggered by the given statement, i.e. of the
+   * classes whose static fields or methods it uses or which it instantiates, and of their
+   * superclasses.
+   *
+   * @param view it contains the class data
+   * @param stmt the inspected statement
+   * @return a stream containing the method signatures of the static initializers
+   */
+  @Nonnull
+  public static Stream<MethodSignature> resolveStaticInitializerCalls(
+      @Nonnull View<? extends SootClass<?>> view, @Nonnull Stmt stmt) {
+    Stream.Builder<ClassType> targetsToStaticInitializer = Stream.builder();
 
-    sourceMethod
-        .getBody()
-        .getStmts()
-        .forEach(
-            stmt -> {
-              // static field usage
-              if (stmt.containsFieldRef() && stmt.getFieldRef() instanceof JStaticFieldRef) {
-                targetsToStaticInitializer.add(
-                    stmt.getFieldRef().getFieldSignature().getDeclClassType());
-              }
+    // static field usage
+    if (stmt.containsFieldRef() && stmt.getFieldRef() instanceof JStaticFieldRef) {
+      targetsToStaticInitializer.add(stmt.getFieldRef().getFieldSignature().getDeclClassType());
+    }
 
-              // constructor calls
-              if (stmt instanceof JAssignStmt) {
-                Value rightOp = ((JAssignStmt) stmt).getRightOp();
-                instantiateVisitor.init();
-                rightOp.accept(instantiateVisitor);
-                ClassType classType = instantiateVisitor.getResult();
-                if (classType != null) {
-                  targetsToStaticInitializer.add(classType);
-                }
-              }
+    // constructor calls
+    if (stmt instanceof JAssignStmt) {
+      Value rightOp = ((JAssignStmt) stmt).getRightOp();
+      InstantiateClassValueVisitor instantiateVisitor = new InstantiateClassValueVisitor();
+      instantiateVisitor.init();
+      rightOp.accept(instantiateVisitor);
+      ClassType classType = instantiateVisitor.getResult();
+      if (classType != null) {
+        targetsToStaticInitializer.add(classType);
+      }
+    }
 
-              // static method calls
-              if (stmt.containsInvokeExpr() && stmt.getInvokeExpr() instanceof JStaticInvokeExpr) {
-                targetsToStaticInitializer.add(
-                    stmt.getInvokeExpr().getMethodSignature().getDeclClassType());
-              }
-            });
+    // static method calls
+    if (stmt.containsInvokeExpr() && stmt.getInvokeExpr() instanceof JStaticInvokeExpr) {
+      targetsToStaticInitializer.add(stmt.getInvokeExpr().getMethodSignature().getDeclClassType());
+    }
 
     return targetsToStaticInitializer
         .build()
@@ -276,7 +400,10 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
                     Stream.of(classType),
                     view.getTypeHierarchy().superClassesOf(classType).stream()))
         .filter(Objects::nonNull)
-        .map(classType -> view.getMethod(classType.getStaticInitializer()))
+        .map(
+            classType ->
+                view.getMethod(
+                    view.getIdentifierFactory().getStaticInitializerSignature(classType)))
         .filter(Optional::isPresent)
         .map(Optional::get)
         .map(SootClassMember::getSignature);
@@ -357,6 +484,14 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
               for (MethodSignature callingMethodSig : updated.callsTo(overriddenMethodSig)) {
                 updated.addCall(callingMethodSig, overridingMethodSig);
               }
+              updated
+                  .getCallSites()
+                  .ifPresent(
+                      callSites ->
+                          new ArrayList<>(callSites.getCallSites(overriddenMethodSig))
+                              .forEach(
+                                  callSite ->
+                                      callSites.addCallSite(callSite, overridingMethodSig)));
             });
 
     return updated;
@@ -412,17 +547,26 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
   }
 
   /**
-   * This method resolves the possible targets of a given invoke expression. The results are
-   * dependable of the applied call graph algorithm. therefore, it is abstract.
+   * This method resolves the possible targets of a given invoke statement. The results are
+   * dependable of the applied call graph algorithm. therefore, it is abstract. The found targets
+   * are saved in the call graph together with the statement as call site.
    *
-   * @param method the method object that contains the given invoke expression in the body.
-   * @param invokeExpr it contains the call which is resolved.
+   * @param method the method object that contains the given invoke statement in the body.
+   * @param callSite the statement containing the invoke expression of the call which is resolved.
    * @return a stream of all reachable method signatures defined by the applied call graph
    *     algorithm.
    */
   @Nonnull
-  protected abstract Stream<MethodSignature> resolveCall(
-      SootMethod method, AbstractInvokeExpr invokeExpr);
+  protected abstract Stream<MethodSignature> resolveCall(SootMethod method, Stmt callSite);
+
+  /**
+   * Returns the table caching the resolved virtual calls of the view, which is shared by all
+   * algorithms working on the view.
+   */
+  @Nonnull
+  public DispatchTable getDispatchTable() {
+    return DispatchTable.of(view);
+  }
 
   /**
    * Searches for the signature of the method that is the concrete implementation of <code>m</code>.
@@ -444,7 +588,8 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
   }
 
   /**
-   * searches the method object in the given hierarchy
+   * searches the method object in the given hierarchy. The results are cached in the {@link
+   * DispatchTable} of the view.
    *
    * @param view it contains all classes
    * @param sig the signature of the searched method
@@ -452,6 +597,20 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
    */
   public static Optional<? extends SootMethod> findConcreteMethod(
       @Nonnull View<? extends SootClass<?>> view, @Nonnull MethodSignature sig) {
+    Optional<MethodSignature> target =
+        DispatchTable.of(view)
+            .getTarget(
+                sig,
+                signature -> lookUpConcreteMethod(view, signature).map(SootMethod::getSignature));
+    if (!target.isPresent()) {
+      return Optional.empty();
+    }
+    return view.getMethod(target.get());
+  }
+
+  @Nonnull
+  private static Optional<? extends SootMethod> lookUpConcreteMethod(
+      @Nonnull View<? extends SootClass<?>> view, @Nonnull MethodSignature sig) {
     IdentifierFactory identifierFactory = view.getIdentifierFactory();
     SootClass<?> startclass = view.getClass(sig.getDeclClassType()).orElse(null);
     if (startclass == null) {
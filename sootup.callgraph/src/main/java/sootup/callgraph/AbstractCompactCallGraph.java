@@ -0,0 +1,238 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.base.Preconditions;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import javax.annotation.Nonnull;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.signatures.SootClassMemberSignature;
+
+/**
+ * The base class of the call graphs that identify each method by a dense int id, which is its index
+ * in the order the methods have been added. The calls of a method are stored as ids as well, so
+ * they can be iterated without allocating any objects through {@link #getCalleeCount(int)} and
+ * {@link #getCallee(int, int)} or the forEach methods.
+ */
+public abstract class AbstractCompactCallGraph implements CallGraph {
+
+  @Nonnull protected final List<MethodSignature> idToMethod;
+  @Nonnull protected final Map<MethodSignature, Integer> methodToId;
+
+  protected AbstractCompactCallGraph(
+      @Nonnull List<MethodSignature> idToMethod,
+      @Nonnull Map<MethodSignature, Integer> methodToId) {
+    this.idToMethod = idToMethod;
+    this.methodToId = methodToId;
+  }
+
+  /** Returns the number of methods in the call graph, i.e. the upper bound of the method ids. */
+  public int getMethodCount() {
+    return idToMethod.size();
+  }
+
+  /** Returns the id of the given method, or -1 if it is not part of the call graph. */
+  public int getMethodId(@Nonnull MethodSignature method) {
+    Integer id = methodToId.get(method);
+    return id == null ? -1 : id;
+  }
+
+  /** Returns the method with the given id. */
+  @Nonnull
+  public MethodSignature getMethodSignature(int id) {
+    return idToMethod.get(id);
+  }
+
+  /** Returns the number of methods called by the method with the given id. */
+  public abstract int getCalleeCount(int id);
+
+  /** Returns the id of the index-th method called by the method with the given id. */
+  public abstract int getCallee(int id, int index);
+
+  /** Returns the number of methods calling the method with the given id. */
+  public abstract int getCallerCount(int id);
+
+  /** Returns the id of the index-th method calling the method with the given id. */
+  public abstract int getCaller(int id, int index);
+
+  /** Checks whether the method with the id source calls the method with the id target. */
+  public abstract boolean containsCall(int source, int target);
+
+  /** Passes the ids of all methods called by the method with the given id to the action. */
+  public void forEachCallee(int id, @Nonnull IntConsumer action) {
+    int count = getCalleeCount(id);
+    for (int index = 0; index < count; index++) {
+      action.accept(getCallee(id, index));
+    }
+  }
+
+  /** Passes the ids of all methods calling the method with the given id to the action. */
+  public void forEachCaller(int id, @Nonnull IntConsumer action) {
+    int count = getCallerCount(id);
+    for (int index = 0; index < count; index++) {
+      action.accept(getCaller(id, index));
+    }
+  }
+
+  /** Passes all methods called by the given method to the action. */
+  public void forEachCallFrom(
+      @Nonnull MethodSignature sourceMethod, @Nonnull Consumer<MethodSignature> action) {
+    int id = idOf(sourceMethod);
+    int count = getCalleeCount(id);
+    for (int index = 0; index < count; index++) {
+      action.accept(idToMethod.get(getCallee(id, index)));
+    }
+  }
+
+  /** Passes all methods calling the given method to the action. */
+  public void forEachCallTo(
+      @Nonnull MethodSignature targetMethod, @Nonnull Consumer<MethodSignature> action) {
+    int id = idOf(targetMethod);
+    int count = getCallerCount(id);
+    for (int index = 0; index < count; index++) {
+      action.accept(idToMethod.get(getCaller(id, index)));
+    }
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> getMethodSignatures() {
+    return Collections.unmodifiableSet(methodToId.keySet());
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> callsFrom(@Nonnull MethodSignature sourceMethod) {
+    Set<MethodSignature> callees = new HashSet<>();
+    forEachCallFrom(sourceMethod, callees::add);
+    return callees;
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> callsTo(@Nonnull MethodSignature targetMethod) {
+    Set<MethodSignature> callers = new HashSet<>();
+    forEachCallTo(targetMethod, callers::add);
+    return callers;
+  }
+
+  @Override
+  public boolean containsMethod(@Nonnull MethodSignature method) {
+    return methodToId.containsKey(method);
+  }
+
+  @Override
+  public boolean containsCall(
+      @Nonnull MethodSignature sourceMethod, @Nonnull MethodSignature targetMethod) {
+    int source = getMethodId(sourceMethod);
+    int target = getMethodId(targetMethod);
+    if (source < 0 || target < 0) {
+      return false;
+    }
+    return containsCall(source, target);
+  }
+
+  /**
+   * Exports the calls in the same order and format as {@link GraphBasedCallGraph#exportAsDot()}.
+   */
+  @Override
+  public String exportAsDot() {
+    List<MethodSignature[]> calls = new ArrayList<>(callCount());
+    for (int source = 0; source < getMethodCount(); source++) {
+      MethodSignature sourceMethod = idToMethod.get(source);
+      int count = getCalleeCount(source);
+      for (int index = 0; index < count; index++) {
+        calls.add(new MethodSignature[] {sourceMethod, idToMethod.get(getCallee(source, index))});
+      }
+    }
+    StringBuilder dotFormatBuilder = new StringBuilder();
+    calls.stream()
+        .sorted(
+            Comparator.comparing(
+                    (MethodSignature[] call) -> call[0].getDeclClassType().getFullyQualifiedName())
+                .thenComparing(call -> call[0].getName())
+                .thenComparing(call -> call[0].getParameterTypes().toString())
+                .thenComparing(call -> call[1].getDeclClassType().getClassName())
+                .thenComparing(call -> call[1].getName())
+                .thenComparing(call -> call[1].getParameterTypes().toString()))
+        .forEach(
+            call ->
+                dotFormatBuilder
+                    .append("\t")
+                    .append("\"" + call[0] + "\"")
+                    .append(" -> ")
+                    .append("\"" + call[1] + "\"")
+                    .append(";\n"));
+
+    return "strict digraph ObjectGraph {\n" + dotFormatBuilder + "}";
+  }
+
+  /**
+   * it returns the id of the given method signature in the call graph.
+   *
+   * @param method the method signature searched in the call graph
+   * @return the id of the requested method signature.
+   */
+  protected int idOf(@Nonnull MethodSignature method) {
+    Integer id = methodToId.get(method);
+    Preconditions.checkNotNull(id, "Node for " + method + " has not been added yet");
+    return id;
+  }
+
+  /**
+   * This method exports the call graph in a human-readable string, in the same format as {@link
+   * GraphBasedCallGraph#toString()}.
+   *
+   * @return a string containing all nodes and edges of the call graph.
+   */
+  @Override
+  public String toString() {
+    StringBuilder stringBuilder =
+        new StringBuilder(getClass().getSimpleName() + "(" + callCount() + ")");
+    if (methodToId.isEmpty()) {
+      stringBuilder.append(" is empty");
+    } else {
+      Comparator<MethodSignature> comparator =
+          Comparator.comparing((MethodSignature o) -> o.getDeclClassType().toString())
+              .thenComparing(SootClassMemberSignature::getName)
+              .thenComparing(o -> o.getParameterTypes().toString());
+      stringBuilder.append(":\n");
+      methodToId.keySet().stream()
+          .sorted(comparator)
+          .forEach(
+              method -> {
+                stringBuilder.append(method).append(":\n");
+                callsFrom(method).stream()
+                    .sorted(comparator)
+                    .forEach(m -> stringBuilder.append("\tto ").append(m).append("\n"));
+                callsTo(method).stream()
+                    .sorted(comparator)
+                    .forEach(m -> stringBuilder.append("\tfrom ").append(m).append("\n"));
+                stringBuilder.append("\n");
+              });
+    }
+    return stringBuilder.toString();
+  }
+}
@@ -22,6 +22,7 @@ package sootup.callgraph;
  * #L%
  */
 
+import java.util.Optional;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import sootup.core.signatures.MethodSignature;
@@ -96,4 +97,14 @@ public interface CallGraph {
    */
   @Nonnull
   MutableCallGraph copy();
+
+  /**
+   * This method returns the invoke statements of the calls in the call graph.
+   *
+   * @return the table of call sites, or an empty optional if the call graph does not record them.
+   */
+  @Nonnull
+  default Optional<CallSiteTable> getCallSites() {
+    return Optional.empty();
+  }
 }
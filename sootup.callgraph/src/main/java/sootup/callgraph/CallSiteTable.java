@@ -0,0 +1,110 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * Records the invoke statement of each call in a call graph, so that the targets of a call site and
+ * the call sites of a method can be looked up without resolving the calls again. Statements are
+ * identified by their identity, like in the bodies they belong to.
+ *
+ * <p>Call sites can be added by multiple threads at once. The lists returned by the lookups must
+ * not be read while call sites are still being added.
+ */
+public class CallSiteTable {
+
+  @Nonnull private final Map<Stmt, List<MethodSignature>> targetsOfCallSite;
+  @Nonnull private final Map<MethodSignature, List<Stmt>> callSitesOfTarget;
+
+  public CallSiteTable() {
+    targetsOfCallSite = new ConcurrentHashMap<>();
+    callSitesOfTarget = new ConcurrentHashMap<>();
+  }
+
+  /** Creates a copy of the given table. */
+  public CallSiteTable(@Nonnull CallSiteTable table) {
+    this();
+    table.targetsOfCallSite.forEach(
+        (callSite, targets) -> targetsOfCallSite.put(callSite, new ArrayList<>(targets)));
+    table.callSitesOfTarget.forEach(
+        (target, callSites) -> callSitesOfTarget.put(target, new ArrayList<>(callSites)));
+  }
+
+  /**
+   * Records that the given statement calls the target method. Adding the same pair again has no
+   * effect.
+   */
+  public void addCallSite(@Nonnull Stmt callSite, @Nonnull MethodSignature target) {
+    boolean[] added = new boolean[1];
+    targetsOfCallSite.compute(
+        callSite,
+        (stmt, targets) -> {
+          if (targets == null) {
+            targets = new ArrayList<>(1);
+          } else if (targets.contains(target)) {
+            return targets;
+          }
+          targets.add(target);
+          added[0] = true;
+          return targets;
+        });
+    if (added[0]) {
+      callSitesOfTarget.compute(
+          target,
+          (method, callSites) -> {
+            if (callSites == null) {
+              callSites = new ArrayList<>(2);
+            }
+            callSites.add(callSite);
+            return callSites;
+          });
+    }
+  }
+
+  /** Returns the methods called by the given statement, or an empty list if it has no calls. */
+  @Nonnull
+  public List<MethodSignature> getTargets(@Nonnull Stmt callSite) {
+    List<MethodSignature> targets = targetsOfCallSite.get(callSite);
+    return targets == null ? Collections.emptyList() : Collections.unmodifiableList(targets);
+  }
+
+  /** Returns the statements calling the given method, or an empty list if it is not called. */
+  @Nonnull
+  public List<Stmt> getCallSites(@Nonnull MethodSignature target) {
+    List<Stmt> callSites = callSitesOfTarget.get(target);
+    return callSites == null ? Collections.emptyList() : Collections.unmodifiableList(callSites);
+  }
+
+  /** Returns the number of statements with at least one recorded call. */
+  public int size() {
+    return targetsOfCallSite.size();
+  }
+}
@@ -0,0 +1,203 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import javax.annotation.Nonnull;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * A mutable call graph that stores the callees and callers of each method in growable int arrays
+ * instead of a graph of vertex and edge objects. Once the call graph is complete, {@link #freeze()}
+ * converts it into an immutable {@link FrozenCallGraph} with contiguous arrays.
+ *
+ * <p>Adding a method that is already part of the call graph or a call that already exists has no
+ * effect.
+ */
+public class CompactCallGraph extends AbstractCompactCallGraph implements MutableCallGraph {
+
+  private static final int[] NO_CALLS = new int[0];
+
+  @Nonnull private int[][] callees;
+  @Nonnull private int[] calleeCounts;
+  @Nonnull private int[][] callers;
+  @Nonnull private int[] callerCounts;
+  private int callCount;
+
+  public CompactCallGraph() {
+    this(16);
+  }
+
+  /** @param expectedMethodCount the number of methods the call graph is sized for initially */
+  public CompactCallGraph(int expectedMethodCount) {
+    super(new ArrayList<>(expectedMethodCount), new HashMap<>());
+    int capacity = Math.max(expectedMethodCount, 1);
+    callees = new int[capacity][];
+    calleeCounts = new int[capacity];
+    callers = new int[capacity][];
+    callerCounts = new int[capacity];
+  }
+
+  @Override
+  public void addMethod(@Nonnull MethodSignature calledMethod) {
+    if (methodToId.containsKey(calledMethod)) {
+      return;
+    }
+    int id = idToMethod.size();
+    if (id == callees.length) {
+      int capacity = id * 2;
+      callees = Arrays.copyOf(callees, capacity);
+      calleeCounts = Arrays.copyOf(calleeCounts, capacity);
+      callers = Arrays.copyOf(callers, capacity);
+      callerCounts = Arrays.copyOf(callerCounts, capacity);
+    }
+    callees[id] = NO_CALLS;
+    callers[id] = NO_CALLS;
+    idToMethod.add(calledMethod);
+    methodToId.put(calledMethod, id);
+  }
+
+  @Override
+  public void addCall(
+      @Nonnull MethodSignature sourceMethod, @Nonnull MethodSignature targetMethod) {
+    int source = idOf(sourceMethod);
+    int target = idOf(targetMethod);
+    if (!containsCall(source, target)) {
+      appendCall(source, target);
+    }
+  }
+
+  /** Adds the call without checking whether it already exists. */
+  void appendCall(int source, int target) {
+    callees[source] = append(callees[source], calleeCounts[source]++, target);
+    callers[target] = append(callers[target], callerCounts[target]++, source);
+    callCount++;
+  }
+
+  @Nonnull
+  private static int[] append(@Nonnull int[] ids, int count, int id) {
+    if (count == ids.length) {
+      ids = Arrays.copyOf(ids, Math.max(4, count * 2));
+    }
+    ids[count] = id;
+    return ids;
+  }
+
+  @Override
+  public int getCalleeCount(int id) {
+    return calleeCounts[id];
+  }
+
+  @Override
+  public int getCallee(int id, int index) {
+    return callees[id][index];
+  }
+
+  @Override
+  public int getCallerCount(int id) {
+    return callerCounts[id];
+  }
+
+  @Override
+  public int getCaller(int id, int index) {
+    return callers[id][index];
+  }
+
+  @Override
+  public boolean containsCall(int source, int target) {
+    // search the shorter of both lists
+    if (calleeCounts[source] <= callerCounts[target]) {
+      return indexOf(callees[source], calleeCounts[source], target) >= 0;
+    }
+    return indexOf(callers[target], callerCounts[target], source) >= 0;
+  }
+
+  private static int indexOf(@Nonnull int[] ids, int count, int id) {
+    for (int index = 0; index < count; index++) {
+      if (ids[index] == id) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public int callCount() {
+    return callCount;
+  }
+
+  /**
+   * Creates an immutable copy of this call graph, which stores the callees and callers of all
+   * methods in a single array each. The ids of the methods stay the same.
+   */
+  @Nonnull
+  public FrozenCallGraph freeze() {
+    int methodCount = getMethodCount();
+    int[] calleeOffsets = new int[methodCount + 1];
+    int[] callerOffsets = new int[methodCount + 1];
+    for (int id = 0; id < methodCount; id++) {
+      calleeOffsets[id + 1] = calleeOffsets[id] + calleeCounts[id];
+      callerOffsets[id + 1] = callerOffsets[id] + callerCounts[id];
+    }
+    int[] calleeIds = new int[callCount];
+    int[] callerIds = new int[callCount];
+    for (int id = 0; id < methodCount; id++) {
+      System.arraycopy(callees[id], 0, calleeIds, calleeOffsets[id], calleeCounts[id]);
+      Arrays.sort(calleeIds, calleeOffsets[id], calleeOffsets[id + 1]);
+      System.arraycopy(callers[id], 0, callerIds, callerOffsets[id], callerCounts[id]);
+      Arrays.sort(callerIds, callerOffsets[id], callerOffsets[id + 1]);
+    }
+    return new FrozenCallGraph(
+        new ArrayList<>(idToMethod),
+        new HashMap<>(methodToId),
+        calleeOffsets,
+        calleeIds,
+        callerOffsets,
+        callerIds);
+  }
+
+  @Nonnull
+  @Override
+  public MutableCallGraph copy() {
+    return copyOf(this);
+  }
+
+  /** Creates a mutable call graph with the same ids, methods and calls as the given one. */
+  @Nonnull
+  static CompactCallGraph copyOf(@Nonnull AbstractCompactCallGraph callGraph) {
+    int methodCount = callGraph.getMethodCount();
+    CompactCallGraph copy = new CompactCallGraph(methodCount);
+    for (int id = 0; id < methodCount; id++) {
+      copy.addMethod(callGraph.getMethodSignature(id));
+    }
+    for (int id = 0; id < methodCount; id++) {
+      int count = callGraph.getCalleeCount(id);
+      for (int index = 0; index < count; index++) {
+        copy.appendCall(id, callGraph.getCallee(id, index));
+      }
+    }
+    return copy;
+  }
+}
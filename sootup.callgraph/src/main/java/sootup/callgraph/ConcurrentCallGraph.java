@@ -0,0 +1,166 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.base.Preconditions;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * A {@link MutableCallGraph} that can be modified and queried by multiple threads at once. It is
+ * used by the call graph algorithms when they process the methods in parallel.
+ *
+ * <p>The calls from and to each method are kept in concurrent sets, so threads adding the calls of
+ * different methods do not block each other. Adding a method or call that is already part of the
+ * call graph has no effect. The sets returned by the lookups are snapshots.
+ */
+public class ConcurrentCallGraph implements MutableCallGraph {
+
+  @Nonnull private final Map<MethodSignature, Set<MethodSignature>> callsFrom;
+  @Nonnull private final Map<MethodSignature, Set<MethodSignature>> callsTo;
+  @Nonnull private final AtomicInteger callCount;
+  @Nonnull private final CallSiteTable callSites;
+
+  public ConcurrentCallGraph() {
+    callsFrom = new ConcurrentHashMap<>();
+    callsTo = new ConcurrentHashMap<>();
+    callCount = new AtomicInteger();
+    callSites = new CallSiteTable();
+  }
+
+  @Override
+  public void addMethod(@Nonnull MethodSignature calledMethod) {
+    // the incoming calls are added first, as containsMethod only checks the outgoing calls
+    callsTo.computeIfAbsent(calledMethod, method -> ConcurrentHashMap.newKeySet());
+    callsFrom.computeIfAbsent(calledMethod, method -> ConcurrentHashMap.newKeySet());
+  }
+
+  @Override
+  public void addCall(
+      @Nonnull MethodSignature sourceMethod, @Nonnull MethodSignature targetMethod) {
+    Set<MethodSignature> targets = callsOf(callsFrom, sourceMethod);
+    Set<MethodSignature> sources = callsOf(callsTo, targetMethod);
+    if (targets.add(targetMethod)) {
+      sources.add(sourceMethod);
+      callCount.incrementAndGet();
+    }
+  }
+
+  @Override
+  public void addCall(
+      @Nonnull MethodSignature sourceMethod,
+      @Nonnull MethodSignature targetMethod,
+      @Nonnull Stmt callSite) {
+    addCall(sourceMethod, targetMethod);
+    callSites.addCallSite(callSite, targetMethod);
+  }
+
+  @Nonnull
+  @Override
+  public Optional<CallSiteTable> getCallSites() {
+    return Optional.of(callSites);
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> getMethodSignatures() {
+    return new HashSet<>(callsFrom.keySet());
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> callsFrom(@Nonnull MethodSignature sourceMethod) {
+    return new HashSet<>(callsOf(callsFrom, sourceMethod));
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> callsTo(@Nonnull MethodSignature targetMethod) {
+    return new HashSet<>(callsOf(callsTo, targetMethod));
+  }
+
+  @Override
+  public boolean containsMethod(@Nonnull MethodSignature method) {
+    return callsFrom.containsKey(method);
+  }
+
+  @Override
+  public boolean containsCall(
+      @Nonnull MethodSignature sourceMethod, @Nonnull MethodSignature targetMethod) {
+    Set<MethodSignature> targets = callsFrom.get(sourceMethod);
+    return targets != null && containsMethod(targetMethod) && targets.contains(targetMethod);
+  }
+
+  @Override
+  public int callCount() {
+    return callCount.get();
+  }
+
+  @Override
+  public String exportAsDot() {
+    return copy().exportAsDot();
+  }
+
+  /** Returns a {@link GraphBasedCallGraph} with the methods and calls added so far. */
+  @Nonnull
+  @Override
+  public MutableCallGraph copy() {
+    GraphBasedCallGraph copy =
+        new GraphBasedCallGraph(
+            new DefaultDirectedGraph<>(null, null, false),
+            new HashMap<>(),
+            new CallSiteTable(callSites));
+    Set<MethodSignature> methods = getMethodSignatures();
+    methods.forEach(copy::addMethod);
+    for (MethodSignature sourceMethod : methods) {
+      for (MethodSignature targetMethod : callsFrom(sourceMethod)) {
+        if (methods.contains(targetMethod)) {
+          copy.addCall(sourceMethod, targetMethod);
+        }
+      }
+    }
+    return copy;
+  }
+
+  @Override
+  public String toString() {
+    return copy().toString();
+  }
+
+  @Nonnull
+  private static Set<MethodSignature> callsOf(
+      @Nonnull Map<MethodSignature, Set<MethodSignature>> calls, @Nonnull MethodSignature method) {
+    Set<MethodSignature> methods = calls.get(method);
+    Preconditions.checkNotNull(methods, "Node for " + method + " has not been added yet");
+    return methods;
+  }
+}
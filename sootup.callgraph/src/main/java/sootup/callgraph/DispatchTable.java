@@ -0,0 +1,135 @@
+package sootup.callgraph;
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import sootup.core.ViewChangeListener;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.views.MutableView;
+import sootup.core.views.View;
+
+/**
+ * Caches the concrete method a virtual call dispatches to for each receiver type and sub-signature,
+ * i.e. for the {@link MethodSignature} of the call with the receiver type as the declaring class.
+ * There is one table per view, which is shared by all call graph algorithms working on the view.
+ * The table of a {@link MutableView} is cleared whenever the view changes.
+ */
+public class DispatchTable implements ViewChangeListener {
+
+  private static final Map<View<?>, DispatchTable> tables =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  /**
+   * The targets resolved since the last invalidation. Invalidating replaces the whole map, so a
+   * target resolved before an invalidation is only added to the discarded map.
+   */
+  @Nonnull
+  private volatile Map<MethodSignature, Optional<MethodSignature>> targets =
+      new ConcurrentHashMap<>();
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+
+  /** Returns the dispatch table of the view, creating it on first use. */
+  @Nonnull
+  public static DispatchTable of(@Nonnull View<? extends SootClass<?>> view) {
+    return tables.computeIfAbsent(
+        view,
+        key -> {
+          DispatchTable table = new DispatchTable();
+          if (key instanceof MutableView) {
+            ((MutableView) key).addChangeListener(table);
+          }
+          return table;
+        });
+  }
+
+  /**
+   * Returns the signature of the concrete method the call dispatches to. It is resolved by the
+   * given function if it has not been resolved before.
+   *
+   * @param signature the called sub-signature with the receiver type as declaring class
+   */
+  @Nonnull
+  public Optional<MethodSignature> getTarget(
+      @Nonnull MethodSignature signature,
+      @Nonnull Function<MethodSignature, Optional<MethodSignature>> resolver) {
+    Map<MethodSignature, Optional<MethodSignature>> currentTargets = targets;
+    Optional<MethodSignature> target = currentTargets.get(signature);
+    if (target != null) {
+      hitCount.incrementAndGet();
+      return target;
+    }
+    missCount.incrementAndGet();
+    // resolved outside of the map, as resolving may take long and other threads may query it
+    target = resolver.apply(signature);
+    Optional<MethodSignature> previous = currentTargets.putIfAbsent(signature, target);
+    return previous != null ? previous : target;
+  }
+
+  /** Removes all resolved targets, e.g. after the classes of the view have changed. */
+  public void invalidate() {
+    targets = new ConcurrentHashMap<>();
+  }
+
+  /** Returns the number of resolved targets in the table. */
+  public int size() {
+    return targets.size();
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  @Override
+  public void classAdded(SootClass sc) {
+    invalidate();
+  }
+
+  @Override
+  public void classRemoved(SootClass sc) {
+    invalidate();
+  }
+
+  @Override
+  public void methodAdded(SootMethod m) {
+    invalidate();
+  }
+
+  @Override
+  public void methodRemoved(SootMethod m) {
+    invalidate();
+  }
+}
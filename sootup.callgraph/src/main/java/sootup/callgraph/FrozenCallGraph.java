@@ -0,0 +1,95 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * An immutable call graph created by {@link CompactCallGraph#freeze()}. The callees of all methods
+ * are stored in one array, ordered by the id of the calling method, and the calls of the method
+ * with id i are found between the offsets i and i + 1. The callers are stored the same way. Each
+ * range is sorted, so calls are looked up by binary search.
+ */
+public final class FrozenCallGraph extends AbstractCompactCallGraph {
+
+  @Nonnull private final int[] calleeOffsets;
+  @Nonnull private final int[] calleeIds;
+  @Nonnull private final int[] callerOffsets;
+  @Nonnull private final int[] callerIds;
+
+  FrozenCallGraph(
+      @Nonnull List<MethodSignature> idToMethod,
+      @Nonnull Map<MethodSignature, Integer> methodToId,
+      @Nonnull int[] calleeOffsets,
+      @Nonnull int[] calleeIds,
+      @Nonnull int[] callerOffsets,
+      @Nonnull int[] callerIds) {
+    super(idToMethod, methodToId);
+    this.calleeOffsets = calleeOffsets;
+    this.calleeIds = calleeIds;
+    this.callerOffsets = callerOffsets;
+    this.callerIds = callerIds;
+  }
+
+  @Override
+  public int getCalleeCount(int id) {
+    return calleeOffsets[id + 1] - calleeOffsets[id];
+  }
+
+  @Override
+  public int getCallee(int id, int index) {
+    return calleeIds[calleeOffsets[id] + index];
+  }
+
+  @Override
+  public int getCallerCount(int id) {
+    return callerOffsets[id + 1] - callerOffsets[id];
+  }
+
+  @Override
+  public int getCaller(int id, int index) {
+    return callerIds[callerOffsets[id] + index];
+  }
+
+  @Override
+  public boolean containsCall(int source, int target) {
+    return Arrays.binarySearch(calleeIds, calleeOffsets[source], calleeOffsets[source + 1], target)
+        >= 0;
+  }
+
+  @Override
+  public int callCount() {
+    return calleeIds.length;
+  }
+
+  /** Returns a mutable {@link CompactCallGraph} containing the same methods and calls. */
+  @Nonnull
+  @Override
+  public MutableCallGraph copy() {
+    return CompactCallGraph.copyOf(this);
+  }
+}
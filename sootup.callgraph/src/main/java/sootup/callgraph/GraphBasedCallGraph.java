@@ -26,10 +26,12 @@ import com.google.common.base.Preconditions;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import org.jgrapht.graph.DefaultDirectedGraph;
+import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.signatures.MethodSignature;
 import sootup.core.signatures.SootClassMemberSignature;
 
@@ -58,18 +60,28 @@ public class GraphBasedCallGraph implements MutableCallGraph {
 
   @Nonnull private final DefaultDirectedGraph<Vertex, Edge> graph;
   @Nonnull private final Map<MethodSignature, Vertex> signatureToVertex;
+  @Nonnull private final CallSiteTable callSites;
 
   /** The constructor of the graph based call graph. it initializes the call graph object. */
   public GraphBasedCallGraph() {
     graph = new DefaultDirectedGraph<>(null, null, false);
     signatureToVertex = new HashMap<>();
+    callSites = new CallSiteTable();
   }
 
   public GraphBasedCallGraph(
       @Nonnull DefaultDirectedGraph<Vertex, Edge> graph,
       @Nonnull Map<MethodSignature, Vertex> signatureToVertex) {
+    this(graph, signatureToVertex, new CallSiteTable());
+  }
+
+  public GraphBasedCallGraph(
+      @Nonnull DefaultDirectedGraph<Vertex, Edge> graph,
+      @Nonnull Map<MethodSignature, Vertex> signatureToVertex,
+      @Nonnull CallSiteTable callSites) {
     this.graph = graph;
     this.signatureToVertex = signatureToVertex;
+    this.callSites = callSites;
   }
 
   @Override
@@ -94,6 +106,21 @@ public class GraphBasedCallGraph implements MutableCallGraph {
     graph.addEdge(vertexOf(sourceMethod), vertexOf(targetMethod), edge);
   }
 
+  @Override
+  public void addCall(
+      @Nonnull MethodSignature sourceMethod,
+      @Nonnull MethodSignature targetMethod,
+      @Nonnull Stmt callSite) {
+    addCall(sourceMethod, targetMethod);
+    callSites.addCallSite(callSite, targetMethod);
+  }
+
+  @Nonnull
+  @Override
+  public Optional<CallSiteTable> getCallSites() {
+    return Optional.of(callSites);
+  }
+
   @Nonnull
   @Override
   public Set<MethodSignature> getMethodSignatures() {
@@ -195,7 +222,9 @@ public class GraphBasedCallGraph implements MutableCallGraph {
   @Override
   public MutableCallGraph copy() {
     return new GraphBasedCallGraph(
-        (DefaultDirectedGraph<Vertex, Edge>) graph.clone(), new HashMap<>(signatureToVertex));
+        (DefaultDirectedGraph<Vertex, Edge>) graph.clone(),
+        new HashMap<>(signatureToVertex),
+        new CallSiteTable(callSites));
   }
 
   /**
@@ -23,6 +23,7 @@ package sootup.callgraph;
  */
 
 import javax.annotation.Nonnull;
+import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.signatures.MethodSignature;
 
 /**
@@ -45,4 +46,19 @@ public interface MutableCallGraph extends CallGraph {
    * @param targetMethod this paramter defines the target node of the edge in the call graph.
    */
   void addCall(@Nonnull MethodSignature sourceMethod, @Nonnull MethodSignature targetMethod);
+
+  /**
+   * This method enables to add calls that are edges in the call graph together with the invoke
+   * statement of the call. Call graphs that do not record call sites only add the edge.
+   *
+   * @param sourceMethod this parameter defines the source node of the edge in the call graph.
+   * @param targetMethod this paramter defines the target node of the edge in the call graph.
+   * @param callSite the statement in the body of the source method that invokes the target method.
+   */
+  default void addCall(
+      @Nonnull MethodSignature sourceMethod,
+      @Nonnull MethodSignature targetMethod,
+      @Nonnull Stmt callSite) {
+    addCall(sourceMethod, targetMethod);
+  }
 }
@@ -23,6 +23,7 @@ package sootup.callgraph;
  */
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
@@ -30,6 +31,7 @@ import sootup.core.jimple.common.expr.AbstractInvokeExpr;
 import sootup.core.jimple.common.expr.JNewExpr;
 import sootup.core.jimple.common.expr.JSpecialInvokeExpr;
 import sootup.core.jimple.common.stmt.JAssignStmt;
+import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.MethodModifier;
 import sootup.core.model.SootClass;
 import sootup.core.model.SootMethod;
@@ -44,6 +46,11 @@ import sootup.core.views.View;
  *
  * <p>Compared to the CHA algorithm, this algorithm is more precise because it only considers
  * instantiated subclasses as call targets and CHA considers all subclasses.
+ *
+ * <p>The instantiated classes and ignored calls are kept in concurrent collections, so that the
+ * methods can be processed in parallel. A call is only saved as ignored while its class is not
+ * instantiated, and the ignored calls of a class are taken after it has been marked as
+ * instantiated, so no call is lost if both happen on different threads at the same time.
  */
 public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
 
@@ -55,10 +62,13 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
   private static class Call {
     @Nonnull final MethodSignature source;
     @Nonnull final MethodSignature target;
+    @Nonnull final Stmt callSite;
 
-    private Call(@Nonnull MethodSignature source, @Nonnull MethodSignature target) {
+    private Call(
+        @Nonnull MethodSignature source, @Nonnull MethodSignature target, @Nonnull Stmt callSite) {
       this.source = source;
       this.target = target;
+      this.callSite = callSite;
     }
   }
 
@@ -74,6 +84,17 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
     super(view);
   }
 
+  /**
+   * The constructor of the RTA algorithm that processes the methods on multiple threads.
+   *
+   * @param view it contains the data of the classes and methods. It has to support concurrent
+   *     access.
+   * @param parallelism the number of threads that process the methods
+   */
+  public RapidTypeAnalysisAlgorithm(@Nonnull View<? extends SootClass<?>> view, int parallelism) {
+    super(view, parallelism);
+  }
+
   @Nonnull
   @Override
   public CallGraph initialize() {
@@ -84,8 +105,8 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
   @Nonnull
   @Override
   public CallGraph initialize(@Nonnull List<MethodSignature> entryPoints) {
-    instantiatedClasses = new HashSet<>();
-    ignoredCalls = new HashMap<>();
+    instantiatedClasses = ConcurrentHashMap.newKeySet();
+    ignoredCalls = new ConcurrentHashMap<>();
     CallGraph cg = constructCompleteCallGraph(view, entryPoints);
     instantiatedClasses = Collections.emptySet();
     ignoredCalls = Collections.emptyMap();
@@ -110,12 +131,8 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
             .filter(value -> value instanceof JNewExpr)
             .map(value -> ((JNewExpr) value).getType())
             .collect(Collectors.toSet());
-    List<ClassType> newInstantiatedClassTypes =
-        instantiated.stream()
-            .filter(classType -> !instantiatedClasses.contains(classType))
-            .collect(Collectors.toList());
-    instantiatedClasses.addAll(instantiated);
-    return newInstantiatedClassTypes;
+    // only the first thread adding a class gets it as newly instantiated
+    return instantiated.stream().filter(instantiatedClasses::add).collect(Collectors.toList());
   }
 
   /**
@@ -124,15 +141,15 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
    * is instantiated and if it contains an implementation of the methods called in the invoke
    * expression.
    *
-   * @param sourceMethod the method object that contains the given invoke expression in the body.
-   * @param invokeExpr it contains the call which is resolved.
+   * @param sourceMethod the method object that contains the given invoke statement in the body.
+   * @param callSite the statement containing the call which is resolved.
    * @return a stream containing all reachable method signatures after applying the RTA call graph
    *     algorithm
    */
   @Override
   @Nonnull
-  protected Stream<MethodSignature> resolveCall(
-      SootMethod sourceMethod, AbstractInvokeExpr invokeExpr) {
+  protected Stream<MethodSignature> resolveCall(SootMethod sourceMethod, Stmt callSite) {
+    AbstractInvokeExpr invokeExpr = callSite.getInvokeExpr();
     MethodSignature resolveBaseMethodSignature = invokeExpr.getMethodSignature();
     Stream<MethodSignature> result = Stream.of(resolveBaseMethodSignature);
 
@@ -145,13 +162,15 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
       return result;
     } else {
       // the class of the actual method call is instantiated
-      if (instantiatedClasses.contains(resolveBaseMethodSignature.getDeclClassType())) {
+      if (instantiatedClasses.contains(resolveBaseMethodSignature.getDeclClassType())
+          || !saveIgnoredCall(sourceMethod.getSignature(), resolveBaseMethodSignature, callSite)) {
         return Stream.concat(
             Stream.of(concreteBaseMethod.getSignature()),
-            resolveAllCallTargets(sourceMethod.getSignature(), resolveBaseMethodSignature));
+            resolveAllCallTargets(
+                sourceMethod.getSignature(), resolveBaseMethodSignature, callSite));
       } else {
-        saveIgnoredCall(sourceMethod.getSignature(), resolveBaseMethodSignature);
-        return resolveAllCallTargets(sourceMethod.getSignature(), resolveBaseMethodSignature);
+        return resolveAllCallTargets(
+            sourceMethod.getSignature(), resolveBaseMethodSignature, callSite);
       }
     }
   }
@@ -164,11 +183,12 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
    * @param source the method which contains call
    * @param resolveBaseMethodSignature the base of the resolving. All subtypes of the declaring
    *     class are analyzed as potential targets
+   * @param callSite the statement containing the call
    * @return a stream of all method signatures of instantiated classes that can be resolved as
    *     target from the given base method signature.
    */
   private Stream<MethodSignature> resolveAllCallTargets(
-      MethodSignature source, MethodSignature resolveBaseMethodSignature) {
+      MethodSignature source, MethodSignature resolveBaseMethodSignature, Stmt callSite) {
     return view.getTypeHierarchy().subtypesOf(resolveBaseMethodSignature.getDeclClassType())
         .stream()
         .map(
@@ -176,10 +196,10 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
               MethodSignature method =
                   view.getIdentifierFactory()
                       .getMethodSignature(classType, resolveBaseMethodSignature.getSubSignature());
-              if (instantiatedClasses.contains(classType)) {
+              if (instantiatedClasses.contains(classType)
+                  || !saveIgnoredCall(source, method, callSite)) {
                 return resolveConcreteDispatch(view, method);
               } else {
-                saveIgnoredCall(source, method);
                 return Optional.<MethodSignature>empty();
               }
             })
@@ -189,20 +209,35 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
 
   /**
    * This method saves an ignored call If this is the first ignored call of the class type in the
-   * target method, an entry for the class type is created in the ignoredCalls Hashmap
+   * target method, an entry for the class type is created in the ignoredCalls Hashmap. The call is
+   * not saved if the class type has been instantiated in the meantime by another thread.
    *
    * @param source the source method of the call
    * @param target the target method of the call
+   * @param callSite the statement containing the call
+   * @return true if the call has been saved, false if the class type is instantiated and the call
+   *     has to be resolved instead
    */
-  private void saveIgnoredCall(MethodSignature source, MethodSignature target) {
+  private boolean saveIgnoredCall(MethodSignature source, MethodSignature target, Stmt callSite) {
     ClassType notInstantiatedClass = target.getDeclClassType();
-    List<Call> calls = ignoredCalls.get(notInstantiatedClass);
-    Call ignoredCall = new Call(source, target);
-    if (calls == null) {
-      calls = new ArrayList<>();
-      ignoredCalls.put(notInstantiatedClass, calls);
-    }
-    calls.add(ignoredCall);
+    Call ignoredCall = new Call(source, target, callSite);
+    boolean[] saved = new boolean[1];
+    // checking for the instantiation inside the computation makes it atomic with respect to the
+    // removal of the ignored calls after the class has been instantiated
+    ignoredCalls.compute(
+        notInstantiatedClass,
+        (classType, calls) -> {
+          if (instantiatedClasses.contains(classType)) {
+            return calls;
+          }
+          if (calls == null) {
+            calls = new ArrayList<>();
+          }
+          calls.add(ignoredCall);
+          saved[0] = true;
+          return calls;
+        });
+    return saved[0];
   }
 
   /**
@@ -232,7 +267,8 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
     List<ClassType> newInstantiatedClasses = collectInstantiatedClassesInMethod(method);
     newInstantiatedClasses.forEach(
         instantiatedClassType -> {
-          List<Call> newEdges = ignoredCalls.get(instantiatedClassType);
+          // can be removed because the instantiated class will be considered in future resolves
+          List<Call> newEdges = ignoredCalls.remove(instantiatedClassType);
           if (newEdges != null) {
             newEdges.forEach(
                 call -> {
@@ -243,16 +279,14 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
                   }
                   if (cg.containsMethod(concreteTarget)) {
                     // method is already analyzed or is in the work list, simply add the call
-                    cg.addCall(call.source, concreteTarget);
+                    cg.addCall(call.source, concreteTarget, call.callSite);
                   } else {
                     // new target method found that has to be analyzed
                     cg.addMethod(concreteTarget);
-                    cg.addCall(call.source, concreteTarget);
+                    cg.addCall(call.source, concreteTarget, call.callSite);
                     workList.push(concreteTarget);
                   }
                 });
-            // can be removed because the instantiated class will be considered in future resolves
-            ignoredCalls.remove(instantiatedClassType);
           }
         });
   }
@@ -0,0 +1,673 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.Value;
+import sootup.core.jimple.common.constant.Constant;
+import sootup.core.jimple.common.expr.*;
+import sootup.core.jimple.common.ref.*;
+import sootup.core.jimple.common.stmt.JAssignStmt;
+import sootup.core.jimple.common.stmt.JIdentityStmt;
+import sootup.core.jimple.common.stmt.JReturnStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.FieldSignature;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.typehierarchy.TypeHierarchy;
+import sootup.core.types.ClassType;
+import sootup.core.views.View;
+import sootup.java.core.types.JavaClassType;
+
+/**
+ * This class implements the Variable Type Analysis call graph algorithm. It refines the call graph
+ * of the {@link RapidTypeAnalysisAlgorithm} by computing the types that can reach each variable.
+ *
+ * <p>The algorithm builds a type propagation graph whose nodes are the locals of the methods, the
+ * fields (identified by their name and type), the return values of the methods and one node for all
+ * array elements. Assignments, calls, and returns add edges to the graph, allocations and constants
+ * add their type to a node. The strongly connected components of the graph are collapsed and the
+ * types are propagated in topological order as bitsets. A virtual call keeps only the RTA targets
+ * that one of the types reaching its receiver dispatches to.
+ *
+ * <p>Values the graph cannot describe, e.g. returned by or read from library code, caught
+ * exceptions, or parameters of entry points, carry an unknown type. A call whose receiver can be
+ * reached by the unknown type, or by no type at all, keeps all of its RTA targets.
+ */
+public class VariableTypeAnalysisAlgorithm implements CallGraphAlgorithm {
+
+  /** The id of the pseudo type standing for values whose type is not known. */
+  private static final int UNKNOWN_TYPE = 0;
+
+  @Nonnull private final View<? extends SootClass<?>> view;
+  @Nonnull private final RapidTypeAnalysisAlgorithm rapidTypeAnalysis;
+
+  /**
+   * The constructor of the VTA algorithm.
+   *
+   * @param view it contains the data of the classes and methods
+   */
+  public VariableTypeAnalysisAlgorithm(@Nonnull View<? extends SootClass<?>> view) {
+    this(view, new RapidTypeAnalysisAlgorithm(view));
+  }
+
+  /**
+   * The constructor of the VTA algorithm.
+   *
+   * @param view it contains the data of the classes and methods
+   * @param rapidTypeAnalysis the algorithm building the call graph that is refined
+   */
+  public VariableTypeAnalysisAlgorithm(
+      @Nonnull View<? extends SootClass<?>> view,
+      @Nonnull RapidTypeAnalysisAlgorithm rapidTypeAnalysis) {
+    this.view = view;
+    this.rapidTypeAnalysis = rapidTypeAnalysis;
+  }
+
+  @Nonnull
+  @Override
+  public CallGraph initialize() {
+    return initialize(Collections.singletonList(rapidTypeAnalysis.findMainMethod()));
+  }
+
+  @Nonnull
+  @Override
+  public CallGraph initialize(@Nonnull List<MethodSignature> entryPoints) {
+    return refine(rapidTypeAnalysis.initialize(entryPoints), entryPoints);
+  }
+
+  /**
+   * Adds the class to the call graph with the RTA algorithm and refines the result again. The
+   * methods without callers are used as entry points of the refinement.
+   */
+  @Nonnull
+  @Override
+  public CallGraph addClass(@Nonnull CallGraph oldCallGraph, @Nonnull JavaClassType classType) {
+    CallGraph updated = rapidTypeAnalysis.addClass(oldCallGraph, classType);
+    List<MethodSignature> entryPoints = new ArrayList<>();
+    for (MethodSignature method : updated.getMethodSignatures()) {
+      if (updated.callsTo(method).isEmpty()) {
+        entryPoints.add(method);
+      }
+    }
+    return refine(updated, entryPoints);
+  }
+
+  /**
+   * Removes the virtual calls from the given call graph that are not possible according to the
+   * types reaching their receivers. Methods that are not reachable from the entry points anymore
+   * are removed as well.
+   *
+   * @param callGraph a call graph, e.g. created by RTA or CHA, that records its call sites
+   * @param entryPoints the entry points the call graph has been created with
+   * @return the refined call graph
+   */
+  @Nonnull
+  public CallGraph refine(
+      @Nonnull CallGraph callGraph, @Nonnull List<MethodSignature> entryPoints) {
+    CallSiteTable callSites =
+        callGraph
+            .getCallSites()
+            .orElseThrow(
+                () -> new IllegalArgumentException("The call graph has to record its call sites"));
+    TypePropagationGraph graph = new TypePropagationGraph(callGraph, callSites);
+    graph.build();
+    BitSet[] reachingTypes = graph.propagate();
+
+    // collect the calls that are kept for each method
+    Map<MethodSignature, List<MethodSignature>> keptTargets = new HashMap<>();
+    Map<MethodSignature, List<Stmt>> keptCallSites = new HashMap<>();
+    for (Map.Entry<MethodSignature, SootMethod> entry : graph.methods.entrySet()) {
+      MethodSignature source = entry.getKey();
+      List<MethodSignature> targets = new ArrayList<>();
+      List<Stmt> targetCallSites = new ArrayList<>();
+      Set<MethodSignature> explicitTargets = new HashSet<>();
+      for (Stmt stmt : entry.getValue().getBody().getStmts()) {
+        if (!stmt.containsInvokeExpr()) continue;
+        List<MethodSignature> callSiteTargets = callSites.getTargets(stmt);
+        explicitTargets.addAll(callSiteTargets);
+        Set<MethodSignature> possibleTargets =
+            graph.possibleTargets(source, stmt.getInvokeExpr(), reachingTypes);
+        for (MethodSignature target : callSiteTargets) {
+          if (possibleTargets == null || possibleTargets.contains(target)) {
+            targets.add(target);
+            targetCallSites.add(stmt);
+          }
+        }
+      }
+      // implicit calls, e.g. to static initializers, have no call site and are kept
+      for (MethodSignature target : callGraph.callsFrom(source)) {
+        if (!explicitTargets.contains(target)) {
+          targets.add(target);
+          targetCallSites.add(null);
+        }
+      }
+      keptTargets.put(source, targets);
+      keptCallSites.put(source, targetCallSites);
+    }
+
+    // only add the methods that are still reachable from the entry points
+    MutableCallGraph refined = new GraphBasedCallGraph();
+    Deque<MethodSignature> workList = new ArrayDeque<>();
+    for (MethodSignature entryPoint : entryPoints) {
+      if (callGraph.containsMethod(entryPoint) && !refined.containsMethod(entryPoint)) {
+        refined.addMethod(entryPoint);
+        workList.push(entryPoint);
+      }
+    }
+    while (!workList.isEmpty()) {
+      MethodSignature source = workList.pop();
+      List<MethodSignature> targets = keptTargets.get(source);
+      if (targets == null) continue;
+      List<Stmt> targetCallSites = keptCallSites.get(source);
+      for (int i = 0; i < targets.size(); i++) {
+        MethodSignature target = targets.get(i);
+        if (!refined.containsMethod(target)) {
+          refined.addMethod(target);
+          workList.push(target);
+        }
+        Stmt callSite = targetCallSites.get(i);
+        if (callSite == null) {
+          refined.addCall(source, target);
+        } else {
+          refined.addCall(source, target, callSite);
+        }
+      }
+    }
+    return refined;
+  }
+
+  /**
+   * The type propagation graph of the methods in a call graph. Each node is identified by an int
+   * id, the edges are stored as growable int arrays.
+   */
+  private class TypePropagationGraph {
+
+    @Nonnull private final CallGraph callGraph;
+    @Nonnull private final CallSiteTable callSites;
+
+    /** The methods whose bodies are part of the graph. */
+    @Nonnull final Map<MethodSignature, SootMethod> methods = new LinkedHashMap<>();
+
+    @Nonnull private final Map<Object, Integer> nodeIds = new HashMap<>();
+    @Nonnull private int[][] successors = new int[64][];
+    @Nonnull private int[] successorCounts = new int[64];
+
+    @Nonnull private final Map<ClassType, Integer> typeIds = new HashMap<>();
+    @Nonnull private final List<ClassType> types = new ArrayList<>();
+    @Nonnull private final Map<Integer, BitSet> seeds = new HashMap<>();
+
+    @Nonnull private final Map<MethodSignature, Local> thisLocals = new HashMap<>();
+
+    @Nonnull
+    private final Map<MethodSignature, Map<Integer, Local>> parameterLocals = new HashMap<>();
+
+    private final int arrayElementsNode;
+
+    TypePropagationGraph(@Nonnull CallGraph callGraph, @Nonnull CallSiteTable callSites) {
+      this.callGraph = callGraph;
+      this.callSites = callSites;
+      types.add(null); // the unknown type
+      arrayElementsNode = node(ArrayElements.INSTANCE);
+    }
+
+    void build() {
+      for (MethodSignature signature : callGraph.getMethodSignatures()) {
+        SootMethod method = getModeledMethod(signature);
+        if (method != null) {
+          methods.put(signature, method);
+        }
+      }
+      // the parameters have to be known before the calls are added
+      methods.forEach(this::collectIdentityLocals);
+      methods.forEach(this::addStatements);
+    }
+
+    /**
+     * Returns the method if its body is part of the graph, which is the case for all methods of
+     * application classes that have a body.
+     */
+    @Nullable
+    private SootMethod getModeledMethod(@Nonnull MethodSignature signature) {
+      SootClass<?> clazz = view.getClass(signature.getDeclClassType()).orElse(null);
+      if (clazz == null || clazz.isLibraryClass()) {
+        return null;
+      }
+      SootMethod method = clazz.getMethod(signature.getSubSignature()).orElse(null);
+      if (method == null || !method.hasBody()) {
+        return null;
+      }
+      return method;
+    }
+
+    private void collectIdentityLocals(
+        @Nonnull MethodSignature signature, @Nonnull SootMethod method) {
+      boolean isEntryPoint = callGraph.callsTo(signature).isEmpty();
+      for (Stmt stmt : method.getBody().getStmts()) {
+        if (!(stmt instanceof JIdentityStmt)) continue;
+        JIdentityStmt identityStmt = (JIdentityStmt) stmt;
+        Local local = identityStmt.getLeftOp();
+        IdentityRef ref = identityStmt.getRightOp();
+        if (ref instanceof JThisRef) {
+          thisLocals.put(signature, local);
+        } else if (ref instanceof JParameterRef) {
+          parameterLocals
+              .computeIfAbsent(signature, key -> new HashMap<>())
+              .put(((JParameterRef) ref).getIndex(), local);
+        } else {
+          // e.g. caught exceptions
+          seed(localNode(signature, local), UNKNOWN_TYPE);
+          continue;
+        }
+        if (isEntryPoint) {
+          seed(localNode(signature, local), UNKNOWN_TYPE);
+        }
+      }
+    }
+
+    private void addStatements(@Nonnull MethodSignature signature, @Nonnull SootMethod method) {
+      for (Stmt stmt : method.getBody().getStmts()) {
+        if (stmt instanceof JAssignStmt) {
+          Value leftOp = ((JAssignStmt) stmt).getLeftOp();
+          Value rightOp = ((JAssignStmt) stmt).getRightOp();
+          int target = valueNode(signature, leftOp);
+          if (rightOp instanceof AbstractInvokeExpr) {
+            addReturnFlow(stmt, target);
+          } else {
+            addFlow(signature, rightOp, target);
+          }
+        } else if (stmt instanceof JReturnStmt) {
+          addFlow(signature, ((JReturnStmt) stmt).getOp(), node(new ReturnValue(signature)));
+        }
+        if (stmt.containsInvokeExpr()) {
+          addParameterFlow(signature, stmt);
+        }
+      }
+    }
+
+    /** Returns the node a value is assigned to. */
+    private int valueNode(@Nonnull MethodSignature signature, @Nonnull Value value) {
+      if (value instanceof Local) {
+        return localNode(signature, (Local) value);
+      }
+      if (value instanceof JFieldRef) {
+        return fieldNode(((JFieldRef) value).getFieldSignature());
+      }
+      if (value instanceof JArrayRef) {
+        return arrayElementsNode;
+      }
+      throw new IllegalArgumentException("Unexpected assignment to " + value);
+    }
+
+    /** Adds the types the value can have to the target node. */
+    private void addFlow(@Nonnull MethodSignature signature, @Nonnull Value value, int target) {
+      if (value instanceof Local) {
+        addEdge(localNode(signature, (Local) value), target);
+      } else if (value instanceof JNewExpr) {
+        seed(target, typeId(((JNewExpr) value).getType()));
+      } else if (value instanceof Constant) {
+        if (value.getType() instanceof ClassType) {
+          seed(target, typeId((ClassType) value.getType()));
+        }
+      } else if (value instanceof JCastExpr) {
+        addFlow(signature, ((JCastExpr) value).getOp(), target);
+      } else if (value instanceof JFieldRef) {
+        addEdge(fieldNode(((JFieldRef) value).getFieldSignature()), target);
+      } else if (value instanceof JArrayRef) {
+        // arrays created by library code carry the unknown type to their elements
+        addEdge(localNode(signature, ((JArrayRef) value).getBase()), arrayElementsNode);
+        addEdge(arrayElementsNode, target);
+      } else if (value instanceof JPhiExpr) {
+        for (Local arg : ((JPhiExpr) value).getArgs()) {
+          addEdge(localNode(signature, arg), target);
+        }
+      }
+    }
+
+    /** Adds the return values of all targets of the call site to the target node. */
+    private void addReturnFlow(@Nonnull Stmt callSite, int target) {
+      List<MethodSignature> targets = callSites.getTargets(callSite);
+      if (targets.isEmpty()) {
+        seed(target, UNKNOWN_TYPE);
+      }
+      for (MethodSignature callee : targets) {
+        if (methods.containsKey(callee)) {
+          addEdge(node(new ReturnValue(callee)), target);
+        } else {
+          seed(target, UNKNOWN_TYPE);
+        }
+      }
+    }
+
+    /** Adds the arguments and the receiver of the call site to the parameters of its targets. */
+    private void addParameterFlow(@Nonnull MethodSignature signature, @Nonnull Stmt callSite) {
+      AbstractInvokeExpr invokeExpr = callSite.getInvokeExpr();
+      for (MethodSignature callee : callSites.getTargets(callSite)) {
+        if (!methods.containsKey(callee)) continue;
+        if (invokeExpr instanceof AbstractInstanceInvokeExpr) {
+          Local thisLocal = thisLocals.get(callee);
+          if (thisLocal != null) {
+            addEdge(
+                localNode(signature, ((AbstractInstanceInvokeExpr) invokeExpr).getBase()),
+                localNode(callee, thisLocal));
+          }
+        }
+        Map<Integer, Local> calleeParameters =
+            parameterLocals.getOrDefault(callee, Collections.emptyMap());
+        for (int index = 0; index < invokeExpr.getArgCount(); index++) {
+          Local parameter = calleeParameters.get(index);
+          if (parameter != null) {
+            addFlow(signature, invokeExpr.getArg(index), localNode(callee, parameter));
+          }
+        }
+      }
+    }
+
+    /**
+     * Returns the targets the call can dispatch to according to the types reaching its receiver, or
+     * null if all targets have to be kept.
+     */
+    @Nullable
+    Set<MethodSignature> possibleTargets(
+        @Nonnull MethodSignature signature,
+        @Nonnull AbstractInvokeExpr invokeExpr,
+        @Nonnull BitSet[] reachingTypes) {
+      if (!(invokeExpr instanceof JVirtualInvokeExpr)
+          && !(invokeExpr instanceof JInterfaceInvokeExpr)) {
+        return null;
+      }
+      Integer receiver =
+          nodeIds.get(
+              new LocalVariable(signature, ((AbstractInstanceInvokeExpr) invokeExpr).getBase()));
+      if (receiver == null) {
+        return null;
+      }
+      BitSet receiverTypes = reachingTypes[receiver];
+      if (receiverTypes.isEmpty() || receiverTypes.get(UNKNOWN_TYPE)) {
+        return null;
+      }
+      MethodSignature calledMethod = invokeExpr.getMethodSignature();
+      ClassType declaringType = calledMethod.getDeclClassType();
+      TypeHierarchy typeHierarchy = view.getTypeHierarchy();
+      Set<MethodSignature> targets = new HashSet<>();
+      for (int typeId = receiverTypes.nextSetBit(1);
+          typeId >= 0;
+          typeId = receiverTypes.nextSetBit(typeId + 1)) {
+        ClassType type = types.get(typeId);
+        if (!type.equals(declaringType) && !typeHierarchy.isSubtype(declaringType, type)) {
+          continue;
+        }
+        AbstractCallGraphAlgorithm.resolveConcreteDispatch(
+                view,
+                view.getIdentifierFactory()
+                    .getMethodSignature(type, calledMethod.getSubSignature()))
+            .ifPresent(targets::add);
+      }
+      return targets;
+    }
+
+    /**
+     * Collapses the strongly connected components of the graph and propagates the types along the
+     * edges in topological order.
+     *
+     * @return the types reaching each node, indexed by the node id. Nodes of the same component
+     *     share their bitset.
+     */
+    @Nonnull
+    BitSet[] propagate() {
+      int nodeCount = nodeIds.size();
+      int[] components = new int[nodeCount];
+      int componentCount = findComponents(components);
+
+      BitSet[] componentTypes = new BitSet[componentCount];
+      for (int component = 0; component < componentCount; component++) {
+        componentTypes[component] = new BitSet();
+      }
+      seeds.forEach((node, nodeTypes) -> componentTypes[components[node]].or(nodeTypes));
+
+      // group the nodes by their component
+      int[] componentOffsets = new int[componentCount + 1];
+      for (int node = 0; node < nodeCount; node++) {
+        componentOffsets[components[node] + 1]++;
+      }
+      for (int component = 0; component < componentCount; component++) {
+        componentOffsets[component + 1] += componentOffsets[component];
+      }
+      int[] componentNodes = new int[nodeCount];
+      int[] fill = Arrays.copyOf(componentOffsets, componentCount);
+      for (int node = 0; node < nodeCount; node++) {
+        componentNodes[fill[components[node]]++] = node;
+      }
+
+      // the components are numbered in reverse topological order
+      for (int component = componentCount - 1; component >= 0; component--) {
+        BitSet reaching = componentTypes[component];
+        for (int i = componentOffsets[component]; i < componentOffsets[component + 1]; i++) {
+          int node = componentNodes[i];
+          for (int j = 0; j < successorCounts[node]; j++) {
+            int successorComponent = components[successors[node][j]];
+            if (successorComponent != component) {
+              componentTypes[successorComponent].or(reaching);
+            }
+          }
+        }
+      }
+
+      BitSet[] nodeTypes = new BitSet[nodeCount];
+      for (int node = 0; node < nodeCount; node++) {
+        nodeTypes[node] = componentTypes[components[node]];
+      }
+      return nodeTypes;
+    }
+
+    /**
+     * Finds the strongly connected components with an iterative version of Tarjan's algorithm. A
+     * component is numbered after all components reachable from it.
+     *
+     * @param components is filled with the component of each node
+     * @return the number of components
+     */
+    private int findComponents(@Nonnull int[] components) {
+      int nodeCount = components.length;
+      int[] index = new int[nodeCount];
+      int[] lowLink = new int[nodeCount];
+      int[] nextSuccessor = new int[nodeCount];
+      boolean[] onStack = new boolean[nodeCount];
+      Arrays.fill(index, -1);
+      int[] stack = new int[nodeCount];
+      int stackSize = 0;
+      int[] callStack = new int[nodeCount];
+      int nextIndex = 0;
+      int componentCount = 0;
+
+      for (int root = 0; root < nodeCount; root++) {
+        if (index[root] >= 0) continue;
+        int callStackSize = 0;
+        callStack[callStackSize++] = root;
+        index[root] = lowLink[root] = nextIndex++;
+        stack[stackSize++] = root;
+        onStack[root] = true;
+
+        while (callStackSize > 0) {
+          int node = callStack[callStackSize - 1];
+          if (nextSuccessor[node] < successorCounts[node]) {
+            int successor = successors[node][nextSuccessor[node]++];
+            if (index[successor] < 0) {
+              index[successor] = lowLink[successor] = nextIndex++;
+              stack[stackSize++] = successor;
+              onStack[successor] = true;
+              callStack[callStackSize++] = successor;
+            } else if (onStack[successor]) {
+              lowLink[node] = Math.min(lowLink[node], index[successor]);
+            }
+            continue;
+          }
+          callStackSize--;
+          if (callStackSize > 0) {
+            int parent = callStack[callStackSize - 1];
+            lowLink[parent] = Math.min(lowLink[parent], lowLink[node]);
+          }
+          if (lowLink[node] == index[node]) {
+            int member;
+            do {
+              member = stack[--stackSize];
+              onStack[member] = false;
+              components[member] = componentCount;
+            } while (member != node);
+            componentCount++;
+          }
+        }
+      }
+      return componentCount;
+    }
+
+    private int localNode(@Nonnull MethodSignature signature, @Nonnull Local local) {
+      return node(new LocalVariable(signature, local));
+    }
+
+    private int fieldNode(@Nonnull FieldSignature field) {
+      // fields are accessed through the type of the base, which can be a subclass of the declaring
+      // class, so they are identified by their name and type only
+      int node = node(field.getSubSignature());
+      SootClass<?> declaringClass = resolveDeclaringClass(field);
+      if (declaringClass == null || declaringClass.isLibraryClass()) {
+        // library code can write the field
+        seed(node, UNKNOWN_TYPE);
+      }
+      return node;
+    }
+
+    /**
+     * Returns the class declaring the field, i.e. the class of the signature or its nearest
+     * superclass with the field, or null if the class hierarchy is incomplete.
+     */
+    @Nullable
+    private SootClass<?> resolveDeclaringClass(@Nonnull FieldSignature field) {
+      ClassType type = field.getDeclClassType();
+      while (type != null) {
+        SootClass<?> clazz = view.getClass(type).orElse(null);
+        if (clazz == null || clazz.getField(field.getSubSignature()).isPresent()) {
+          return clazz;
+        }
+        type = clazz.getSuperclass().orElse(null);
+      }
+      return null;
+    }
+
+    private int node(@Nonnull Object key) {
+      Integer id = nodeIds.get(key);
+      if (id != null) {
+        return id;
+      }
+      int node = nodeIds.size();
+      nodeIds.put(key, node);
+      if (node == successors.length) {
+        successors = Arrays.copyOf(successors, node * 2);
+        successorCounts = Arrays.copyOf(successorCounts, node * 2);
+      }
+      successors[node] = new int[2];
+      return node;
+    }
+
+    private void addEdge(int source, int target) {
+      if (source == target) {
+        return;
+      }
+      int count = successorCounts[source];
+      if (count == successors[source].length) {
+        successors[source] = Arrays.copyOf(successors[source], count * 2);
+      }
+      successors[source][count] = target;
+      successorCounts[source] = count + 1;
+    }
+
+    private int typeId(@Nonnull ClassType type) {
+      return typeIds.computeIfAbsent(
+          type,
+          key -> {
+            types.add(key);
+            return types.size() - 1;
+          });
+    }
+
+    private void seed(int node, int typeId) {
+      seeds.computeIfAbsent(node, key -> new BitSet()).set(typeId);
+    }
+  }
+
+  /** Identifies the node of a local variable in a method. */
+  private static final class LocalVariable {
+    @Nonnull private final MethodSignature method;
+    @Nonnull private final String name;
+
+    private LocalVariable(@Nonnull MethodSignature method, @Nonnull Local local) {
+      this.method = method;
+      this.name = local.getName();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof LocalVariable)) {
+        return false;
+      }
+      LocalVariable that = (LocalVariable) o;
+      return method.equals(that.method) && name.equals(that.name);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * method.hashCode() + name.hashCode();
+    }
+  }
+
+  /** Identifies the node of the return value of a method. */
+  private static final class ReturnValue {
+    @Nonnull private final MethodSignature method;
+
+    private ReturnValue(@Nonnull MethodSignature method) {
+      this.method = method;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof ReturnValue && method.equals(((ReturnValue) o).method);
+    }
+
+    @Override
+    public int hashCode() {
+      return method.hashCode();
+    }
+  }
+
+  /** Identifies the node of the elements of all arrays. */
+  private enum ArrayElements {
+    INSTANCE
+  }
+}
@@ -0,0 +1,123 @@
+package sootup.callgraph.pointsto;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ReferenceType;
+
+/**
+ * An abstract object of the points-to analysis. It stands for all objects of a type that are
+ * allocated by one statement, all constants of a type, or all objects of a type that are created by
+ * code the analysis does not see, e.g. library code.
+ */
+public final class AllocationSite {
+
+  /** The kind of objects an allocation site stands for. */
+  public enum Kind {
+    /** Objects allocated by a statement of an analyzed method. */
+    ALLOCATION,
+    /** String, class, method handle, and method type constants. */
+    CONSTANT,
+    /** Objects created outside of the analyzed methods, whose exact type is not known. */
+    UNKNOWN
+  }
+
+  @Nonnull private final Kind kind;
+  @Nonnull private final ReferenceType type;
+  @Nullable private final MethodSignature method;
+  @Nullable private final Stmt stmt;
+
+  AllocationSite(
+      @Nonnull Kind kind,
+      @Nonnull ReferenceType type,
+      @Nullable MethodSignature method,
+      @Nullable Stmt stmt) {
+    this.kind = kind;
+    this.type = type;
+    this.method = method;
+    this.stmt = stmt;
+  }
+
+  @Nonnull
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * Returns the type of the objects. For unknown objects, this is the declared type, i.e. the
+   * objects can have any subtype of it.
+   */
+  @Nonnull
+  public ReferenceType getType() {
+    return type;
+  }
+
+  /** Returns the method containing the allocation, or null for constants and unknown objects. */
+  @Nullable
+  public MethodSignature getMethod() {
+    return method;
+  }
+
+  /** Returns the allocating statement, or null for constants and unknown objects. */
+  @Nullable
+  public Stmt getStmt() {
+    return stmt;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof AllocationSite)) {
+      return false;
+    }
+    AllocationSite that = (AllocationSite) o;
+    // statements are compared by identity, like in the bodies they belong to
+    return kind == that.kind
+        && type.equals(that.type)
+        && Objects.equals(method, that.method)
+        && stmt == that.stmt;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(kind, type, method, System.identityHashCode(stmt));
+  }
+
+  @Override
+  public String toString() {
+    switch (kind) {
+      case ALLOCATION:
+        return "new " + type + " in " + method + ": " + stmt;
+      case CONSTANT:
+        return "constant " + type;
+      default:
+        return "unknown " + type;
+    }
+  }
+}
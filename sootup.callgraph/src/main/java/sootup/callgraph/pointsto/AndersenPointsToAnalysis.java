@@ -0,0 +1,113 @@
+package sootup.callgraph.pointsto;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nonnull;
+import sootup.callgraph.CallGraph;
+import sootup.callgraph.CallGraphAlgorithm;
+import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
+import sootup.core.model.Method;
+import sootup.core.model.SootClass;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.views.View;
+import sootup.java.core.types.JavaClassType;
+
+/**
+ * A field-sensitive, flow-insensitive and context-insensitive points-to analysis with inclusion
+ * constraints, as described by Andersen. The call graph is constructed on the fly: a virtual call
+ * is dispatched on the types of the objects its receiver points to, and the methods become
+ * reachable when a call to them is found.
+ *
+ * <p>Like the other call graph algorithms, the analysis does not look into the bodies of library
+ * classes. Objects returned by library methods, read from fields of library classes, caught as
+ * exceptions, or passed to entry points are represented by an unknown object of the declared type.
+ * This includes fields declared by library classes that are read through an application subclass.
+ * Arrays passed to library methods or stored in library fields escape: their elements, e.g. those
+ * of the destination of {@link System#arraycopy}, point to unknown objects as well. A virtual call
+ * on an unknown object is resolved with the class hierarchy.
+ */
+public class AndersenPointsToAnalysis implements CallGraphAlgorithm {
+
+  @Nonnull private final View<? extends SootClass<?>> view;
+
+  /**
+   * The constructor of the points-to analysis.
+   *
+   * @param view it contains the data of the classes and methods
+   */
+  public AndersenPointsToAnalysis(@Nonnull View<? extends SootClass<?>> view) {
+    this.view = view;
+  }
+
+  /**
+   * Computes the points-to sets and the call graph of all methods reachable from the entry points.
+   *
+   * @param entryPoints the methods the analysis starts with
+   * @return the result, which can be queried for the points-to sets and the call graph
+   */
+  @Nonnull
+  public PointsToResult analyze(@Nonnull List<MethodSignature> entryPoints) {
+    AndersenSolver solver = new AndersenSolver(view);
+    solver.solve(entryPoints);
+    return new PointsToResult(solver);
+  }
+
+  @Nonnull
+  @Override
+  public CallGraph initialize() {
+    return initialize(
+        Collections.singletonList(new ClassHierarchyAnalysisAlgorithm(view).findMainMethod()));
+  }
+
+  @Nonnull
+  @Override
+  public CallGraph initialize(@Nonnull List<MethodSignature> entryPoints) {
+    return analyze(entryPoints).getCallGraph();
+  }
+
+  /**
+   * Analyzes the program again with the methods of the class and the methods without callers in the
+   * old call graph as entry points.
+   */
+  @Nonnull
+  @Override
+  public CallGraph addClass(@Nonnull CallGraph oldCallGraph, @Nonnull JavaClassType classType) {
+    SootClass<?> clazz = view.getClassOrThrow(classType);
+    List<MethodSignature> entryPoints = new ArrayList<>();
+    for (Method method : clazz.getMethods()) {
+      if (oldCallGraph.containsMethod(method.getSignature())) {
+        throw new IllegalArgumentException("CallGraph already contains methods from " + classType);
+      }
+      entryPoints.add(method.getSignature());
+    }
+    for (MethodSignature method : oldCallGraph.getMethodSignatures()) {
+      if (oldCallGraph.callsTo(method).isEmpty()) {
+        entryPoints.add(method);
+      }
+    }
+    return initialize(entryPoints);
+  }
+}
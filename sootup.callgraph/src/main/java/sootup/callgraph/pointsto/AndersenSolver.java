@@ -0,0 +1,1044 @@
+package sootup.callgraph.pointsto;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.callgraph.AbstractCallGraphAlgorithm;
+import sootup.callgraph.GraphBasedCallGraph;
+import sootup.callgraph.MutableCallGraph;
+import sootup.core.IdentifierFactory;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.Value;
+import sootup.core.jimple.common.constant.Constant;
+import sootup.core.jimple.common.expr.*;
+import sootup.core.jimple.common.ref.*;
+import sootup.core.jimple.common.stmt.JAssignStmt;
+import sootup.core.jimple.common.stmt.JIdentityStmt;
+import sootup.core.jimple.common.stmt.JReturnStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.FieldSignature;
+import sootup.core.signatures.FieldSubSignature;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.typehierarchy.TypeHierarchy;
+import sootup.core.types.*;
+import sootup.core.views.View;
+
+/**
+ * Solves the inclusion constraints of the Andersen-style points-to analysis while the reachable
+ * methods are discovered. The constraint graph has a node for each local, parameter, return value,
+ * static field, and field of an abstract object. Each node has an int id, a points-to set of object
+ * ids and a list of the nodes its objects flow to. Loads, stores and virtual calls are complex
+ * constraints attached to the node of their base, which are applied to each object reaching it.
+ *
+ * <p>The solver uses difference propagation: only the objects a node received since it was last
+ * processed are passed along its edges. Cycles are detected lazily when an edge connects two nodes
+ * with equal points-to sets, and the nodes of a cycle are merged into one.
+ */
+final class AndersenSolver {
+
+  /** The field id of the elements of arrays. */
+  private static final int ARRAY_ELEMENTS = 0;
+
+  @Nonnull private final View<? extends SootClass<?>> view;
+  @Nonnull private final IdentifierFactory identifierFactory;
+  @Nonnull private final TypeHierarchy typeHierarchy;
+  @Nonnull private final ClassType objectType;
+  @Nonnull private final MutableCallGraph cg = new GraphBasedCallGraph();
+
+  // abstract objects
+  @Nonnull final List<AllocationSite> objects = new ArrayList<>();
+  @Nonnull private final Map<AllocationSite, Integer> objectIds = new HashMap<>();
+
+  // nodes
+  @Nonnull final Map<Object, Integer> nodeIds = new HashMap<>();
+  private int nodeCount;
+  private int mergedNodeCount;
+  @Nonnull private int[] representatives = new int[64];
+  @Nonnull private HybridIntSet[] pointsToSets = new HybridIntSet[64];
+  @Nonnull private HybridIntSet[] deltas = new HybridIntSet[64];
+  @Nonnull private int[][] successors = new int[64][];
+  @Nonnull private int[] successorCounts = new int[64];
+  @Nonnull private List<List<Constraint>> constraints = new ArrayList<>();
+  @Nonnull private final Set<Long> edges = new HashSet<>();
+  @Nonnull private final Set<Long> checkedEdges = new HashSet<>();
+
+  // fields
+  @Nonnull private final Map<FieldSubSignature, Integer> fieldIds = new HashMap<>();
+  @Nonnull private final Map<Long, Integer> fieldNodes = new HashMap<>();
+  @Nonnull private final Map<FieldSignature, FieldSignature> resolvedFields = new HashMap<>();
+
+  /** The arrays passed to library code, which can write their elements. */
+  @Nonnull private final BitSet escapedObjects = new BitSet();
+
+  // methods and calls
+  @Nonnull
+  private final Map<MethodSignature, Optional<SootMethod>> modeledMethods = new HashMap<>();
+
+  @Nonnull private final Set<MethodSignature> reachableMethods = new HashSet<>();
+  @Nonnull private final Deque<MethodSignature> methodWorkList = new ArrayDeque<>();
+  @Nonnull private final Map<Stmt, Set<MethodSignature>> callTargets = new IdentityHashMap<>();
+
+  @Nonnull
+  private final Map<MethodSignature, Set<MethodSignature>> hierarchyTargets = new HashMap<>();
+
+  // work list of nodes with a non-empty delta
+  @Nonnull private final Deque<Integer> workList = new ArrayDeque<>();
+  @Nonnull private final BitSet queued = new BitSet();
+
+  // reused by the cycle detection
+  @Nonnull private int[] visitStamps = new int[64];
+  @Nonnull private int[] parents = new int[64];
+  private int currentStamp;
+
+  AndersenSolver(@Nonnull View<? extends SootClass<?>> view) {
+    this.view = view;
+    this.identifierFactory = view.getIdentifierFactory();
+    this.typeHierarchy = view.getTypeHierarchy();
+    this.objectType = identifierFactory.getClassType("java.lang.Object");
+    fieldIds.put(null, ARRAY_ELEMENTS);
+  }
+
+  /** Computes the points-to sets and the call graph of all methods reachable from the entries. */
+  void solve(@Nonnull List<MethodSignature> entryPoints) {
+    for (MethodSignature entryPoint : entryPoints) {
+      makeReachable(entryPoint);
+      SootMethod method = getModeledMethod(entryPoint);
+      if (method == null) continue;
+      // the callers of entry points are not known
+      if (!method.isStatic()) {
+        addObject(
+            node(new MethodNodeKey(entryPoint, MethodNodeKey.THIS, 0)),
+            unknownObject(entryPoint.getDeclClassType()));
+      }
+      List<Type> parameterTypes = entryPoint.getParameterTypes();
+      for (int index = 0; index < parameterTypes.size(); index++) {
+        if (isReference(parameterTypes.get(index))) {
+          addObject(
+              node(new MethodNodeKey(entryPoint, MethodNodeKey.PARAMETER, index)),
+              unknownObject(parameterTypes.get(index)));
+        }
+      }
+      // implicit edge from entry point to static initializer
+      view.getMethod(identifierFactory.getStaticInitializerSignature(entryPoint.getDeclClassType()))
+          .ifPresent(clinit -> addImplicitCall(entryPoint, clinit.getSignature()));
+    }
+
+    while (true) {
+      if (!methodWorkList.isEmpty()) {
+        processMethod(methodWorkList.pop());
+        continue;
+      }
+      if (workList.isEmpty()) {
+        break;
+      }
+      int node = workList.poll();
+      queued.clear(node);
+      processNode(node);
+    }
+  }
+
+  @Nonnull
+  MutableCallGraph getCallGraph() {
+    return cg;
+  }
+
+  int getNodeCount() {
+    return nodeCount;
+  }
+
+  int getMergedNodeCount() {
+    return mergedNodeCount;
+  }
+
+  /** Returns the points-to set of the node with the given key, or null if there is no node. */
+  @Nullable
+  HybridIntSet getPointsToSet(@Nonnull Object key) {
+    Integer node = nodeIds.get(key);
+    return node == null ? null : pointsToSets[find(node)];
+  }
+
+  @Nullable
+  HybridIntSet getFieldPointsToSet(int object, @Nullable FieldSubSignature field) {
+    Integer fieldId = fieldIds.get(field);
+    if (fieldId == null) {
+      return null;
+    }
+    Integer node = fieldNodes.get(fieldKey(object, fieldId));
+    return node == null ? null : pointsToSets[find(node)];
+  }
+
+  @Nullable
+  HybridIntSet getStaticFieldPointsToSet(@Nonnull FieldSignature field) {
+    return getPointsToSet(resolveField(field));
+  }
+
+  int getObjectId(@Nonnull AllocationSite object) {
+    Integer id = objectIds.get(object);
+    return id == null ? -1 : id;
+  }
+
+  // ---- methods ----
+
+  private void makeReachable(@Nonnull MethodSignature method) {
+    if (!cg.containsMethod(method)) {
+      cg.addMethod(method);
+    }
+    if (reachableMethods.add(method)) {
+      methodWorkList.push(method);
+    }
+  }
+
+  /**
+   * Returns the method if its body is analyzed, which is the case for all methods of application
+   * classes that have a body.
+   */
+  @Nullable
+  private SootMethod getModeledMethod(@Nonnull MethodSignature signature) {
+    return modeledMethods
+        .computeIfAbsent(
+            signature,
+            key -> {
+              SootClass<?> clazz = view.getClass(key.getDeclClassType()).orElse(null);
+              if (clazz == null || clazz.isLibraryClass()) {
+                return Optional.empty();
+              }
+              return clazz
+                  .getMethod(key.getSubSignature())
+                  .filter(SootMethod::hasBody)
+                  .map(method -> (SootMethod) method);
+            })
+        .orElse(null);
+  }
+
+  private void processMethod(@Nonnull MethodSignature signature) {
+    SootMethod method = getModeledMethod(signature);
+    if (method == null) {
+      return;
+    }
+    AbstractCallGraphAlgorithm.resolveStaticInitializerCalls(view, method)
+        .forEach(clinit -> addImplicitCall(signature, clinit));
+
+    for (Stmt stmt : method.getBody().getStmts()) {
+      if (stmt instanceof JIdentityStmt) {
+        processIdentity(signature, (JIdentityStmt) stmt);
+      } else if (stmt instanceof JAssignStmt) {
+        JAssignStmt assignStmt = (JAssignStmt) stmt;
+        if (stmt.containsInvokeExpr()) {
+          processCall(signature, stmt, (Local) assignStmt.getLeftOp());
+        } else {
+          processAssignment(signature, stmt, assignStmt.getLeftOp(), assignStmt.getRightOp());
+        }
+      } else if (stmt instanceof JReturnStmt) {
+        int value = valueNode(signature, stmt, ((JReturnStmt) stmt).getOp());
+        if (value >= 0) {
+          addEdge(value, node(new MethodNodeKey(signature, MethodNodeKey.RETURN, 0)));
+        }
+      } else if (stmt.containsInvokeExpr()) {
+        processCall(signature, stmt, null);
+      }
+    }
+  }
+
+  private void addImplicitCall(@Nonnull MethodSignature source, @Nonnull MethodSignature target) {
+    makeReachable(target);
+    if (!cg.containsCall(source, target)) {
+      cg.addCall(source, target);
+    }
+  }
+
+  private void processIdentity(@Nonnull MethodSignature method, @Nonnull JIdentityStmt stmt) {
+    Local local = stmt.getLeftOp();
+    if (!isReference(local.getType())) {
+      return;
+    }
+    IdentityRef ref = stmt.getRightOp();
+    if (ref instanceof JThisRef) {
+      addEdge(node(new MethodNodeKey(method, MethodNodeKey.THIS, 0)), localNode(method, local));
+    } else if (ref instanceof JParameterRef) {
+      addEdge(
+          node(
+              new MethodNodeKey(method, MethodNodeKey.PARAMETER, ((JParameterRef) ref).getIndex())),
+          localNode(method, local));
+    } else {
+      // caught exceptions are thrown by code the analysis does not track
+      addObject(localNode(method, local), unknownObject(local.getType()));
+    }
+  }
+
+  private void processAssignment(
+      @Nonnull MethodSignature method,
+      @Nonnull Stmt stmt,
+      @Nonnull Value left,
+      @Nonnull Value right) {
+    if (left instanceof Local) {
+      if (isReference(left.getType())) {
+        flowInto(method, stmt, right, localNode(method, (Local) left), left.getType());
+      }
+      return;
+    }
+    if (!isReference(right.getType())) {
+      return;
+    }
+    int source = valueNode(method, stmt, right);
+    if (source < 0) {
+      return;
+    }
+    if (left instanceof JInstanceFieldRef) {
+      JInstanceFieldRef fieldRef = (JInstanceFieldRef) left;
+      if (isLibraryField(fieldRef.getFieldSignature())) {
+        // library code can read the field and write the elements of the arrays stored in it
+        addConstraint(source, Escape.INSTANCE);
+      }
+      addConstraint(
+          localNode(method, fieldRef.getBase()),
+          new Store(fieldId(fieldRef.getFieldSignature().getSubSignature()), source));
+    } else if (left instanceof JStaticFieldRef) {
+      FieldSignature field = ((JStaticFieldRef) left).getFieldSignature();
+      if (isLibraryField(field)) {
+        addConstraint(source, Escape.INSTANCE);
+      }
+      addEdge(source, staticFieldNode(field));
+    } else if (left instanceof JArrayRef) {
+      addConstraint(
+          localNode(method, ((JArrayRef) left).getBase()), new Store(ARRAY_ELEMENTS, source));
+    }
+  }
+
+  /** Adds the objects the value can point to to the target node. */
+  private void flowInto(
+      @Nonnull MethodSignature method,
+      @Nonnull Stmt stmt,
+      @Nonnull Value value,
+      int target,
+      @Nonnull Type targetType) {
+    if (value instanceof Local) {
+      addEdge(localNode(method, (Local) value), target);
+    } else if (value instanceof JCastExpr) {
+      flowInto(method, stmt, ((JCastExpr) value).getOp(), target, targetType);
+    } else if (value instanceof JNewExpr || value instanceof JNewArrayExpr) {
+      addObject(target, allocation(method, stmt, value.getType()));
+    } else if (value instanceof JNewMultiArrayExpr) {
+      // the nested arrays are allocated by the same statement
+      ArrayType type = (ArrayType) value.getType();
+      int array = allocation(method, stmt, type);
+      addObject(target, array);
+      while (type.getDimension() > 1) {
+        type = (ArrayType) type.getElementType();
+        int element = allocation(method, stmt, type);
+        addObject(fieldNode(array, ARRAY_ELEMENTS), element);
+        array = element;
+      }
+    } else if (value instanceof Constant) {
+      if (isReference(value.getType())) {
+        addObject(target, constantObject(value.getType()));
+      }
+    } else if (value instanceof JInstanceFieldRef) {
+      JInstanceFieldRef fieldRef = (JInstanceFieldRef) value;
+      if (isLibraryField(fieldRef.getFieldSignature())) {
+        // library code can write the field, e.g. an inherited one, of any object
+        addObject(target, unknownObject(targetType));
+      }
+      addConstraint(
+          localNode(method, fieldRef.getBase()),
+          new Load(fieldId(fieldRef.getFieldSignature().getSubSignature()), target, targetType));
+    } else if (value instanceof JStaticFieldRef) {
+      addEdge(staticFieldNode(((JStaticFieldRef) value).getFieldSignature()), target);
+    } else if (value instanceof JArrayRef) {
+      addConstraint(
+          localNode(method, ((JArrayRef) value).getBase()),
+          new Load(ARRAY_ELEMENTS, target, targetType));
+    } else if (value instanceof JPhiExpr) {
+      for (Local arg : ((JPhiExpr) value).getArgs()) {
+        addEdge(localNode(method, arg), target);
+      }
+    }
+  }
+
+  /**
+   * Returns the node of the value, which is a new node for values that are not locals, or -1 if the
+   * value cannot point to an object.
+   */
+  private int valueNode(@Nonnull MethodSignature method, @Nonnull Stmt stmt, @Nonnull Value value) {
+    if (value instanceof Local) {
+      return isReference(value.getType()) ? localNode(method, (Local) value) : -1;
+    }
+    if (!isReference(value.getType())) {
+      return -1;
+    }
+    int node = newNode();
+    flowInto(method, stmt, value, node, value.getType());
+    return node;
+  }
+
+  // ---- calls ----
+
+  private void processCall(
+      @Nonnull MethodSignature caller, @Nonnull Stmt stmt, @Nullable Local result) {
+    AbstractInvokeExpr invokeExpr = stmt.getInvokeExpr();
+    int[] argumentNodes = new int[invokeExpr.getArgCount()];
+    for (int index = 0; index < argumentNodes.length; index++) {
+      argumentNodes[index] = valueNode(caller, stmt, invokeExpr.getArg(index));
+    }
+    int resultNode = -1;
+    Type resultType = null;
+    if (result != null && isReference(result.getType())) {
+      resultNode = localNode(caller, result);
+      resultType = result.getType();
+    }
+    CallSite callSite =
+        new CallSite(caller, stmt, invokeExpr, argumentNodes, resultNode, resultType);
+
+    if (invokeExpr instanceof JDynamicInvokeExpr) {
+      if (resultNode >= 0) {
+        addObject(resultNode, unknownObject(resultType));
+      }
+    } else if (invokeExpr instanceof JStaticInvokeExpr) {
+      addCallEdge(callSite, resolveStatically(invokeExpr.getMethodSignature()), -1, -1);
+    } else if (invokeExpr instanceof JSpecialInvokeExpr) {
+      addCallEdge(
+          callSite,
+          resolveStatically(invokeExpr.getMethodSignature()),
+          -1,
+          localNode(caller, ((JSpecialInvokeExpr) invokeExpr).getBase()));
+    } else {
+      addConstraint(
+          localNode(caller, ((AbstractInstanceInvokeExpr) invokeExpr).getBase()), callSite);
+    }
+  }
+
+  @Nonnull
+  private MethodSignature resolveStatically(@Nonnull MethodSignature method) {
+    return AbstractCallGraphAlgorithm.resolveConcreteDispatch(view, method).orElse(method);
+  }
+
+  /** Dispatches the virtual call on the given receiver object. */
+  private void dispatch(@Nonnull CallSite callSite, int object) {
+    AllocationSite receiver = objects.get(object);
+    MethodSignature calledMethod = callSite.invokeExpr.getMethodSignature();
+    if (receiver.getKind() == AllocationSite.Kind.UNKNOWN) {
+      // the receiver can have any subtype, so all targets in the hierarchy are possible
+      if (!callSite.dispatchedOnUnknown) {
+        callSite.dispatchedOnUnknown = true;
+        for (MethodSignature target : getHierarchyTargets(calledMethod)) {
+          addCallEdge(callSite, target, unknownObject(target.getDeclClassType()), -1);
+        }
+      }
+      return;
+    }
+    ClassType type =
+        receiver.getType() instanceof ClassType ? (ClassType) receiver.getType() : objectType;
+    Optional<MethodSignature> target =
+        callSite.targetsByType.computeIfAbsent(
+            type,
+            key -> {
+              ClassType declaringType = calledMethod.getDeclClassType();
+              // casts are not filtered, so objects of unrelated types can reach the receiver
+              if (!key.equals(declaringType)
+                  && view.getClass(declaringType).isPresent()
+                  && !typeHierarchy.isSubtype(declaringType, key)) {
+                return Optional.empty();
+              }
+              return AbstractCallGraphAlgorithm.resolveConcreteDispatch(
+                  view, identifierFactory.getMethodSignature(key, calledMethod.getSubSignature()));
+            });
+    target.ifPresent(method -> addCallEdge(callSite, method, object, -1));
+  }
+
+  @Nonnull
+  private Set<MethodSignature> getHierarchyTargets(@Nonnull MethodSignature method) {
+    return hierarchyTargets.computeIfAbsent(
+        method,
+        key -> {
+          Set<MethodSignature> targets = new LinkedHashSet<>();
+          AbstractCallGraphAlgorithm.resolveConcreteDispatch(view, key).ifPresent(targets::add);
+          if (view.getClass(key.getDeclClassType()).isPresent()) {
+            for (ClassType subtype : typeHierarchy.subtypesOf(key.getDeclClassType())) {
+              AbstractCallGraphAlgorithm.resolveConcreteDispatch(
+                      view, identifierFactory.getMethodSignature(subtype, key.getSubSignature()))
+                  .ifPresent(targets::add);
+            }
+          }
+          return targets;
+        });
+  }
+
+  /**
+   * Adds the call to the call graph and connects the arguments and the result of the call site to
+   * the target. The receiver is either a single object or a node.
+   */
+  private void addCallEdge(
+      @Nonnull CallSite callSite,
+      @Nonnull MethodSignature target,
+      int receiverObject,
+      int receiverNode) {
+    boolean modeled = getModeledMethod(target) != null;
+    if (callTargets.computeIfAbsent(callSite.stmt, key -> new HashSet<>(2)).add(target)) {
+      makeReachable(target);
+      cg.addCall(callSite.caller, target, callSite.stmt);
+      if (modeled) {
+        for (int index = 0; index < callSite.argumentNodes.length; index++) {
+          if (callSite.argumentNodes[index] >= 0) {
+            addEdge(
+                callSite.argumentNodes[index],
+                node(new MethodNodeKey(target, MethodNodeKey.PARAMETER, index)));
+          }
+        }
+        if (callSite.resultNode >= 0) {
+          addEdge(node(new MethodNodeKey(target, MethodNodeKey.RETURN, 0)), callSite.resultNode);
+        }
+      } else {
+        if (callSite.resultNode >= 0) {
+          addObject(callSite.resultNode, unknownObject(callSite.resultType));
+        }
+        escapeArguments(callSite, receiverObject, receiverNode);
+      }
+    }
+    if (!modeled) {
+      return;
+    }
+    if (receiverObject >= 0) {
+      addObject(node(new MethodNodeKey(target, MethodNodeKey.THIS, 0)), receiverObject);
+    }
+    if (receiverNode >= 0) {
+      addEdge(receiverNode, node(new MethodNodeKey(target, MethodNodeKey.THIS, 0)));
+    }
+  }
+
+  /** Marks the arguments and the receiver of a call to library code as escaped. */
+  private void escapeArguments(@Nonnull CallSite callSite, int receiverObject, int receiverNode) {
+    if (!callSite.escapedArguments) {
+      callSite.escapedArguments = true;
+      for (int argumentNode : callSite.argumentNodes) {
+        if (argumentNode >= 0) {
+          addConstraint(argumentNode, Escape.INSTANCE);
+        }
+      }
+    }
+    if (receiverObject >= 0) {
+      escape(receiverObject);
+    }
+    if (receiverNode >= 0) {
+      addConstraint(receiverNode, Escape.INSTANCE);
+    }
+  }
+
+  /**
+   * Marks the object as escaped. Library code can only write the fields of an object that are
+   * declared by library classes, whose loads yield the unknown object anyway, but it can write the
+   * elements of an escaped array, which then point to the unknown object and escape as well.
+   */
+  private void escape(int object) {
+    AllocationSite site = objects.get(object);
+    if (!(site.getType() instanceof ArrayType)
+        || site.getKind() == AllocationSite.Kind.UNKNOWN
+        || escapedObjects.get(object)) {
+      return;
+    }
+    escapedObjects.set(object);
+    Integer elements = fieldNodes.get(fieldKey(object, ARRAY_ELEMENTS));
+    if (elements != null) {
+      escapeElements(object, elements);
+    }
+  }
+
+  private void escapeElements(int array, int elements) {
+    Type elementType = ((ArrayType) objects.get(array).getType()).getElementType();
+    if (isReference(elementType)) {
+      addObject(elements, unknownObject(elementType));
+      addConstraint(elements, Escape.INSTANCE);
+    }
+  }
+
+  // ---- constraint graph ----
+
+  private void processNode(int node) {
+    if (find(node) != node) {
+      return;
+    }
+    HybridIntSet delta = deltas[node];
+    deltas[node] = null;
+    if (delta == null || delta.isEmpty()) {
+      return;
+    }
+    int[] objectsOfDelta = delta.toArray();
+
+    List<Constraint> nodeConstraints = constraints.get(node);
+    if (nodeConstraints != null) {
+      for (Constraint constraint : nodeConstraints.toArray(new Constraint[0])) {
+        for (int object : objectsOfDelta) {
+          apply(constraint, object);
+        }
+      }
+    }
+
+    int count = successorCounts[node];
+    if (count == 0) {
+      return;
+    }
+    int[] nodeSuccessors = Arrays.copyOf(successors[node], count);
+    for (int successor : nodeSuccessors) {
+      if (find(node) != node) {
+        // merged into a cycle, whose representative propagates all objects again
+        return;
+      }
+      int target = find(successor);
+      if (target == node) continue;
+      propagate(delta, target);
+      if (pointsToSets[target].size() == pointsToSets[node].size()
+          && checkedEdges.add(edgeKey(node, target))) {
+        collapseCycle(target, node);
+      }
+    }
+  }
+
+  private void apply(@Nonnull Constraint constraint, int object) {
+    AllocationSite site = objects.get(object);
+    if (constraint instanceof Load) {
+      Load load = (Load) constraint;
+      if (site.getKind() == AllocationSite.Kind.UNKNOWN) {
+        addObject(load.target, unknownObject(load.targetType));
+      } else {
+        addEdge(fieldNode(object, load.field), load.target);
+      }
+    } else if (constraint instanceof Store) {
+      // stores into unknown objects are not visible to the analyzed code
+      if (site.getKind() != AllocationSite.Kind.UNKNOWN) {
+        addEdge(((Store) constraint).source, fieldNode(object, ((Store) constraint).field));
+      }
+    } else if (constraint instanceof Escape) {
+      escape(object);
+    } else {
+      dispatch((CallSite) constraint, object);
+    }
+  }
+
+  /** Attaches the constraint to the node and applies it to the objects the node points to. */
+  private void addConstraint(int node, @Nonnull Constraint constraint) {
+    int representative = find(node);
+    List<Constraint> nodeConstraints = constraints.get(representative);
+    if (nodeConstraints == null) {
+      nodeConstraints = new ArrayList<>(2);
+      constraints.set(representative, nodeConstraints);
+    }
+    nodeConstraints.add(constraint);
+    for (int object : pointsToSets[representative].toArray()) {
+      apply(constraint, object);
+    }
+  }
+
+  private void addEdge(int source, int target) {
+    source = find(source);
+    target = find(target);
+    if (source == target || !edges.add(edgeKey(source, target))) {
+      return;
+    }
+    int count = successorCounts[source];
+    if (successors[source] == null) {
+      successors[source] = new int[2];
+    } else if (count == successors[source].length) {
+      successors[source] = Arrays.copyOf(successors[source], count * 2);
+    }
+    successors[source][count] = target;
+    successorCounts[source] = count + 1;
+    if (!pointsToSets[source].isEmpty()) {
+      propagate(pointsToSets[source], target);
+    }
+  }
+
+  private void addObject(int node, int object) {
+    node = find(node);
+    if (pointsToSets[node].add(object)) {
+      delta(node).add(object);
+      enqueue(node);
+    }
+  }
+
+  private void propagate(@Nonnull HybridIntSet objectsToAdd, int target) {
+    if (pointsToSets[target].addAll(objectsToAdd, delta(target))) {
+      enqueue(target);
+    }
+  }
+
+  @Nonnull
+  private HybridIntSet delta(int node) {
+    HybridIntSet delta = deltas[node];
+    if (delta == null) {
+      delta = new HybridIntSet();
+      deltas[node] = delta;
+    }
+    return delta;
+  }
+
+  private void enqueue(int node) {
+    if (!queued.get(node)) {
+      queued.set(node);
+      workList.add(node);
+    }
+  }
+
+  /**
+   * Searches a path from the start node back to the given node, which has an edge to the start
+   * node, and merges all nodes on it.
+   */
+  private void collapseCycle(int start, int end) {
+    currentStamp++;
+    Deque<Integer> stack = new ArrayDeque<>();
+    stack.push(start);
+    visitStamps[start] = currentStamp;
+    parents[start] = -1;
+    boolean found = false;
+    while (!stack.isEmpty() && !found) {
+      int node = stack.pop();
+      for (int i = 0; i < successorCounts[node]; i++) {
+        int successor = find(successors[node][i]);
+        if (visitStamps[successor] == currentStamp) continue;
+        visitStamps[successor] = currentStamp;
+        parents[successor] = node;
+        if (successor == end) {
+          found = true;
+          break;
+        }
+        stack.push(successor);
+      }
+    }
+    if (!found) {
+      return;
+    }
+    for (int node = parents[end]; node != -1; node = parents[node]) {
+      merge(end, node);
+    }
+  }
+
+  /** Merges the node into the representative, which then propagates all of its objects again. */
+  private void merge(int representative, int node) {
+    representative = find(representative);
+    node = find(node);
+    if (representative == node) {
+      return;
+    }
+    representatives[node] = representative;
+    mergedNodeCount++;
+
+    pointsToSets[representative].addAll(pointsToSets[node], null);
+    HybridIntSet delta = new HybridIntSet();
+    delta.addAll(pointsToSets[representative], null);
+    deltas[representative] = delta;
+    enqueue(representative);
+
+    for (int i = 0; i < successorCounts[node]; i++) {
+      int successor = successors[node][i];
+      if (find(successor) != representative) {
+        addEdge(representative, successor);
+      }
+    }
+    List<Constraint> nodeConstraints = constraints.get(node);
+    if (nodeConstraints != null) {
+      List<Constraint> representativeConstraints = constraints.get(representative);
+      if (representativeConstraints == null) {
+        constraints.set(representative, nodeConstraints);
+      } else {
+        representativeConstraints.addAll(nodeConstraints);
+      }
+    }
+    pointsToSets[node] = null;
+    deltas[node] = null;
+    successors[node] = null;
+    successorCounts[node] = 0;
+    constraints.set(node, null);
+  }
+
+  private int find(int node) {
+    while (representatives[node] != node) {
+      representatives[node] = representatives[representatives[node]];
+      node = representatives[node];
+    }
+    return node;
+  }
+
+  private int node(@Nonnull Object key) {
+    Integer node = nodeIds.get(key);
+    if (node == null) {
+      node = newNode();
+      nodeIds.put(key, node);
+    }
+    return node;
+  }
+
+  private int newNode() {
+    int node = nodeCount++;
+    if (node == representatives.length) {
+      int capacity = node * 2;
+      representatives = Arrays.copyOf(representatives, capacity);
+      pointsToSets = Arrays.copyOf(pointsToSets, capacity);
+      deltas = Arrays.copyOf(deltas, capacity);
+      successors = Arrays.copyOf(successors, capacity);
+      successorCounts = Arrays.copyOf(successorCounts, capacity);
+      visitStamps = Arrays.copyOf(visitStamps, capacity);
+      parents = Arrays.copyOf(parents, capacity);
+    }
+    representatives[node] = node;
+    pointsToSets[node] = new HybridIntSet();
+    constraints.add(null);
+    return node;
+  }
+
+  private int localNode(@Nonnull MethodSignature method, @Nonnull Local local) {
+    return node(new LocalKey(method, local.getName()));
+  }
+
+  private int fieldNode(int object, int field) {
+    long key = fieldKey(object, field);
+    Integer node = fieldNodes.get(key);
+    if (node == null) {
+      node = newNode();
+      fieldNodes.put(key, node);
+      if (field == ARRAY_ELEMENTS && escapedObjects.get(object)) {
+        escapeElements(object, node);
+      }
+    }
+    return node;
+  }
+
+  private int staticFieldNode(@Nonnull FieldSignature field) {
+    FieldSignature resolved = resolveField(field);
+    Integer node = nodeIds.get(resolved);
+    if (node != null) {
+      return node;
+    }
+    node = node(resolved);
+    if (isLibraryField(resolved)) {
+      // library code can write the field
+      addObject(node, unknownObject(resolved.getType()));
+    }
+    return node;
+  }
+
+  /** Checks whether the field is declared by a library class or a class that does not exist. */
+  private boolean isLibraryField(@Nonnull FieldSignature field) {
+    SootClass<?> declaringClass =
+        view.getClass(resolveField(field).getDeclClassType()).orElse(null);
+    return declaringClass == null || declaringClass.isLibraryClass();
+  }
+
+  /** Returns the signature of the field in the class declaring it. */
+  @Nonnull
+  private FieldSignature resolveField(@Nonnull FieldSignature field) {
+    return resolvedFields.computeIfAbsent(
+        field,
+        key -> {
+          ClassType type = key.getDeclClassType();
+          while (type != null) {
+            SootClass<?> clazz = view.getClass(type).orElse(null);
+            if (clazz == null) {
+              break;
+            }
+            if (clazz.getField(key.getSubSignature()).isPresent()) {
+              return identifierFactory.getFieldSignature(key.getName(), type, key.getType());
+            }
+            type = clazz.getSuperclass().orElse(null);
+          }
+          return key;
+        });
+  }
+
+  private int fieldId(@Nonnull FieldSubSignature field) {
+    return fieldIds.computeIfAbsent(field, key -> fieldIds.size());
+  }
+
+  private static long fieldKey(int object, int field) {
+    return ((long) object << 32) | field;
+  }
+
+  private static long edgeKey(int source, int target) {
+    return ((long) source << 32) | target;
+  }
+
+  // ---- objects ----
+
+  private int object(@Nonnull AllocationSite site) {
+    Integer id = objectIds.get(site);
+    if (id == null) {
+      id = objects.size();
+      objects.add(site);
+      objectIds.put(site, id);
+    }
+    return id;
+  }
+
+  private int allocation(@Nonnull MethodSignature method, @Nonnull Stmt stmt, @Nonnull Type type) {
+    return object(
+        new AllocationSite(AllocationSite.Kind.ALLOCATION, toReferenceType(type), method, stmt));
+  }
+
+  private int constantObject(@Nonnull Type type) {
+    return object(
+        new AllocationSite(AllocationSite.Kind.CONSTANT, toReferenceType(type), null, null));
+  }
+
+  private int unknownObject(@Nonnull Type type) {
+    return object(
+        new AllocationSite(AllocationSite.Kind.UNKNOWN, toReferenceType(type), null, null));
+  }
+
+  @Nonnull
+  private ReferenceType toReferenceType(@Nonnull Type type) {
+    return type instanceof ReferenceType ? (ReferenceType) type : objectType;
+  }
+
+  /** Checks whether values of the type can point to objects. */
+  private static boolean isReference(@Nonnull Type type) {
+    return !(type instanceof PrimitiveType)
+        && !(type instanceof VoidType)
+        && !(type instanceof NullType);
+  }
+
+  // ---- keys and constraints ----
+
+  /** Identifies the node of a local variable. */
+  static final class LocalKey {
+    @Nonnull private final MethodSignature method;
+    @Nonnull private final String name;
+
+    LocalKey(@Nonnull MethodSignature method, @Nonnull String name) {
+      this.method = method;
+      this.name = name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof LocalKey)) {
+        return false;
+      }
+      LocalKey that = (LocalKey) o;
+      return method.equals(that.method) && name.equals(that.name);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * method.hashCode() + name.hashCode();
+    }
+  }
+
+  /** Identifies the node of the receiver, a parameter or the return value of a method. */
+  private static final class MethodNodeKey {
+    static final int THIS = 0;
+    static final int PARAMETER = 1;
+    static final int RETURN = 2;
+
+    @Nonnull private final MethodSignature method;
+    private final int kind;
+    private final int index;
+
+    MethodNodeKey(@Nonnull MethodSignature method, int kind, int index) {
+      this.method = method;
+      this.kind = kind;
+      this.index = index;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof MethodNodeKey)) {
+        return false;
+      }
+      MethodNodeKey that = (MethodNodeKey) o;
+      return kind == that.kind && index == that.index && method.equals(that.method);
+    }
+
+    @Override
+    public int hashCode() {
+      return (31 * method.hashCode() + kind) * 31 + index;
+    }
+  }
+
+  private abstract static class Constraint {}
+
+  /** The objects in a field of each object reaching the base flow to the target node. */
+  private static final class Load extends Constraint {
+    private final int field;
+    private final int target;
+    @Nonnull private final Type targetType;
+
+    Load(int field, int target, @Nonnull Type targetType) {
+      this.field = field;
+      this.target = target;
+      this.targetType = targetType;
+    }
+  }
+
+  /** The objects of the source node flow to a field of each object reaching the base. */
+  private static final class Store extends Constraint {
+    private final int field;
+    private final int source;
+
+    Store(int field, int source) {
+      this.field = field;
+      this.source = source;
+    }
+  }
+
+  /** The objects reaching the node escape to library code, see {@link #escape(int)}. */
+  private static final class Escape extends Constraint {
+    static final Escape INSTANCE = new Escape();
+  }
+
+  /** A call statement. Virtual calls are dispatched on each object reaching their receiver. */
+  private static final class CallSite extends Constraint {
+    @Nonnull private final MethodSignature caller;
+    @Nonnull private final Stmt stmt;
+    @Nonnull private final AbstractInvokeExpr invokeExpr;
+    @Nonnull private final int[] argumentNodes;
+    private final int resultNode;
+    @Nullable private final Type resultType;
+
+    @Nonnull
+    private final Map<ClassType, Optional<MethodSignature>> targetsByType = new HashMap<>();
+
+    private boolean dispatchedOnUnknown;
+    private boolean escapedArguments;
+
+    CallSite(
+        @Nonnull MethodSignature caller,
+        @Nonnull Stmt stmt,
+        @Nonnull AbstractInvokeExpr invokeExpr,
+        @Nonnull int[] argumentNodes,
+        int resultNode,
+        @Nullable Type resultType) {
+      this.caller = caller;
+      this.stmt = stmt;
+      this.invokeExpr = invokeExpr;
+      this.argumentNodes = argumentNodes;
+      this.resultNode = resultNode;
+      this.resultType = resultType;
+    }
+  }
+}
@@ -0,0 +1,182 @@
+package sootup.callgraph.pointsto;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A set of non-negative ints that is stored as a sorted array while it is small and as a bitset
+ * once it grows beyond {@link #SPARSE_LIMIT} elements. Most points-to sets contain only a few
+ * objects, so they stay sparse, while the few large sets do not pay for the binary search.
+ */
+final class HybridIntSet {
+
+  /** The number of elements up to which the set is stored as a sorted array. */
+  static final int SPARSE_LIMIT = 16;
+
+  private static final int[] EMPTY = new int[0];
+
+  /** The sorted elements while the set is sparse. */
+  @Nonnull private int[] elements = EMPTY;
+
+  /** The elements once the set is dense, otherwise null. */
+  @Nullable private BitSet bits;
+
+  private int size;
+
+  /** Adds the element and returns whether the set has changed. */
+  boolean add(int element) {
+    if (bits != null) {
+      if (bits.get(element)) {
+        return false;
+      }
+      bits.set(element);
+      size++;
+      return true;
+    }
+    int index = Arrays.binarySearch(elements, 0, size, element);
+    if (index >= 0) {
+      return false;
+    }
+    if (size == SPARSE_LIMIT) {
+      bits = new BitSet();
+      for (int i = 0; i < size; i++) {
+        bits.set(elements[i]);
+      }
+      bits.set(element);
+      elements = EMPTY;
+      size++;
+      return true;
+    }
+    int insertionPoint = -index - 1;
+    if (size == elements.length) {
+      elements = Arrays.copyOf(elements, Math.max(2, size * 2));
+    }
+    System.arraycopy(elements, insertionPoint, elements, insertionPoint + 1, size - insertionPoint);
+    elements[insertionPoint] = element;
+    size++;
+    return true;
+  }
+
+  /**
+   * Adds all elements of the other set. The elements that were not contained before are also added
+   * to the <code>added</code> set, if it is given.
+   *
+   * @return whether the set has changed
+   */
+  boolean addAll(@Nonnull HybridIntSet other, @Nullable HybridIntSet added) {
+    if (other == this) {
+      return false;
+    }
+    boolean changed = false;
+    if (other.bits != null) {
+      BitSet otherBits = other.bits;
+      for (int element = otherBits.nextSetBit(0);
+          element >= 0;
+          element = otherBits.nextSetBit(element + 1)) {
+        if (add(element)) {
+          changed = true;
+          if (added != null) {
+            added.add(element);
+          }
+        }
+      }
+    } else {
+      for (int i = 0; i < other.size; i++) {
+        int element = other.elements[i];
+        if (add(element)) {
+          changed = true;
+          if (added != null) {
+            added.add(element);
+          }
+        }
+      }
+    }
+    return changed;
+  }
+
+  boolean contains(int element) {
+    if (bits != null) {
+      return bits.get(element);
+    }
+    return Arrays.binarySearch(elements, 0, size, element) >= 0;
+  }
+
+  /** Checks whether the sets have an element in common. */
+  boolean intersects(@Nonnull HybridIntSet other) {
+    if (bits != null && other.bits != null) {
+      return bits.intersects(other.bits);
+    }
+    HybridIntSet smaller = size <= other.size ? this : other;
+    HybridIntSet larger = smaller == this ? other : this;
+    if (smaller.bits != null) {
+      // both are dense, which is handled above
+      throw new IllegalStateException();
+    }
+    for (int i = 0; i < smaller.size; i++) {
+      if (larger.contains(smaller.elements[i])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Checks whether the set is stored as a bitset. */
+  boolean isDense() {
+    return bits != null;
+  }
+
+  /** Passes all elements in ascending order to the action. */
+  void forEach(@Nonnull IntConsumer action) {
+    if (bits != null) {
+      for (int element = bits.nextSetBit(0); element >= 0; element = bits.nextSetBit(element + 1)) {
+        action.accept(element);
+      }
+    } else {
+      for (int i = 0; i < size; i++) {
+        action.accept(elements[i]);
+      }
+    }
+  }
+
+  /** Returns the elements in ascending order. */
+  @Nonnull
+  int[] toArray() {
+    if (bits != null) {
+      return bits.stream().toArray();
+    }
+    return Arrays.copyOf(elements, size);
+  }
+}
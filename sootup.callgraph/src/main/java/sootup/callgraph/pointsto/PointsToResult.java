@@ -0,0 +1,127 @@
+package sootup.callgraph.pointsto;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.callgraph.CallGraph;
+import sootup.core.jimple.basic.Local;
+import sootup.core.signatures.FieldSignature;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * The result of the {@link AndersenPointsToAnalysis}. It contains the call graph of the reachable
+ * methods and answers which abstract objects a local, a static field, or a field of an abstract
+ * object may point to. Values of methods that are not reachable point to no object.
+ */
+public class PointsToResult {
+
+  @Nonnull private final AndersenSolver solver;
+
+  PointsToResult(@Nonnull AndersenSolver solver) {
+    this.solver = solver;
+  }
+
+  /** Returns the call graph constructed together with the points-to sets. */
+  @Nonnull
+  public CallGraph getCallGraph() {
+    return solver.getCallGraph();
+  }
+
+  /** Returns the objects the local of the given method may point to. */
+  @Nonnull
+  public Set<AllocationSite> getPointsToSet(@Nonnull MethodSignature method, @Nonnull Local local) {
+    return toAllocationSites(
+        solver.getPointsToSet(new AndersenSolver.LocalKey(method, local.getName())));
+  }
+
+  /** Returns the objects the static field may point to. */
+  @Nonnull
+  public Set<AllocationSite> getPointsToSet(@Nonnull FieldSignature staticField) {
+    return toAllocationSites(solver.getStaticFieldPointsToSet(staticField));
+  }
+
+  /** Returns the objects the field of the given abstract object may point to. */
+  @Nonnull
+  public Set<AllocationSite> getPointsToSet(
+      @Nonnull AllocationSite object, @Nonnull FieldSignature field) {
+    int id = solver.getObjectId(object);
+    if (id < 0) {
+      return Collections.emptySet();
+    }
+    return toAllocationSites(solver.getFieldPointsToSet(id, field.getSubSignature()));
+  }
+
+  /** Returns the objects the elements of the given abstract array object may point to. */
+  @Nonnull
+  public Set<AllocationSite> getArrayElementsPointsToSet(@Nonnull AllocationSite array) {
+    int id = solver.getObjectId(array);
+    if (id < 0) {
+      return Collections.emptySet();
+    }
+    return toAllocationSites(solver.getFieldPointsToSet(id, null));
+  }
+
+  /** Checks whether the two locals may point to the same object. */
+  public boolean mayAlias(
+      @Nonnull MethodSignature method1,
+      @Nonnull Local local1,
+      @Nonnull MethodSignature method2,
+      @Nonnull Local local2) {
+    HybridIntSet set1 =
+        solver.getPointsToSet(new AndersenSolver.LocalKey(method1, local1.getName()));
+    HybridIntSet set2 =
+        solver.getPointsToSet(new AndersenSolver.LocalKey(method2, local2.getName()));
+    return set1 != null && set2 != null && set1.intersects(set2);
+  }
+
+  /** Returns all abstract objects created during the analysis. */
+  @Nonnull
+  public List<AllocationSite> getAllocationSites() {
+    return Collections.unmodifiableList(solver.objects);
+  }
+
+  /** Returns the number of nodes of the constraint graph. */
+  public int getNodeCount() {
+    return solver.getNodeCount();
+  }
+
+  /** Returns the number of nodes that have been merged into others, because they form a cycle. */
+  public int getMergedNodeCount() {
+    return solver.getMergedNodeCount();
+  }
+
+  @Nonnull
+  private Set<AllocationSite> toAllocationSites(@Nullable HybridIntSet objectIds) {
+    if (objectIds == null || objectIds.isEmpty()) {
+      return Collections.emptySet();
+    }
+    Set<AllocationSite> sites = new LinkedHashSet<>();
+    objectIds.forEach(id -> sites.add(solver.objects.get(id)));
+    return sites;
+  }
+}
@@ -8,6 +8,7 @@ import java.util.List;
 import junit.framework.TestCase;
 import org.junit.Test;
 import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.SootClass;
 import sootup.core.model.SootMethod;
 import sootup.core.model.SourceType;
@@ -17,6 +18,7 @@ import sootup.java.bytecode.inputlocation.JavaClassPathAnalysisInputLocation;
 import sootup.java.core.JavaIdentifierFactory;
 import sootup.java.core.JavaSootClass;
 import sootup.java.core.types.JavaClassType;
+import sootup.java.core.views.ConcurrentJavaView;
 import sootup.java.core.views.JavaView;
 import sootup.java.sourcecode.inputlocation.JavaSourcePathAnalysisInputLocation;
 
@@ -29,6 +31,8 @@ public abstract class CallGraphTestBase<T extends AbstractCallGraphAlgorithm> {
 
   protected abstract T createAlgorithm(JavaView view);
 
+  protected abstract T createAlgorithm(JavaView view, int parallelism);
+
   // private static Map<String, JavaView> viewToClassPath = new HashMap<>();
 
   private JavaView createViewForClassPath(String classPath) {
@@ -148,6 +152,25 @@ public abstract class CallGraphTestBase<T extends AbstractCallGraphAlgorithm> {
     assertTrue(cg.containsCall(mainMethodSignature, targetMethod));
   }
 
+  @Test
+  public void testCallSites() {
+    CallGraph cg = loadCallGraph("ConcreteCall", false, "cvc.Class");
+    MethodSignature targetMethod =
+        identifierFactory.getMethodSignature(
+            identifierFactory.getClassType("cvc.Class"), "target", "void", Collections.emptyList());
+    assertTrue(cg.getCallSites().isPresent());
+    CallSiteTable callSites = cg.getCallSites().get();
+
+    List<Stmt> callSitesOfTarget = callSites.getCallSites(targetMethod);
+    assertEquals(1, callSitesOfTarget.size());
+    Stmt callSite = callSitesOfTarget.get(0);
+    assertEquals(targetMethod, callSite.getInvokeExpr().getMethodSignature());
+    assertEquals(Collections.singletonList(targetMethod), callSites.getTargets(callSite));
+    assertTrue(
+        algorithm.view.getMethod(mainMethodSignature).get().getBody().getStmts().stream()
+            .anyMatch(stmt -> stmt == callSite));
+  }
+
   @Test
   public void testConcreteCallInSuperClass() {
     CallGraph cg = loadCallGraph("ConcreteCall", false, "cvcsc.Class");
@@ -751,4 +774,32 @@ public abstract class CallGraphTestBase<T extends AbstractCallGraphAlgorithm> {
       }
     }
   }
+
+  @Test
+  public void testParallelConstruction() {
+    List<AnalysisInputLocation<? extends JavaSootClass>> inputLocations = new ArrayList<>();
+    inputLocations.add(new DefaultRTJarAnalysisInputLocation());
+    inputLocations.add(
+        new JavaClassPathAnalysisInputLocation("src/test/resources/callgraph/RTA/binary"));
+    inputLocations.add(
+        new JavaClassPathAnalysisInputLocation("src/test/resources/callgraph/ConcreteCall/binary"));
+
+    List<MethodSignature> entryPoints = new ArrayList<>();
+    for (String className :
+        new String[] {"lic.Class", "cic.Class", "cvcscddi.Class", "cvcsi.Class"}) {
+      entryPoints.add(
+          identifierFactory.getMethodSignature(
+              className, "main", "void", Collections.singletonList("java.lang.String[]")));
+    }
+
+    CallGraph sequentialCg = createAlgorithm(new JavaView(inputLocations)).initialize(entryPoints);
+    T parallelAlgorithm = createAlgorithm(new ConcurrentJavaView(inputLocations), 4);
+    assertEquals(4, parallelAlgorithm.getParallelism());
+    CallGraph parallelCg = parallelAlgorithm.initialize(entryPoints);
+
+    assertTrue(parallelCg instanceof ConcurrentCallGraph);
+    assertEquals(sequentialCg.getMethodSignatures(), parallelCg.getMethodSignatures());
+    assertEquals(sequentialCg.callCount(), parallelCg.callCount());
+    assertEquals(sequentialCg.exportAsDot(), parallelCg.exportAsDot());
+  }
 }
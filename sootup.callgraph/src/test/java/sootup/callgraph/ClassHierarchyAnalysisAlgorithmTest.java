@@ -25,6 +25,11 @@ public class ClassHierarchyAnalysisAlgorithmTest
     return new ClassHierarchyAnalysisAlgorithm(view);
   }
 
+  @Override
+  protected ClassHierarchyAnalysisAlgorithm createAlgorithm(JavaView view, int parallelism) {
+    return new ClassHierarchyAnalysisAlgorithm(view, parallelism);
+  }
+
   /**
    * Testing the call graph generation using CHA on a code example
    *
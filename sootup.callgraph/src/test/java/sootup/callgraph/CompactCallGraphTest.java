@@ -0,0 +1,107 @@
+package sootup.callgraph;
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.inputlocation.DefaultRTJarAnalysisInputLocation;
+import sootup.java.bytecode.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.views.JavaView;
+
+@Category(Java8Test.class)
+public class CompactCallGraphTest {
+
+  private final JavaIdentifierFactory identifierFactory = JavaIdentifierFactory.getInstance();
+
+  private MethodSignature method(String name) {
+    return identifierFactory.getMethodSignature(
+        "example.Class", name, "void", Collections.emptyList());
+  }
+
+  @Test
+  public void testAddAndFreeze() {
+    MethodSignature a = method("a");
+    MethodSignature b = method("b");
+    MethodSignature c = method("c");
+
+    CompactCallGraph cg = new CompactCallGraph(1);
+    cg.addMethod(a);
+    cg.addMethod(b);
+    cg.addMethod(c);
+    cg.addMethod(a);
+    cg.addCall(a, c);
+    cg.addCall(a, b);
+    cg.addCall(a, b);
+    cg.addCall(b, b);
+    cg.addCall(c, a);
+
+    assertEquals(3, cg.getMethodCount());
+    assertEquals(0, cg.getMethodId(a));
+    assertEquals(-1, cg.getMethodId(method("d")));
+    assertEquals(4, cg.callCount());
+    assertEquals(new HashSet<>(Arrays.asList(b, c)), cg.callsFrom(a));
+    assertEquals(new HashSet<>(Arrays.asList(a, b)), cg.callsTo(b));
+    assertTrue(cg.containsCall(b, b));
+    assertFalse(cg.containsCall(b, a));
+    assertFalse(cg.containsCall(a, method("d")));
+
+    FrozenCallGraph frozen = cg.freeze();
+    cg.addCall(b, a);
+    assertEquals(4, frozen.callCount());
+    assertEquals(cg.getMethodSignatures(), frozen.getMethodSignatures());
+    assertEquals(new HashSet<>(Arrays.asList(b, c)), frozen.callsFrom(a));
+    assertEquals(new HashSet<>(Arrays.asList(a, b)), frozen.callsTo(b));
+    assertTrue(frozen.containsCall(c, a));
+    assertFalse(frozen.containsCall(b, a));
+
+    // the callees are sorted by their ids
+    int[] callees = new int[frozen.getCalleeCount(0)];
+    for (int index = 0; index < callees.length; index++) {
+      callees[index] = frozen.getCallee(0, index);
+    }
+    assertArrayEquals(new int[] {1, 2}, callees);
+
+    MutableCallGraph copy = frozen.copy();
+    copy.addCall(b, a);
+    assertEquals(cg.exportAsDot(), copy.exportAsDot());
+    assertEquals(4, frozen.callCount());
+  }
+
+  @Test
+  public void testSameCallsAsGraphBasedCallGraph() {
+    List<AnalysisInputLocation<? extends JavaSootClass>> inputLocations = new ArrayList<>();
+    inputLocations.add(new DefaultRTJarAnalysisInputLocation());
+    inputLocations.add(
+        new JavaClassPathAnalysisInputLocation("src/test/resources/callgraph/ConcreteCall/binary"));
+    JavaView view = new JavaView(inputLocations);
+    List<MethodSignature> entryPoints =
+        Collections.singletonList(
+            identifierFactory.getMethodSignature(
+                "cvcscddi.Class", "main", "void", Collections.singletonList("java.lang.String[]")));
+
+    CallGraph graphBasedCg = new ClassHierarchyAnalysisAlgorithm(view).initialize(entryPoints);
+    CallGraph compactCg =
+        new ClassHierarchyAnalysisAlgorithm(view) {
+          @Override
+          protected MutableCallGraph initializeCallGraph() {
+            return new CompactCallGraph();
+          }
+        }.initialize(entryPoints);
+
+    assertTrue(compactCg instanceof CompactCallGraph);
+    assertEquals(graphBasedCg.getMethodSignatures(), compactCg.getMethodSignatures());
+    assertEquals(graphBasedCg.callCount(), compactCg.callCount());
+    assertEquals(graphBasedCg.exportAsDot(), compactCg.exportAsDot());
+    assertEquals(graphBasedCg.exportAsDot(), ((CompactCallGraph) compactCg).freeze().exportAsDot());
+  }
+}
@@ -3,6 +3,7 @@ package sootup.callgraph;
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertNotNull;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 
 import categories.Java8Test;
 import java.util.ArrayList;
@@ -20,7 +21,9 @@ import sootup.core.types.ClassType;
 import sootup.java.bytecode.inputlocation.DefaultRTJarAnalysisInputLocation;
 import sootup.java.bytecode.inputlocation.JavaClassPathAnalysisInputLocation;
 import sootup.java.core.JavaSootClass;
+import sootup.java.core.JavaSootMethod;
 import sootup.java.core.views.JavaView;
+import sootup.java.core.views.MutableJavaView;
 
 /** @author : Hasitha Rajapakse, Jonas Klauke * */
 @Category(Java8Test.class)
@@ -30,10 +33,11 @@ public class ConcreteDispatchTest {
   }
 
   private static JavaView view;
+  private static List<AnalysisInputLocation<? extends JavaSootClass>> inputLocations;
 
   @BeforeClass
   public static void setUp() {
-    List<AnalysisInputLocation<? extends JavaSootClass>> inputLocations = new ArrayList<>();
+    inputLocations = new ArrayList<>();
     inputLocations.add(
         new JavaClassPathAnalysisInputLocation(
             "src/test/resources/callgraph/ConcreteDispatch/binary"));
@@ -183,4 +187,66 @@ public class ConcreteDispatchTest {
     assertNotNull(candidateSubInterface2);
     assertEquals(candidateSubInterface, candidateSubInterface2);
   }
+
+  @Test
+  public void dispatchTable() {
+    JavaView view = new JavaView(inputLocations);
+    IdentifierFactory factory = view.getIdentifierFactory();
+    MethodSignature hashCodeSig = factory.parseMethodSignature("A#hashCode(): int");
+    DispatchTable dispatchTable = DispatchTable.of(view);
+    assertSame(dispatchTable, new ClassHierarchyAnalysisAlgorithm(view).getDispatchTable());
+
+    Optional<MethodSignature> target =
+        AbstractCallGraphAlgorithm.resolveConcreteDispatch(view, hashCodeSig);
+    assertEquals(1, dispatchTable.getMissCount());
+    assertEquals(0, dispatchTable.getHitCount());
+    assertEquals(target, AbstractCallGraphAlgorithm.resolveConcreteDispatch(view, hashCodeSig));
+    assertEquals(1, dispatchTable.getMissCount());
+    assertEquals(1, dispatchTable.getHitCount());
+
+    // unresolvable calls are cached as well
+    MethodSignature incompleteSig =
+        factory.parseMethodSignature("cvcscincomplete.Class#target(): void");
+    AbstractCallGraphAlgorithm.resolveConcreteDispatch(view, incompleteSig);
+    AbstractCallGraphAlgorithm.resolveConcreteDispatch(view, incompleteSig);
+    assertEquals(2, dispatchTable.getHitCount());
+    assertEquals(2, dispatchTable.size());
+  }
+
+  @Test
+  public void dispatchTableOfMutableView() {
+    MutableJavaView view = new MutableJavaView(inputLocations);
+    IdentifierFactory factory = view.getIdentifierFactory();
+    MethodSignature methodSig = factory.parseMethodSignature("A#method2(): void");
+    MethodSignature overridingMethodSig = factory.parseMethodSignature("B#method2(): void");
+    assertEquals(
+        overridingMethodSig,
+        AbstractCallGraphAlgorithm.resolveConcreteDispatch(view, methodSig).get());
+    DispatchTable dispatchTable = DispatchTable.of(view);
+    assertEquals(1, dispatchTable.size());
+
+    // the call does not dispatch to the overriding method anymore after it has been removed
+    view.removeMethod((JavaSootMethod) view.getMethod(overridingMethodSig).get());
+    assertEquals(0, dispatchTable.size());
+    assertFalse(AbstractCallGraphAlgorithm.resolveConcreteDispatch(view, methodSig).isPresent());
+  }
+
+  @Test
+  public void dispatchTableInvalidatedWhileResolving() {
+    JavaView view = new JavaView(inputLocations);
+    MethodSignature methodSig =
+        view.getIdentifierFactory().parseMethodSignature("A#method2(): void");
+    DispatchTable dispatchTable = DispatchTable.of(view);
+
+    // a target resolved before the table is invalidated must not be cached afterwards
+    Optional<MethodSignature> target =
+        dispatchTable.getTarget(
+            methodSig,
+            signature -> {
+              dispatchTable.invalidate();
+              return Optional.of(signature);
+            });
+    assertEquals(Optional.of(methodSig), target);
+    assertEquals(0, dispatchTable.size());
+  }
 }
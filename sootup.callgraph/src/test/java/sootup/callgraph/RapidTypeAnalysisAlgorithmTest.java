@@ -18,6 +18,11 @@ public class RapidTypeAnalysisAlgorithmTest extends CallGraphTestBase<RapidTypeA
     return new RapidTypeAnalysisAlgorithm(view);
   }
 
+  @Override
+  protected RapidTypeAnalysisAlgorithm createAlgorithm(JavaView view, int parallelism) {
+    return new RapidTypeAnalysisAlgorithm(view, parallelism);
+  }
+
   /**
    * Testing the call graph generation using RTA on a code example
    *
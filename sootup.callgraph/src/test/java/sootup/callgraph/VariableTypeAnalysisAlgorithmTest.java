@@ -0,0 +1,179 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.inputlocation.DefaultRTJarAnalysisInputLocation;
+import sootup.java.bytecode.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.views.JavaView;
+import sootup.java.sourcecode.inputlocation.JavaSourcePathAnalysisInputLocation;
+
+@Category(Java8Test.class)
+public class VariableTypeAnalysisAlgorithmTest {
+
+  private final JavaIdentifierFactory identifierFactory = JavaIdentifierFactory.getInstance();
+
+  private JavaView createView(String testDirectory, boolean useSourceCodeFrontend) {
+    String classPath =
+        "src/test/resources/callgraph/"
+            + testDirectory
+            + "/"
+            + (useSourceCodeFrontend ? "source" : "binary");
+    List<AnalysisInputLocation<? extends JavaSootClass>> inputLocations = new ArrayList<>();
+    inputLocations.add(new DefaultRTJarAnalysisInputLocation());
+    if (useSourceCodeFrontend) {
+      inputLocations.add(new JavaSourcePathAnalysisInputLocation(classPath));
+    } else {
+      inputLocations.add(new JavaClassPathAnalysisInputLocation(classPath));
+    }
+    return new JavaView(inputLocations);
+  }
+
+  private MethodSignature mainMethod(String className) {
+    return identifierFactory.getMethodSignature(
+        className, "main", "void", Collections.singletonList("java.lang.String[]"));
+  }
+
+  private MethodSignature method(String className, String name) {
+    return identifierFactory.getMethodSignature(className, name, "void", Collections.emptyList());
+  }
+
+  /**
+   * The receiver of the virtual call in Example1 is only assigned an instance of B, so VTA removes
+   * the calls to D.virtualDispatch and E.virtualDispatch that RTA adds for the instantiated classes
+   * C and E.
+   */
+  @Test
+  public void testMiscExample1() {
+    JavaView view = createView("Misc", true);
+    MethodSignature mainMethod = mainMethod("example1.Example");
+    List<MethodSignature> entryPoints = Collections.singletonList(mainMethod);
+
+    CallGraph rta = new RapidTypeAnalysisAlgorithm(view).initialize(entryPoints);
+    CallGraph vta = new VariableTypeAnalysisAlgorithm(view).initialize(entryPoints);
+
+    MethodSignature virtualMethodB = method("example1.B", "virtualDispatch");
+    MethodSignature virtualMethodD = method("example1.D", "virtualDispatch");
+    MethodSignature virtualMethodE = method("example1.E", "virtualDispatch");
+
+    assertTrue(rta.containsCall(mainMethod, virtualMethodD));
+    assertTrue(rta.containsCall(mainMethod, virtualMethodE));
+
+    assertTrue(vta.containsCall(mainMethod, virtualMethodB));
+    assertFalse(vta.containsMethod(virtualMethodD));
+    assertFalse(vta.containsMethod(virtualMethodE));
+    assertTrue(vta.containsCall(mainMethod, method("example1.C", "<init>")));
+    assertTrue(vta.containsCall(mainMethod, method("example1.E", "<init>")));
+    assertTrue(vta.containsCall(mainMethod, method("java.lang.Object", "<clinit>")));
+    assertEquals(rta.callCount() - 2, vta.callCount());
+
+    // the call sites are kept for the remaining calls
+    assertTrue(vta.getCallSites().isPresent());
+    assertEquals(1, vta.getCallSites().get().getCallSites(virtualMethodB).size());
+  }
+
+  /** The refined call graph only contains calls of the RTA call graph. */
+  @Test
+  public void testSubsetOfRapidTypeAnalysis() {
+    String[] concreteCallClasses = {
+      "cvc.Class", "cvcsc.Class", "cvcscddi.Class", "cvcscwi.Class", "cvci.Class", "cvcsi.Class"
+    };
+    for (String className : concreteCallClasses) {
+      JavaView view = createView("ConcreteCall", false);
+      List<MethodSignature> entryPoints = Collections.singletonList(mainMethod(className));
+      CallGraph rta = new RapidTypeAnalysisAlgorithm(view).initialize(entryPoints);
+      CallGraph vta = new VariableTypeAnalysisAlgorithm(view).initialize(entryPoints);
+
+      assertTrue(vta.callCount() <= rta.callCount());
+      for (MethodSignature method : vta.getMethodSignatures()) {
+        assertTrue(rta.containsMethod(method));
+        for (MethodSignature target : vta.callsFrom(method)) {
+          assertTrue(rta.containsCall(method, target));
+        }
+      }
+    }
+  }
+
+  /**
+   * The receiver in cvcscddi is only assigned an instance of Class, so the default method of
+   * SubInterface, which is inherited by the instantiated SubClass, is not called.
+   */
+  @Test
+  public void testConcreteCallDifferentDefaultMethodInSubClass() {
+    JavaView view = createView("ConcreteCall", false);
+    MethodSignature mainMethod = mainMethod("cvcscddi.Class");
+    CallGraph vta =
+        new VariableTypeAnalysisAlgorithm(view).initialize(Collections.singletonList(mainMethod));
+
+    assertTrue(vta.containsCall(mainMethod, method("cvcscddi.Interface", "target")));
+    assertFalse(vta.containsMethod(method("cvcscddi.SubInterface", "target")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRefineRequiresCallSites() {
+    JavaView view = createView("Misc", true);
+    MutableCallGraph cg = new CompactCallGraph();
+    MethodSignature mainMethod = mainMethod("example1.Example");
+    cg.addMethod(mainMethod);
+    new VariableTypeAnalysisAlgorithm(view).refine(cg, Collections.singletonList(mainMethod));
+  }
+
+  /**
+   * The field read in escape.Stream is inherited from FilterInputStream. It is assigned an
+   * EmptyStream in the application, but it can also be written by the library, so the call on the
+   * ByteArrayInputStream passed to the library constructor is kept.
+   */
+  @Test
+  public void testInheritedLibraryField() {
+    JavaView view = createView("LibraryEscape", false);
+    MethodSignature mainMethod = mainMethod("escape.Main");
+    CallGraph vta =
+        new VariableTypeAnalysisAlgorithm(view).initialize(Collections.singletonList(mainMethod));
+
+    MethodSignature first =
+        identifierFactory.getMethodSignature(
+            "escape.Stream", "first", "int", Collections.emptyList());
+    assertTrue(vta.containsCall(mainMethod, first));
+    assertTrue(
+        vta.containsCall(
+            first,
+            identifierFactory.getMethodSignature(
+                "java.io.ByteArrayInputStream", "read", "int", Collections.emptyList())));
+    assertTrue(
+        vta.containsCall(
+            first,
+            identifierFactory.getMethodSignature(
+                "escape.EmptyStream", "read", "int", Collections.emptyList())));
+  }
+}
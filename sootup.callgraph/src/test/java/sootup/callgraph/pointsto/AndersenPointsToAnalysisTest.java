@@ -0,0 +1,179 @@
+package sootup.callgraph.pointsto;
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.callgraph.CallGraph;
+import sootup.callgraph.RapidTypeAnalysisAlgorithm;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.jimple.basic.Local;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.FieldSignature;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.inputlocation.DefaultRTJarAnalysisInputLocation;
+import sootup.java.bytecode.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.views.JavaView;
+import sootup.java.sourcecode.inputlocation.JavaSourcePathAnalysisInputLocation;
+
+@Category(Java8Test.class)
+public class AndersenPointsToAnalysisTest {
+
+  private final JavaIdentifierFactory identifierFactory = JavaIdentifierFactory.getInstance();
+
+  private JavaView view;
+  private MethodSignature mainMethod;
+  private SootMethod main;
+
+  @Before
+  public void setUp() {
+    List<AnalysisInputLocation<? extends JavaSootClass>> inputLocations = new ArrayList<>();
+    inputLocations.add(new DefaultRTJarAnalysisInputLocation());
+    inputLocations.add(
+        new JavaSourcePathAnalysisInputLocation("src/test/resources/callgraph/PointsTo/source"));
+    view = new JavaView(inputLocations);
+    mainMethod =
+        identifierFactory.getMethodSignature(
+            "pta.Main", "main", "void", Collections.singletonList("java.lang.String[]"));
+    main = view.getMethod(mainMethod).get();
+  }
+
+  private MethodSignature method(String className, String name) {
+    return identifierFactory.getMethodSignature(className, name, "void", Collections.emptyList());
+  }
+
+  private Local local(String name) {
+    return main.getBody().getLocals().stream()
+        .filter(local -> local.getName().equals(name))
+        .findFirst()
+        .orElseThrow(() -> new AssertionError("no local " + name));
+  }
+
+  @Test
+  public void testCallGraph() {
+    List<MethodSignature> entryPoints = Collections.singletonList(mainMethod);
+    CallGraph cg = new AndersenPointsToAnalysis(view).initialize(entryPoints);
+    CallGraph rta = new RapidTypeAnalysisAlgorithm(view).initialize(entryPoints);
+
+    // the receiver of the first call only points to the A object stored in the field of a
+    assertTrue(cg.containsCall(mainMethod, method("pta.A", "m")));
+    assertTrue(rta.containsCall(mainMethod, method("pta.B", "m")));
+    assertFalse(cg.containsMethod(method("pta.B", "m")));
+    // the array only contains a C object
+    assertTrue(cg.containsCall(mainMethod, method("pta.C", "m")));
+    assertTrue(
+        cg.containsCall(
+            mainMethod,
+            identifierFactory.getMethodSignature(
+                "pta.Main", "id", "pta.Main", Collections.singletonList("pta.Main"))));
+    assertTrue(cg.getCallSites().isPresent());
+  }
+
+  @Test
+  public void testPointsToSets() {
+    PointsToResult result =
+        new AndersenPointsToAnalysis(view).analyze(Collections.singletonList(mainMethod));
+
+    // $r1 = new Main, $r2 = new Main, $r3 = new A, $r4 = new B
+    Set<AllocationSite> mainObjects = result.getPointsToSet(mainMethod, local("$r1"));
+    assertEquals(1, mainObjects.size());
+    AllocationSite firstMain = mainObjects.iterator().next();
+    assertEquals(AllocationSite.Kind.ALLOCATION, firstMain.getKind());
+    assertEquals(identifierFactory.getClassType("pta.Main"), firstMain.getType());
+    AllocationSite secondMain = result.getPointsToSet(mainMethod, local("$r2")).iterator().next();
+    AllocationSite objectA = result.getPointsToSet(mainMethod, local("$r3")).iterator().next();
+    AllocationSite objectB = result.getPointsToSet(mainMethod, local("$r4")).iterator().next();
+
+    // the field is distinguished by the object it belongs to
+    FieldSignature field =
+        identifierFactory.getFieldSignature(
+            "f", identifierFactory.getClassType("pta.Main"), "java.lang.Object");
+    assertEquals(Collections.singleton(objectA), result.getPointsToSet(firstMain, field));
+    assertEquals(Collections.singleton(objectB), result.getPointsToSet(secondMain, field));
+    assertEquals(Collections.singleton(objectA), result.getPointsToSet(mainMethod, local("$r6")));
+
+    // the object passes through the parameter and the return value of id
+    assertTrue(result.mayAlias(mainMethod, local("$r1"), mainMethod, local("$r7")));
+    assertFalse(result.mayAlias(mainMethod, local("$r1"), mainMethod, local("$r2")));
+    FieldSignature staticField =
+        identifierFactory.getFieldSignature(
+            "staticField", identifierFactory.getClassType("pta.Main"), "java.lang.Object");
+    assertEquals(Collections.singleton(firstMain), result.getPointsToSet(staticField));
+
+    AllocationSite array = result.getPointsToSet(mainMethod, local("$r8")).iterator().next();
+    assertEquals(
+        Collections.singleton(identifierFactory.getClassType("pta.C")),
+        result.getArrayElementsPointsToSet(array).stream()
+            .map(AllocationSite::getType)
+            .collect(Collectors.toSet()));
+
+    // the parameter of the entry point is created outside of the analyzed code
+    Set<AllocationSite> args = result.getPointsToSet(mainMethod, local("$r0"));
+    assertEquals(1, args.size());
+    assertEquals(AllocationSite.Kind.UNKNOWN, args.iterator().next().getKind());
+  }
+
+  @Test
+  public void testCycleElimination() {
+    PointsToResult result =
+        new AndersenPointsToAnalysis(view).analyze(Collections.singletonList(mainMethod));
+
+    // $r11 and $r12 are copied into each other in the loop
+    assertTrue(result.getMergedNodeCount() > 0);
+    assertEquals(
+        result.getPointsToSet(mainMethod, local("$r2")),
+        result.getPointsToSet(mainMethod, local("$r12")));
+    assertTrue(
+        result
+            .getCallGraph()
+            .containsCall(
+                mainMethod,
+                identifierFactory.getMethodSignature(
+                    "java.lang.Object", "toString", "java.lang.String", Collections.emptyList())));
+  }
+
+  /**
+   * The inherited field is written by the library constructor and the elements of the destination
+   * array by System.arraycopy, so both point to unknown objects.
+   */
+  @Test
+  public void testLibraryEscape() {
+    List<AnalysisInputLocation<? extends JavaSootClass>> inputLocations = new ArrayList<>();
+    inputLocations.add(new DefaultRTJarAnalysisInputLocation());
+    inputLocations.add(
+        new JavaClassPathAnalysisInputLocation(
+            "src/test/resources/callgraph/LibraryEscape/binary"));
+    JavaView view = new JavaView(inputLocations);
+    MethodSignature mainMethod =
+        identifierFactory.getMethodSignature(
+            "escape.Main", "main", "void", Collections.singletonList("java.lang.String[]"));
+    MethodSignature first =
+        identifierFactory.getMethodSignature(
+            "escape.Stream", "first", "int", Collections.emptyList());
+
+    CallGraph cg =
+        new AndersenPointsToAnalysis(view).initialize(Collections.singletonList(mainMethod));
+
+    assertTrue(cg.containsCall(mainMethod, first));
+    assertTrue(
+        cg.containsCall(
+            first,
+            identifierFactory.getMethodSignature(
+                "java.io.ByteArrayInputStream", "read", "int", Collections.emptyList())));
+    assertTrue(
+        cg.containsCall(
+            first,
+            identifierFactory.getMethodSignature(
+                "escape.EmptyStream", "read", "int", Collections.emptyList())));
+    assertTrue(cg.containsCall(mainMethod, method("escape.Element", "m")));
+  }
+}
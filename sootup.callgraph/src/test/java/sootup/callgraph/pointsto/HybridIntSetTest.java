@@ -0,0 +1,65 @@
+package sootup.callgraph.pointsto;
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(Java8Test.class)
+public class HybridIntSetTest {
+
+  @Test
+  public void testSparseAndDense() {
+    HybridIntSet set = new HybridIntSet();
+    assertTrue(set.isEmpty());
+    for (int element = HybridIntSet.SPARSE_LIMIT * 2 - 2; element >= 0; element -= 2) {
+      assertTrue(set.add(element));
+      assertFalse(set.add(element));
+      assertFalse(set.isDense());
+    }
+    assertEquals(HybridIntSet.SPARSE_LIMIT, set.size());
+    assertArrayEquals(new int[] {0, 2, 4, 6}, Arrays.copyOf(set.toArray(), 4));
+
+    assertTrue(set.add(1));
+    assertTrue(set.isDense());
+    assertEquals(HybridIntSet.SPARSE_LIMIT + 1, set.size());
+    assertTrue(set.contains(1));
+    assertTrue(set.contains(30));
+    assertFalse(set.contains(3));
+
+    List<Integer> elements = new ArrayList<>();
+    set.forEach(elements::add);
+    assertEquals(set.size(), elements.size());
+    assertEquals(Integer.valueOf(0), elements.get(0));
+    assertEquals(Integer.valueOf(1), elements.get(1));
+  }
+
+  @Test
+  public void testAddAllAndIntersects() {
+    HybridIntSet sparse = new HybridIntSet();
+    sparse.add(3);
+    sparse.add(100);
+    HybridIntSet dense = new HybridIntSet();
+    for (int element = 0; element <= HybridIntSet.SPARSE_LIMIT; element++) {
+      dense.add(element * 10);
+    }
+    assertTrue(dense.isDense());
+    assertTrue(sparse.intersects(dense));
+    assertTrue(dense.intersects(sparse));
+
+    HybridIntSet added = new HybridIntSet();
+    assertTrue(sparse.addAll(dense, added));
+    assertEquals(HybridIntSet.SPARSE_LIMIT, added.size());
+    assertFalse(added.contains(100));
+    assertTrue(sparse.isDense());
+    assertFalse(sparse.addAll(dense, null));
+
+    HybridIntSet other = new HybridIntSet();
+    other.add(5);
+    assertFalse(other.intersects(dense));
+  }
+}
@@ -0,0 +1,46 @@
+package escape;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+class Main {
+
+  public static void main(String[] args) throws IOException {
+    Stream stream = new Stream(new ByteArrayInputStream(new byte[1]));
+    stream.first();
+    stream.replace(new EmptyStream());
+
+    Element[] source = {new Element()};
+    Element[] destination = new Element[1];
+    System.arraycopy(source, 0, destination, 0, 1);
+    destination[0].m();
+  }
+}
+
+class Stream extends FilterInputStream {
+
+  Stream(InputStream in) {
+    super(in);
+  }
+
+  int first() throws IOException {
+    // the inherited field is only written by the constructor of the library class
+    return in.read();
+  }
+
+  void replace(InputStream other) {
+    in = other;
+  }
+}
+
+class EmptyStream extends InputStream {
+  public int read() {
+    return -1;
+  }
+}
+
+class Element {
+  void m() {}
+}
@@ -0,0 +1,48 @@
+package pta;
+
+class Main {
+
+  Object f;
+
+  static Object staticField;
+
+  public static void main(String[] args) {
+    Main a = new Main();
+    Main b = new Main();
+    a.f = new A();
+    b.f = new B();
+    A fromField = (A) a.f;
+    fromField.m();
+
+    Main alias = id(a);
+    staticField = alias;
+
+    A[] array = new A[1];
+    array[0] = new C();
+    array[0].m();
+
+    Object p = b;
+    Object q = p;
+    while (args.length > 0) {
+      p = q;
+      q = p;
+    }
+    q.toString();
+  }
+
+  static Main id(Main param) {
+    return param;
+  }
+}
+
+class A {
+  void m() {}
+}
+
+class B extends A {
+  void m() {}
+}
+
+class C extends A {
+  void m() {}
+}
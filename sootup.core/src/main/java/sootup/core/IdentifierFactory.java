@@ -23,6 +23,7 @@ package sootup.core;
  */
 
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import javax.annotation.Nonnull;
@@ -35,6 +36,7 @@ import sootup.core.types.ArrayType;
 import sootup.core.types.ClassType;
 import sootup.core.types.PrimitiveType;
 import sootup.core.types.Type;
+import sootup.core.types.VoidType;
 
 /**
  * A factory used for creating language-specific objects representing entities of the language, for
@@ -254,6 +256,17 @@ public interface IdentifierFactory {
    */
   ClassType fromPath(Path rootDirectory, Path file);
 
+  /**
+   * Returns the signature of the static initializer of the class, which is created like the other
+   * method signatures of this factory.
+   */
+  @Nonnull
+  default MethodSignature getStaticInitializerSignature(@Nonnull ClassType declaringClass) {
+    return getMethodSignature(
+        declaringClass,
+        getMethodSubSignature("<clinit>", VoidType.getInstance(), Collections.emptyList()));
+  }
+
   boolean isStaticInitializerSubSignature(@Nonnull MethodSubSignature methodSubSignature);
 
   boolean isConstructorSubSignature(@Nonnull MethodSubSignature methodSubSignature);
@@ -0,0 +1,37 @@
+package sootup.core.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Counts the hits, misses and rebuilds of a {@link BodyCache}. */
+public abstract class AbstractBodyCache implements BodyCache {
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong rebuildCount = new AtomicLong();
+
+  protected void recordHit() {
+    hitCount.incrementAndGet();
+  }
+
+  /** @param rebuild whether the requested body has been cached and evicted before */
+  protected void recordMiss(boolean rebuild) {
+    missCount.incrementAndGet();
+    if (rebuild) {
+      rebuildCount.incrementAndGet();
+    }
+  }
+
+  @Override
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  @Override
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  @Override
+  public long getRebuildCount() {
+    return rebuildCount.get();
+  }
+}
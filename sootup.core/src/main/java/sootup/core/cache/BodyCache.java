@@ -0,0 +1,44 @@
+package sootup.core.cache;
+
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * Interface for different caching strategies of resolved method bodies. In contrast to a {@link
+ * SootMethod} which keeps its {@link Body} once it has been resolved, a body cache may evict
+ * bodies. An evicted body is rebuilt from the {@link sootup.core.frontend.BodySource} of the method
+ * when it is requested again, so the rebuilt {@link Body} (and its {@link
+ * sootup.core.jimple.common.stmt.Stmt}s) is a different instance than the evicted one.
+ *
+ * <p>Eviction therefore invalidates the identity of stmts: structures which are keyed by the stmts
+ * of a body, e.g. the call sites recorded by a call graph, do not find the stmts of the rebuilt
+ * body. Such structures either have to keep the bodies they refer to or have to be used with a
+ * cache which does not evict bodies.
+ */
+public interface BodyCache {
+
+  /**
+   * Returns the cached body of the given method or builds, caches and returns it via the given
+   * bodyBuilder.
+   */
+  @Nonnull
+  Body getBody(@Nonnull SootMethod method, @Nonnull Supplier<Body> bodyBuilder);
+
+  /** Removes the body of the method with the given signature from the cache. */
+  void removeBody(@Nonnull MethodSignature methodSignature);
+
+  /** Returns the number of bodies that are currently stored in the cache. */
+  int size();
+
+  /** Returns the number of requests that have been answered by the cache. */
+  long getHitCount();
+
+  /** Returns the number of requests that needed to build the body. */
+  long getMissCount();
+
+  /** Returns the number of misses that needed to rebuild a body which has been evicted before. */
+  long getRebuildCount();
+}
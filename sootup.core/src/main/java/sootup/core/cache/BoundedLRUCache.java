@@ -0,0 +1,122 @@
+package sootup.core.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import javax.annotation.Nonnull;
+import sootup.core.model.SootClass;
+import sootup.core.types.ClassType;
+
+/**
+ * Cache that implements a least recently used strategy with constant time operations. The cache is
+ * bounded by the number of stored classes as well as by the total weight of the stored classes, as
+ * estimated by a {@link ClassWeigher}. If one of the bounds is exceeded, the least recently used
+ * classes are evicted. The most recently added class is never evicted, even if its weight alone
+ * exceeds the maximum weight.
+ *
+ * <p>All operations are guarded by the monitor of the cache, so the cache can be shared by multiple
+ * threads.
+ */
+public class BoundedLRUCache<S extends SootClass<?>> implements ClassCache<S> {
+  private final int maximumSize;
+  private final long maximumWeight;
+  @Nonnull private final ClassWeigher<S> weigher;
+
+  // iterates from the least recently used to the most recently used class
+  private final LinkedHashMap<ClassType, WeightedClass<S>> cache =
+      new LinkedHashMap<>(16, 0.75f, true);
+  private long totalWeight = 0;
+  private long evictionCount = 0;
+
+  public BoundedLRUCache(int maximumSize) {
+    this(maximumSize, Long.MAX_VALUE, ClassWeigher.singleton());
+  }
+
+  public BoundedLRUCache(int maximumSize, long maximumWeight, @Nonnull ClassWeigher<S> weigher) {
+    if (maximumSize < 1) {
+      throw new IllegalArgumentException("Cache size has to be at least 1");
+    }
+    if (maximumWeight < 1) {
+      throw new IllegalArgumentException("Cache weight has to be at least 1");
+    }
+    this.maximumSize = maximumSize;
+    this.maximumWeight = maximumWeight;
+    this.weigher = weigher;
+  }
+
+  @Override
+  public synchronized S getClass(ClassType classType) {
+    WeightedClass<S> entry = cache.get(classType);
+    return entry == null ? null : entry.sootClass;
+  }
+
+  @Nonnull
+  @Override
+  public synchronized Collection<S> getClasses() {
+    Collection<S> classes = new ArrayList<>(cache.size());
+    for (WeightedClass<S> entry : cache.values()) {
+      classes.add(entry.sootClass);
+    }
+    return classes;
+  }
+
+  @Override
+  public void putClass(ClassType classType, S sootClass) {
+    // weigh outside of the monitor as the weigher may resolve the members of the class
+    long weight = weigher.weigh(sootClass);
+    if (weight < 0) {
+      throw new IllegalStateException("Negative weight " + weight + " for " + classType);
+    }
+
+    synchronized (this) {
+      if (cache.containsKey(classType)) {
+        return;
+      }
+      cache.put(classType, new WeightedClass<>(sootClass, weight));
+      totalWeight += weight;
+      evict();
+    }
+  }
+
+  /** Evicts the least recently used classes until both bounds are met again. */
+  private void evict() {
+    Iterator<WeightedClass<S>> iterator = cache.values().iterator();
+    while ((cache.size() > maximumSize || totalWeight > maximumWeight) && cache.size() > 1) {
+      WeightedClass<S> leastRecentlyUsed = iterator.next();
+      iterator.remove();
+      totalWeight -= leastRecentlyUsed.weight;
+      evictionCount++;
+    }
+  }
+
+  @Override
+  public synchronized boolean hasClass(ClassType classType) {
+    return cache.containsKey(classType);
+  }
+
+  @Override
+  public synchronized int size() {
+    return cache.size();
+  }
+
+  /** Returns the summed up weight of all classes that are currently stored in the cache. */
+  public synchronized long getWeight() {
+    return totalWeight;
+  }
+
+  /** Returns the number of classes that have been evicted from the cache so far. */
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
+  private static class WeightedClass<S> {
+    @Nonnull private final S sootClass;
+    private final long weight;
+
+    private WeightedClass(@Nonnull S sootClass, long weight) {
+      this.sootClass = sootClass;
+      this.weight = weight;
+    }
+  }
+}
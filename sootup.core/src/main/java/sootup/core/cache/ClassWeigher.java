@@ -0,0 +1,31 @@
+package sootup.core.cache;
+
+import javax.annotation.Nonnull;
+import sootup.core.model.SootClass;
+
+/**
+ * Estimates how much memory a resolved class occupies. Used by caches that are bounded by a total
+ * weight, e.g. the {@link BoundedLRUCache}.
+ */
+@FunctionalInterface
+public interface ClassWeigher<S extends SootClass<?>> {
+
+  /**
+   * Estimates the weight of a class when it is put into the cache. The weight of a class must not
+   * be negative and is not reevaluated while the class stays in the cache.
+   */
+  long weigh(@Nonnull S sootClass);
+
+  /** Weighs every class with 1, i.e. the weight of a cache is the number of classes it stores. */
+  static <S extends SootClass<?>> ClassWeigher<S> singleton() {
+    return sootClass -> 1;
+  }
+
+  /**
+   * Weighs a class by the number of its members, as the methods (including their bodies) make up
+   * most of the memory of a resolved class.
+   */
+  static <S extends SootClass<?>> ClassWeigher<S> members() {
+    return sootClass -> 1L + sootClass.getMethods().size() + sootClass.getFields().size();
+  }
+}
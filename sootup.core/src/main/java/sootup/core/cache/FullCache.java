@@ -1,25 +1,28 @@
 package sootup.core.cache;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nonnull;
 import sootup.core.model.SootClass;
 import sootup.core.types.ClassType;
 
-/** Cache that stores any class that has been resolved. */
+/**
+ * Cache that stores any class that has been resolved. The cache is backed by a {@link
+ * ConcurrentHashMap} and can therefore be shared by multiple resolving threads.
+ */
 public class FullCache<S extends SootClass<?>> implements ClassCache<S> {
 
-  protected final Map<ClassType, S> cache = new HashMap<>();
+  protected final Map<ClassType, S> cache = new ConcurrentHashMap<>();
 
   @Override
-  public synchronized S getClass(ClassType classType) {
+  public S getClass(ClassType classType) {
     return cache.get(classType);
   }
 
   @Nonnull
   @Override
-  public synchronized Collection<S> getClasses() {
+  public Collection<S> getClasses() {
     return cache.values();
   }
 
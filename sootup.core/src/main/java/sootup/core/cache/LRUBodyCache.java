@@ -0,0 +1,101 @@
+package sootup.core.cache;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import sootup.core.frontend.BodySource;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * Body cache that implements a least recently used strategy. If the amount of stored bodies exceeds
+ * a specified amount, the least recently used body is evicted. All operations take constant time
+ * and are guarded by the monitor of the cache. Bodies are built outside of the monitor, so multiple
+ * threads can build different bodies at the same time.
+ *
+ * <p>A rebuilt body consists of new {@link sootup.core.jimple.common.stmt.Stmt} instances, so maps
+ * keyed by the stmts of an evicted body do not match the rebuilt body anymore. Only the signatures
+ * of the last evicted bodies are remembered, so {@link #getRebuildCount()} does not count the
+ * rebuilds of bodies which have been evicted long ago.
+ */
+public class LRUBodyCache extends AbstractBodyCache {
+  private final int cacheSize;
+  // iterates from the least recently used to the most recently used body
+  private final LinkedHashMap<MethodSignature, CachedBody> cache =
+      new LinkedHashMap<MethodSignature, CachedBody>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<MethodSignature, CachedBody> eldest) {
+          if (size() > cacheSize) {
+            evicted.add(eldest.getKey());
+            return true;
+          }
+          return false;
+        }
+      };
+
+  // the signatures of the most recently evicted bodies, at most as many as the cache holds bodies,
+  // so the bookkeeping of rebuilds does not grow with the number of methods of the view
+  private final Set<MethodSignature> evicted =
+      Collections.newSetFromMap(
+          new LinkedHashMap<MethodSignature, Boolean>(16, 0.75f) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<MethodSignature, Boolean> eldest) {
+              return size() > cacheSize;
+            }
+          });
+
+  public LRUBodyCache(int cacheSize) {
+    if (cacheSize < 1) {
+      throw new IllegalArgumentException("Cache size has to be at least 1");
+    }
+    this.cacheSize = cacheSize;
+  }
+
+  @Nonnull
+  @Override
+  public Body getBody(@Nonnull SootMethod method, @Nonnull Supplier<Body> bodyBuilder) {
+    MethodSignature signature = method.getSignature();
+    boolean rebuild;
+    synchronized (this) {
+      CachedBody cachedBody = cache.get(signature);
+      if (cachedBody != null && cachedBody.bodySource == method.getBodySource()) {
+        recordHit();
+        return cachedBody.body;
+      }
+      rebuild = evicted.remove(signature);
+    }
+    recordMiss(rebuild);
+
+    Body body = bodyBuilder.get();
+    synchronized (this) {
+      cache.put(signature, new CachedBody(method.getBodySource(), body));
+    }
+    return body;
+  }
+
+  @Override
+  public synchronized void removeBody(@Nonnull MethodSignature methodSignature) {
+    cache.remove(methodSignature);
+  }
+
+  @Override
+  public synchronized int size() {
+    return cache.size();
+  }
+
+  private static class CachedBody {
+    // the source the body was built from: a method that has been replaced in a view reuses the
+    // signature but comes with a different source
+    @Nonnull private final BodySource bodySource;
+    @Nonnull private final Body body;
+
+    private CachedBody(@Nonnull BodySource bodySource, @Nonnull Body body) {
+      this.bodySource = bodySource;
+      this.body = body;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package sootup.core.cache;
+
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import sootup.core.frontend.BodySource;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * Body cache that references its bodies softly, i.e. the garbage collector evicts bodies when the
+ * heap runs short. Only the signatures of evicted bodies are kept to count rebuilds.
+ */
+public class SoftBodyCache extends AbstractBodyCache {
+  private final Map<MethodSignature, CachedBody> cache = new ConcurrentHashMap<>();
+
+  @Nonnull
+  @Override
+  public Body getBody(@Nonnull SootMethod method, @Nonnull Supplier<Body> bodyBuilder) {
+    MethodSignature signature = method.getSignature();
+    CachedBody cachedBody = cache.get(signature);
+    boolean rebuild = false;
+    if (cachedBody != null && cachedBody.bodySource == method.getBodySource()) {
+      Body body = cachedBody.get();
+      if (body != null) {
+        recordHit();
+        return body;
+      }
+      rebuild = true;
+    }
+    recordMiss(rebuild);
+
+    Body body = bodyBuilder.get();
+    cache.put(signature, new CachedBody(method.getBodySource(), body));
+    return body;
+  }
+
+  @Override
+  public void removeBody(@Nonnull MethodSignature methodSignature) {
+    cache.remove(methodSignature);
+  }
+
+  /** Returns the number of bodies that have been cached and not been collected yet. */
+  @Override
+  public int size() {
+    return (int) cache.values().stream().filter(cachedBody -> cachedBody.get() != null).count();
+  }
+
+  private static class CachedBody extends SoftReference<Body> {
+    @Nonnull private final BodySource bodySource;
+
+    private CachedBody(@Nonnull BodySource bodySource, @Nonnull Body body) {
+      super(body);
+      this.bodySource = bodySource;
+    }
+  }
+}
@@ -0,0 +1,10 @@
+package sootup.core.cache.provider;
+
+import sootup.core.cache.BodyCache;
+
+/** Interface for body cache providers. */
+public interface BodyCacheProvider {
+
+  /** Create and return a new body cache object. */
+  BodyCache createCache();
+}
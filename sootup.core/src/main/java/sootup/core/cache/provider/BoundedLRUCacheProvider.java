@@ -0,0 +1,50 @@
+package sootup.core.cache.provider;
+
+import javax.annotation.Nonnull;
+import sootup.core.cache.BoundedLRUCache;
+import sootup.core.cache.ClassCache;
+import sootup.core.cache.ClassWeigher;
+import sootup.core.model.SootClass;
+
+/** Provides a new {@link BoundedLRUCache} object. */
+public class BoundedLRUCacheProvider<S extends SootClass<?>> implements ClassCacheProvider<S> {
+  private final int maximumSize;
+  private final long maximumWeight;
+  @Nonnull private final ClassWeigher<S> weigher;
+
+  /**
+   * Create a new BoundedLRUCacheProvider that returns a {@link BoundedLRUCache} which stores at
+   * most the specified number of classes.
+   */
+  public BoundedLRUCacheProvider(int maximumSize) {
+    this(maximumSize, Long.MAX_VALUE, ClassWeigher.singleton());
+  }
+
+  /**
+   * Create a new BoundedLRUCacheProvider that returns a {@link BoundedLRUCache} which stores at
+   * most the specified number of classes, whose number of members sum up to at most the specified
+   * weight (see {@link ClassWeigher#members()}).
+   */
+  public BoundedLRUCacheProvider(int maximumSize, long maximumWeight) {
+    this(maximumSize, maximumWeight, ClassWeigher.members());
+  }
+
+  /**
+   * Create a new BoundedLRUCacheProvider that returns a {@link BoundedLRUCache} which stores at
+   * most the specified number of classes, whose weights estimated by the given weigher sum up to at
+   * most the specified weight.
+   */
+  public BoundedLRUCacheProvider(
+      int maximumSize, long maximumWeight, @Nonnull ClassWeigher<S> weigher) {
+    if (maximumSize < 1) throw new IllegalArgumentException("Cache size has to be at least 1");
+    if (maximumWeight < 1) throw new IllegalArgumentException("Cache weight has to be at least 1");
+    this.maximumSize = maximumSize;
+    this.maximumWeight = maximumWeight;
+    this.weigher = weigher;
+  }
+
+  @Override
+  public ClassCache<S> createCache() {
+    return new BoundedLRUCache<>(maximumSize, maximumWeight, weigher);
+  }
+}
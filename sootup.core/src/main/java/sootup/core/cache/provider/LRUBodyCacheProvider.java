@@ -0,0 +1,30 @@
+package sootup.core.cache.provider;
+
+import sootup.core.cache.BodyCache;
+import sootup.core.cache.LRUBodyCache;
+
+/** Provides a new {@link LRUBodyCache} object. */
+public class LRUBodyCacheProvider implements BodyCacheProvider {
+  private final int cacheSize;
+
+  /**
+   * Create a new LRUBodyCacheProvider that returns a {@link LRUBodyCache} with a default size of
+   * 1000.
+   */
+  public LRUBodyCacheProvider() {
+    this(1000);
+  }
+
+  /**
+   * Create a new LRUBodyCacheProvider that returns a {@link LRUBodyCache} with the specified size.
+   */
+  public LRUBodyCacheProvider(int cacheSize) {
+    if (cacheSize < 1) throw new IllegalArgumentException("Cache size has to be at least 1");
+    this.cacheSize = cacheSize;
+  }
+
+  @Override
+  public BodyCache createCache() {
+    return new LRUBodyCache(cacheSize);
+  }
+}
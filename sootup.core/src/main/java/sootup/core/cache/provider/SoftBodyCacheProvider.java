@@ -0,0 +1,13 @@
+package sootup.core.cache.provider;
+
+import sootup.core.cache.BodyCache;
+import sootup.core.cache.SoftBodyCache;
+
+/** Provides a new {@link SoftBodyCache} object. */
+public class SoftBodyCacheProvider implements BodyCacheProvider {
+
+  @Override
+  public BodyCache createCache() {
+    return new SoftBodyCache();
+  }
+}
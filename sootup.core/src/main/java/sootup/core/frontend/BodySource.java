@@ -23,6 +23,8 @@ package sootup.core.frontend;
 
 import java.io.IOException;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.cache.BodyCache;
 import sootup.core.model.Body;
 import sootup.core.model.MethodModifier;
 import sootup.core.signatures.MethodSignature;
@@ -48,4 +50,13 @@ public interface BodySource {
 
   @Nonnull
   MethodSignature getSignature();
+
+  /**
+   * Returns the cache that stores the bodies resolved by this source. If there is no such cache,
+   * the {@link sootup.core.model.SootMethod} keeps its body once it has been resolved.
+   */
+  @Nullable
+  default BodyCache getBodyCache() {
+    return null;
+  }
 }
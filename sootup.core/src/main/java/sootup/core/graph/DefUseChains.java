@@ -0,0 +1,490 @@
+package sootup.core.graph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.jimple.basic.LValue;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.Value;
+import sootup.core.jimple.common.stmt.Stmt;
+
+/**
+ * Def-use and use-def chains of a {@link StmtGraph}. The chains are computed lazily, when they are
+ * queried for the first time.
+ *
+ * <ul>
+ *   <li>{@link #getDefs(LValue)} and {@link #getUses(Value)} list all stmts that define or use a
+ *       value, regardless of the control flow.
+ *   <li>{@link #getDefsOfUse(Stmt, Local)} and {@link #getUsesOfDef(Stmt)} are based on the
+ *       definitions of locals that reach a stmt, which are computed over the basic blocks of the
+ *       graph. A definition in a block protected by a trap reaches the handler, if it is followed
+ *       by another stmt of the block that may throw.
+ * </ul>
+ *
+ * <p>A {@link MutableBlockStmtGraph} keeps its chains up to date: replacing a stmt by a stmt that
+ * defines the same local only updates the chains, other modifications discard the reaching
+ * definitions, which are recomputed on the next query. The returned lists must not be kept across
+ * modifications of the graph.
+ */
+public class DefUseChains {
+
+  @Nonnull private final StmtGraph<?> graph;
+
+  // the stmts defining or using a value, a stmt using a value more than once is contained as often
+  @Nullable private Map<LValue, List<Stmt>> defs;
+  @Nullable private Map<Value, List<Stmt>> uses;
+
+  @Nullable private ReachingDefinitions reachingDefinitions;
+  @Nullable private Map<Stmt, List<Stmt>> usesOfDefs;
+
+  public DefUseChains(@Nonnull StmtGraph<?> graph) {
+    this.graph = graph;
+  }
+
+  /** Returns all stmts of the graph which define the given value. */
+  @Nonnull
+  public synchronized List<Stmt> getDefs(@Nonnull LValue value) {
+    if (defs == null) {
+      defs = new HashMap<>();
+      for (Stmt stmt : graph.getNodes()) {
+        addDefs(stmt);
+      }
+    }
+    return unmodifiable(defs.get(value));
+  }
+
+  /**
+   * Returns all stmts of the graph which use the given value. A stmt is contained once for each
+   * time it uses the value.
+   */
+  @Nonnull
+  public synchronized List<Stmt> getUses(@Nonnull Value value) {
+    if (uses == null) {
+      uses = new HashMap<>();
+      for (Stmt stmt : graph.getNodes()) {
+        addUses(stmt);
+      }
+    }
+    return unmodifiable(uses.get(value));
+  }
+
+  /**
+   * Returns the stmts defining the given local whose definition reaches the given stmt, i.e. the
+   * definitions the value of the local can come from when it is used by the stmt.
+   */
+  @Nonnull
+  public synchronized List<Stmt> getDefsOfUse(@Nonnull Stmt stmt, @Nonnull Local local) {
+    return getReachingDefinitions().getDefsOfUse(stmt, local);
+  }
+
+  /**
+   * Returns the stmts that use the local defined by the given stmt with a value from this
+   * definition. A stmt is contained once, even if it uses the local more than once.
+   */
+  @Nonnull
+  public synchronized List<Stmt> getUsesOfDef(@Nonnull Stmt def) {
+    if (usesOfDefs == null) {
+      ReachingDefinitions reachingDefs = getReachingDefinitions();
+      usesOfDefs = new IdentityHashMap<>();
+      for (Stmt stmt : graph.getNodes()) {
+        for (Local local : usedLocals(stmt)) {
+          for (Stmt defOfUse : reachingDefs.getDefsOfUse(stmt, local)) {
+            usesOfDefs.computeIfAbsent(defOfUse, k -> new ArrayList<>()).add(stmt);
+          }
+        }
+      }
+    }
+    return unmodifiable(usesOfDefs.get(def));
+  }
+
+  /** Updates the chains after the stmt has been added to the graph. */
+  synchronized void stmtAdded(@Nonnull Stmt stmt) {
+    if (defs != null) {
+      addDefs(stmt);
+    }
+    if (uses != null) {
+      addUses(stmt);
+    }
+    flowChanged();
+  }
+
+  /** Updates the chains after the stmt has been removed from the graph. */
+  synchronized void stmtRemoved(@Nonnull Stmt stmt) {
+    if (defs != null) {
+      for (LValue def : stmt.getDefs()) {
+        removeFrom(defs, def, stmt);
+      }
+    }
+    if (uses != null) {
+      for (Value use : stmt.getUses()) {
+        removeFrom(uses, use, stmt);
+      }
+    }
+    flowChanged();
+  }
+
+  /**
+   * Updates the chains after a stmt has been replaced by another stmt in the same place.
+   *
+   * @param sameFlow whether the replacement kept the edges and the blocks of the graph
+   */
+  synchronized void stmtReplaced(@Nonnull Stmt oldStmt, @Nonnull Stmt newStmt, boolean sameFlow) {
+    if (defs != null) {
+      List<LValue> newDefs = newStmt.getDefs();
+      for (LValue def : oldStmt.getDefs()) {
+        List<Stmt> stmts = defs.get(def);
+        if (stmts == null) {
+          continue;
+        }
+        int idx = stmts.indexOf(oldStmt);
+        if (newDefs.contains(def) && idx >= 0) {
+          // keep the order of the definitions
+          stmts.set(idx, newStmt);
+        } else {
+          removeFrom(defs, def, oldStmt);
+        }
+      }
+      List<LValue> oldDefs = oldStmt.getDefs();
+      for (LValue def : newDefs) {
+        if (!oldDefs.contains(def)) {
+          defs.computeIfAbsent(def, k -> new ArrayList<>()).add(newStmt);
+        }
+      }
+    }
+    if (uses != null) {
+      for (Value use : oldStmt.getUses()) {
+        removeFrom(uses, use, oldStmt);
+      }
+      addUses(newStmt);
+    }
+
+    usesOfDefs = null;
+    if (reachingDefinitions != null
+        && !(sameFlow && reachingDefinitions.replace(oldStmt, newStmt))) {
+      reachingDefinitions = null;
+    }
+  }
+
+  /** Discards the reaching definitions after the edges of the graph have been modified. */
+  synchronized void flowChanged() {
+    reachingDefinitions = null;
+    usesOfDefs = null;
+  }
+
+  @Nonnull
+  private ReachingDefinitions getReachingDefinitions() {
+    if (reachingDefinitions == null) {
+      reachingDefinitions = new ReachingDefinitions(graph);
+    }
+    return reachingDefinitions;
+  }
+
+  private void addDefs(@Nonnull Stmt stmt) {
+    for (LValue def : stmt.getDefs()) {
+      defs.computeIfAbsent(def, k -> new ArrayList<>()).add(stmt);
+    }
+  }
+
+  private void addUses(@Nonnull Stmt stmt) {
+    for (Value use : stmt.getUses()) {
+      uses.computeIfAbsent(use, k -> new ArrayList<>()).add(stmt);
+    }
+  }
+
+  private static <K> void removeFrom(
+      @Nonnull Map<K, List<Stmt>> map, @Nonnull K key, @Nonnull Stmt stmt) {
+    List<Stmt> stmts = map.get(key);
+    if (stmts != null) {
+      stmts.removeIf(s -> s == stmt);
+      if (stmts.isEmpty()) {
+        map.remove(key);
+      }
+    }
+  }
+
+  @Nonnull
+  private static List<Stmt> unmodifiable(@Nullable List<Stmt> stmts) {
+    return stmts == null ? Collections.emptyList() : Collections.unmodifiableList(stmts);
+  }
+
+  /** Returns the local the stmt defines, or null. */
+  @Nullable
+  private static Local definedLocal(@Nonnull Stmt stmt) {
+    List<LValue> defs = stmt.getDefs();
+    if (!defs.isEmpty() && defs.get(0) instanceof Local) {
+      return (Local) defs.get(0);
+    }
+    return null;
+  }
+
+  @Nonnull
+  private static Set<Local> usedLocals(@Nonnull Stmt stmt) {
+    Set<Local> locals = new LinkedHashSet<>();
+    for (Value use : stmt.getUses()) {
+      if (use instanceof Local) {
+        locals.add((Local) use);
+      }
+    }
+    return locals;
+  }
+
+  /**
+   * The definitions of locals reaching the entry of each block. The definitions are numbered
+   * densely, so that a set of definitions is a bit vector. The result inside a block is derived
+   * from the positions of the definitions in the block.
+   */
+  private static final class ReachingDefinitions {
+
+    @Nonnull private final List<List<Stmt>> blockStmts = new ArrayList<>();
+    @Nonnull private final Map<Stmt, Integer> blockIndices = new IdentityHashMap<>();
+    @Nonnull private final Map<Stmt, Integer> positions = new IdentityHashMap<>();
+    // the ascending positions of the definitions of each local in each block
+    @Nonnull private final List<Map<Local, int[]>> blockDefPositions = new ArrayList<>();
+
+    @Nonnull private final List<Stmt> defStmts = new ArrayList<>();
+    @Nonnull private final Map<Stmt, Integer> defIndices = new IdentityHashMap<>();
+    @Nonnull private final Map<Local, long[]> localDefs = new HashMap<>();
+
+    @Nonnull private final long[][] blockIn;
+
+    ReachingDefinitions(@Nonnull StmtGraph<?> graph) {
+      List<BasicBlock<?>> blocks = new ArrayList<>();
+      List<Local> defLocals = new ArrayList<>();
+      for (BasicBlock<?> block : graph.getBlocks()) {
+        if (block.getStmtCount() == 0) {
+          continue;
+        }
+        int blockIdx = blocks.size();
+        List<Stmt> stmts = new ArrayList<>(block.getStmts());
+        Map<Local, List<Integer>> defPositions = new HashMap<>();
+        for (int pos = 0; pos < stmts.size(); pos++) {
+          Stmt stmt = stmts.get(pos);
+          blockIndices.put(stmt, blockIdx);
+          positions.put(stmt, pos);
+          Local local = definedLocal(stmt);
+          if (local != null) {
+            defIndices.put(stmt, defStmts.size());
+            defStmts.add(stmt);
+            defLocals.add(local);
+            defPositions.computeIfAbsent(local, k -> new ArrayList<>()).add(pos);
+          }
+        }
+        Map<Local, int[]> positionArrays = new HashMap<>();
+        defPositions.forEach(
+            (local, list) -> positionArrays.put(local, list.stream().mapToInt(i -> i).toArray()));
+        blocks.add(block);
+        blockStmts.add(stmts);
+        blockDefPositions.add(positionArrays);
+      }
+
+      int words = (defStmts.size() + 63) >>> 6;
+      for (int defIdx = 0; defIdx < defStmts.size(); defIdx++) {
+        set(localDefs.computeIfAbsent(defLocals.get(defIdx), k -> new long[words]), defIdx);
+      }
+
+      // gen: the last definition of each local in the block, kill: all definitions of the locals
+      // defined in the block, throwGen: the definitions that reach the handlers of the block
+      int blockCount = blocks.size();
+      long[][] gen = new long[blockCount][words];
+      long[][] kill = new long[blockCount][words];
+      long[][] throwGen = new long[blockCount][words];
+      List<List<Integer>> predecessors = new ArrayList<>();
+      List<List<Integer>> exceptionalPredecessors = new ArrayList<>();
+      for (int blockIdx = 0; blockIdx < blockCount; blockIdx++) {
+        predecessors.add(new ArrayList<>());
+        exceptionalPredecessors.add(new ArrayList<>());
+      }
+      int[][] successors = new int[blockCount][];
+      for (int blockIdx = 0; blockIdx < blockCount; blockIdx++) {
+        List<Stmt> stmts = blockStmts.get(blockIdx);
+        for (Map.Entry<Local, int[]> entry : blockDefPositions.get(blockIdx).entrySet()) {
+          long[] mask = localDefs.get(entry.getKey());
+          for (int w = 0; w < words; w++) {
+            kill[blockIdx][w] |= mask[w];
+          }
+          int[] defPositions = entry.getValue();
+          set(gen[blockIdx], defIndices.get(stmts.get(defPositions[defPositions.length - 1])));
+          for (int pos : defPositions) {
+            if (pos < stmts.size() - 1) {
+              set(throwGen[blockIdx], defIndices.get(stmts.get(pos)));
+            }
+          }
+        }
+
+        BasicBlock<?> block = blocks.get(blockIdx);
+        List<? extends BasicBlock<?>> blockSuccessors = block.getSuccessors();
+        Collection<? extends BasicBlock<?>> handlers = block.getExceptionalSuccessors().values();
+        successors[blockIdx] = new int[blockSuccessors.size() + handlers.size()];
+        int i = 0;
+        for (BasicBlock<?> successor : blockSuccessors) {
+          int succIdx = blockIndices.get(successor.getHead());
+          predecessors.get(succIdx).add(blockIdx);
+          successors[blockIdx][i++] = succIdx;
+        }
+        for (BasicBlock<?> handler : handlers) {
+          int handlerIdx = blockIndices.get(handler.getHead());
+          exceptionalPredecessors.get(handlerIdx).add(blockIdx);
+          successors[blockIdx][i++] = handlerIdx;
+        }
+      }
+
+      // iterate in reverse postorder until the definitions reaching the blocks are stable
+      blockIn = new long[blockCount][words];
+      long[][] blockOut = new long[blockCount][];
+      for (int blockIdx = 0; blockIdx < blockCount; blockIdx++) {
+        blockOut[blockIdx] = gen[blockIdx].clone();
+      }
+      int[] order = reversePostorder(graph, successors);
+      long[] in = new long[words];
+      boolean changed = true;
+      while (changed) {
+        changed = false;
+        for (int blockIdx : order) {
+          Arrays.fill(in, 0);
+          for (int predIdx : predecessors.get(blockIdx)) {
+            long[] predOut = blockOut[predIdx];
+            for (int w = 0; w < words; w++) {
+              in[w] |= predOut[w];
+            }
+          }
+          for (int predIdx : exceptionalPredecessors.get(blockIdx)) {
+            long[] predIn = blockIn[predIdx];
+            long[] predThrowGen = throwGen[predIdx];
+            for (int w = 0; w < words; w++) {
+              in[w] |= predIn[w] | predThrowGen[w];
+            }
+          }
+          if (!Arrays.equals(in, blockIn[blockIdx])) {
+            System.arraycopy(in, 0, blockIn[blockIdx], 0, words);
+            long[] out = blockOut[blockIdx];
+            for (int w = 0; w < words; w++) {
+              out[w] = gen[blockIdx][w] | (in[w] & ~kill[blockIdx][w]);
+            }
+            changed = true;
+          }
+        }
+      }
+    }
+
+    @Nonnull
+    List<Stmt> getDefsOfUse(@Nonnull Stmt stmt, @Nonnull Local local) {
+      Integer blockIdx = blockIndices.get(stmt);
+      if (blockIdx == null) {
+        return Collections.emptyList();
+      }
+      int[] defPositions = blockDefPositions.get(blockIdx).get(local);
+      if (defPositions != null) {
+        int idx = Arrays.binarySearch(defPositions, positions.get(stmt));
+        // the index of the first definition at or after the stmt
+        idx = idx < 0 ? -idx - 1 : idx;
+        if (idx > 0) {
+          return Collections.singletonList(blockStmts.get(blockIdx).get(defPositions[idx - 1]));
+        }
+      }
+      long[] mask = localDefs.get(local);
+      if (mask == null) {
+        return Collections.emptyList();
+      }
+      long[] in = blockIn[blockIdx];
+      List<Stmt> defsOfUse = new ArrayList<>();
+      for (int w = 0; w < mask.length; w++) {
+        long word = in[w] & mask[w];
+        while (word != 0) {
+          defsOfUse.add(defStmts.get((w << 6) + Long.numberOfTrailingZeros(word)));
+          word &= word - 1;
+        }
+      }
+      return defsOfUse;
+    }
+
+    /**
+     * Replaces the stmt in place, if both stmts define the same local (or none).
+     *
+     * @return false if the reaching definitions are not valid after the replacement.
+     */
+    boolean replace(@Nonnull Stmt oldStmt, @Nonnull Stmt newStmt) {
+      Integer blockIdx = blockIndices.get(oldStmt);
+      if (blockIdx == null || !Objects.equals(definedLocal(oldStmt), definedLocal(newStmt))) {
+        return false;
+      }
+      blockIndices.remove(oldStmt);
+      blockIndices.put(newStmt, blockIdx);
+      int pos = positions.remove(oldStmt);
+      positions.put(newStmt, pos);
+      blockStmts.get(blockIdx).set(pos, newStmt);
+      Integer defIdx = defIndices.remove(oldStmt);
+      if (defIdx != null) {
+        defIndices.put(newStmt, defIdx);
+        defStmts.set(defIdx, newStmt);
+      }
+      return true;
+    }
+
+    /**
+     * Orders the blocks in reverse postorder of a depth first search from the starting block. The
+     * blocks that are not reachable from it are ordered by further searches and put in front.
+     */
+    @Nonnull
+    private int[] reversePostorder(@Nonnull StmtGraph<?> graph, @Nonnull int[][] successors) {
+      int blockCount = successors.length;
+      int[] order = new int[blockCount];
+      int orderIdx = blockCount;
+      boolean[] visited = new boolean[blockCount];
+      int[] nextSuccessor = new int[blockCount];
+      int[] stack = new int[blockCount];
+
+      Stmt startingStmt = graph.getStartingStmt();
+      Integer startingBlock = startingStmt == null ? null : blockIndices.get(startingStmt);
+      for (int i = -1; i < blockCount; i++) {
+        int root = i < 0 ? (startingBlock == null ? -1 : startingBlock) : i;
+        if (root < 0 || visited[root]) {
+          continue;
+        }
+        int top = 0;
+        stack[top] = root;
+        visited[root] = true;
+        while (top >= 0) {
+          int blockIdx = stack[top];
+          int next = nextSuccessor[blockIdx]++;
+          if (next < successors[blockIdx].length) {
+            int succ = successors[blockIdx][next];
+            if (!visited[succ]) {
+              visited[succ] = true;
+              stack[++top] = succ;
+            }
+          } else {
+            order[--orderIdx] = blockIdx;
+            top--;
+          }
+        }
+      }
+      return order;
+    }
+
+    private static void set(@Nonnull long[] bits, int index) {
+      bits[index >>> 6] |= 1L << index;
+    }
+  }
+}
@@ -135,4 +135,10 @@ public class ForwardingStmtGraph<V extends BasicBlock<V>> extends StmtGraph<V> {
   public List<Trap> getTraps() {
     return backingGraph.getTraps();
   }
+
+  @Nonnull
+  @Override
+  public DefUseChains getDefUseChains() {
+    return backingGraph.getDefUseChains();
+  }
 }
@@ -34,6 +34,9 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
 
   @Nonnull private final Set<MutableBasicBlock> blocks = new HashSet<>();
 
+  // kept up to date with the modifications of the graph once it is requested
+  @Nullable private DefUseChains defUseChains = null;
+
   public MutableBlockStmtGraph() {}
 
   public MutableBlockStmtGraph(boolean isStatic, MethodSignature sig, LocalGenerator localgen) {
@@ -358,6 +361,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
   public void addExceptionalEdge(
       @Nonnull Stmt stmt, @Nonnull ClassType exceptionType, @Nonnull Stmt traphandlerStmt) {
 
+    flowChanged();
     MutableBasicBlock block = stmtToBlock.get(stmt);
     if (block == null) {
       throw new IllegalArgumentException("Stmt is not in the StmtGraph!");
@@ -378,6 +382,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
 
   @Override
   public void removeExceptionalEdge(@Nonnull Stmt node, @Nonnull ClassType exceptionType) {
+    flowChanged();
     final MutableBasicBlock block = stmtToBlock.get(node);
     if (block == null) {
       throw new IllegalArgumentException("Stmt is not in the StmtGraph!");
@@ -388,6 +393,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
 
   @Override
   public void clearExceptionalEdges(@Nonnull Stmt node) {
+    flowChanged();
     final MutableBasicBlock block = stmtToBlock.get(node);
     if (block == null) {
       throw new IllegalArgumentException("Stmt is not in the StmtGraph!");
@@ -418,6 +424,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
     if (stmts.isEmpty()) {
       return;
     }
+    flowChanged();
     addBlockInternal(stmts, trapMap);
   }
 
@@ -482,6 +489,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
 
   @Override
   public void addNode(@Nonnull Stmt stmt, @Nonnull Map<ClassType, Stmt> exceptions) {
+    flowChanged();
     MutableBasicBlock block = stmtToBlock.get(stmt);
     if (block == null) {
       // Stmt does not exist in the graph -> create
@@ -724,7 +732,11 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
   /** Adds a Stmt to the end of a block i.e. stmt will become the new tail. */
   protected MutableBasicBlock addNodeToBlock(@Nonnull MutableBasicBlock block, @Nonnull Stmt stmt) {
     block.addStmt(stmt);
-    return stmtToBlock.put(stmt, block);
+    final MutableBasicBlock previousBlock = stmtToBlock.put(stmt, block);
+    if (previousBlock == null && defUseChains != null) {
+      defUseChains.stmtAdded(stmt);
+    }
+    return previousBlock;
   }
 
   public void removeNode(@Nonnull Stmt stmt) {
@@ -770,6 +782,9 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
     if (blockOfRemovedStmt == null) {
       throw new IllegalArgumentException("Stmt is not in the StmtGraph!");
     }
+    if (defUseChains != null) {
+      defUseChains.stmtRemoved(stmt);
+    }
 
     if (blockOfRemovedStmt.getStmtCount() > 1) {
       // Removing the statement from the block will keep the flow automatically,
@@ -817,7 +832,13 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
       startingStmt = newStmt;
     }
 
-    if (oldStmt.getExpectedSuccessorCount() != newStmt.getExpectedSuccessorCount()) {
+    final boolean sameFlow =
+        oldStmt.getExpectedSuccessorCount() == newStmt.getExpectedSuccessorCount();
+    if (defUseChains != null) {
+      defUseChains.stmtReplaced(oldStmt, newStmt, sameFlow);
+    }
+
+    if (!sameFlow) {
       final MutableBasicBlock excludedBlock = excludeStmtFromBlock(oldStmt, blockOfOldStmt);
       excludedBlock.replaceStmt(oldStmt, newStmt);
       stmtToBlock.remove(oldStmt);
@@ -854,6 +875,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
     if (stmts.isEmpty()) {
       return;
     }
+    flowChanged();
     final MutableBasicBlock block = stmtToBlock.get(beforeStmt);
     if (block == null) {
       throw new IllegalArgumentException(
@@ -898,6 +920,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
   /** Replaces all SuccessorEdge(s) of from to oldTo by mewTo */
   @Override
   public boolean replaceSucessorEdge(@Nonnull Stmt from, @Nonnull Stmt oldTo, @Nonnull Stmt newTo) {
+    flowChanged();
     final MutableBasicBlock mutableBasicBlock = stmtToBlock.get(from);
     if (mutableBasicBlock == null) {
       throw new IllegalArgumentException("stmt '" + from + "' does not exist in this StmtGraph!");
@@ -926,6 +949,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
   }
 
   protected void putEdge_internal(@Nonnull Stmt stmtA, int succesorIdx, @Nonnull Stmt stmtB) {
+    flowChanged();
 
     MutableBasicBlock blockA = stmtToBlock.get(stmtA);
     MutableBasicBlock blockB = stmtToBlock.get(stmtB);
@@ -1029,6 +1053,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
 
   @Override
   public boolean removeEdge(@Nonnull Stmt from, @Nonnull Stmt to) {
+    flowChanged();
     MutableBasicBlock blockOfFrom = stmtToBlock.get(from);
     MutableBasicBlock blockOfTo = stmtToBlock.get(to);
 
@@ -1094,6 +1119,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
 
   @Override
   public void setEdges(@Nonnull BranchingStmt fromStmt, @Nonnull List<Stmt> targets) {
+    flowChanged();
     if (fromStmt.getExpectedSuccessorCount() != targets.size()) {
       throw new IllegalArgumentException(
           "Size of Targets is not the amount of from's expected successors.");
@@ -1135,6 +1161,26 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
     return new ForwardingBasicBlock<>(mutableBasicBlock);
   }
 
+  /**
+   * Returns the def-use chains of this graph. The chains are created once and are kept up to date
+   * with the modifications of this graph.
+   */
+  @Nonnull
+  @Override
+  public DefUseChains getDefUseChains() {
+    if (defUseChains == null) {
+      defUseChains = new DefUseChains(this);
+    }
+    return defUseChains;
+  }
+
+  /** Discards the reaching definitions of the def-use chains, as the flow is modified. */
+  private void flowChanged() {
+    if (defUseChains != null) {
+      defUseChains.flowChanged();
+    }
+  }
+
   @Nonnull
   @Override
   public StmtGraph<?> unmodifiableStmtGraph() {
@@ -147,6 +147,15 @@ public abstract class StmtGraph<V extends BasicBlock<V>> implements Iterable<Stm
   @Deprecated
   public abstract List<Trap> getTraps();
 
+  /**
+   * Returns the def-use and use-def chains of the Stmts in this graph. Implementations may cache
+   * the chains, otherwise they are computed anew for each returned instance.
+   */
+  @Nonnull
+  public DefUseChains getDefUseChains() {
+    return new DefUseChains(this);
+  }
+
   /**
    * returns a Collection of Stmts that leave the body (i.e. JReturnVoidStmt, JReturnStmt and
    * JThrowStmt)
@@ -31,6 +31,7 @@ import sootup.core.model.AbstractClass;
 import sootup.core.model.SootClass;
 import sootup.core.model.SourceType;
 import sootup.core.transform.BodyInterceptor;
+import sootup.core.typehierarchy.ClassHeader;
 import sootup.core.types.ClassType;
 import sootup.core.views.View;
 
@@ -66,6 +67,17 @@ public interface AnalysisInputLocation<T extends AbstractClass<?>> {
   @Nonnull
   Collection<? extends AbstractClassSource<T>> getClassSources(@Nonnull View<?> view);
 
+  /**
+   * Reads the headers of all classes of this input location without resolving the classes, e.g. to
+   * build the type hierarchy. Returns an empty Optional if the headers can not be read cheaply.
+   *
+   * @return The headers of the classes that {@link #getClassSources(View)} would return.
+   */
+  @Nonnull
+  default Optional<Collection<ClassHeader>> getClassHeaders(@Nonnull View<?> view) {
+    return Optional.empty();
+  }
+
   /**
    * If the AnalysisInputLocation is initialized with the SourceType then this method should return
    * that specific SourceType. This is the default implementation and it returns null when no source
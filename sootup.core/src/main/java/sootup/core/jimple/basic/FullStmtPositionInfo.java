@@ -71,6 +71,11 @@ public class FullStmtPositionInfo extends SimpleStmtPositionInfo implements Copy
     }
   }
 
+  /** Returns the number of operands whose positions are stored. */
+  public int getOperandPositionCount() {
+    return this.operandPositions.length;
+  }
+
   @Override
   public String toString() {
     StringBuilder s = new StringBuilder();
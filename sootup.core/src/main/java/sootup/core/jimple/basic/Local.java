@@ -136,7 +136,9 @@ public class Local implements Immediate, LValue, Copyable, Acceptor<ImmediateVis
   }
 
   /**
-   * Get all definition-stmts which define the given local used by the given stmt.
+   * Get all definition-stmts which define the given local used by the given stmt, i.e. whose
+   * definition reaches the stmt. Uses the {@link StmtGraph#getDefUseChains() def-use chains} of the
+   * graph.
    *
    * @param graph a stmt graph which contains the given stmts.
    * @param stmt a stmt which uses the given local.
@@ -145,25 +147,7 @@ public class Local implements Immediate, LValue, Copyable, Acceptor<ImmediateVis
     if (!stmt.getUses().contains(this)) {
       throw new RuntimeException(stmt + " doesn't use the local " + this);
     }
-    List<Stmt> defStmts = new ArrayList<>();
-    Set<Stmt> visited = new HashSet<>();
-
-    Deque<Stmt> queue = new ArrayDeque<>();
-    queue.add(stmt);
-    while (!queue.isEmpty()) {
-      Stmt s = queue.removeFirst();
-      if (!visited.contains(s)) {
-        visited.add(s);
-        if (s instanceof AbstractDefinitionStmt && s.getDefs().get(0).equivTo(this)) {
-          defStmts.add(s);
-        } else {
-          if (graph.containsNode(s)) {
-            queue.addAll(graph.predecessors(s));
-          }
-        }
-      }
-    }
-    return defStmts;
+    return graph.getDefUseChains().getDefsOfUse(stmt, this);
   }
 
   @Override
@@ -34,9 +34,18 @@ public class EnumConstant implements Constant {
   private final FieldSignature signature;
 
   public EnumConstant(@Nonnull String value, @Nonnull ClassType type) {
+    this(value, type, new FieldSignature(type, value, type));
+  }
+
+  /**
+   * Creates the constant with the signature of its field, e.g. one created by the {@link
+   * sootup.core.IdentifierFactory} of a view.
+   */
+  public EnumConstant(
+      @Nonnull String value, @Nonnull ClassType type, @Nonnull FieldSignature signature) {
     this.value = value;
     this.type = type;
-    this.signature = new FieldSignature(type, value, type);
+    this.signature = signature;
   }
 
   @Override
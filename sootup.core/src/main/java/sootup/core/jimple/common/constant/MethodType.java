@@ -48,6 +48,11 @@ public class MethodType implements Constant, Copyable {
     return type;
   }
 
+  @Nonnull
+  public MethodSubSignature getSubSignature() {
+    return methodSig;
+  }
+
   public List<Type> getParameterTypes() {
     return methodSig.getParameterTypes();
   }
@@ -28,6 +28,7 @@ import java.io.StringWriter;
 import java.util.*;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import sootup.core.graph.DefUseChains;
 import sootup.core.graph.MutableBlockStmtGraph;
 import sootup.core.graph.MutableStmtGraph;
 import sootup.core.graph.StmtGraph;
@@ -329,6 +330,15 @@ public class Body implements Copyable {
     return defList;
   }
 
+  /**
+   * Returns the def-use and use-def chains of this Body's Stmts. The chains are computed once, when
+   * they are queried for the first time.
+   */
+  @Nonnull
+  public DefUseChains getDefUseChains() {
+    return graph.getDefUseChains();
+  }
+
   @Nonnull
   public Body withLocals(@Nonnull Set<Local> locals) {
     return new Body(getMethodSignature(), locals, getStmtGraph(), getPosition());
@@ -556,7 +566,8 @@ public class Body implements Copyable {
   }
 
   /**
-   * Collects all defining statements of a Local from a list of statements
+   * Collects all defining statements of a Local from a list of statements. To look up the
+   * definitions in a whole StmtGraph, prefer {@link StmtGraph#getDefUseChains()}, which are cached.
    *
    * @param stmts The searched list of statements
    * @return A map of Locals and their using statements
@@ -578,7 +589,8 @@ public class Body implements Copyable {
   }
 
   /**
-   * Collects all using statements of a Local from a list of statements
+   * Collects all using statements of a Local from a list of statements. To look up the uses in a
+   * whole StmtGraph, prefer {@link StmtGraph#getDefUseChains()}, which are cached.
    *
    * @param stmts The searched list of statements
    * @return A map of Locals and their using statements
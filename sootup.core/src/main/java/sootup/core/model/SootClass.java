@@ -23,15 +23,25 @@ package sootup.core.model;
  */
 
 import com.google.common.base.Suppliers;
+import com.google.common.collect.Iterables;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import sootup.core.frontend.ResolveException;
 import sootup.core.frontend.SootClassSource;
+import sootup.core.signatures.FieldSubSignature;
+import sootup.core.signatures.MethodSubSignature;
 import sootup.core.types.ClassType;
+import sootup.core.types.Type;
 import sootup.core.util.ImmutableUtils;
 import sootup.core.util.printer.JimplePrinter;
 
@@ -106,6 +116,92 @@ public class SootClass<S extends SootClassSource<? extends SootClass<S>>> extend
     return this._lazyFields.get();
   }
 
+  @Nonnull
+  private final Supplier<Map<MethodSubSignature, SootMethod>> lazyMethodsBySubSignature =
+      Suppliers.memoize(
+          () -> indexBy(getMethods(), method -> method.getSignature().getSubSignature()));
+
+  @Nonnull
+  private final Supplier<Map<String, List<SootMethod>>> lazyMethodsByName =
+      Suppliers.memoize(() -> groupBy(getMethods(), method -> method.getSignature().getName()));
+
+  @Nonnull
+  private final Supplier<Map<FieldSubSignature, SootField>> lazyFieldsBySubSignature =
+      Suppliers.memoize(
+          () -> indexBy(getFields(), field -> field.getSignature().getSubSignature()));
+
+  @Nonnull
+  private final Supplier<Map<String, List<SootField>>> lazyFieldsByName =
+      Suppliers.memoize(() -> groupBy(getFields(), field -> field.getSignature().getName()));
+
+  @Nonnull
+  private static <K, M> Map<K, M> indexBy(
+      @Nonnull Set<? extends M> members, @Nonnull Function<M, K> keyFunction) {
+    Map<K, M> index = new HashMap<>(members.size() * 2);
+    for (M member : members) {
+      index.putIfAbsent(keyFunction.apply(member), member);
+    }
+    return index;
+  }
+
+  @Nonnull
+  private static <K, M> Map<K, List<M>> groupBy(
+      @Nonnull Set<? extends M> members, @Nonnull Function<M, K> keyFunction) {
+    Map<K, List<M>> index = new HashMap<>(members.size() * 2);
+    for (M member : members) {
+      index.computeIfAbsent(keyFunction.apply(member), key -> new ArrayList<>(1)).add(member);
+    }
+    return index;
+  }
+
+  /** Retrieves the method with the given subSignature from an index built on first use. */
+  @Nonnull
+  @Override
+  public Optional<? extends SootMethod> getMethod(@Nonnull MethodSubSignature subSignature) {
+    return Optional.ofNullable(lazyMethodsBySubSignature.get().get(subSignature));
+  }
+
+  /**
+   * Retrieves the method with the given name and parameters from an index built on first use.
+   * Throws a ResolveException if there is more than one such method.
+   */
+  @Nonnull
+  @Override
+  public Optional<? extends SootMethod> getMethod(
+      @Nonnull String name, @Nonnull Iterable<? extends Type> parameterTypes) {
+    return lazyMethodsByName.get().getOrDefault(name, Collections.emptyList()).stream()
+        .filter(method -> Iterables.elementsEqual(parameterTypes, method.getParameterTypes()))
+        .reduce(
+            (l, r) -> {
+              throw new ResolveException(
+                  "ambiguous method: " + name + " in " + getClassSource().getClassType(),
+                  getClassSource().getSourcePath());
+            });
+  }
+
+  /** Retrieves the field with the given subSignature from an index built on first use. */
+  @Nonnull
+  @Override
+  public Optional<? extends SootField> getField(@Nonnull FieldSubSignature subSignature) {
+    return Optional.ofNullable(lazyFieldsBySubSignature.get().get(subSignature));
+  }
+
+  /**
+   * Retrieves the field with the given name from an index built on first use. Throws a
+   * ResolveException if there is more than one field with the given name.
+   */
+  @Nonnull
+  @Override
+  public Optional<? extends SootField> getField(@Nonnull String name) {
+    List<SootField> fields = lazyFieldsByName.get().getOrDefault(name, Collections.emptyList());
+    if (fields.size() > 1) {
+      throw new ResolveException(
+          "ambiguous field: " + name + " in " + getClassSource().getClassType(),
+          getClassSource().getSourcePath());
+    }
+    return fields.stream().findAny();
+  }
+
   private final Supplier<Set<ClassModifier>> lazyModifiers =
       Suppliers.memoize(classSource::resolveModifiers);
 
@@ -36,6 +36,7 @@ import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import sootup.core.IdentifierFactory;
+import sootup.core.cache.BodyCache;
 import sootup.core.frontend.BodySource;
 import sootup.core.frontend.OverridingBodySource;
 import sootup.core.frontend.ResolveException;
@@ -172,10 +173,18 @@ public class SootMethod extends SootClassMember<MethodSignature> implements Meth
 
   @Nonnull private final Supplier<Body> _lazyBody = Suppliers.memoize(this::lazyBodyInitializer);
 
-  /** Retrieves the active body for this method. */
+  /**
+   * Retrieves the active body for this method. If the {@link BodySource} of this method stores its
+   * bodies in a {@link BodyCache}, the body is retrieved from (and possibly rebuilt for) that
+   * cache.
+   */
   @Nonnull
   public Body getBody() {
-    return this._lazyBody.get();
+    BodyCache bodyCache = bodySource.getBodyCache();
+    if (bodyCache == null) {
+      return this._lazyBody.get();
+    }
+    return bodyCache.getBody(this, this::lazyBodyInitializer);
   }
 
   /** Returns true if this method has a body. */
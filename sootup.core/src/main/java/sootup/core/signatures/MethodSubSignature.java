@@ -45,6 +45,8 @@ public class MethodSubSignature extends SootClassMemberSubSignature
 
   @Nonnull private final List<Type> parameterTypes;
 
+  private final int hashCode;
+
   /**
    * Creates a new instance of the {@link FieldSubSignature} class.
    *
@@ -57,6 +59,7 @@ public class MethodSubSignature extends SootClassMemberSubSignature
     super(name, type);
 
     this.parameterTypes = ImmutableList.copyOf(parameterTypes);
+    this.hashCode = Objects.hashCode(super.hashCode(), this.parameterTypes);
   }
 
   /**
@@ -79,18 +82,17 @@ public class MethodSubSignature extends SootClassMemberSubSignature
       return false;
     }
 
-    if (!super.equals(o)) {
+    MethodSubSignature that = (MethodSubSignature) o;
+    if (hashCode != that.hashCode || !super.equals(o)) {
       return false;
     }
 
-    MethodSubSignature that = (MethodSubSignature) o;
-
     return Objects.equal(getParameterTypes(), that.getParameterTypes());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(super.hashCode(), getParameterTypes());
+    return hashCode;
   }
 
   @Override
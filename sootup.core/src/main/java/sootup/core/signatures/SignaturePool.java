@@ -0,0 +1,200 @@
+package sootup.core.signatures;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+
+/**
+ * Canonicalizes method and field signatures, so that equal signatures are the same instance. A
+ * signature returned by the pool can be compared by reference with any other signature returned by
+ * the same pool, and its sub-signature is canonical as well.
+ *
+ * <p>The pool keeps its signatures until it is {@link #clear() cleared}. It counts how many
+ * signatures are requested and how many of them are duplicates, which allows to estimate the memory
+ * the pool saves. The pool can be used by multiple threads at once.
+ */
+public class SignaturePool {
+
+  /** The kinds of signatures in the pool. */
+  public enum Kind {
+    METHOD_SIGNATURE(24),
+    METHOD_SUB_SIGNATURE(96),
+    FIELD_SIGNATURE(24),
+    FIELD_SUB_SIGNATURE(56);
+
+    private final int estimatedSize;
+
+    Kind(int estimatedSize) {
+      this.estimatedSize = estimatedSize;
+    }
+
+    /**
+     * Returns the estimated number of bytes of a signature of this kind that are not shared with
+     * other signatures, for a 64-bit JVM with compressed references. Method sub-signatures include
+     * their parameter list and the memoized string representation.
+     */
+    public int getEstimatedSize() {
+      return estimatedSize;
+    }
+  }
+
+  @Nonnull
+  private final Map<MethodSignature, MethodSignature> methodSignatures = new ConcurrentHashMap<>();
+
+  @Nonnull
+  private final Map<MethodSubSignature, MethodSubSignature> methodSubSignatures =
+      new ConcurrentHashMap<>();
+
+  @Nonnull
+  private final Map<FieldSignature, FieldSignature> fieldSignatures = new ConcurrentHashMap<>();
+
+  @Nonnull
+  private final Map<FieldSubSignature, FieldSubSignature> fieldSubSignatures =
+      new ConcurrentHashMap<>();
+
+  @Nonnull private final Map<Kind, LongAdder> requests = new EnumMap<>(Kind.class);
+
+  public SignaturePool() {
+    for (Kind kind : Kind.values()) {
+      requests.put(kind, new LongAdder());
+    }
+  }
+
+  /** Returns the canonical instance of the method signature. */
+  @Nonnull
+  public MethodSignature intern(@Nonnull MethodSignature signature) {
+    requests.get(Kind.METHOD_SIGNATURE).increment();
+    MethodSignature canonical = methodSignatures.get(signature);
+    if (canonical != null) {
+      return canonical;
+    }
+    MethodSubSignature subSignature = intern(signature.getSubSignature());
+    if (subSignature != signature.getSubSignature()) {
+      signature = new MethodSignature(signature.getDeclClassType(), subSignature);
+    }
+    canonical = methodSignatures.putIfAbsent(signature, signature);
+    return canonical == null ? signature : canonical;
+  }
+
+  /** Returns the canonical instance of the method sub-signature. */
+  @Nonnull
+  public MethodSubSignature intern(@Nonnull MethodSubSignature subSignature) {
+    requests.get(Kind.METHOD_SUB_SIGNATURE).increment();
+    MethodSubSignature canonical = methodSubSignatures.putIfAbsent(subSignature, subSignature);
+    return canonical == null ? subSignature : canonical;
+  }
+
+  /** Returns the canonical instance of the field signature. */
+  @Nonnull
+  public FieldSignature intern(@Nonnull FieldSignature signature) {
+    requests.get(Kind.FIELD_SIGNATURE).increment();
+    FieldSignature canonical = fieldSignatures.get(signature);
+    if (canonical != null) {
+      return canonical;
+    }
+    FieldSubSignature subSignature = intern(signature.getSubSignature());
+    if (subSignature != signature.getSubSignature()) {
+      signature = new FieldSignature(signature.getDeclClassType(), subSignature);
+    }
+    canonical = fieldSignatures.putIfAbsent(signature, signature);
+    return canonical == null ? signature : canonical;
+  }
+
+  /** Returns the canonical instance of the field sub-signature. */
+  @Nonnull
+  public FieldSubSignature intern(@Nonnull FieldSubSignature subSignature) {
+    requests.get(Kind.FIELD_SUB_SIGNATURE).increment();
+    FieldSubSignature canonical = fieldSubSignatures.putIfAbsent(subSignature, subSignature);
+    return canonical == null ? subSignature : canonical;
+  }
+
+  /** Returns the number of distinct signatures of the given kind in the pool. */
+  public int size(@Nonnull Kind kind) {
+    switch (kind) {
+      case METHOD_SIGNATURE:
+        return methodSignatures.size();
+      case METHOD_SUB_SIGNATURE:
+        return methodSubSignatures.size();
+      case FIELD_SIGNATURE:
+        return fieldSignatures.size();
+      default:
+        return fieldSubSignatures.size();
+    }
+  }
+
+  /**
+   * Returns how often a signature of the given kind has been interned. The sub-signatures of
+   * interned signatures that are not in the pool yet are counted as well.
+   */
+  public long getRequestCount(@Nonnull Kind kind) {
+    return requests.get(kind).sum();
+  }
+
+  /**
+   * Returns how many of the interned signatures of the given kind have been replaced by an equal
+   * signature that was already in the pool.
+   */
+  public long getDuplicateCount(@Nonnull Kind kind) {
+    return Math.max(0, getRequestCount(kind) - size(kind));
+  }
+
+  /**
+   * Estimates the number of bytes that are not retained anymore, because duplicates have been
+   * replaced by the canonical signatures, assuming the callers only keep the interned instances.
+   */
+  public long getEstimatedSavedBytes() {
+    long saved = 0;
+    for (Kind kind : Kind.values()) {
+      saved += getDuplicateCount(kind) * kind.getEstimatedSize();
+    }
+    return saved;
+  }
+
+  /** Removes all signatures from the pool and resets the counters. */
+  public void clear() {
+    methodSignatures.clear();
+    methodSubSignatures.clear();
+    fieldSignatures.clear();
+    fieldSubSignatures.clear();
+    requests.values().forEach(LongAdder::reset);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("SignaturePool(");
+    for (Kind kind : Kind.values()) {
+      builder
+          .append(kind)
+          .append(": ")
+          .append(size(kind))
+          .append(" of ")
+          .append(getRequestCount(kind))
+          .append(", ");
+    }
+    return builder.append("~").append(getEstimatedSavedBytes()).append(" bytes saved)").toString();
+  }
+}
@@ -43,10 +43,14 @@ public abstract class SootClassMemberSubSignature {
   @Nonnull private final String name;
   @Nonnull private final Type type;
 
+  /** The hash code is computed once, since sub signatures are used as keys of many maps. */
+  private final int hashCode;
+
   /** Creates a new instance of the {@link SootClassMemberSubSignature} class. */
   protected SootClassMemberSubSignature(@Nonnull String name, @Nonnull Type type) {
     this.name = name;
     this.type = type;
+    this.hashCode = Objects.hashCode(name, type);
   }
 
   /**
@@ -79,13 +83,16 @@ public abstract class SootClassMemberSubSignature {
     }
 
     SootClassMemberSubSignature that = (SootClassMemberSubSignature) o;
+    if (hashCode != that.hashCode) {
+      return false;
+    }
 
     return Objects.equal(getName(), that.getName()) && Objects.equal(getType(), that.getType());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(getName(), getType());
+    return hashCode;
   }
 
   protected int compareTo(@Nonnull SootClassMemberSubSignature o) {
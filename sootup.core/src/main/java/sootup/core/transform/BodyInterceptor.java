@@ -22,6 +22,7 @@ package sootup.core.transform;
  * #L%
  */
 
+import java.util.Optional;
 import javax.annotation.Nonnull;
 import sootup.core.model.Body;
 import sootup.core.views.View;
@@ -37,4 +38,18 @@ public interface BodyInterceptor {
    * @param view
    */
   void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view);
+
+  /**
+   * Describes the options this interceptor has been created with, so bodies transformed by
+   * differently configured instances of the same class can be told apart, e.g. by a persistent body
+   * cache. Two instances of the same class with equal descriptions have to transform bodies the
+   * same way.
+   *
+   * @return the description of the configuration, or an empty Optional if the interceptor can not
+   *     describe it
+   */
+  @Nonnull
+  default Optional<String> getConfiguration() {
+    return Optional.empty();
+  }
 }
@@ -0,0 +1,54 @@
+package sootup.core.transform;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.model.Body;
+import sootup.core.views.View;
+
+/**
+ * Gets notified whenever a frontend applies a {@link BodyInterceptor} to a body of a {@link View}.
+ * Listeners are registered at the view and are called on the thread that resolves the body, so they
+ * have to be thread-safe if bodies are resolved in parallel.
+ *
+ * @see View#getBodyInterceptorListeners()
+ */
+public interface BodyInterceptorListener {
+
+  /** Called right before the interceptor is applied to the builder. */
+  default void beforeInterceptBody(
+      @Nonnull BodyInterceptor interceptor, @Nonnull Body.BodyBuilder builder) {}
+
+  /**
+   * Called right after the interceptor has been applied to the builder, even if it failed.
+   *
+   * @param elapsedTime the wall time in nanoseconds the interceptor took
+   * @param failure the reason the interceptor failed, or <code>null</code> if it succeeded
+   */
+  default void afterInterceptBody(
+      @Nonnull BodyInterceptor interceptor,
+      @Nonnull Body.BodyBuilder builder,
+      long elapsedTime,
+      @Nullable Throwable failure) {}
+}
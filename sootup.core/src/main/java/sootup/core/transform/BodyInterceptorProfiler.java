@@ -0,0 +1,644 @@
+package sootup.core.transform;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * A {@link BodyInterceptorListener} that measures every application of an interceptor: the wall
+ * time, the bytes allocated by the resolving thread, and the number of stmts and locals of the body
+ * before and after. The measurements are aggregated per kind of interceptor and per method, and can
+ * be exported as histograms to find the interceptors and methods which are responsible for slow
+ * body resolutions.
+ *
+ * <p>A body which is resolved again, e.g. after it has been evicted from a {@link
+ * sootup.core.cache.BodyCache}, is measured again. The statistics of its method add up the
+ * measurements of all resolutions and count them, see {@link
+ * MethodStatistics#getResolutionCount()}.
+ *
+ * <p>The allocated bytes are taken from the {@link com.sun.management.ThreadMXBean} of the JVM. If
+ * it does not support measuring the allocations of threads, no allocations are recorded.
+ *
+ * <pre>{@code
+ * BodyInterceptorProfiler profiler = new BodyInterceptorProfiler();
+ * view.addBodyInterceptorListener(profiler);
+ * // resolve bodies
+ * profiler.exportHistograms(BodyInterceptorProfiler.Metric.WALL_TIME, System.out);
+ * }</pre>
+ */
+public class BodyInterceptorProfiler implements BodyInterceptorListener {
+
+  /** The measured quantities. */
+  public enum Metric {
+    WALL_TIME("ns"),
+    ALLOCATED_BYTES("bytes");
+
+    @Nonnull private final String unit;
+
+    Metric(@Nonnull String unit) {
+      this.unit = unit;
+    }
+
+    @Nonnull
+    public String getUnit() {
+      return unit;
+    }
+  }
+
+  @Nullable private final com.sun.management.ThreadMXBean threadMXBean;
+
+  /**
+   * The allocated bytes, stmt and local count of the bodies whose interceptors are currently
+   * applied on the thread.
+   */
+  @Nonnull
+  private final ThreadLocal<Deque<long[]>> pendingMeasurements =
+      ThreadLocal.withInitial(ArrayDeque::new);
+
+  @Nonnull
+  private final ConcurrentMap<Class<? extends BodyInterceptor>, InterceptorStatistics>
+      interceptorStatistics = new ConcurrentHashMap<>();
+
+  @Nonnull
+  private final ConcurrentMap<MethodSignature, MethodStatistics> methodStatistics =
+      new ConcurrentHashMap<>();
+
+  public BodyInterceptorProfiler() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    com.sun.management.ThreadMXBean allocationBean = null;
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      allocationBean = (com.sun.management.ThreadMXBean) bean;
+      try {
+        if (allocationBean.isThreadAllocatedMemorySupported()
+            && !allocationBean.isThreadAllocatedMemoryEnabled()) {
+          allocationBean.setThreadAllocatedMemoryEnabled(true);
+        }
+      } catch (UnsupportedOperationException | SecurityException e) {
+        allocationBean = null;
+      }
+      if (allocationBean != null && !allocationBean.isThreadAllocatedMemoryEnabled()) {
+        allocationBean = null;
+      }
+    }
+    this.threadMXBean = allocationBean;
+  }
+
+  /** Returns whether the JVM supports measuring the bytes allocated by an interceptor. */
+  public boolean isAllocationRecorded() {
+    return threadMXBean != null;
+  }
+
+  @Override
+  public void beforeInterceptBody(
+      @Nonnull BodyInterceptor interceptor, @Nonnull Body.BodyBuilder builder) {
+    pendingMeasurements
+        .get()
+        .push(
+            new long[] {
+              allocatedBytes(), builder.getStmtGraph().getNodes().size(), builder.getLocals().size()
+            });
+  }
+
+  @Override
+  public void afterInterceptBody(
+      @Nonnull BodyInterceptor interceptor,
+      @Nonnull Body.BodyBuilder builder,
+      long elapsedTime,
+      @Nullable Throwable failure) {
+    Deque<long[]> pending = pendingMeasurements.get();
+    if (pending.isEmpty()) {
+      // the profiler has been registered while the interceptor was applied
+      return;
+    }
+    long[] before = pending.pop();
+    Measurement measurement =
+        new Measurement(
+            elapsedTime,
+            threadMXBean == null ? 0 : Math.max(0, allocatedBytes() - before[0]),
+            (int) before[1],
+            builder.getStmtGraph().getNodes().size(),
+            (int) before[2],
+            builder.getLocals().size(),
+            failure != null);
+
+    MethodSignature method = builder.getMethodSignature();
+    interceptorStatistics
+        .computeIfAbsent(interceptor.getClass(), InterceptorStatistics::new)
+        .record(measurement, method);
+    if (method != null) {
+      methodStatistics
+          .computeIfAbsent(method, MethodStatistics::new)
+          .record(interceptor.getClass(), builder, measurement);
+    }
+  }
+
+  private long allocatedBytes() {
+    return threadMXBean == null
+        ? 0
+        : threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /** Returns the statistics of all kinds of interceptors, sorted by decreasing total time. */
+  @Nonnull
+  public List<InterceptorStatistics> getInterceptorStatistics() {
+    return interceptorStatistics.values().stream()
+        .sorted(Comparator.comparingLong(InterceptorStatistics::getTotalTime).reversed())
+        .collect(Collectors.toList());
+  }
+
+  @Nonnull
+  public Optional<InterceptorStatistics> getInterceptorStatistics(
+      @Nonnull Class<? extends BodyInterceptor> interceptor) {
+    return Optional.ofNullable(interceptorStatistics.get(interceptor));
+  }
+
+  @Nonnull
+  public Optional<MethodStatistics> getMethodStatistics(@Nonnull MethodSignature method) {
+    return Optional.ofNullable(methodStatistics.get(method));
+  }
+
+  /** Returns the statistics of at most <code>limit</code> methods with the highest total time. */
+  @Nonnull
+  public List<MethodStatistics> getSlowestMethods(int limit) {
+    return methodStatistics.values().stream()
+        .sorted(Comparator.comparingLong(MethodStatistics::getTotalTime).reversed())
+        .limit(limit)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns the distribution of the given metric over the methods, summed up over all interceptors
+   * applied to the body of a method and over all resolutions of the body.
+   */
+  @Nonnull
+  public Histogram getMethodHistogram(@Nonnull Metric metric) {
+    Histogram histogram = new Histogram();
+    for (MethodStatistics statistics : methodStatistics.values()) {
+      histogram.record(
+          metric == Metric.WALL_TIME ? statistics.getTotalTime() : statistics.getAllocatedBytes());
+    }
+    return histogram;
+  }
+
+  /**
+   * Writes the histograms of the given metric as CSV: one histogram for each kind of interceptor
+   * and one for the methods, named <code>&lt;methods&gt;</code>. Each row contains the name of the
+   * histogram, the inclusive bounds of a bucket, and the number of values in that bucket. Empty
+   * buckets are skipped.
+   */
+  public void exportHistograms(@Nonnull Metric metric, @Nonnull Appendable out) throws IOException {
+    out.append("name,lower ")
+        .append(metric.getUnit())
+        .append(",upper ")
+        .append(metric.getUnit())
+        .append(",count\n");
+    for (InterceptorStatistics statistics : getInterceptorStatistics()) {
+      statistics.getHistogram(metric).export(statistics.getInterceptor().getName(), out);
+    }
+    getMethodHistogram(metric).export("<methods>", out);
+  }
+
+  /** Removes all measurements. */
+  public void clear() {
+    interceptorStatistics.clear();
+    methodStatistics.clear();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder =
+        new StringBuilder("BodyInterceptorProfiler(")
+            .append(methodStatistics.size())
+            .append(" methods");
+    for (InterceptorStatistics statistics : getInterceptorStatistics()) {
+      builder.append(", ").append(statistics);
+    }
+    return builder.append(")").toString();
+  }
+
+  /** A single application of an interceptor to a body. */
+  private static class Measurement {
+    private final long time;
+    private final long allocatedBytes;
+    private final int stmtsBefore;
+    private final int stmtsAfter;
+    private final int localsBefore;
+    private final int localsAfter;
+    private final boolean failed;
+
+    Measurement(
+        long time,
+        long allocatedBytes,
+        int stmtsBefore,
+        int stmtsAfter,
+        int localsBefore,
+        int localsAfter,
+        boolean failed) {
+      this.time = time;
+      this.allocatedBytes = allocatedBytes;
+      this.stmtsBefore = stmtsBefore;
+      this.stmtsAfter = stmtsAfter;
+      this.localsBefore = localsBefore;
+      this.localsAfter = localsAfter;
+      this.failed = failed;
+    }
+  }
+
+  /** The measurements of one kind of interceptor, aggregated over all bodies. */
+  public static class InterceptorStatistics {
+    @Nonnull private final Class<? extends BodyInterceptor> interceptor;
+    private long count;
+    private long failureCount;
+    private long totalTime;
+    private long maxTime;
+    @Nullable private MethodSignature slowestMethod;
+    private long allocatedBytes;
+    private long stmtCountBefore;
+    private long stmtCountAfter;
+    private long localCountBefore;
+    private long localCountAfter;
+    @Nonnull private final Histogram timeHistogram = new Histogram();
+    @Nonnull private final Histogram allocationHistogram = new Histogram();
+
+    InterceptorStatistics(@Nonnull Class<? extends BodyInterceptor> interceptor) {
+      this.interceptor = interceptor;
+    }
+
+    synchronized void record(@Nonnull Measurement measurement, @Nullable MethodSignature method) {
+      count++;
+      if (measurement.failed) {
+        failureCount++;
+      }
+      totalTime += measurement.time;
+      if (measurement.time > maxTime || count == 1) {
+        maxTime = measurement.time;
+        slowestMethod = method;
+      }
+      allocatedBytes += measurement.allocatedBytes;
+      stmtCountBefore += measurement.stmtsBefore;
+      stmtCountAfter += measurement.stmtsAfter;
+      localCountBefore += measurement.localsBefore;
+      localCountAfter += measurement.localsAfter;
+      timeHistogram.record(measurement.time);
+      allocationHistogram.record(measurement.allocatedBytes);
+    }
+
+    @Nonnull
+    public Class<? extends BodyInterceptor> getInterceptor() {
+      return interceptor;
+    }
+
+    /** Returns how often the interceptor has been applied. */
+    public synchronized long getCount() {
+      return count;
+    }
+
+    public synchronized long getFailureCount() {
+      return failureCount;
+    }
+
+    /** Returns the wall time in nanoseconds, summed up over all threads. */
+    public synchronized long getTotalTime() {
+      return totalTime;
+    }
+
+    /** Returns the longest wall time in nanoseconds a single application took. */
+    public synchronized long getMaxTime() {
+      return maxTime;
+    }
+
+    /** Returns the method whose body took the interceptor the longest. */
+    @Nonnull
+    public synchronized Optional<MethodSignature> getSlowestMethod() {
+      return Optional.ofNullable(slowestMethod);
+    }
+
+    public synchronized long getAllocatedBytes() {
+      return allocatedBytes;
+    }
+
+    /** Returns the number of stmts of the bodies before the interceptor, summed up. */
+    public synchronized long getStmtCountBefore() {
+      return stmtCountBefore;
+    }
+
+    public synchronized long getStmtCountAfter() {
+      return stmtCountAfter;
+    }
+
+    /** Returns the number of locals of the bodies before the interceptor, summed up. */
+    public synchronized long getLocalCountBefore() {
+      return localCountBefore;
+    }
+
+    public synchronized long getLocalCountAfter() {
+      return localCountAfter;
+    }
+
+    /** Returns a copy of the distribution of the metric over the applications. */
+    @Nonnull
+    public synchronized Histogram getHistogram(@Nonnull Metric metric) {
+      return new Histogram(metric == Metric.WALL_TIME ? timeHistogram : allocationHistogram);
+    }
+
+    @Override
+    public synchronized String toString() {
+      return interceptor.getSimpleName()
+          + ": "
+          + count
+          + " bodies, "
+          + TimeUnit.NANOSECONDS.toMillis(totalTime)
+          + " ms (max "
+          + TimeUnit.NANOSECONDS.toMillis(maxTime)
+          + " ms in "
+          + slowestMethod
+          + "), "
+          + allocatedBytes / 1024
+          + " KiB, stmts "
+          + stmtCountBefore
+          + " -> "
+          + stmtCountAfter
+          + ", locals "
+          + localCountBefore
+          + " -> "
+          + localCountAfter;
+    }
+  }
+
+  /** The measurements of all interceptors applied to the body of one method. */
+  public static class MethodStatistics {
+    @Nonnull private final MethodSignature method;
+    private long totalTime;
+    private long allocatedBytes;
+    private int resolutionCount;
+    @Nullable private WeakReference<Body.BodyBuilder> currentBuilder;
+    private int initialStmtCount = -1;
+    private int finalStmtCount;
+    private int initialLocalCount = -1;
+    private int finalLocalCount;
+
+    @Nonnull
+    private final Map<Class<? extends BodyInterceptor>, Long> interceptorTimes =
+        new LinkedHashMap<>();
+
+    MethodStatistics(@Nonnull MethodSignature method) {
+      this.method = method;
+    }
+
+    synchronized void record(
+        @Nonnull Class<? extends BodyInterceptor> interceptor,
+        @Nonnull Body.BodyBuilder builder,
+        @Nonnull Measurement measurement) {
+      totalTime += measurement.time;
+      allocatedBytes += measurement.allocatedBytes;
+      // each resolution of the body applies the interceptors to a new builder
+      if (currentBuilder == null || currentBuilder.get() != builder) {
+        currentBuilder = new WeakReference<>(builder);
+        resolutionCount++;
+        initialStmtCount = measurement.stmtsBefore;
+        initialLocalCount = measurement.localsBefore;
+      }
+      finalStmtCount = measurement.stmtsAfter;
+      finalLocalCount = measurement.localsAfter;
+      interceptorTimes.merge(interceptor, measurement.time, Long::sum);
+    }
+
+    @Nonnull
+    public MethodSignature getMethod() {
+      return method;
+    }
+
+    /**
+     * Returns how often the body has been resolved, e.g. again after it has been evicted from a
+     * body cache. The times and allocations of this method are summed up over all resolutions.
+     */
+    public synchronized int getResolutionCount() {
+      return resolutionCount;
+    }
+
+    /**
+     * Returns the wall time in nanoseconds of all interceptors applied to the body, summed up over
+     * all resolutions.
+     */
+    public synchronized long getTotalTime() {
+      return totalTime;
+    }
+
+    public synchronized long getAllocatedBytes() {
+      return allocatedBytes;
+    }
+
+    /**
+     * Returns the number of stmts before the first interceptor has been applied in the last
+     * resolution.
+     */
+    public synchronized int getInitialStmtCount() {
+      return initialStmtCount;
+    }
+
+    /**
+     * Returns the number of stmts after the last interceptor has been applied in the last
+     * resolution.
+     */
+    public synchronized int getFinalStmtCount() {
+      return finalStmtCount;
+    }
+
+    public synchronized int getInitialLocalCount() {
+      return initialLocalCount;
+    }
+
+    public synchronized int getFinalLocalCount() {
+      return finalLocalCount;
+    }
+
+    /**
+     * Returns the wall time in nanoseconds of each interceptor in the order of application, summed
+     * up over all resolutions.
+     */
+    @Nonnull
+    public synchronized Map<Class<? extends BodyInterceptor>, Long> getInterceptorTimes() {
+      return Collections.unmodifiableMap(new LinkedHashMap<>(interceptorTimes));
+    }
+
+    /** Returns the interceptor which took the longest for this body. */
+    @Nonnull
+    public synchronized Optional<Class<? extends BodyInterceptor>> getSlowestInterceptor() {
+      return interceptorTimes.entrySet().stream()
+          .max(Map.Entry.comparingByValue())
+          .map(Map.Entry::getKey);
+    }
+
+    @Override
+    public synchronized String toString() {
+      return method
+          + ": "
+          + resolutionCount
+          + (resolutionCount == 1 ? " resolution, " : " resolutions, ")
+          + TimeUnit.NANOSECONDS.toMillis(totalTime)
+          + " ms, "
+          + allocatedBytes / 1024
+          + " KiB, stmts "
+          + initialStmtCount
+          + " -> "
+          + finalStmtCount
+          + ", slowest "
+          + getSlowestInterceptor().map(Class::getSimpleName).orElse("-");
+    }
+  }
+
+  /**
+   * A histogram of non-negative values with buckets of exponentially growing size: bucket 0 counts
+   * the value 0 and bucket <code>i &gt; 0</code> counts the values from <code>2^(i-1)</code> to
+   * <code>2^i - 1</code>. It is not thread-safe.
+   */
+  public static class Histogram {
+    private static final int NUMBER_OF_BUCKETS = 64;
+
+    @Nonnull private final long[] buckets;
+    private long count;
+    private long sum;
+    private long max;
+
+    public Histogram() {
+      buckets = new long[NUMBER_OF_BUCKETS];
+    }
+
+    public Histogram(@Nonnull Histogram histogram) {
+      buckets = Arrays.copyOf(histogram.buckets, NUMBER_OF_BUCKETS);
+      count = histogram.count;
+      sum = histogram.sum;
+      max = histogram.max;
+    }
+
+    /** Adds the value to the histogram. Negative values are counted as 0. */
+    public void record(long value) {
+      value = Math.max(0, value);
+      buckets[getBucket(value)]++;
+      count++;
+      sum += value;
+      max = Math.max(max, value);
+    }
+
+    public static int getBucket(long value) {
+      return Long.SIZE - Long.numberOfLeadingZeros(value);
+    }
+
+    public static long getLowerBound(int bucket) {
+      return bucket == 0 ? 0 : 1L << (bucket - 1);
+    }
+
+    public static long getUpperBound(int bucket) {
+      return bucket == 0 ? 0 : (1L << bucket) - 1;
+    }
+
+    public int getNumberOfBuckets() {
+      return NUMBER_OF_BUCKETS;
+    }
+
+    /** Returns the number of values in the given bucket. */
+    public long getCount(int bucket) {
+      return buckets[bucket];
+    }
+
+    /** Returns the number of values in the histogram. */
+    public long getCount() {
+      return count;
+    }
+
+    public long getSum() {
+      return sum;
+    }
+
+    public long getMax() {
+      return max;
+    }
+
+    /**
+     * Returns an upper bound of the given percentile (between 0 and 100), i.e. the upper bound of
+     * the bucket containing it, but at most the largest value.
+     */
+    public long getPercentile(double percentile) {
+      if (percentile < 0 || percentile > 100) {
+        throw new IllegalArgumentException("Percentile has to be between 0 and 100");
+      }
+      long rank = (long) Math.ceil(count * percentile / 100);
+      long seen = 0;
+      for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++) {
+        seen += buckets[bucket];
+        if (seen >= rank && seen > 0) {
+          return Math.min(getUpperBound(bucket), max);
+        }
+      }
+      return max;
+    }
+
+    void export(@Nonnull String name, @Nonnull Appendable out) throws IOException {
+      for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++) {
+        if (buckets[bucket] == 0) {
+          continue;
+        }
+        out.append(name)
+            .append(',')
+            .append(Long.toString(getLowerBound(bucket)))
+            .append(',')
+            .append(Long.toString(getUpperBound(bucket)))
+            .append(',')
+            .append(Long.toString(buckets[bucket]))
+            .append('\n');
+      }
+    }
+
+    @Override
+    public String toString() {
+      List<String> rows = new ArrayList<>();
+      for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++) {
+        if (buckets[bucket] != 0) {
+          rows.add(
+              "[" + getLowerBound(bucket) + ", " + getUpperBound(bucket) + "]: " + buckets[bucket]);
+        }
+      }
+      return "Histogram(" + count + " values, max " + max + ", " + String.join(", ", rows) + ")";
+    }
+  }
+}
@@ -21,16 +21,21 @@ package sootup.core.typehierarchy;
  * #L%
  */
 import com.google.common.base.Suppliers;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -42,6 +47,7 @@ import sootup.core.typehierarchy.ViewTypeHierarchy.ScanResult.EdgeType;
 import sootup.core.typehierarchy.ViewTypeHierarchy.ScanResult.Vertex;
 import sootup.core.typehierarchy.ViewTypeHierarchy.ScanResult.VertexType;
 import sootup.core.types.ClassType;
+import sootup.core.types.Type;
 import sootup.core.views.View;
 
 /**
@@ -96,11 +102,7 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
       throw new IllegalArgumentException("Could not find '" + type + "' in hierarchy.");
     }
 
-    Set<ClassType> subclasses = new HashSet<>();
-    // We now traverse the subgraph of the vertex to find all its subtypes
-    visitSubgraph(
-        scanResult.graph, vertex, false, subvertex -> subclasses.add(subvertex.javaClassType));
-    return subclasses;
+    return scanResult.typesOf(scanResult.subtypeClosure(vertex).stream(), vertex, null);
   }
 
   @Nonnull
@@ -258,42 +260,49 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
           "Could not find " + type + " in hierarchy for view " + view);
     }
 
-    switch (vertex.type) {
-      case Class:
-        // We ascend from vertex through its superclasses to java.lang.Object.
-        // For each superclass, we take the interfaces it implements and merge
-        // them together in a Set.
-        List<Vertex> superClasses = superClassesOf(vertex, true);
-        return superClasses.stream()
-            .flatMap(this::directlyImplementedInterfacesOf)
-            .flatMap(this::selfAndImplementedInterfaces)
-            .collect(Collectors.toSet());
-      case Interface:
-        return directlyExtendedInterfacesOf(vertex)
-            .flatMap(this::selfAndImplementedInterfaces)
-            .collect(Collectors.toSet());
-      default:
-        throw new AssertionError("Unexpected vertex type!");
-    }
+    // the interfaces implemented by the superclasses are part of the supertype closure as well
+    return scanResult.typesOf(
+        Arrays.stream(scanResult.supertypeClosure(vertex)), vertex, VertexType.Interface);
   }
 
   /**
-   * Recursively obtains all interfaces this interface extends, including transitively extended
-   * interfaces.
+   * Returns the superclasses from the hierarchy instead of resolving each of them in the view like
+   * {@link TypeHierarchy#superClassesOf(ClassType)}.
    */
   @Nonnull
-  private Stream<ClassType> selfAndImplementedInterfaces(Vertex vertex) {
-    ScanResult scanResult = lazyScanResult.get();
-    Graph<Vertex, Edge> graph = scanResult.graph;
-
-    Stream<Vertex> extendedInterfaces =
-        graph.outgoingEdgesOf(vertex).stream()
-            .filter(edge -> edge.type == EdgeType.InterfaceDirectlyExtends)
-            .map(graph::getEdgeTarget);
+  @Override
+  public List<ClassType> superClassesOf(@Nonnull ClassType classType) {
+    Vertex vertex = lazyScanResult.get().typeToVertex.get(classType);
+    if (vertex == null || vertex.type != VertexType.Class) {
+      // the superclass of an interface is not part of the hierarchy
+      return MutableTypeHierarchy.super.superClassesOf(classType);
+    }
+    return superClassesOf(vertex, false).stream()
+        .map(superClass -> superClass.javaClassType)
+        .collect(Collectors.toList());
+  }
 
-    return Stream.concat(
-        Stream.of(vertex.javaClassType),
-        extendedInterfaces.flatMap(this::selfAndImplementedInterfaces));
+  /**
+   * Answers whether a class type is a subtype of another one from the supertype closure of the
+   * potential subtype instead of collecting its superclasses and interfaces.
+   */
+  @Override
+  public boolean isSubtype(@Nonnull Type supertype, @Nonnull Type potentialSubtype) {
+    if (!(supertype instanceof ClassType) || !(potentialSubtype instanceof ClassType)) {
+      return MutableTypeHierarchy.super.isSubtype(supertype, potentialSubtype);
+    }
+    ScanResult scanResult = lazyScanResult.get();
+    Vertex subVertex = scanResult.typeToVertex.get(potentialSubtype);
+    if (subVertex == null) {
+      return MutableTypeHierarchy.super.isSubtype(supertype, potentialSubtype);
+    }
+    if (((ClassType) supertype).getFullyQualifiedName().equals("java.lang.Object")) {
+      return !((ClassType) potentialSubtype).getFullyQualifiedName().equals("java.lang.Object");
+    }
+    Vertex superVertex = scanResult.typeToVertex.get(supertype);
+    return superVertex != null
+        && superVertex != subVertex
+        && Arrays.binarySearch(scanResult.supertypeClosure(subVertex), superVertex.id) >= 0;
   }
 
   @Nullable
@@ -321,37 +330,6 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
     }
     return vertex.type == VertexType.Class;
   }
-  /**
-   * Visits the subgraph of the specified <code>vertex</code> and calls the <code>visitor</code> for
-   * each vertex in the subgraph. If <code>includeSelf</code> is true, the <code>visitor</code> is
-   * also called with the <code>vertex</code>.
-   */
-  private static void visitSubgraph(
-      Graph<Vertex, Edge> graph, Vertex vertex, boolean includeSelf, Consumer<Vertex> visitor) {
-    if (includeSelf) {
-      visitor.accept(vertex);
-    }
-    switch (vertex.type) {
-      case Interface:
-        graph.incomingEdgesOf(vertex).stream()
-            .filter(
-                edge ->
-                    edge.type == EdgeType.ClassDirectlyImplements
-                        || edge.type == EdgeType.InterfaceDirectlyExtends)
-            .map(graph::getEdgeSource)
-            .forEach(directSubtype -> visitSubgraph(graph, directSubtype, true, visitor));
-        break;
-      case Class:
-        graph.incomingEdgesOf(vertex).stream()
-            .filter(edge -> edge.type == EdgeType.ClassDirectlyExtends)
-            .map(graph::getEdgeSource)
-            .forEach(directSubclass -> visitSubgraph(graph, directSubclass, true, visitor));
-        break;
-      default:
-        throw new AssertionError("Unknown vertex type!");
-    }
-  }
-
   /**
    * This method scans the view by iterating over its classes and creating a graph vertex for each
    * one. When a class is encountered that extends another one or implements an interface, the graph
@@ -364,66 +342,62 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
    * <p>In the graph structure, a type is only connected to its direct subtypes.
    */
   private ScanResult scanView() {
-    Map<ClassType, Vertex> typeToVertex = new HashMap<>();
-    Graph<Vertex, Edge> graph = new SimpleDirectedGraph<>(null, null, false);
+    ScanResult scanResult = new ScanResult();
 
-    view.getClasses().forEach(sootClass -> addSootClassToGraph(sootClass, typeToVertex, graph));
-    return new ScanResult(typeToVertex, graph);
+    // the headers can usually be read without resolving every class of the view
+    Optional<Collection<ClassHeader>> classHeaders = view.getClassHeaders();
+    if (classHeaders.isPresent()) {
+      classHeaders.get().forEach(header -> addClassToGraph(header, scanResult));
+    } else {
+      view.getClasses()
+          .forEach(sootClass -> addClassToGraph(new ClassHeader(sootClass), scanResult));
+    }
+    return scanResult;
   }
 
-  private static void addSootClassToGraph(
-      SootClass<?> sootClass, Map<ClassType, Vertex> typeToVertex, Graph<Vertex, Edge> graph) {
-    if (sootClass.isInterface()) {
+  private static void addClassToGraph(ClassHeader classHeader, ScanResult scanResult) {
+    Map<ClassType, Vertex> typeToVertex = scanResult.typeToVertex;
+    Graph<Vertex, Edge> graph = scanResult.graph;
+    if (classHeader.isInterface()) {
       Vertex vertex =
           typeToVertex.computeIfAbsent(
-              sootClass.getType(), type -> createAndAddInterfaceVertex(graph, type));
-      for (ClassType extendedInterface : sootClass.getInterfaces()) {
+              classHeader.getType(), type -> scanResult.addVertex(type, VertexType.Interface));
+      for (ClassType extendedInterface : classHeader.getInterfaces()) {
         Vertex extendedInterfaceVertex =
             typeToVertex.computeIfAbsent(
-                extendedInterface, type -> createAndAddInterfaceVertex(graph, type));
+                extendedInterface, type -> scanResult.addVertex(type, VertexType.Interface));
         graph.addEdge(vertex, extendedInterfaceVertex, new Edge(EdgeType.InterfaceDirectlyExtends));
       }
     } else {
       Vertex vertex =
           typeToVertex.computeIfAbsent(
-              sootClass.getType(), type -> createAndAddClassVertex(graph, type));
-      for (ClassType implementedInterface : sootClass.getInterfaces()) {
+              classHeader.getType(), type -> scanResult.addVertex(type, VertexType.Class));
+      for (ClassType implementedInterface : classHeader.getInterfaces()) {
         Vertex implementedInterfaceVertex =
             typeToVertex.computeIfAbsent(
-                implementedInterface, type -> createAndAddInterfaceVertex(graph, type));
+                implementedInterface, type -> scanResult.addVertex(type, VertexType.Interface));
         graph.addEdge(
             vertex, implementedInterfaceVertex, new Edge(EdgeType.ClassDirectlyImplements));
       }
-      sootClass
+      classHeader
           .getSuperclass()
           .ifPresent(
               superClass -> {
                 Vertex superClassVertex =
                     typeToVertex.computeIfAbsent(
-                        superClass, type -> createAndAddClassVertex(graph, type));
+                        superClass, type -> scanResult.addVertex(type, VertexType.Class));
                 graph.addEdge(vertex, superClassVertex, new Edge(EdgeType.ClassDirectlyExtends));
               });
     }
   }
 
-  @Nonnull
-  private static Vertex createAndAddClassVertex(Graph<Vertex, Edge> graph, ClassType type) {
-    Vertex classVertex = new Vertex(type, VertexType.Class);
-    graph.addVertex(classVertex);
-    return classVertex;
-  }
-
-  @Nonnull
-  private static Vertex createAndAddInterfaceVertex(Graph<Vertex, Edge> graph, ClassType type) {
-    Vertex interfaceVertex = new Vertex(type, VertexType.Interface);
-    graph.addVertex(interfaceVertex);
-    return interfaceVertex;
-  }
-
   @Override
   public void addType(@Nonnull SootClass<?> sootClass) {
     ScanResult scanResult = lazyScanResult.get();
-    addSootClassToGraph(sootClass, scanResult.typeToVertex, scanResult.graph);
+    synchronized (scanResult) {
+      addClassToGraph(new ClassHeader(sootClass), scanResult);
+      scanResult.updateClosures(scanResult.typeToVertex.get(sootClass.getType()));
+    }
   }
 
   /** Holds a vertex for each {@link ClassType} encountered during the scan. */
@@ -441,10 +415,13 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
     protected static class Vertex {
       @Nonnull final ClassType javaClassType;
       @Nonnull final VertexType type;
+      /** Dense number of the vertex, i.e. its index in {@link #vertices}. */
+      final int id;
 
-      Vertex(@Nonnull ClassType javaClassType, @Nonnull VertexType type) {
+      Vertex(@Nonnull ClassType javaClassType, @Nonnull VertexType type, int id) {
         this.javaClassType = javaClassType;
         this.type = type;
+        this.id = id;
       }
     }
 
@@ -467,14 +444,144 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
     }
 
     /** Holds the vertex for each type. */
-    @Nonnull final Map<ClassType, Vertex> typeToVertex;
+    @Nonnull final Map<ClassType, Vertex> typeToVertex = new HashMap<>();
+
+    @Nonnull final Graph<Vertex, Edge> graph = new SimpleDirectedGraph<>(null, null, false);
+
+    /** Holds the vertices by their id. */
+    @Nonnull private final List<Vertex> vertices = new ArrayList<>();
+
+    /**
+     * Holds the sorted ids of the vertex and all its supertypes for each vertex id, or null if they
+     * have not been computed yet. Supertype closures are small, so they are kept for every vertex
+     * visited when computing one.
+     */
+    @Nonnull private final List<int[]> supertypeClosures = new ArrayList<>();
+
+    /**
+     * Holds the ids of the vertex and all its subtypes for each vertex id, or null if they have not
+     * been queried yet. Only the closures that have been queried are kept, as the subtypes of a
+     * type near the root cover almost the whole hierarchy.
+     */
+    @Nonnull private final List<BitSet> subtypeClosures = new ArrayList<>();
+
+    @Nonnull
+    Vertex addVertex(@Nonnull ClassType type, @Nonnull VertexType vertexType) {
+      Vertex vertex = new Vertex(type, vertexType, vertices.size());
+      vertices.add(vertex);
+      supertypeClosures.add(null);
+      subtypeClosures.add(null);
+      graph.addVertex(vertex);
+      return vertex;
+    }
 
-    @Nonnull final Graph<Vertex, Edge> graph;
+    /**
+     * Returns the sorted ids of the vertex and all its transitive supertypes. The returned array
+     * must not be modified.
+     */
+    @Nonnull
+    synchronized int[] supertypeClosure(@Nonnull Vertex vertex) {
+      int[] closure = supertypeClosures.get(vertex.id);
+      if (closure == null) {
+        BitSet ids = new BitSet();
+        ids.set(vertex.id);
+        for (Edge edge : graph.outgoingEdgesOf(vertex)) {
+          for (int id : supertypeClosure(graph.getEdgeTarget(edge))) {
+            ids.set(id);
+          }
+        }
+        closure = ids.stream().toArray();
+        supertypeClosures.set(vertex.id, closure);
+      }
+      return closure;
+    }
 
-    private ScanResult(
-        @Nonnull Map<ClassType, Vertex> typeToVertex, @Nonnull Graph<Vertex, Edge> graph) {
-      this.typeToVertex = typeToVertex;
-      this.graph = graph;
+    /**
+     * Returns the ids of the vertex and all its transitive subtypes. The returned set must not be
+     * modified.
+     */
+    @Nonnull
+    synchronized BitSet subtypeClosure(@Nonnull Vertex vertex) {
+      BitSet closure = subtypeClosures.get(vertex.id);
+      if (closure == null) {
+        closure = collectSubtypes(vertex);
+        subtypeClosures.set(vertex.id, closure);
+      }
+      return closure;
+    }
+
+    @Nonnull
+    private BitSet collectSubtypes(@Nonnull Vertex vertex) {
+      BitSet closure = new BitSet();
+      Deque<Vertex> worklist = new ArrayDeque<>();
+      closure.set(vertex.id);
+      worklist.add(vertex);
+      while (!worklist.isEmpty()) {
+        for (Edge edge : graph.incomingEdgesOf(worklist.poll())) {
+          Vertex subtype = graph.getEdgeSource(edge);
+          if (closure.get(subtype.id)) {
+            continue;
+          }
+          BitSet subtypeClosure = subtypeClosures.get(subtype.id);
+          if (subtypeClosure != null) {
+            closure.or(subtypeClosure);
+          } else {
+            closure.set(subtype.id);
+            worklist.add(subtype);
+          }
+        }
+      }
+      return closure;
+    }
+
+    /**
+     * Updates the computed closures after edges from the vertex to its direct supertypes have been
+     * added. The closures that have already been handed out are replaced instead of modified.
+     */
+    synchronized void updateClosures(@Nonnull Vertex vertex) {
+      supertypeClosures.set(vertex.id, null);
+      int[] supertypes = supertypeClosure(vertex);
+      BitSet subtypes = collectSubtypes(vertex);
+
+      // every subtype of the vertex gains the supertypes of the vertex ...
+      subtypes.stream()
+          .forEach(
+              id -> {
+                int[] closure = supertypeClosures.get(id);
+                if (closure != null) {
+                  BitSet ids = new BitSet();
+                  Arrays.stream(closure).forEach(ids::set);
+                  Arrays.stream(supertypes).forEach(ids::set);
+                  supertypeClosures.set(id, ids.stream().toArray());
+                }
+              });
+      // ... and every supertype of the vertex gains the subtypes of the vertex
+      for (int id : supertypes) {
+        BitSet closure = subtypeClosures.get(id);
+        if (closure != null) {
+          BitSet updatedClosure = (BitSet) closure.clone();
+          updatedClosure.or(subtypes);
+          subtypeClosures.set(id, updatedClosure);
+        }
+      }
+    }
+
+    /**
+     * Collects the types of the vertices with the given ids except the excluded one.
+     *
+     * @param vertexType the type of the vertices to collect, or null to collect all of them
+     */
+    @Nonnull
+    Set<ClassType> typesOf(
+        @Nonnull IntStream ids, @Nonnull Vertex excluded, @Nullable VertexType vertexType) {
+      Set<ClassType> types = new HashSet<>();
+      synchronized (this) {
+        ids.filter(id -> id != excluded.id)
+            .mapToObj(vertices::get)
+            .filter(vertex -> vertexType == null || vertex.type == vertexType)
+            .forEach(vertex -> types.add(vertex.javaClassType));
+      }
+      return types;
     }
   }
 }
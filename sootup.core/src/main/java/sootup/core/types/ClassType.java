@@ -36,6 +36,11 @@ import sootup.core.signatures.Signature;
  * @author Markus Schmidt
  */
 public abstract class ClassType extends ReferenceType implements Signature {
+
+  @Nonnull
+  private static final MethodSubSignature STATIC_INITIALIZER_SUB_SIGNATURE =
+      new MethodSubSignature("<clinit>", Collections.emptyList(), VoidType.getInstance());
+
   public abstract boolean isBuiltInClass();
 
   public abstract String getFullyQualifiedName();
@@ -60,9 +65,13 @@ public abstract class ClassType extends ReferenceType implements Signature {
     return getFullyQualifiedName().equals(((ClassType) o).getFullyQualifiedName());
   }
 
+  /**
+   * Returns the signature of the static initializer of this class. Use {@link
+   * sootup.core.IdentifierFactory#getStaticInitializerSignature(ClassType)} of the view instead to
+   * get the signature created by its factory, e.g. an interned one.
+   */
   public MethodSignature getStaticInitializer() {
-    return new MethodSignature(
-        this, new MethodSubSignature("<clinit>", Collections.emptyList(), VoidType.getInstance()));
+    return new MethodSignature(this, STATIC_INITIALIZER_SUB_SIGNATURE);
   }
 
   @Override
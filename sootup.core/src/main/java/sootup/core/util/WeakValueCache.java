@@ -0,0 +1,124 @@
+package sootup.core.util;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A thread-safe cache which references its values weakly, so that values which are no longer
+ * referenced elsewhere can be collected. It is used to intern objects, i.e. all threads get the
+ * same value for the same key as long as the value is reachable.
+ *
+ * <p>Lookups of present keys are a {@link ConcurrentHashMap#get(Object)} and do not lock. The
+ * entries of collected values are removed when values are added.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public final class WeakValueCache<K, V> {
+
+  @Nonnull private final ConcurrentHashMap<K, ValueReference<K, V>> map;
+  @Nonnull private final ReferenceQueue<V> queue = new ReferenceQueue<>();
+
+  public WeakValueCache() {
+    map = new ConcurrentHashMap<>();
+  }
+
+  public WeakValueCache(int initialCapacity) {
+    map = new ConcurrentHashMap<>(initialCapacity);
+  }
+
+  /** Returns the value of the key, or null if there is none or if it has been collected. */
+  @Nullable
+  public V get(@Nonnull K key) {
+    ValueReference<K, V> reference = map.get(key);
+    return reference == null ? null : reference.get();
+  }
+
+  /**
+   * Returns the value of the key, and adds the value created by the factory if there is none. The
+   * factory is called without holding a lock, so concurrent callers may each create a value for the
+   * same key, but all of them get the one which has been added first.
+   */
+  @Nonnull
+  public V computeIfAbsent(@Nonnull K key, @Nonnull Function<? super K, ? extends V> factory) {
+    V value = get(key);
+    return value != null ? value : putIfAbsent(key, factory.apply(key));
+  }
+
+  /**
+   * Adds the value for the key if there is no value for it yet.
+   *
+   * @return the value of the key, which is the given value if it has been added
+   */
+  @Nonnull
+  public V putIfAbsent(@Nonnull K key, @Nonnull V value) {
+    removeCollectedValues();
+    ValueReference<K, V> newReference = new ValueReference<>(key, value, queue);
+    while (true) {
+      ValueReference<K, V> reference = map.putIfAbsent(key, newReference);
+      if (reference == null) {
+        return value;
+      }
+      V presentValue = reference.get();
+      if (presentValue != null) {
+        return presentValue;
+      }
+      // the present value has been collected, but its entry has not been removed yet
+      if (map.replace(key, reference, newReference)) {
+        return value;
+      }
+    }
+  }
+
+  /** Returns the number of entries, including the ones whose values have been collected. */
+  public int size() {
+    return map.size();
+  }
+
+  private void removeCollectedValues() {
+    Reference<? extends V> reference;
+    while ((reference = queue.poll()) != null) {
+      @SuppressWarnings("unchecked")
+      ValueReference<K, V> valueReference = (ValueReference<K, V>) reference;
+      map.remove(valueReference.key, valueReference);
+    }
+  }
+
+  /** Keeps the key, so that the entry can be removed once the value has been collected. */
+  private static final class ValueReference<K, V> extends WeakReference<V> {
+
+    @Nonnull private final K key;
+
+    private ValueReference(@Nonnull K key, @Nonnull V value, @Nonnull ReferenceQueue<V> queue) {
+      super(value, queue);
+      this.key = key;
+    }
+  }
+}
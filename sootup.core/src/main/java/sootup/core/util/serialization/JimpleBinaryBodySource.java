@@ -0,0 +1,74 @@
+package sootup.core.util.serialization;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.frontend.BodySource;
+import sootup.core.frontend.ResolveException;
+import sootup.core.model.Body;
+import sootup.core.model.MethodModifier;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * Keeps the encoded body of a method which has been read by a {@link JimpleBinaryReader} and
+ * decodes it with the constant pool of that reader when it is resolved.
+ */
+class JimpleBinaryBodySource implements BodySource {
+
+  @Nonnull private final JimpleBinaryReader reader;
+  @Nonnull private final MethodSignature signature;
+  @Nullable private final byte[] body;
+
+  JimpleBinaryBodySource(
+      @Nonnull JimpleBinaryReader reader,
+      @Nonnull MethodSignature signature,
+      @Nullable byte[] body) {
+    this.reader = reader;
+    this.signature = signature;
+    this.body = body;
+  }
+
+  @Nonnull
+  @Override
+  public Body resolveBody(@Nonnull Iterable<MethodModifier> modifiers) throws IOException {
+    if (body == null) {
+      throw new ResolveException("There is no body stored for " + signature + ".");
+    }
+    return reader.readBody(new DataInputStream(new ByteArrayInputStream(body)));
+  }
+
+  @Override
+  public Object resolveAnnotationsDefaultValue() {
+    return null;
+  }
+
+  @Nonnull
+  @Override
+  public MethodSignature getSignature() {
+    return signature;
+  }
+}
@@ -0,0 +1,202 @@
+package sootup.core.util.serialization;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Set;
+import javax.annotation.Nonnull;
+
+/**
+ * Constants and helpers of the binary Jimple format that is written by {@link JimpleBinaryWriter}
+ * and read by {@link JimpleBinaryReader}.
+ *
+ * <p>A file starts with {@link #MAGIC} and {@link #VERSION}, followed by the constant pool of
+ * strings, types and signatures and the payload that references the pool entries by their index.
+ * The payload consists of bodies or of classes whose method bodies are prefixed by their length, so
+ * they can be decoded on demand. Unsigned numbers are stored as variable length integers, signed
+ * numbers are zigzag encoded and modifiers are stored as a bit set of their ordinals.
+ */
+public final class JimpleBinaryFormat {
+
+  /** Identifies a file in the binary Jimple format. */
+  public static final int MAGIC = 0x4A424A4D;
+
+  /** Has to be increased whenever the encoding changes. */
+  public static final int VERSION = 1;
+
+  // constant pool entries
+  static final byte POOL_STRING = 1;
+  static final byte POOL_TYPE = 2;
+  static final byte POOL_METHOD_SUB_SIGNATURE = 3;
+  static final byte POOL_METHOD_SIGNATURE = 4;
+  static final byte POOL_FIELD_SIGNATURE = 5;
+
+  // types
+  static final byte TYPE_PRIMITIVE = 1;
+  static final byte TYPE_CLASS = 2;
+  static final byte TYPE_ARRAY = 3;
+  static final byte TYPE_NULL = 4;
+  static final byte TYPE_VOID = 5;
+  static final byte TYPE_UNKNOWN = 6;
+
+  // positions
+  static final byte POSITION_NONE = 0;
+  static final byte POSITION_LINE = 1;
+  static final byte POSITION_FULL = 2;
+
+  // stmt position infos
+  static final byte STMT_POSITION_NONE = 0;
+  static final byte STMT_POSITION_SIMPLE = 1;
+  static final byte STMT_POSITION_FULL = 2;
+
+  // stmts
+  static final byte STMT_ASSIGN = 1;
+  static final byte STMT_IDENTITY = 2;
+  static final byte STMT_INVOKE = 3;
+  static final byte STMT_IF = 4;
+  static final byte STMT_GOTO = 5;
+  static final byte STMT_TABLE_SWITCH = 6;
+  static final byte STMT_LOOKUP_SWITCH = 7;
+  static final byte STMT_RETURN = 8;
+  static final byte STMT_RETURN_VOID = 9;
+  static final byte STMT_THROW = 10;
+  static final byte STMT_NOP = 11;
+  static final byte STMT_ENTER_MONITOR = 12;
+  static final byte STMT_EXIT_MONITOR = 13;
+  static final byte STMT_BREAKPOINT = 14;
+  static final byte STMT_RET = 15;
+
+  // immediates
+  static final byte LOCAL = 1;
+  static final byte INT_CONSTANT = 2;
+  static final byte LONG_CONSTANT = 3;
+  static final byte FLOAT_CONSTANT = 4;
+  static final byte DOUBLE_CONSTANT = 5;
+  static final byte BOOLEAN_CONSTANT = 6;
+  static final byte NULL_CONSTANT = 7;
+  static final byte STRING_CONSTANT = 8;
+  static final byte CLASS_CONSTANT = 9;
+  static final byte ENUM_CONSTANT = 10;
+  static final byte METHOD_HANDLE = 11;
+  static final byte METHOD_TYPE = 12;
+
+  // binary exprs
+  static final byte ADD_EXPR = 20;
+  static final byte AND_EXPR = 21;
+  static final byte CMP_EXPR = 22;
+  static final byte CMPG_EXPR = 23;
+  static final byte CMPL_EXPR = 24;
+  static final byte DIV_EXPR = 25;
+  static final byte EQ_EXPR = 26;
+  static final byte NE_EXPR = 27;
+  static final byte GE_EXPR = 28;
+  static final byte GT_EXPR = 29;
+  static final byte LE_EXPR = 30;
+  static final byte LT_EXPR = 31;
+  static final byte MUL_EXPR = 32;
+  static final byte OR_EXPR = 33;
+  static final byte REM_EXPR = 34;
+  static final byte SHL_EXPR = 35;
+  static final byte SHR_EXPR = 36;
+  static final byte USHR_EXPR = 37;
+  static final byte SUB_EXPR = 38;
+  static final byte XOR_EXPR = 39;
+
+  // other exprs
+  static final byte CAST_EXPR = 40;
+  static final byte INSTANCE_OF_EXPR = 41;
+  static final byte NEW_EXPR = 42;
+  static final byte NEW_ARRAY_EXPR = 43;
+  static final byte NEW_MULTI_ARRAY_EXPR = 44;
+  static final byte LENGTH_EXPR = 45;
+  static final byte NEG_EXPR = 46;
+  static final byte VIRTUAL_INVOKE_EXPR = 47;
+  static final byte SPECIAL_INVOKE_EXPR = 48;
+  static final byte INTERFACE_INVOKE_EXPR = 49;
+  static final byte STATIC_INVOKE_EXPR = 50;
+  static final byte DYNAMIC_INVOKE_EXPR = 51;
+
+  // refs
+  static final byte ARRAY_REF = 60;
+  static final byte INSTANCE_FIELD_REF = 61;
+  static final byte STATIC_FIELD_REF = 62;
+  static final byte PARAMETER_REF = 63;
+  static final byte THIS_REF = 64;
+  static final byte CAUGHT_EXCEPTION_REF = 65;
+
+  private JimpleBinaryFormat() {}
+
+  static void writeUnsigned(@Nonnull DataOutput out, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  static int readUnsigned(@Nonnull DataInput in) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      final byte b = in.readByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable length integer.");
+  }
+
+  static void writeSigned(@Nonnull DataOutput out, int value) throws IOException {
+    writeUnsigned(out, (value << 1) ^ (value >> 31));
+  }
+
+  static int readSigned(@Nonnull DataInput in) throws IOException {
+    final int value = readUnsigned(in);
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  static void writeModifiers(@Nonnull DataOutput out, @Nonnull Set<? extends Enum<?>> modifiers)
+      throws IOException {
+    int bits = 0;
+    for (Enum<?> modifier : modifiers) {
+      bits |= 1 << modifier.ordinal();
+    }
+    writeUnsigned(out, bits);
+  }
+
+  @Nonnull
+  static <E extends Enum<E>> EnumSet<E> readModifiers(
+      @Nonnull DataInput in, @Nonnull Class<E> modifierClass) throws IOException {
+    final int bits = readUnsigned(in);
+    final EnumSet<E> modifiers = EnumSet.noneOf(modifierClass);
+    for (E modifier : modifierClass.getEnumConstants()) {
+      if ((bits & (1 << modifier.ordinal())) != 0) {
+        modifiers.add(modifier);
+      }
+    }
+    return modifiers;
+  }
+}
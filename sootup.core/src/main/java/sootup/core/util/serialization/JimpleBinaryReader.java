@@ -0,0 +1,688 @@
+package sootup.core.util.serialization;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static sootup.core.util.serialization.JimpleBinaryFormat.*;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.IdentifierFactory;
+import sootup.core.frontend.BodySource;
+import sootup.core.frontend.OverridingClassSource;
+import sootup.core.frontend.SootClassSource;
+import sootup.core.graph.MutableBlockStmtGraph;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.jimple.basic.*;
+import sootup.core.jimple.common.constant.*;
+import sootup.core.jimple.common.expr.*;
+import sootup.core.jimple.common.ref.*;
+import sootup.core.jimple.common.stmt.*;
+import sootup.core.jimple.javabytecode.stmt.*;
+import sootup.core.model.*;
+import sootup.core.signatures.FieldSignature;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.signatures.MethodSubSignature;
+import sootup.core.signatures.SootClassMemberSignature;
+import sootup.core.types.*;
+
+/**
+ * Reads what has been written by a {@link JimpleBinaryWriter}. The header and the constant pool are
+ * read on construction, the payload is read on demand in the order in which it has been written.
+ *
+ * <p>The members of a class are created by {@link #createField}, {@link #createMethod} and {@link
+ * #createClassSource}, which can be overridden to create language specific ones.
+ */
+public class JimpleBinaryReader {
+
+  @Nonnull private final IdentifierFactory identifierFactory;
+  @Nonnull private final DataInputStream payload;
+  @Nonnull private final Object[] pool;
+
+  /**
+   * @throws IOException if the stream can not be read or does not start with the header of the
+   *     expected {@link JimpleBinaryFormat#VERSION}.
+   */
+  public JimpleBinaryReader(
+      @Nonnull InputStream inputStream, @Nonnull IdentifierFactory identifierFactory)
+      throws IOException {
+    this.identifierFactory = identifierFactory;
+    this.payload = new DataInputStream(inputStream);
+    if (payload.readInt() != MAGIC) {
+      throw new IOException("The stream is not in the binary Jimple format.");
+    }
+    final int version = readUnsigned(payload);
+    if (version != VERSION) {
+      throw new IOException(
+          "Unsupported binary Jimple version " + version + ", expected " + VERSION + ".");
+    }
+    pool = new Object[readUnsigned(payload)];
+    for (int i = 0; i < pool.length; i++) {
+      pool[i] = readPoolEntry(payload);
+    }
+  }
+
+  /** Reads the next body of the payload. */
+  @Nonnull
+  public Body readBody() throws IOException {
+    return readBody(payload);
+  }
+
+  @Nonnull
+  protected Body readBody(@Nonnull DataInputStream in) throws IOException {
+    final MethodSignature methodSignature = poolEntry(in, MethodSignature.class);
+    final Position position = readPosition(in);
+
+    final Local[] locals = new Local[readUnsigned(in)];
+    final int declaredLocals = readUnsigned(in);
+    final Set<Local> bodyLocals = new LinkedHashSet<>(declaredLocals * 2);
+    for (int i = 0; i < locals.length; i++) {
+      final String name = poolEntry(in, String.class);
+      final Type type = poolEntry(in, Type.class);
+      locals[i] = new Local(name, type, readPosition(in));
+      if (i < declaredLocals) {
+        bodyLocals.add(locals[i]);
+      }
+    }
+
+    final int stmtCount = readUnsigned(in);
+    final List<Stmt> stmts = new ArrayList<>(stmtCount);
+    for (int i = 0; i < stmtCount; i++) {
+      stmts.add(readStmt(in, locals));
+    }
+
+    final Map<BranchingStmt, List<Stmt>> branchingMap = new HashMap<>();
+    for (Stmt stmt : stmts) {
+      if (stmt instanceof BranchingStmt) {
+        final int targetCount = readUnsigned(in);
+        final List<Stmt> targets = new ArrayList<>(targetCount);
+        for (int i = 0; i < targetCount; i++) {
+          targets.add(stmt(in, stmts));
+        }
+        branchingMap.put((BranchingStmt) stmt, targets);
+      }
+    }
+
+    final int trapCount = readUnsigned(in);
+    final List<Trap> traps = new ArrayList<>(trapCount);
+    for (int i = 0; i < trapCount; i++) {
+      final ClassType exceptionType = poolEntry(in, ClassType.class);
+      final Stmt beginStmt = stmt(in, stmts);
+      final Stmt endStmt = stmt(in, stmts);
+      final Stmt handlerStmt = stmt(in, stmts);
+      traps.add(new Trap(exceptionType, beginStmt, endStmt, handlerStmt));
+    }
+
+    final MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    graph.initializeWith(stmts, branchingMap, traps);
+    return Body.builder(graph)
+        .setMethodSignature(methodSignature)
+        .setLocals(bodyLocals)
+        .setPosition(position)
+        .build();
+  }
+
+  /**
+   * Reads the next class of the payload. The bodies of its methods are kept in their encoded form
+   * and are only decoded when they are resolved.
+   *
+   * @param inputLocation the input location that contains the class
+   * @param sourcePath the path of the file the class is read from
+   */
+  @Nonnull
+  public SootClassSource<?> readClass(
+      @Nonnull AnalysisInputLocation<?> inputLocation, @Nonnull Path sourcePath)
+      throws IOException {
+    return readClass(payload, inputLocation, sourcePath);
+  }
+
+  @Nonnull
+  protected SootClassSource<?> readClass(
+      @Nonnull DataInputStream in,
+      @Nonnull AnalysisInputLocation<?> inputLocation,
+      @Nonnull Path sourcePath)
+      throws IOException {
+    final ClassType classType = poolEntry(in, ClassType.class);
+    final EnumSet<ClassModifier> modifiers = readModifiers(in, ClassModifier.class);
+    final ClassType superClass = optionalPoolEntry(in, ClassType.class);
+    final ClassType outerClass = optionalPoolEntry(in, ClassType.class);
+    final int interfaceCount = readUnsigned(in);
+    final Set<ClassType> interfaces = new LinkedHashSet<>(interfaceCount * 2);
+    for (int i = 0; i < interfaceCount; i++) {
+      interfaces.add(poolEntry(in, ClassType.class));
+    }
+    final Position position = readPosition(in);
+
+    final int fieldCount = readUnsigned(in);
+    final Set<SootField> fields = new LinkedHashSet<>(fieldCount * 2);
+    for (int i = 0; i < fieldCount; i++) {
+      final FieldSignature signature = poolEntry(in, FieldSignature.class);
+      final EnumSet<FieldModifier> fieldModifiers = readModifiers(in, FieldModifier.class);
+      fields.add(createField(signature, fieldModifiers, readPosition(in)));
+    }
+
+    final int methodCount = readUnsigned(in);
+    final Set<SootMethod> methods = new LinkedHashSet<>(methodCount * 2);
+    for (int i = 0; i < methodCount; i++) {
+      final MethodSignature signature = poolEntry(in, MethodSignature.class);
+      final EnumSet<MethodModifier> methodModifiers = readModifiers(in, MethodModifier.class);
+      final int exceptionCount = readUnsigned(in);
+      final List<ClassType> exceptions = new ArrayList<>(exceptionCount);
+      for (int j = 0; j < exceptionCount; j++) {
+        exceptions.add(poolEntry(in, ClassType.class));
+      }
+      final Position methodPosition = readPosition(in);
+
+      final int bodyLength = readUnsigned(in);
+      final byte[] body;
+      if (bodyLength > 0) {
+        body = new byte[bodyLength];
+        in.readFully(body);
+      } else {
+        body = null;
+      }
+      methods.add(
+          createMethod(
+              new JimpleBinaryBodySource(this, signature, body),
+              signature,
+              methodModifiers,
+              exceptions,
+              methodPosition));
+    }
+
+    return createClassSource(
+        inputLocation,
+        sourcePath,
+        classType,
+        modifiers,
+        superClass,
+        interfaces,
+        outerClass,
+        fields,
+        methods,
+        position);
+  }
+
+  @Nonnull
+  protected SootField createField(
+      @Nonnull FieldSignature signature,
+      @Nonnull EnumSet<FieldModifier> modifiers,
+      @Nonnull Position position) {
+    return new SootField(signature, modifiers, position);
+  }
+
+  @Nonnull
+  protected SootMethod createMethod(
+      @Nonnull BodySource bodySource,
+      @Nonnull MethodSignature signature,
+      @Nonnull EnumSet<MethodModifier> modifiers,
+      @Nonnull List<ClassType> thrownExceptions,
+      @Nonnull Position position) {
+    return new SootMethod(bodySource, signature, modifiers, thrownExceptions, position);
+  }
+
+  @Nonnull
+  protected SootClassSource<?> createClassSource(
+      @Nonnull AnalysisInputLocation<?> inputLocation,
+      @Nonnull Path sourcePath,
+      @Nonnull ClassType classType,
+      @Nonnull EnumSet<ClassModifier> modifiers,
+      @Nullable ClassType superClass,
+      @Nonnull Set<ClassType> interfaces,
+      @Nullable ClassType outerClass,
+      @Nonnull Set<SootField> fields,
+      @Nonnull Set<SootMethod> methods,
+      @Nonnull Position position) {
+    return new OverridingClassSource(
+        methods,
+        fields,
+        modifiers,
+        interfaces,
+        superClass,
+        outerClass,
+        position,
+        sourcePath,
+        classType,
+        inputLocation);
+  }
+
+  @Nonnull
+  private Stmt stmt(@Nonnull DataInputStream in, @Nonnull List<Stmt> stmts) throws IOException {
+    final int index = readUnsigned(in);
+    if (index >= stmts.size()) {
+      throw new IOException("Stmt " + index + " does not exist.");
+    }
+    return stmts.get(index);
+  }
+
+  @Nonnull
+  private Stmt readStmt(@Nonnull DataInputStream in, @Nonnull Local[] locals) throws IOException {
+    final byte tag = in.readByte();
+    final StmtPositionInfo positionInfo = readStmtPositionInfo(in);
+    switch (tag) {
+      case STMT_ASSIGN:
+        {
+          final Value leftOp = readValue(in, locals);
+          if (!(leftOp instanceof LValue)) {
+            throw new IOException("'" + leftOp + "' can not be assigned.");
+          }
+          return new JAssignStmt((LValue) leftOp, readValue(in, locals), positionInfo);
+        }
+      case STMT_IDENTITY:
+        {
+          final Local local = readValue(in, locals, Local.class);
+          return new JIdentityStmt(local, readValue(in, locals, IdentityRef.class), positionInfo);
+        }
+      case STMT_INVOKE:
+        return new JInvokeStmt(readValue(in, locals, AbstractInvokeExpr.class), positionInfo);
+      case STMT_IF:
+        return new JIfStmt(readValue(in, locals, AbstractConditionExpr.class), positionInfo);
+      case STMT_GOTO:
+        return new JGotoStmt(positionInfo);
+      case STMT_TABLE_SWITCH:
+        {
+          final Immediate key = readValue(in, locals, Immediate.class);
+          final int lowIndex = readSigned(in);
+          return new JSwitchStmt(key, lowIndex, readSigned(in), positionInfo);
+        }
+      case STMT_LOOKUP_SWITCH:
+        {
+          final Immediate key = readValue(in, locals, Immediate.class);
+          final int valueCount = readUnsigned(in);
+          final List<IntConstant> values = new ArrayList<>(valueCount);
+          for (int i = 0; i < valueCount; i++) {
+            values.add(IntConstant.getInstance(readSigned(in)));
+          }
+          return new JSwitchStmt(key, values, positionInfo);
+        }
+      case STMT_RETURN:
+        return new JReturnStmt(readValue(in, locals, Immediate.class), positionInfo);
+      case STMT_RETURN_VOID:
+        return new JReturnVoidStmt(positionInfo);
+      case STMT_THROW:
+        return new JThrowStmt(readValue(in, locals, Immediate.class), positionInfo);
+      case STMT_NOP:
+        return new JNopStmt(positionInfo);
+      case STMT_ENTER_MONITOR:
+        return new JEnterMonitorStmt(readValue(in, locals, Immediate.class), positionInfo);
+      case STMT_EXIT_MONITOR:
+        return new JExitMonitorStmt(readValue(in, locals, Immediate.class), positionInfo);
+      case STMT_BREAKPOINT:
+        return new JBreakpointStmt(positionInfo);
+      case STMT_RET:
+        return new JRetStmt(readValue(in, locals), positionInfo);
+      default:
+        throw new IOException("Unknown Stmt " + tag + ".");
+    }
+  }
+
+  @Nonnull
+  private <T> T readValue(
+      @Nonnull DataInputStream in, @Nonnull Local[] locals, @Nonnull Class<T> valueClass)
+      throws IOException {
+    final Value value = readValue(in, locals);
+    if (!valueClass.isInstance(value)) {
+      throw new IOException("'" + value + "' is not a " + valueClass.getSimpleName() + ".");
+    }
+    return valueClass.cast(value);
+  }
+
+  @Nonnull
+  private List<Immediate> readImmediates(@Nonnull DataInputStream in, @Nonnull Local[] locals)
+      throws IOException {
+    final int count = readUnsigned(in);
+    final List<Immediate> immediates = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      immediates.add(readValue(in, locals, Immediate.class));
+    }
+    return immediates;
+  }
+
+  @Nonnull
+  private Value readValue(@Nonnull DataInputStream in, @Nonnull Local[] locals) throws IOException {
+    final byte tag = in.readByte();
+    switch (tag) {
+      case LOCAL:
+        {
+          final int index = readUnsigned(in);
+          if (index >= locals.length) {
+            throw new IOException("Local " + index + " does not exist.");
+          }
+          return locals[index];
+        }
+      case INT_CONSTANT:
+        return IntConstant.getInstance(readSigned(in));
+      case LONG_CONSTANT:
+        return LongConstant.getInstance(in.readLong());
+      case FLOAT_CONSTANT:
+        return FloatConstant.getInstance(in.readFloat());
+      case DOUBLE_CONSTANT:
+        return DoubleConstant.getInstance(in.readDouble());
+      case BOOLEAN_CONSTANT:
+        return BooleanConstant.getInstance(in.readBoolean());
+      case NULL_CONSTANT:
+        return NullConstant.getInstance();
+      case STRING_CONSTANT:
+        {
+          final String value = poolEntry(in, String.class);
+          return new StringConstant(value, poolEntry(in, Type.class));
+        }
+      case CLASS_CONSTANT:
+        {
+          final String value = poolEntry(in, String.class);
+          return new ClassConstant(value, poolEntry(in, Type.class));
+        }
+      case ENUM_CONSTANT:
+        {
+          final String value = poolEntry(in, String.class);
+          final ClassType type = poolEntry(in, ClassType.class);
+          return new EnumConstant(
+              value, type, identifierFactory.getFieldSignature(value, type, type));
+        }
+      case METHOD_HANDLE:
+        {
+          final int kind = readSigned(in);
+          final SootClassMemberSignature<?> referenceSignature =
+              MethodHandle.isMethodRef(kind)
+                  ? poolEntry(in, MethodSignature.class)
+                  : poolEntry(in, FieldSignature.class);
+          return new MethodHandle(referenceSignature, kind, poolEntry(in, Type.class));
+        }
+      case METHOD_TYPE:
+        {
+          final MethodSubSignature subSignature = poolEntry(in, MethodSubSignature.class);
+          return new MethodType(subSignature, poolEntry(in, ClassType.class));
+        }
+      case ADD_EXPR:
+        return new JAddExpr(readImmediate(in, locals), readImmediate(in, locals));
+      case AND_EXPR:
+        return new JAndExpr(readImmediate(in, locals), readImmediate(in, locals));
+      case CMP_EXPR:
+        return new JCmpExpr(readImmediate(in, locals), readImmediate(in, locals));
+      case CMPG_EXPR:
+        return new JCmpgExpr(readImmediate(in, locals), readImmediate(in, locals));
+      case CMPL_EXPR:
+        return new JCmplExpr(readImmediate(in, locals), readImmediate(in, locals));
+      case DIV_EXPR:
+        return new JDivExpr(readImmediate(in, locals), readImmediate(in, locals));
+      case EQ_EXPR:
+        return new JEqExpr(readImmediate(in, locals), readImmediate(in, locals));
+      case NE_EXPR:
+        return new JNeExpr(readImmediate(in, locals), readImmediate(in, locals));
+      case GE_EXPR:
+        return new JGeExpr(readImmediate(in, locals), readImmediate(in, locals));
+      case GT_EXPR:
+        return new JGtExpr(readImmediate(in, locals), readImmediate(in, locals));
+      case LE_EXPR:
+        return new JLeExpr(readImmediate(in, locals), readImmediate(in, locals));
+      case LT_EXPR:
+        return new JLtExpr(readImmediate(in, locals), readImmediate(in, locals));
+      case MUL_EXPR:
+        return new JMulExpr(readImmediate(in, locals), readImmediate(in, locals));
+      case OR_EXPR:
+        return new JOrExpr(readImmediate(in, locals), readImmediate(in, locals));
+      case REM_EXPR:
+        return new JRemExpr(readImmediate(in, locals), readImmediate(in, locals));
+      case SHL_EXPR:
+        return new JShlExpr(readImmediate(in, locals), readImmediate(in, locals));
+      case SHR_EXPR:
+        return new JShrExpr(readImmediate(in, locals), readImmediate(in, locals));
+      case USHR_EXPR:
+        return new JUshrExpr(readImmediate(in, locals), readImmediate(in, locals));
+      case SUB_EXPR:
+        return new JSubExpr(readImmediate(in, locals), readImmediate(in, locals));
+      case XOR_EXPR:
+        return new JXorExpr(readImmediate(in, locals), readImmediate(in, locals));
+      case CAST_EXPR:
+        {
+          final Immediate op = readImmediate(in, locals);
+          return new JCastExpr(op, poolEntry(in, Type.class));
+        }
+      case INSTANCE_OF_EXPR:
+        {
+          final Immediate op = readImmediate(in, locals);
+          return new JInstanceOfExpr(op, poolEntry(in, Type.class));
+        }
+      case NEW_EXPR:
+        return new JNewExpr(poolEntry(in, ClassType.class));
+      case NEW_ARRAY_EXPR:
+        {
+          final Type baseType = poolEntry(in, Type.class);
+          return new JNewArrayExpr(baseType, readImmediate(in, locals), identifierFactory);
+        }
+      case NEW_MULTI_ARRAY_EXPR:
+        {
+          final ArrayType baseType = poolEntry(in, ArrayType.class);
+          return new JNewMultiArrayExpr(baseType, readImmediates(in, locals));
+        }
+      case LENGTH_EXPR:
+        return new JLengthExpr(readImmediate(in, locals));
+      case NEG_EXPR:
+        return new JNegExpr(readImmediate(in, locals));
+      case VIRTUAL_INVOKE_EXPR:
+        {
+          final Local base = readValue(in, locals, Local.class);
+          final MethodSignature method = poolEntry(in, MethodSignature.class);
+          return new JVirtualInvokeExpr(base, method, readImmediates(in, locals));
+        }
+      case SPECIAL_INVOKE_EXPR:
+        {
+          final Local base = readValue(in, locals, Local.class);
+          final MethodSignature method = poolEntry(in, MethodSignature.class);
+          return new JSpecialInvokeExpr(base, method, readImmediates(in, locals));
+        }
+      case INTERFACE_INVOKE_EXPR:
+        {
+          final Local base = readValue(in, locals, Local.class);
+          final MethodSignature method = poolEntry(in, MethodSignature.class);
+          return new JInterfaceInvokeExpr(base, method, readImmediates(in, locals));
+        }
+      case STATIC_INVOKE_EXPR:
+        {
+          final MethodSignature method = poolEntry(in, MethodSignature.class);
+          return new JStaticInvokeExpr(method, readImmediates(in, locals));
+        }
+      case DYNAMIC_INVOKE_EXPR:
+        {
+          final MethodSignature bootstrapMethod = poolEntry(in, MethodSignature.class);
+          final List<Immediate> bootstrapArgs = readImmediates(in, locals);
+          final int handleTag = readSigned(in);
+          final MethodSignature method = poolEntry(in, MethodSignature.class);
+          return new JDynamicInvokeExpr(
+              bootstrapMethod, bootstrapArgs, method, handleTag, readImmediates(in, locals));
+        }
+      case ARRAY_REF:
+        {
+          final Local base = readValue(in, locals, Local.class);
+          return new JArrayRef(base, readImmediate(in, locals));
+        }
+      case INSTANCE_FIELD_REF:
+        {
+          final Local base = readValue(in, locals, Local.class);
+          return new JInstanceFieldRef(base, poolEntry(in, FieldSignature.class));
+        }
+      case STATIC_FIELD_REF:
+        return new JStaticFieldRef(poolEntry(in, FieldSignature.class));
+      case PARAMETER_REF:
+        {
+          final Type type = poolEntry(in, Type.class);
+          return new JParameterRef(type, readUnsigned(in));
+        }
+      case THIS_REF:
+        return new JThisRef(poolEntry(in, ClassType.class));
+      case CAUGHT_EXCEPTION_REF:
+        return new JCaughtExceptionRef(poolEntry(in, Type.class));
+      default:
+        throw new IOException("Unknown Value " + tag + ".");
+    }
+  }
+
+  @Nonnull
+  private Immediate readImmediate(@Nonnull DataInputStream in, @Nonnull Local[] locals)
+      throws IOException {
+    return readValue(in, locals, Immediate.class);
+  }
+
+  @Nonnull
+  private StmtPositionInfo readStmtPositionInfo(@Nonnull DataInputStream in) throws IOException {
+    final byte tag = in.readByte();
+    switch (tag) {
+      case STMT_POSITION_NONE:
+        return StmtPositionInfo.createNoStmtPositionInfo();
+      case STMT_POSITION_SIMPLE:
+        return new SimpleStmtPositionInfo(readPosition(in));
+      case STMT_POSITION_FULL:
+        {
+          final Position stmtPosition = readPosition(in);
+          final Position[] operandPositions = new Position[readUnsigned(in)];
+          for (int i = 0; i < operandPositions.length; i++) {
+            operandPositions[i] = readPosition(in);
+          }
+          return new FullStmtPositionInfo(stmtPosition, operandPositions);
+        }
+      default:
+        throw new IOException("Unknown StmtPositionInfo " + tag + ".");
+    }
+  }
+
+  @Nonnull
+  private Position readPosition(@Nonnull DataInputStream in) throws IOException {
+    final byte tag = in.readByte();
+    switch (tag) {
+      case POSITION_NONE:
+        return NoPositionInformation.getInstance();
+      case POSITION_LINE:
+        return new LinePosition(readSigned(in));
+      case POSITION_FULL:
+        {
+          final int firstLine = readSigned(in);
+          final int firstCol = readSigned(in);
+          final int lastLine = readSigned(in);
+          return new FullPosition(firstLine, firstCol, lastLine, readSigned(in));
+        }
+      default:
+        throw new IOException("Unknown Position " + tag + ".");
+    }
+  }
+
+  @Nonnull
+  private Object readPoolEntry(@Nonnull DataInputStream in) throws IOException {
+    final byte kind = in.readByte();
+    switch (kind) {
+      case POOL_STRING:
+        {
+          final byte[] bytes = new byte[readUnsigned(in)];
+          in.readFully(bytes);
+          return new String(bytes, StandardCharsets.UTF_8);
+        }
+      case POOL_TYPE:
+        return readType(in);
+      case POOL_METHOD_SUB_SIGNATURE:
+        {
+          final String name = poolEntry(in, String.class);
+          final Type returnType = poolEntry(in, Type.class);
+          final int parameterCount = readUnsigned(in);
+          final List<Type> parameterTypes = new ArrayList<>(parameterCount);
+          for (int i = 0; i < parameterCount; i++) {
+            parameterTypes.add(poolEntry(in, Type.class));
+          }
+          return identifierFactory.getMethodSubSignature(name, returnType, parameterTypes);
+        }
+      case POOL_METHOD_SIGNATURE:
+        {
+          final ClassType declClass = poolEntry(in, ClassType.class);
+          return identifierFactory.getMethodSignature(
+              declClass, poolEntry(in, MethodSubSignature.class));
+        }
+      case POOL_FIELD_SIGNATURE:
+        {
+          final ClassType declClass = poolEntry(in, ClassType.class);
+          final String name = poolEntry(in, String.class);
+          return identifierFactory.getFieldSignature(name, declClass, poolEntry(in, Type.class));
+        }
+      default:
+        throw new IOException("Unknown constant pool entry " + kind + ".");
+    }
+  }
+
+  @Nonnull
+  private Type readType(@Nonnull DataInputStream in) throws IOException {
+    final byte tag = in.readByte();
+    switch (tag) {
+      case TYPE_PRIMITIVE:
+        {
+          final String name = poolEntry(in, String.class);
+          return identifierFactory
+              .getPrimitiveType(name)
+              .orElseThrow(() -> new IOException("Unknown primitive type " + name + "."));
+        }
+      case TYPE_CLASS:
+        return identifierFactory.getClassType(poolEntry(in, String.class));
+      case TYPE_ARRAY:
+        {
+          final Type baseType = poolEntry(in, Type.class);
+          return identifierFactory.getArrayType(baseType, readUnsigned(in));
+        }
+      case TYPE_NULL:
+        return NullType.getInstance();
+      case TYPE_VOID:
+        return VoidType.getInstance();
+      case TYPE_UNKNOWN:
+        return UnknownType.getInstance();
+      default:
+        throw new IOException("Unknown Type " + tag + ".");
+    }
+  }
+
+  /** Reads a constant pool index that is shifted by one, as zero marks an absent entry. */
+  @Nullable
+  private <T> T optionalPoolEntry(@Nonnull DataInputStream in, @Nonnull Class<T> entryClass)
+      throws IOException {
+    final int index = readUnsigned(in);
+    if (index == 0) {
+      return null;
+    }
+    if (index > pool.length || !entryClass.isInstance(pool[index - 1])) {
+      throw new IOException(
+          "Constant pool entry " + (index - 1) + " is not a " + entryClass.getSimpleName() + ".");
+    }
+    return entryClass.cast(pool[index - 1]);
+  }
+
+  /** Reads a constant pool index and returns the entry if it is of the expected class. */
+  @Nonnull
+  protected <T> T poolEntry(@Nonnull DataInputStream in, @Nonnull Class<T> entryClass)
+      throws IOException {
+    final int index = readUnsigned(in);
+    if (index >= pool.length || !entryClass.isInstance(pool[index])) {
+      throw new IOException(
+          "Constant pool entry " + index + " is not a " + entryClass.getSimpleName() + ".");
+    }
+    return entryClass.cast(pool[index]);
+  }
+}
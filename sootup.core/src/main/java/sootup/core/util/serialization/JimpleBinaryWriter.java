@@ -0,0 +1,636 @@
+package sootup.core.util.serialization;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static sootup.core.util.serialization.JimpleBinaryFormat.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import javax.annotation.Nonnull;
+import sootup.core.jimple.basic.*;
+import sootup.core.jimple.common.constant.*;
+import sootup.core.jimple.common.expr.*;
+import sootup.core.jimple.common.ref.*;
+import sootup.core.jimple.common.stmt.*;
+import sootup.core.jimple.javabytecode.stmt.*;
+import sootup.core.model.Body;
+import sootup.core.model.LinePosition;
+import sootup.core.model.Position;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootField;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.FieldSignature;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.signatures.MethodSubSignature;
+import sootup.core.types.*;
+
+/**
+ * Writes {@link Body}s and {@link SootClass}es in the binary Jimple format (see {@link
+ * JimpleBinaryFormat}). Strings, types and signatures are stored once in a constant pool that is
+ * shared by everything written with the same writer. Nothing is written to a stream until {@link
+ * #writeTo(OutputStream)} is called.
+ */
+public class JimpleBinaryWriter {
+
+  @Nonnull private final Map<Object, Integer> poolIndices = new HashMap<>();
+  @Nonnull private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+  @Nonnull private final DataOutputStream pool = new DataOutputStream(poolBytes);
+
+  @Nonnull private final ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+  @Nonnull private final DataOutputStream payload = new DataOutputStream(payloadBytes);
+
+  /**
+   * Appends the given body to the payload.
+   *
+   * @throws IllegalArgumentException if the body contains a value or type which can not be
+   *     serialized, e.g. a {@link JPhiExpr}.
+   */
+  public void writeBody(@Nonnull Body body) throws IOException {
+    writeBody(payload, body);
+  }
+
+  /**
+   * Appends the given class with its fields and methods to the payload. The bodies of concrete
+   * methods are resolved and stored with their length, so they can be decoded on demand.
+   *
+   * @throws IllegalArgumentException if a body contains a value or type which can not be
+   *     serialized.
+   */
+  public void writeClass(@Nonnull SootClass<?> sootClass) throws IOException {
+    writeClass(payload, sootClass);
+  }
+
+  /** Writes the header, the constant pool and the payload to the given stream. */
+  public void writeTo(@Nonnull OutputStream outputStream) throws IOException {
+    DataOutputStream out = new DataOutputStream(outputStream);
+    out.writeInt(MAGIC);
+    writeUnsigned(out, VERSION);
+    writeUnsigned(out, poolIndices.size());
+    poolBytes.writeTo(out);
+    payloadBytes.writeTo(out);
+    out.flush();
+  }
+
+  protected void writeBody(@Nonnull DataOutputStream out, @Nonnull Body body) throws IOException {
+    writeUnsigned(out, poolIndex(body.getMethodSignature()));
+    writePosition(out, body.getPosition());
+
+    final List<Stmt> stmts = body.getStmts();
+    final List<Trap> traps = body.getTraps();
+
+    // the locals of the body come first, locals which are used but not declared are appended
+    final Map<Local, Integer> localIndices = new LinkedHashMap<>();
+    for (Local local : body.getLocals()) {
+      localIndices.putIfAbsent(local, localIndices.size());
+    }
+    final int declaredLocals = localIndices.size();
+    for (Stmt stmt : stmts) {
+      for (Value use : stmt.getUses()) {
+        if (use instanceof Local) {
+          localIndices.putIfAbsent((Local) use, localIndices.size());
+        }
+      }
+      for (Value def : stmt.getDefs()) {
+        if (def instanceof Local) {
+          localIndices.putIfAbsent((Local) def, localIndices.size());
+        }
+      }
+    }
+    writeUnsigned(out, localIndices.size());
+    writeUnsigned(out, declaredLocals);
+    for (Local local : localIndices.keySet()) {
+      writeUnsigned(out, poolIndex(local.getName()));
+      writeUnsigned(out, poolIndex(local.getType()));
+      writePosition(out, local.getPosition());
+    }
+
+    final Map<Stmt, Integer> stmtIndices = new HashMap<>(stmts.size() * 2);
+    for (Stmt stmt : stmts) {
+      stmtIndices.put(stmt, stmtIndices.size());
+    }
+
+    writeUnsigned(out, stmts.size());
+    for (Stmt stmt : stmts) {
+      writeStmt(out, stmt, localIndices);
+    }
+
+    for (Stmt stmt : stmts) {
+      if (stmt instanceof BranchingStmt) {
+        final List<Stmt> targets = body.getBranchTargetsOf((BranchingStmt) stmt);
+        writeUnsigned(out, targets.size());
+        for (Stmt target : targets) {
+          writeUnsigned(out, stmtIndex(stmtIndices, target));
+        }
+      }
+    }
+
+    writeUnsigned(out, traps.size());
+    for (Trap trap : traps) {
+      writeUnsigned(out, poolIndex(trap.getExceptionType()));
+      writeUnsigned(out, stmtIndex(stmtIndices, trap.getBeginStmt()));
+      writeUnsigned(out, stmtIndex(stmtIndices, trap.getEndStmt()));
+      writeUnsigned(out, stmtIndex(stmtIndices, trap.getHandlerStmt()));
+    }
+  }
+
+  protected void writeClass(@Nonnull DataOutputStream out, @Nonnull SootClass<?> sootClass)
+      throws IOException {
+    writeUnsigned(out, poolIndex(sootClass.getType()));
+    writeModifiers(out, sootClass.getModifiers());
+    writeOptionalType(out, sootClass.getSuperclass());
+    writeOptionalType(out, sootClass.getOuterClass());
+    final Set<? extends ClassType> interfaces = sootClass.getInterfaces();
+    writeUnsigned(out, interfaces.size());
+    for (ClassType interfaceType : interfaces) {
+      writeUnsigned(out, poolIndex(interfaceType));
+    }
+    writePosition(out, sootClass.getPosition());
+
+    final Set<? extends SootField> fields = sootClass.getFields();
+    writeUnsigned(out, fields.size());
+    for (SootField field : fields) {
+      writeUnsigned(out, poolIndex(field.getSignature()));
+      writeModifiers(out, field.getModifiers());
+      writePosition(out, field.getPosition());
+    }
+
+    final Set<? extends SootMethod> methods = sootClass.getMethods();
+    final ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+    final DataOutputStream bodyOut = new DataOutputStream(bodyBytes);
+    writeUnsigned(out, methods.size());
+    for (SootMethod method : methods) {
+      writeUnsigned(out, poolIndex(method.getSignature()));
+      writeModifiers(out, method.getModifiers());
+      final List<ClassType> exceptions = method.getExceptionSignatures();
+      writeUnsigned(out, exceptions.size());
+      for (ClassType exception : exceptions) {
+        writeUnsigned(out, poolIndex(exception));
+      }
+      writePosition(out, method.getPosition());
+
+      // a body needs at least one byte, so a length of zero marks a method without body
+      if (method.hasBody()) {
+        bodyBytes.reset();
+        writeBody(bodyOut, method.getBody());
+        bodyOut.flush();
+        writeUnsigned(out, bodyBytes.size());
+        bodyBytes.writeTo(out);
+      } else {
+        writeUnsigned(out, 0);
+      }
+    }
+  }
+
+  private void writeOptionalType(
+      @Nonnull DataOutputStream out, @Nonnull Optional<? extends ClassType> type)
+      throws IOException {
+    writeUnsigned(out, type.isPresent() ? poolIndex(type.get()) + 1 : 0);
+  }
+
+  private int stmtIndex(@Nonnull Map<Stmt, Integer> stmtIndices, @Nonnull Stmt stmt) {
+    final Integer index = stmtIndices.get(stmt);
+    if (index == null) {
+      throw new IllegalArgumentException("'" + stmt + "' is not a Stmt of the StmtGraph.");
+    }
+    return index;
+  }
+
+  private void writeStmt(
+      @Nonnull DataOutputStream out, @Nonnull Stmt stmt, @Nonnull Map<Local, Integer> locals)
+      throws IOException {
+    if (stmt instanceof JAssignStmt) {
+      out.writeByte(STMT_ASSIGN);
+      writeStmtPositionInfo(out, stmt.getPositionInfo());
+      writeValue(out, ((JAssignStmt) stmt).getLeftOp(), locals);
+      writeValue(out, ((JAssignStmt) stmt).getRightOp(), locals);
+    } else if (stmt instanceof JIdentityStmt) {
+      out.writeByte(STMT_IDENTITY);
+      writeStmtPositionInfo(out, stmt.getPositionInfo());
+      writeValue(out, ((JIdentityStmt) stmt).getLeftOp(), locals);
+      writeValue(out, ((JIdentityStmt) stmt).getRightOp(), locals);
+    } else if (stmt instanceof JInvokeStmt) {
+      out.writeByte(STMT_INVOKE);
+      writeStmtPositionInfo(out, stmt.getPositionInfo());
+      writeValue(out, ((JInvokeStmt) stmt).getInvokeExpr(), locals);
+    } else if (stmt instanceof JIfStmt) {
+      out.writeByte(STMT_IF);
+      writeStmtPositionInfo(out, stmt.getPositionInfo());
+      writeValue(out, ((JIfStmt) stmt).getCondition(), locals);
+    } else if (stmt instanceof JGotoStmt) {
+      out.writeByte(STMT_GOTO);
+      writeStmtPositionInfo(out, stmt.getPositionInfo());
+    } else if (stmt instanceof JSwitchStmt) {
+      final JSwitchStmt switchStmt = (JSwitchStmt) stmt;
+      final List<IntConstant> values = switchStmt.getValues();
+      if (switchStmt.isTableSwitch()) {
+        out.writeByte(STMT_TABLE_SWITCH);
+        writeStmtPositionInfo(out, stmt.getPositionInfo());
+        writeValue(out, switchStmt.getKey(), locals);
+        writeSigned(out, values.get(0).getValue());
+        writeSigned(out, values.get(values.size() - 1).getValue());
+      } else {
+        out.writeByte(STMT_LOOKUP_SWITCH);
+        writeStmtPositionInfo(out, stmt.getPositionInfo());
+        writeValue(out, switchStmt.getKey(), locals);
+        writeUnsigned(out, values.size());
+        for (IntConstant value : values) {
+          writeSigned(out, value.getValue());
+        }
+      }
+    } else if (stmt instanceof JReturnStmt) {
+      out.writeByte(STMT_RETURN);
+      writeStmtPositionInfo(out, stmt.getPositionInfo());
+      writeValue(out, ((JReturnStmt) stmt).getOp(), locals);
+    } else if (stmt instanceof JReturnVoidStmt) {
+      out.writeByte(STMT_RETURN_VOID);
+      writeStmtPositionInfo(out, stmt.getPositionInfo());
+    } else if (stmt instanceof JThrowStmt) {
+      out.writeByte(STMT_THROW);
+      writeStmtPositionInfo(out, stmt.getPositionInfo());
+      writeValue(out, ((JThrowStmt) stmt).getOp(), locals);
+    } else if (stmt instanceof JNopStmt) {
+      out.writeByte(STMT_NOP);
+      writeStmtPositionInfo(out, stmt.getPositionInfo());
+    } else if (stmt instanceof JEnterMonitorStmt) {
+      out.writeByte(STMT_ENTER_MONITOR);
+      writeStmtPositionInfo(out, stmt.getPositionInfo());
+      writeValue(out, ((JEnterMonitorStmt) stmt).getOp(), locals);
+    } else if (stmt instanceof JExitMonitorStmt) {
+      out.writeByte(STMT_EXIT_MONITOR);
+      writeStmtPositionInfo(out, stmt.getPositionInfo());
+      writeValue(out, ((JExitMonitorStmt) stmt).getOp(), locals);
+    } else if (stmt instanceof JBreakpointStmt) {
+      out.writeByte(STMT_BREAKPOINT);
+      writeStmtPositionInfo(out, stmt.getPositionInfo());
+    } else if (stmt instanceof JRetStmt) {
+      out.writeByte(STMT_RET);
+      writeStmtPositionInfo(out, stmt.getPositionInfo());
+      writeValue(out, ((JRetStmt) stmt).getStmtAddress(), locals);
+    } else {
+      throw new IllegalArgumentException("Stmt '" + stmt + "' can not be serialized.");
+    }
+  }
+
+  private void writeValue(
+      @Nonnull DataOutputStream out, @Nonnull Value value, @Nonnull Map<Local, Integer> locals)
+      throws IOException {
+    if (value instanceof Local) {
+      out.writeByte(LOCAL);
+      writeUnsigned(out, locals.get(value));
+    } else if (value instanceof Constant) {
+      writeConstant(out, (Constant) value);
+    } else if (value instanceof AbstractBinopExpr) {
+      out.writeByte(binopTag((AbstractBinopExpr) value));
+      writeValue(out, ((AbstractBinopExpr) value).getOp1(), locals);
+      writeValue(out, ((AbstractBinopExpr) value).getOp2(), locals);
+    } else if (value instanceof AbstractInvokeExpr) {
+      writeInvokeExpr(out, (AbstractInvokeExpr) value, locals);
+    } else if (value instanceof JInstanceFieldRef) {
+      out.writeByte(INSTANCE_FIELD_REF);
+      writeValue(out, ((JInstanceFieldRef) value).getBase(), locals);
+      writeUnsigned(out, poolIndex(((JInstanceFieldRef) value).getFieldSignature()));
+    } else if (value instanceof JStaticFieldRef) {
+      out.writeByte(STATIC_FIELD_REF);
+      writeUnsigned(out, poolIndex(((JStaticFieldRef) value).getFieldSignature()));
+    } else if (value instanceof JArrayRef) {
+      out.writeByte(ARRAY_REF);
+      writeValue(out, ((JArrayRef) value).getBase(), locals);
+      writeValue(out, ((JArrayRef) value).getIndex(), locals);
+    } else if (value instanceof JParameterRef) {
+      out.writeByte(PARAMETER_REF);
+      writeUnsigned(out, poolIndex(value.getType()));
+      writeUnsigned(out, ((JParameterRef) value).getIndex());
+    } else if (value instanceof JThisRef) {
+      out.writeByte(THIS_REF);
+      writeUnsigned(out, poolIndex(value.getType()));
+    } else if (value instanceof JCaughtExceptionRef) {
+      out.writeByte(CAUGHT_EXCEPTION_REF);
+      writeUnsigned(out, poolIndex(value.getType()));
+    } else if (value instanceof JCastExpr) {
+      out.writeByte(CAST_EXPR);
+      writeValue(out, ((JCastExpr) value).getOp(), locals);
+      writeUnsigned(out, poolIndex(value.getType()));
+    } else if (value instanceof JInstanceOfExpr) {
+      out.writeByte(INSTANCE_OF_EXPR);
+      writeValue(out, ((JInstanceOfExpr) value).getOp(), locals);
+      writeUnsigned(out, poolIndex(((JInstanceOfExpr) value).getCheckType()));
+    } else if (value instanceof JNewExpr) {
+      out.writeByte(NEW_EXPR);
+      writeUnsigned(out, poolIndex(value.getType()));
+    } else if (value instanceof JNewArrayExpr) {
+      out.writeByte(NEW_ARRAY_EXPR);
+      writeUnsigned(out, poolIndex(((JNewArrayExpr) value).getBaseType()));
+      writeValue(out, ((JNewArrayExpr) value).getSize(), locals);
+    } else if (value instanceof JNewMultiArrayExpr) {
+      out.writeByte(NEW_MULTI_ARRAY_EXPR);
+      writeUnsigned(out, poolIndex(((JNewMultiArrayExpr) value).getBaseType()));
+      writeValues(out, ((JNewMultiArrayExpr) value).getSizes(), locals);
+    } else if (value instanceof JLengthExpr) {
+      out.writeByte(LENGTH_EXPR);
+      writeValue(out, ((JLengthExpr) value).getOp(), locals);
+    } else if (value instanceof JNegExpr) {
+      out.writeByte(NEG_EXPR);
+      writeValue(out, ((JNegExpr) value).getOp(), locals);
+    } else {
+      throw new IllegalArgumentException("Value '" + value + "' can not be serialized.");
+    }
+  }
+
+  private void writeValues(
+      @Nonnull DataOutputStream out,
+      @Nonnull List<? extends Value> values,
+      @Nonnull Map<Local, Integer> locals)
+      throws IOException {
+    writeUnsigned(out, values.size());
+    for (Value value : values) {
+      writeValue(out, value, locals);
+    }
+  }
+
+  private void writeInvokeExpr(
+      @Nonnull DataOutputStream out,
+      @Nonnull AbstractInvokeExpr invokeExpr,
+      @Nonnull Map<Local, Integer> locals)
+      throws IOException {
+    if (invokeExpr instanceof JVirtualInvokeExpr) {
+      out.writeByte(VIRTUAL_INVOKE_EXPR);
+    } else if (invokeExpr instanceof JSpecialInvokeExpr) {
+      out.writeByte(SPECIAL_INVOKE_EXPR);
+    } else if (invokeExpr instanceof JInterfaceInvokeExpr) {
+      out.writeByte(INTERFACE_INVOKE_EXPR);
+    } else if (invokeExpr instanceof JStaticInvokeExpr) {
+      out.writeByte(STATIC_INVOKE_EXPR);
+    } else if (invokeExpr instanceof JDynamicInvokeExpr) {
+      final JDynamicInvokeExpr dynamicInvokeExpr = (JDynamicInvokeExpr) invokeExpr;
+      out.writeByte(DYNAMIC_INVOKE_EXPR);
+      writeUnsigned(out, poolIndex(dynamicInvokeExpr.getBootstrapMethodSignature()));
+      writeValues(out, dynamicInvokeExpr.getBootstrapArgs(), locals);
+      writeSigned(out, dynamicInvokeExpr.getHandleTag());
+    } else {
+      throw new IllegalArgumentException("Value '" + invokeExpr + "' can not be serialized.");
+    }
+    if (invokeExpr instanceof AbstractInstanceInvokeExpr) {
+      writeValue(out, ((AbstractInstanceInvokeExpr) invokeExpr).getBase(), locals);
+    }
+    writeUnsigned(out, poolIndex(invokeExpr.getMethodSignature()));
+    writeValues(out, invokeExpr.getArgs(), locals);
+  }
+
+  private void writeConstant(@Nonnull DataOutputStream out, @Nonnull Constant constant)
+      throws IOException {
+    if (constant instanceof IntConstant) {
+      out.writeByte(INT_CONSTANT);
+      writeSigned(out, ((IntConstant) constant).getValue());
+    } else if (constant instanceof LongConstant) {
+      out.writeByte(LONG_CONSTANT);
+      out.writeLong(((LongConstant) constant).getValue());
+    } else if (constant instanceof FloatConstant) {
+      out.writeByte(FLOAT_CONSTANT);
+      out.writeFloat(((FloatConstant) constant).getValue());
+    } else if (constant instanceof DoubleConstant) {
+      out.writeByte(DOUBLE_CONSTANT);
+      out.writeDouble(((DoubleConstant) constant).getValue());
+    } else if (constant instanceof BooleanConstant) {
+      out.writeByte(BOOLEAN_CONSTANT);
+      out.writeBoolean(constant == BooleanConstant.getTrue());
+    } else if (constant instanceof NullConstant) {
+      out.writeByte(NULL_CONSTANT);
+    } else if (constant instanceof StringConstant) {
+      out.writeByte(STRING_CONSTANT);
+      writeUnsigned(out, poolIndex(((StringConstant) constant).getValue()));
+      writeUnsigned(out, poolIndex(constant.getType()));
+    } else if (constant instanceof ClassConstant) {
+      out.writeByte(CLASS_CONSTANT);
+      writeUnsigned(out, poolIndex(((ClassConstant) constant).getValue()));
+      writeUnsigned(out, poolIndex(constant.getType()));
+    } else if (constant instanceof EnumConstant) {
+      out.writeByte(ENUM_CONSTANT);
+      writeUnsigned(out, poolIndex(((EnumConstant) constant).getValue()));
+      writeUnsigned(out, poolIndex(constant.getType()));
+    } else if (constant instanceof MethodHandle) {
+      final MethodHandle methodHandle = (MethodHandle) constant;
+      out.writeByte(METHOD_HANDLE);
+      writeSigned(out, methodHandle.getKind().getValue());
+      if (methodHandle.isMethodRef()) {
+        writeUnsigned(out, poolIndex((MethodSignature) methodHandle.getReferenceSignature()));
+      } else {
+        writeUnsigned(out, poolIndex((FieldSignature) methodHandle.getReferenceSignature()));
+      }
+      writeUnsigned(out, poolIndex(constant.getType()));
+    } else if (constant instanceof MethodType) {
+      out.writeByte(METHOD_TYPE);
+      writeUnsigned(out, poolIndex(((MethodType) constant).getSubSignature()));
+      writeUnsigned(out, poolIndex(constant.getType()));
+    } else {
+      throw new IllegalArgumentException("Constant '" + constant + "' can not be serialized.");
+    }
+  }
+
+  private static byte binopTag(@Nonnull AbstractBinopExpr expr) {
+    if (expr instanceof JAddExpr) {
+      return ADD_EXPR;
+    } else if (expr instanceof JAndExpr) {
+      return AND_EXPR;
+    } else if (expr instanceof JCmpExpr) {
+      return CMP_EXPR;
+    } else if (expr instanceof JCmpgExpr) {
+      return CMPG_EXPR;
+    } else if (expr instanceof JCmplExpr) {
+      return CMPL_EXPR;
+    } else if (expr instanceof JDivExpr) {
+      return DIV_EXPR;
+    } else if (expr instanceof JEqExpr) {
+      return EQ_EXPR;
+    } else if (expr instanceof JNeExpr) {
+      return NE_EXPR;
+    } else if (expr instanceof JGeExpr) {
+      return GE_EXPR;
+    } else if (expr instanceof JGtExpr) {
+      return GT_EXPR;
+    } else if (expr instanceof JLeExpr) {
+      return LE_EXPR;
+    } else if (expr instanceof JLtExpr) {
+      return LT_EXPR;
+    } else if (expr instanceof JMulExpr) {
+      return MUL_EXPR;
+    } else if (expr instanceof JOrExpr) {
+      return OR_EXPR;
+    } else if (expr instanceof JRemExpr) {
+      return REM_EXPR;
+    } else if (expr instanceof JShlExpr) {
+      return SHL_EXPR;
+    } else if (expr instanceof JShrExpr) {
+      return SHR_EXPR;
+    } else if (expr instanceof JUshrExpr) {
+      return USHR_EXPR;
+    } else if (expr instanceof JSubExpr) {
+      return SUB_EXPR;
+    } else if (expr instanceof JXorExpr) {
+      return XOR_EXPR;
+    }
+    throw new IllegalArgumentException("Value '" + expr + "' can not be serialized.");
+  }
+
+  private void writeStmtPositionInfo(
+      @Nonnull DataOutputStream out, @Nonnull StmtPositionInfo positionInfo) throws IOException {
+    if (positionInfo instanceof FullStmtPositionInfo) {
+      final FullStmtPositionInfo fullPositionInfo = (FullStmtPositionInfo) positionInfo;
+      out.writeByte(STMT_POSITION_FULL);
+      writePosition(out, fullPositionInfo.getStmtPosition());
+      writeUnsigned(out, fullPositionInfo.getOperandPositionCount());
+      for (int i = 0; i < fullPositionInfo.getOperandPositionCount(); i++) {
+        writePosition(out, fullPositionInfo.getOperandPosition(i));
+      }
+    } else if (positionInfo == StmtPositionInfo.createNoStmtPositionInfo()) {
+      out.writeByte(STMT_POSITION_NONE);
+    } else {
+      out.writeByte(STMT_POSITION_SIMPLE);
+      writePosition(out, positionInfo.getStmtPosition());
+    }
+  }
+
+  private void writePosition(@Nonnull DataOutputStream out, @Nonnull Position position)
+      throws IOException {
+    if (position == NoPositionInformation.getInstance()) {
+      out.writeByte(POSITION_NONE);
+    } else if (position instanceof LinePosition) {
+      out.writeByte(POSITION_LINE);
+      writeSigned(out, position.getFirstLine());
+    } else {
+      // every other position is stored as a FullPosition
+      out.writeByte(POSITION_FULL);
+      writeSigned(out, position.getFirstLine());
+      writeSigned(out, position.getFirstCol());
+      writeSigned(out, position.getLastLine());
+      writeSigned(out, position.getLastCol());
+    }
+  }
+
+  protected int poolIndex(@Nonnull String string) throws IOException {
+    final Integer index = poolIndices.get(string);
+    if (index != null) {
+      return index;
+    }
+    final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    pool.writeByte(POOL_STRING);
+    writeUnsigned(pool, bytes.length);
+    pool.write(bytes);
+    return addToPool(string);
+  }
+
+  protected int poolIndex(@Nonnull Type type) throws IOException {
+    final Integer index = poolIndices.get(type);
+    if (index != null) {
+      return index;
+    }
+    if (type instanceof PrimitiveType) {
+      final int name = poolIndex(type.toString());
+      pool.writeByte(POOL_TYPE);
+      pool.writeByte(TYPE_PRIMITIVE);
+      writeUnsigned(pool, name);
+    } else if (type instanceof ClassType) {
+      final int name = poolIndex(((ClassType) type).getFullyQualifiedName());
+      pool.writeByte(POOL_TYPE);
+      pool.writeByte(TYPE_CLASS);
+      writeUnsigned(pool, name);
+    } else if (type instanceof ArrayType) {
+      final int baseType = poolIndex(((ArrayType) type).getBaseType());
+      pool.writeByte(POOL_TYPE);
+      pool.writeByte(TYPE_ARRAY);
+      writeUnsigned(pool, baseType);
+      writeUnsigned(pool, ((ArrayType) type).getDimension());
+    } else if (type == NullType.getInstance()) {
+      pool.writeByte(POOL_TYPE);
+      pool.writeByte(TYPE_NULL);
+    } else if (type == VoidType.getInstance()) {
+      pool.writeByte(POOL_TYPE);
+      pool.writeByte(TYPE_VOID);
+    } else if (type == UnknownType.getInstance()) {
+      pool.writeByte(POOL_TYPE);
+      pool.writeByte(TYPE_UNKNOWN);
+    } else {
+      throw new IllegalArgumentException("Type '" + type + "' can not be serialized.");
+    }
+    return addToPool(type);
+  }
+
+  protected int poolIndex(@Nonnull MethodSubSignature subSignature) throws IOException {
+    final Integer index = poolIndices.get(subSignature);
+    if (index != null) {
+      return index;
+    }
+    final int name = poolIndex(subSignature.getName());
+    final int returnType = poolIndex(subSignature.getType());
+    final List<Type> parameterTypes = subSignature.getParameterTypes();
+    final int[] parameters = new int[parameterTypes.size()];
+    for (int i = 0; i < parameters.length; i++) {
+      parameters[i] = poolIndex(parameterTypes.get(i));
+    }
+    pool.writeByte(POOL_METHOD_SUB_SIGNATURE);
+    writeUnsigned(pool, name);
+    writeUnsigned(pool, returnType);
+    writeUnsigned(pool, parameters.length);
+    for (int parameter : parameters) {
+      writeUnsigned(pool, parameter);
+    }
+    return addToPool(subSignature);
+  }
+
+  protected int poolIndex(@Nonnull MethodSignature signature) throws IOException {
+    final Integer index = poolIndices.get(signature);
+    if (index != null) {
+      return index;
+    }
+    final int declClass = poolIndex(signature.getDeclClassType());
+    final int subSignature = poolIndex(signature.getSubSignature());
+    pool.writeByte(POOL_METHOD_SIGNATURE);
+    writeUnsigned(pool, declClass);
+    writeUnsigned(pool, subSignature);
+    return addToPool(signature);
+  }
+
+  protected int poolIndex(@Nonnull FieldSignature signature) throws IOException {
+    final Integer index = poolIndices.get(signature);
+    if (index != null) {
+      return index;
+    }
+    final int declClass = poolIndex(signature.getDeclClassType());
+    final int name = poolIndex(signature.getName());
+    final int type = poolIndex(signature.getType());
+    pool.writeByte(POOL_FIELD_SIGNATURE);
+    writeUnsigned(pool, declClass);
+    writeUnsigned(pool, name);
+    writeUnsigned(pool, type);
+    return addToPool(signature);
+  }
+
+  private int addToPool(@Nonnull Object entry) {
+    final int index = poolIndices.size();
+    poolIndices.put(entry, index);
+    return index;
+  }
+}
@@ -23,14 +23,19 @@ package sootup.core.views;
  */
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import javax.annotation.Nonnull;
 import sootup.core.IdentifierFactory;
+import sootup.core.cache.BodyCache;
 import sootup.core.model.SootClass;
 import sootup.core.model.SootField;
 import sootup.core.model.SootMethod;
 import sootup.core.signatures.FieldSignature;
 import sootup.core.signatures.MethodSignature;
+import sootup.core.transform.BodyInterceptorListener;
+import sootup.core.typehierarchy.ClassHeader;
 import sootup.core.typehierarchy.TypeHierarchy;
 import sootup.core.types.ClassType;
 
@@ -65,6 +70,34 @@ public interface View<T extends SootClass<?>> {
   @Nonnull
   IdentifierFactory getIdentifierFactory();
 
+  /**
+   * Returns the cache that stores the method bodies of this view. If there is no body cache, each
+   * {@link SootMethod} keeps its body once it has been resolved.
+   */
+  @Nonnull
+  default Optional<BodyCache> getBodyCache() {
+    return Optional.empty();
+  }
+
+  /**
+   * Returns the listeners that are notified whenever a {@link
+   * sootup.core.transform.BodyInterceptor} is applied to a body of this view.
+   */
+  @Nonnull
+  default List<BodyInterceptorListener> getBodyInterceptorListeners() {
+    return Collections.emptyList();
+  }
+
+  /**
+   * Returns the headers of all classes in the view if they can be read without resolving the
+   * classes, which is much cheaper when only the type hierarchy is needed. Otherwise, an empty
+   * Optional is returned and the headers have to be taken from {@link #getClasses()}.
+   */
+  @Nonnull
+  default Optional<Collection<ClassHeader>> getClassHeaders() {
+    return Optional.empty();
+  }
+
   @Nonnull
   default T getClassOrThrow(@Nonnull ClassType classType) {
     return getClass(classType)
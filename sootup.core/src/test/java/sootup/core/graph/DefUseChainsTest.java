@@ -0,0 +1,175 @@
+package sootup.core.graph;
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import java.util.*;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.core.jimple.Jimple;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.jimple.common.ref.JCaughtExceptionRef;
+import sootup.core.jimple.common.stmt.*;
+import sootup.core.signatures.PackageName;
+import sootup.core.types.ClassType;
+import sootup.core.types.PrimitiveType;
+
+@Category(Java8Test.class)
+public class DefUseChainsTest {
+
+  StmtPositionInfo noPosition = StmtPositionInfo.createNoStmtPositionInfo();
+
+  Local a = Jimple.newLocal("a", PrimitiveType.getInt());
+  Local b = Jimple.newLocal("b", PrimitiveType.getInt());
+  Local c = Jimple.newLocal("c", PrimitiveType.getInt());
+
+  FallsThroughStmt aeq0 = Jimple.newAssignStmt(a, IntConstant.getInstance(0), noPosition);
+  FallsThroughStmt beqaplus1 =
+      Jimple.newAssignStmt(b, Jimple.newAddExpr(a, IntConstant.getInstance(1)), noPosition);
+  FallsThroughStmt ceqcplusb = Jimple.newAssignStmt(c, Jimple.newAddExpr(c, b), noPosition);
+  FallsThroughStmt aeqbplus2 =
+      Jimple.newAssignStmt(a, Jimple.newAddExpr(b, IntConstant.getInstance(2)), noPosition);
+  BranchingStmt ifalt9 =
+      Jimple.newIfStmt(Jimple.newGtExpr(IntConstant.getInstance(9), a), noPosition);
+  Stmt ret = Jimple.newReturnStmt(c, noPosition);
+
+  private final ClassType throwableSig =
+      new ClassType() {
+        @Override
+        public boolean isBuiltInClass() {
+          return true;
+        }
+
+        @Override
+        public String getFullyQualifiedName() {
+          return getPackageName() + "." + getClassName();
+        }
+
+        @Override
+        public String getClassName() {
+          return "Throwable";
+        }
+
+        @Override
+        public PackageName getPackageName() {
+          return new PackageName("java.lang");
+        }
+      };
+
+  /**
+   * a = 0; label1: b = a + 1; c = c + b; a = b + 2; if 9 > a goto label1; return c;
+   *
+   * <p>c is not defined before the loop.
+   */
+  private MutableBlockStmtGraph createLoopGraph() {
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    graph.setStartingStmt(aeq0);
+    graph.putEdge(aeq0, beqaplus1);
+    graph.putEdge(beqaplus1, ceqcplusb);
+    graph.putEdge(ceqcplusb, aeqbplus2);
+    graph.putEdge(aeqbplus2, ifalt9);
+    graph.putEdge(ifalt9, JIfStmt.FALSE_BRANCH_IDX, ret);
+    graph.putEdge(ifalt9, JIfStmt.TRUE_BRANCH_IDX, beqaplus1);
+    return graph;
+  }
+
+  @Test
+  public void testLoop() {
+    DefUseChains chains = createLoopGraph().getDefUseChains();
+
+    assertEquals(
+        new HashSet<>(Arrays.asList(aeq0, aeqbplus2)),
+        new HashSet<>(chains.getDefsOfUse(beqaplus1, a)));
+    assertEquals(Collections.singletonList(aeqbplus2), chains.getDefsOfUse(ifalt9, a));
+    assertEquals(Collections.singletonList(beqaplus1), chains.getDefsOfUse(ceqcplusb, b));
+    // the definition of c reaches its own use through the loop
+    assertEquals(Collections.singletonList(ceqcplusb), chains.getDefsOfUse(ceqcplusb, c));
+    assertEquals(Collections.singletonList(ceqcplusb), chains.getDefsOfUse(ret, c));
+    assertEquals(Collections.singletonList(aeqbplus2), chains.getDefsOfUse(ret, a));
+
+    assertEquals(Collections.singletonList(beqaplus1), chains.getUsesOfDef(aeq0));
+    assertEquals(
+        new HashSet<>(Arrays.asList(beqaplus1, ifalt9)),
+        new HashSet<>(chains.getUsesOfDef(aeqbplus2)));
+    assertEquals(
+        new HashSet<>(Arrays.asList(ceqcplusb, ret)),
+        new HashSet<>(chains.getUsesOfDef(ceqcplusb)));
+    assertTrue(chains.getUsesOfDef(ret).isEmpty());
+
+    assertEquals(new HashSet<>(Arrays.asList(aeq0, aeqbplus2)), new HashSet<>(chains.getDefs(a)));
+    assertEquals(new HashSet<>(Arrays.asList(ceqcplusb, ret)), new HashSet<>(chains.getUses(c)));
+    assertTrue(chains.getDefs(Jimple.newLocal("d", PrimitiveType.getInt())).isEmpty());
+  }
+
+  /**
+   * a = 0; a = 1 (protected); b = a + 1 (protected); return b; handler: $e := @caughtexception;
+   * return a;
+   */
+  @Test
+  public void testExceptionalFlow() {
+    Local exception = Jimple.newLocal("$e", throwableSig);
+    FallsThroughStmt aeq1 = Jimple.newAssignStmt(a, IntConstant.getInstance(1), noPosition);
+    Stmt retB = Jimple.newReturnStmt(b, noPosition);
+    FallsThroughStmt caught =
+        Jimple.newIdentityStmt(exception, new JCaughtExceptionRef(throwableSig), noPosition);
+    Stmt retA = Jimple.newReturnStmt(a, noPosition);
+
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    graph.setStartingStmt(aeq0);
+    graph.addBlock(
+        Arrays.asList(aeq1, beqaplus1, retB), Collections.singletonMap(throwableSig, caught));
+    graph.putEdge(aeq0, aeq1);
+    graph.putEdge(caught, retA);
+
+    DefUseChains chains = graph.getDefUseChains();
+    assertEquals(Collections.singletonList(aeq1), chains.getDefsOfUse(beqaplus1, a));
+    // the exception may be thrown before or after a = 1
+    assertEquals(
+        new HashSet<>(Arrays.asList(aeq0, aeq1)), new HashSet<>(chains.getDefsOfUse(retA, a)));
+    // the definition of b by the last stmt that may throw does not reach the handler
+    assertEquals(Collections.singletonList(beqaplus1), chains.getDefsOfUse(retB, b));
+    assertEquals(Collections.singletonList(caught), chains.getDefs(exception));
+  }
+
+  @Test
+  public void testUpdatesOfMutableGraph() {
+    MutableBlockStmtGraph graph = createLoopGraph();
+    DefUseChains chains = graph.getDefUseChains();
+    assertSame(chains, graph.getDefUseChains());
+    assertEquals(2, chains.getDefsOfUse(beqaplus1, a).size());
+    assertEquals(Collections.singletonList(beqaplus1), chains.getUses(IntConstant.getInstance(1)));
+
+    // replacing a stmt by a stmt defining the same local keeps the reaching definitions
+    FallsThroughStmt beqa = Jimple.newAssignStmt(b, a, noPosition);
+    graph.replaceNode(beqaplus1, beqa);
+    assertEquals(
+        new HashSet<>(Arrays.asList(aeq0, aeqbplus2)), new HashSet<>(chains.getDefsOfUse(beqa, a)));
+    assertTrue(chains.getDefsOfUse(beqaplus1, a).isEmpty());
+    assertEquals(Collections.singletonList(beqa), chains.getDefsOfUse(ceqcplusb, b));
+    assertTrue(chains.getUses(IntConstant.getInstance(1)).isEmpty());
+    assertEquals(Collections.singletonList(beqa), chains.getDefs(b));
+
+    // replacing a definition of another local changes the reaching definitions
+    FallsThroughStmt ceqbplus2 =
+        Jimple.newAssignStmt(c, Jimple.newAddExpr(b, IntConstant.getInstance(2)), noPosition);
+    graph.replaceNode(aeqbplus2, ceqbplus2);
+    assertEquals(Collections.singletonList(aeq0), chains.getDefsOfUse(beqa, a));
+    assertEquals(Collections.singletonList(ceqbplus2), chains.getDefsOfUse(ret, c));
+    assertEquals(Collections.singletonList(aeq0), chains.getDefs(a));
+
+    graph.removeNode(ceqcplusb);
+    assertEquals(Collections.singletonList(ret), chains.getUses(c));
+    assertEquals(Collections.singletonList(ret), chains.getUsesOfDef(ceqbplus2));
+
+    // stmts added to the graph are part of the chains
+    Stmt retA = Jimple.newReturnStmt(a, noPosition);
+    graph.removeEdge(ifalt9, ret);
+    graph.putEdge(ifalt9, JIfStmt.FALSE_BRANCH_IDX, retA);
+    graph.removeNode(ret);
+    assertEquals(
+        new HashSet<>(Arrays.asList(beqa, ifalt9, retA)), new HashSet<>(chains.getUses(a)));
+    assertEquals(Collections.singletonList(aeq0), chains.getDefsOfUse(retA, a));
+  }
+}
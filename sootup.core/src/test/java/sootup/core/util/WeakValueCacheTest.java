@@ -0,0 +1,44 @@
+package sootup.core.util;
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(Java8Test.class)
+public class WeakValueCacheTest {
+
+  @Test
+  public void computeIfAbsent() {
+    WeakValueCache<String, StringBuilder> cache = new WeakValueCache<>();
+    StringBuilder value = cache.computeIfAbsent("a", StringBuilder::new);
+    assertEquals("a", value.toString());
+    assertSame(value, cache.computeIfAbsent("a", StringBuilder::new));
+    assertSame(value, cache.get("a"));
+    assertNull(cache.get("b"));
+    assertSame(value, cache.putIfAbsent("a", new StringBuilder("other")));
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void removeCollectedValues() throws InterruptedException {
+    WeakValueCache<Integer, Object> cache = new WeakValueCache<>();
+    for (int i = 0; i < 1000; i++) {
+      cache.putIfAbsent(i, new Object());
+    }
+    List<Object> garbage = new ArrayList<>();
+    for (int attempt = 0; attempt < 50 && cache.size() > 1; attempt++) {
+      // allocate to trigger a collection, then let the cache remove the collected entries
+      garbage.add(new byte[1 << 20]);
+      garbage.clear();
+      System.gc();
+      Thread.sleep(10);
+      cache.putIfAbsent(-1, cache);
+    }
+    assertEquals(1, cache.size());
+    assertSame(cache, cache.get(-1));
+  }
+}
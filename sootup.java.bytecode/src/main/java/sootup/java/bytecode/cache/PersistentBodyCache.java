@@ -0,0 +1,268 @@
+package sootup.java.bytecode.cache;
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sootup.core.IdentifierFactory;
+import sootup.core.cache.AbstractBodyCache;
+import sootup.core.cache.BodyCache;
+import sootup.core.frontend.BodySource;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.util.serialization.JimpleBinaryFormat;
+import sootup.core.util.serialization.JimpleBinaryReader;
+import sootup.core.util.serialization.JimpleBinaryWriter;
+import sootup.java.bytecode.frontend.AsmMethodSource;
+
+/**
+ * Body cache that stores the bodies of bytecode methods after all {@link BodyInterceptor}s have
+ * been applied in a directory, using the binary Jimple format of {@link JimpleBinaryWriter}. An
+ * entry is keyed by the content of the class file, the class names and configurations of the
+ * interceptors and the signature of the method, so it is never outdated and a changed list of
+ * interceptors just uses other entries. Bodies transformed by an interceptor which has options but
+ * does not describe them via {@link BodyInterceptor#getConfiguration()} are not persisted.
+ *
+ * <p>Entries are written to a temporary file first and moved into place afterwards, so concurrent
+ * readers (from other threads or processes) either see a complete entry or none. Bodies which are
+ * not converted from bytecode are built without being persisted. The bodies that are read or built
+ * are kept in an in-memory {@link BodyCache}, if one is given.
+ */
+public class PersistentBodyCache extends AbstractBodyCache {
+  private static final @Nonnull Logger logger = LoggerFactory.getLogger(PersistentBodyCache.class);
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+  private static final String ENTRY_EXTENSION = ".jbody";
+
+  @Nonnull private final Path directory;
+  @Nonnull private final IdentifierFactory identifierFactory;
+  @Nullable private final BodyCache memoryCache;
+
+  @Nonnull
+  private final Map<Class<? extends BodyInterceptor>, Boolean> statelessInterceptors =
+      new ConcurrentHashMap<>();
+
+  @Nonnull
+  private final Set<Class<? extends BodyInterceptor>> undescribedInterceptors =
+      ConcurrentHashMap.newKeySet();
+
+  public PersistentBodyCache(
+      @Nonnull Path directory,
+      @Nonnull IdentifierFactory identifierFactory,
+      @Nullable BodyCache memoryCache) {
+    this.directory = directory;
+    this.identifierFactory = identifierFactory;
+    this.memoryCache = memoryCache;
+  }
+
+  @Nonnull
+  @Override
+  public Body getBody(@Nonnull SootMethod method, @Nonnull Supplier<Body> bodyBuilder) {
+    if (memoryCache == null) {
+      return loadOrBuild(method, bodyBuilder);
+    }
+    return memoryCache.getBody(method, () -> loadOrBuild(method, bodyBuilder));
+  }
+
+  @Nonnull
+  private Body loadOrBuild(@Nonnull SootMethod method, @Nonnull Supplier<Body> bodyBuilder) {
+    final Optional<Path> entry = getEntry(method);
+    if (!entry.isPresent()) {
+      return bodyBuilder.get();
+    }
+    final Path file = entry.get();
+
+    boolean rebuild = false;
+    if (Files.exists(file)) {
+      try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+        final Body body = new JimpleBinaryReader(in, identifierFactory).readBody();
+        if (body.getMethodSignature().equals(method.getSignature())) {
+          recordHit();
+          return body;
+        }
+        logger.warn("Cached body in " + file + " does not belong to " + method.getSignature());
+      } catch (IOException | RuntimeException e) {
+        logger.warn("Could not read cached body of " + method.getSignature() + " from " + file, e);
+      }
+      rebuild = true;
+    }
+    recordMiss(rebuild);
+
+    final Body body = bodyBuilder.get();
+    store(file, body);
+    return body;
+  }
+
+  private void store(@Nonnull Path file, @Nonnull Body body) {
+    try {
+      final JimpleBinaryWriter writer = new JimpleBinaryWriter();
+      writer.writeBody(body);
+
+      Files.createDirectories(file.getParent());
+      final Path tempFile =
+          Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+      try {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+          writer.writeTo(out);
+        }
+        try {
+          Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        Files.deleteIfExists(tempFile);
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      logger.warn("Could not persist body of " + body.getMethodSignature() + " to " + file, e);
+    }
+  }
+
+  /** Returns the file of the entry for the given method if its body is converted from bytecode. */
+  @Nonnull
+  Optional<Path> getEntry(@Nonnull SootMethod method) {
+    final BodySource bodySource = method.getBodySource();
+    if (!(bodySource instanceof AsmMethodSource)) {
+      return Optional.empty();
+    }
+    final AsmMethodSource methodSource = (AsmMethodSource) bodySource;
+    final Optional<byte[]> classFileDigest = methodSource.getClassFileDigest();
+    if (!classFileDigest.isPresent()) {
+      return Optional.empty();
+    }
+
+    final MessageDigest digest = newMessageDigest();
+    digest.update((byte) JimpleBinaryFormat.VERSION);
+    digest.update(classFileDigest.get());
+    for (BodyInterceptor interceptor : methodSource.getBodyInterceptors()) {
+      final Optional<String> configuration = describeConfiguration(interceptor);
+      if (!configuration.isPresent()) {
+        return Optional.empty();
+      }
+      digest.update(interceptor.getClass().getName().getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+      digest.update(configuration.get().getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+    }
+    digest.update(method.getSignature().toString().getBytes(StandardCharsets.UTF_8));
+
+    final StringBuilder key = new StringBuilder();
+    for (byte b : digest.digest()) {
+      key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return Optional.of(directory.resolve(key.substring(0, 2)).resolve(key + ENTRY_EXTENSION));
+  }
+
+  /**
+   * Returns the configuration of the interceptor as described by {@link
+   * BodyInterceptor#getConfiguration()}. An interceptor without instance fields has no options and
+   * is described by an empty string. Any other interceptor that can not describe its configuration
+   * prevents the bodies it transforms from being persisted, as they could be served to a view using
+   * a differently configured instance.
+   */
+  @Nonnull
+  private Optional<String> describeConfiguration(@Nonnull BodyInterceptor interceptor) {
+    final Optional<String> configuration = interceptor.getConfiguration();
+    if (configuration.isPresent()) {
+      return configuration;
+    }
+    if (statelessInterceptors.computeIfAbsent(
+        interceptor.getClass(), PersistentBodyCache::hasNoInstanceFields)) {
+      return Optional.of("");
+    }
+    if (undescribedInterceptors.add(interceptor.getClass())) {
+      logger.warn(
+          "Bodies transformed by "
+              + interceptor.getClass().getName()
+              + " are not persisted, as it does not describe its configuration");
+    }
+    return Optional.empty();
+  }
+
+  private static boolean hasNoInstanceFields(@Nonnull Class<?> clazz) {
+    for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+      for (Field field : c.getDeclaredFields()) {
+        if (!Modifier.isStatic(field.getModifiers())) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /** Computes the digest of the content of a class file which is part of the key of its entries. */
+  @Nonnull
+  public static byte[] digest(@Nonnull byte[] classFile) {
+    return newMessageDigest().digest(classFile);
+  }
+
+  @Nonnull
+  private static MessageDigest newMessageDigest() {
+    try {
+      return MessageDigest.getInstance(DIGEST_ALGORITHM);
+    } catch (NoSuchAlgorithmException e) {
+      // every Java platform has to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Nonnull
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /** Removes the body from the in-memory cache. Its persisted entry stays valid. */
+  @Override
+  public void removeBody(@Nonnull MethodSignature methodSignature) {
+    if (memoryCache != null) {
+      memoryCache.removeBody(methodSignature);
+    }
+  }
+
+  /** Returns the number of bodies in the in-memory cache. */
+  @Override
+  public int size() {
+    return memoryCache == null ? 0 : memoryCache.size();
+  }
+}
@@ -0,0 +1,63 @@
+package sootup.java.bytecode.cache.provider;
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.nio.file.Path;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.cache.BodyCache;
+import sootup.core.cache.provider.BodyCacheProvider;
+import sootup.core.cache.provider.SoftBodyCacheProvider;
+import sootup.java.bytecode.cache.PersistentBodyCache;
+import sootup.java.core.JavaIdentifierFactory;
+
+/**
+ * Provides a new {@link PersistentBodyCache} object that stores its entries in the given directory.
+ * By default, bodies are kept in memory by a {@link sootup.core.cache.SoftBodyCache}, as evicted
+ * bodies are cheap to read again.
+ */
+public class PersistentBodyCacheProvider implements BodyCacheProvider {
+
+  @Nonnull private final Path directory;
+  @Nullable private final BodyCacheProvider memoryCacheProvider;
+
+  public PersistentBodyCacheProvider(@Nonnull Path directory) {
+    this(directory, new SoftBodyCacheProvider());
+  }
+
+  /**
+   * @param memoryCacheProvider provides the in-memory cache, or null to keep no bodies in memory
+   */
+  public PersistentBodyCacheProvider(
+      @Nonnull Path directory, @Nullable BodyCacheProvider memoryCacheProvider) {
+    this.directory = directory;
+    this.memoryCacheProvider = memoryCacheProvider;
+  }
+
+  @Override
+  public BodyCache createCache() {
+    return new PersistentBodyCache(
+        directory,
+        JavaIdentifierFactory.getInstance(),
+        memoryCacheProvider == null ? null : memoryCacheProvider.createCache());
+  }
+}
@@ -58,14 +58,29 @@ import sootup.java.core.types.JavaClassType;
 public class AsmAnnotationClassSource extends JavaAnnotationSootClassSource {
 
   @Nonnull protected final ClassNode classNode;
+  @Nonnull private final JavaIdentifierFactory identifierFactory;
 
   public AsmAnnotationClassSource(
       AnalysisInputLocation<? extends SootClass<?>> inputLocation,
       Path sourcePath,
       JavaClassType javaClassType,
       @Nonnull ClassNode classNode) {
+    this(inputLocation, sourcePath, javaClassType, classNode, JavaIdentifierFactory.getInstance());
+  }
+
+  /**
+   * @param identifierFactory creates the signatures of the methods and fields of the class, e.g.
+   *     the factory of the view the class is resolved for
+   */
+  public AsmAnnotationClassSource(
+      AnalysisInputLocation<? extends SootClass<?>> inputLocation,
+      Path sourcePath,
+      JavaClassType javaClassType,
+      @Nonnull ClassNode classNode,
+      @Nonnull JavaIdentifierFactory identifierFactory) {
     super(inputLocation, javaClassType, sourcePath);
     this.classNode = classNode;
+    this.identifierFactory = identifierFactory;
   }
 
   private static Set<JavaSootField> resolveFields(
@@ -91,13 +106,12 @@ public class AsmAnnotationClassSource extends JavaAnnotationSootClassSource {
 
   @Nonnull
   public Collection<? extends SootMethod> resolveMethods() throws ResolveException {
-    IdentifierFactory identifierFactory = JavaIdentifierFactory.getInstance();
     return resolveMethods(classNode.methods, identifierFactory, classSignature)
         .collect(Collectors.toSet());
   }
 
   private static Stream<JavaAnnotationSootMethod> resolveMethods(
-      List<MethodNode> methodNodes, IdentifierFactory signatureFactory, ClassType cs) {
+      List<MethodNode> methodNodes, JavaIdentifierFactory signatureFactory, ClassType cs) {
     return methodNodes.stream()
         .map(
             methodSource -> {
@@ -109,11 +123,12 @@ public class AsmAnnotationClassSource extends JavaAnnotationSootClassSource {
 
               String methodName = methodSource.name;
               EnumSet<MethodModifier> modifiers = AsmUtil.getMethodModifiers(methodSource.access);
-              List<Type> sigTypes = AsmUtil.toJimpleSignatureDesc(methodSource.desc);
-              Type retType = sigTypes.remove(sigTypes.size() - 1);
+              JavaIdentifierFactory.MethodDescriptor descriptor =
+                  signatureFactory.getMethodDescriptor(methodSource.desc);
 
               MethodSignature methodSignature =
-                  signatureFactory.getMethodSignature(cs, methodName, retType, sigTypes);
+                  signatureFactory.getMethodSignature(
+                      cs, methodName, descriptor.getReturnType(), descriptor.getParameterTypes());
 
               List<AnnotationNode> annotations = new ArrayList<>();
               if (methodSource.visibleAnnotations != null)
@@ -168,7 +183,6 @@ public class AsmAnnotationClassSource extends JavaAnnotationSootClassSource {
   @Override
   @Nonnull
   public Collection<? extends SootField> resolveFields() throws ResolveException {
-    IdentifierFactory identifierFactory = JavaIdentifierFactory.getInstance();
     return resolveFields(classNode.fields, identifierFactory, classSignature);
   }
 
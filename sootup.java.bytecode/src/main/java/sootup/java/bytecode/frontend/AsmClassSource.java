@@ -44,14 +44,29 @@ import sootup.java.core.types.JavaClassType;
 class AsmClassSource extends JavaSootClassSource {
 
   @Nonnull private final ClassNode classNode;
+  @Nonnull private final JavaIdentifierFactory identifierFactory;
 
   public AsmClassSource(
       AnalysisInputLocation<? extends SootClass<?>> inputLocation,
       Path sourcePath,
       JavaClassType javaClassType,
       @Nonnull ClassNode classNode) {
+    this(inputLocation, sourcePath, javaClassType, classNode, JavaIdentifierFactory.getInstance());
+  }
+
+  /**
+   * @param identifierFactory creates the signatures of the methods and fields of the class, e.g.
+   *     the factory of the view the class is resolved for
+   */
+  public AsmClassSource(
+      AnalysisInputLocation<? extends SootClass<?>> inputLocation,
+      Path sourcePath,
+      JavaClassType javaClassType,
+      @Nonnull ClassNode classNode,
+      @Nonnull JavaIdentifierFactory identifierFactory) {
     super(inputLocation, javaClassType, sourcePath);
     this.classNode = classNode;
+    this.identifierFactory = identifierFactory;
   }
 
   private static Set<JavaSootField> resolveFields(
@@ -109,7 +124,6 @@ class AsmClassSource extends JavaSootClassSource {
 
   @Nonnull
   public Collection<? extends SootMethod> resolveMethods() throws ResolveException {
-    IdentifierFactory identifierFactory = JavaIdentifierFactory.getInstance();
     return classNode.methods.stream()
         .map(
             methodSource -> {
@@ -121,12 +135,15 @@ class AsmClassSource extends JavaSootClassSource {
 
               String methodName = methodSource.name;
               EnumSet<MethodModifier> modifiers = AsmUtil.getMethodModifiers(methodSource.access);
-              List<Type> sigTypes = AsmUtil.toJimpleSignatureDesc(methodSource.desc);
-              Type retType = sigTypes.remove(sigTypes.size() - 1);
+              JavaIdentifierFactory.MethodDescriptor descriptor =
+                  identifierFactory.getMethodDescriptor(methodSource.desc);
 
               MethodSignature methodSignature =
                   identifierFactory.getMethodSignature(
-                      classSignature, methodName, retType, sigTypes);
+                      classSignature,
+                      methodName,
+                      descriptor.getReturnType(),
+                      descriptor.getParameterTypes());
 
               List<AnnotationNode> annotations = new ArrayList<>();
               if (methodSource.visibleAnnotations != null)
@@ -149,7 +166,6 @@ class AsmClassSource extends JavaSootClassSource {
   @Override
   @Nonnull
   public Collection<? extends SootField> resolveFields() throws ResolveException {
-    IdentifierFactory identifierFactory = JavaIdentifierFactory.getInstance();
     return resolveFields(classNode.fields, identifierFactory, classSignature);
   }
 
@@ -21,13 +21,16 @@ package sootup.java.bytecode.frontend;
  * #L%
  */
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Optional;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.tree.ClassNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import sootup.core.IdentifierFactory;
 import sootup.core.frontend.ClassProvider;
 import sootup.core.frontend.SootClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
@@ -35,11 +38,14 @@ import sootup.core.inputlocation.FileType;
 import sootup.core.model.SootClass;
 import sootup.core.types.ClassType;
 import sootup.core.views.View;
+import sootup.java.bytecode.cache.PersistentBodyCache;
+import sootup.java.core.JavaIdentifierFactory;
 import sootup.java.core.JavaModuleIdentifierFactory;
 import sootup.java.core.JavaSootClass;
 import sootup.java.core.types.AnnotationType;
 import sootup.java.core.types.JavaClassType;
 import sootup.java.core.types.ModuleJavaClassType;
+import sootup.java.core.views.JavaView;
 
 /** A {@link ClassProvider} capable of handling Java bytecode */
 public class AsmJavaClassProvider implements ClassProvider<JavaSootClass> {
@@ -47,8 +53,29 @@ public class AsmJavaClassProvider implements ClassProvider<JavaSootClass> {
   @Nonnull private final View<?> view;
   private static final @Nonnull Logger logger = LoggerFactory.getLogger(AsmJavaClassProvider.class);
 
+  /**
+   * Whether the code of methods is skipped when a class is read and read again from the class file
+   * whenever a body is resolved. Then classes whose bodies are not needed, e.g. to build the type
+   * hierarchy, only keep their class file instead of the instructions of all their methods.
+   */
+  private final boolean readCodeOnDemand;
+
+  /**
+   * Creates a class provider that reads the code of methods together with their class, unless the
+   * view is a {@link JavaView} which has opted in via {@link
+   * JavaView#setReadCodeOnDemand(boolean)}.
+   */
   public AsmJavaClassProvider(@Nonnull View<?> view) {
+    this(view, view instanceof JavaView && ((JavaView) view).isReadCodeOnDemand());
+  }
+
+  /**
+   * @param readCodeOnDemand whether the code of methods is read when their body is resolved instead
+   *     of together with their class
+   */
+  public AsmJavaClassProvider(@Nonnull View<?> view, boolean readCodeOnDemand) {
     this.view = view;
+    this.readCodeOnDemand = readCodeOnDemand;
   }
 
   @Override
@@ -56,21 +83,76 @@ public class AsmJavaClassProvider implements ClassProvider<JavaSootClass> {
       AnalysisInputLocation<? extends SootClass<?>> analysisInputLocation,
       Path sourcePath,
       ClassType classType) {
-    SootClassNode classNode = new SootClassNode(analysisInputLocation);
+    if (readCodeOnDemand || isBodyCachePersistent()) {
+      final byte[] classFile;
+      try {
+        classFile = Files.readAllBytes(sourcePath);
+      } catch (IOException exception) {
+        logUnresolvableClass(classType, sourcePath, exception);
+        return Optional.empty();
+      }
+      return createClassSource(analysisInputLocation, sourcePath, classType, classFile);
+    }
 
+    SootClassNode classNode = new SootClassNode(analysisInputLocation);
     try {
       AsmUtil.initAsmClassSource(sourcePath, classNode);
     } catch (IOException | IllegalArgumentException exception) {
-      logger.warn(
-          "ASM could not resolve class source of "
-              + classType
-              + " in "
-              + sourcePath
-              + " causing "
-              + exception.getMessage());
+      logUnresolvableClass(classType, sourcePath, exception);
       return Optional.empty();
     }
+    return createClassSource(analysisInputLocation, sourcePath, classType, classNode);
+  }
+
+  /**
+   * Creates the class source from the content of a class file that has already been read, e.g. from
+   * an archive.
+   *
+   * @param sourcePath the path the class file is reported to be read from
+   */
+  public Optional<SootClassSource<JavaSootClass>> createClassSource(
+      AnalysisInputLocation<? extends SootClass<?>> analysisInputLocation,
+      Path sourcePath,
+      ClassType classType,
+      byte[] classFile) {
+    SootClassNode classNode = new SootClassNode(analysisInputLocation);
+    if (isBodyCachePersistent()) {
+      // persisted bodies are keyed by the content of the class file
+      classNode.classFileDigest = PersistentBodyCache.digest(classFile);
+    }
+    if (readCodeOnDemand) {
+      classNode.classFile = classFile;
+    }
 
+    try {
+      AsmUtil.initAsmClassSource(classFile, classNode, readCodeOnDemand);
+    } catch (IllegalArgumentException exception) {
+      logUnresolvableClass(classType, sourcePath, exception);
+      return Optional.empty();
+    }
+    return createClassSource(analysisInputLocation, sourcePath, classType, classNode);
+  }
+
+  private boolean isBodyCachePersistent() {
+    return view.getBodyCache().filter(PersistentBodyCache.class::isInstance).isPresent();
+  }
+
+  private static void logUnresolvableClass(
+      ClassType classType, Path sourcePath, Exception exception) {
+    logger.warn(
+        "ASM could not resolve class source of "
+            + classType
+            + " in "
+            + sourcePath
+            + " causing "
+            + exception.getMessage());
+  }
+
+  private Optional<SootClassSource<JavaSootClass>> createClassSource(
+      AnalysisInputLocation<? extends SootClass<?>> analysisInputLocation,
+      Path sourcePath,
+      ClassType classType,
+      SootClassNode classNode) {
     JavaClassType klassType = (JavaClassType) classType;
     if (klassType instanceof ModuleJavaClassType
         && klassType.getClassName().equals(JavaModuleIdentifierFactory.MODULE_INFO_FILE)) {
@@ -79,14 +161,27 @@ public class AsmJavaClassProvider implements ClassProvider<JavaSootClass> {
     } else {
       if (klassType instanceof AnnotationType) {
         return Optional.of(
-            new AsmAnnotationClassSource(analysisInputLocation, sourcePath, klassType, classNode));
+            new AsmAnnotationClassSource(
+                analysisInputLocation, sourcePath, klassType, classNode, getIdentifierFactory()));
       }
 
       return Optional.of(
-          new AsmClassSource(analysisInputLocation, sourcePath, klassType, classNode));
+          new AsmClassSource(
+              analysisInputLocation, sourcePath, klassType, classNode, getIdentifierFactory()));
     }
   }
 
+  /**
+   * Returns the factory of the view, so that the declared signatures are created like the others.
+   */
+  @Nonnull
+  private JavaIdentifierFactory getIdentifierFactory() {
+    IdentifierFactory identifierFactory = view.getIdentifierFactory();
+    return identifierFactory instanceof JavaIdentifierFactory
+        ? (JavaIdentifierFactory) identifierFactory
+        : JavaIdentifierFactory.getInstance();
+  }
+
   @Override
   @Nonnull
   public FileType getHandledFileType() {
@@ -96,6 +191,8 @@ public class AsmJavaClassProvider implements ClassProvider<JavaSootClass> {
   class SootClassNode extends ClassNode {
 
     private final AnalysisInputLocation<? extends SootClass<?>> analysisInputLocation;
+    @Nullable private byte[] classFileDigest;
+    @Nullable private byte[] classFile;
 
     SootClassNode(AnalysisInputLocation<? extends SootClass<?>> analysisInputLocation) {
       super(AsmUtil.SUPPORTED_ASM_OPCODE);
@@ -120,6 +217,8 @@ public class AsmJavaClassProvider implements ClassProvider<JavaSootClass> {
               exceptions,
               view,
               analysisInputLocation.getBodyInterceptors());
+      mn.setClassFileDigest(classFileDigest);
+      mn.setClassFile(classFile);
       methods.add(mn);
       return mn;
     }
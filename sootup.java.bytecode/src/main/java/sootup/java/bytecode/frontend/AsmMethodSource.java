@@ -35,9 +35,13 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.Handle;
+import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.commons.JSRInlinerAdapter;
 import org.objectweb.asm.tree.*;
+import sootup.core.cache.BodyCache;
 import sootup.core.frontend.BodySource;
 import sootup.core.graph.MutableBlockStmtGraph;
 import sootup.core.jimple.Jimple;
@@ -54,8 +58,10 @@ import sootup.core.model.Position;
 import sootup.core.signatures.FieldSignature;
 import sootup.core.signatures.MethodSignature;
 import sootup.core.transform.BodyInterceptor;
+import sootup.core.transform.BodyInterceptorListener;
 import sootup.core.types.*;
 import sootup.core.views.View;
+import sootup.java.bytecode.cache.PersistentBodyCache;
 import sootup.java.core.JavaIdentifierFactory;
 import sootup.java.core.jimple.basic.JavaLocal;
 import sootup.java.core.language.JavaJimple;
@@ -107,6 +113,13 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
 
   private final JavaIdentifierFactory identifierFactory;
   private final Supplier<MethodSignature> lazyMethodSignature;
+  @Nullable private byte[] classFileDigest;
+
+  /**
+   * the class file the code of this method is read from whenever its body is resolved, or null if
+   * the code has been read together with the class and is kept in this node
+   */
+  @Nullable private byte[] classFile;
 
   AsmMethodSource(
       int access,
@@ -124,10 +137,11 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
     lazyMethodSignature =
         Suppliers.memoize(
             () -> {
-              List<Type> sigTypes = AsmUtil.toJimpleSignatureDesc(desc);
-              Type retType = sigTypes.remove(sigTypes.size() - 1);
+              JavaIdentifierFactory.MethodDescriptor descriptor =
+                  identifierFactory.getMethodDescriptor(desc);
 
-              return identifierFactory.getMethodSignature(declaringClass, name, retType, sigTypes);
+              return identifierFactory.getMethodSignature(
+                  declaringClass, name, descriptor.getReturnType(), descriptor.getParameterTypes());
             });
   }
 
@@ -141,17 +155,49 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
     this.declaringClass = (JavaClassType) declaringClass;
   }
 
+  void setClassFileDigest(@Nullable byte[] classFileDigest) {
+    this.classFileDigest = classFileDigest;
+  }
+
+  void setClassFile(@Nullable byte[] classFile) {
+    this.classFile = classFile;
+  }
+
+  /**
+   * Returns the digest of the class file this method has been read from. It is only computed if the
+   * {@link View} stores its bodies in a {@link PersistentBodyCache}.
+   */
+  @Nonnull
+  public Optional<byte[]> getClassFileDigest() {
+    return Optional.ofNullable(classFileDigest);
+  }
+
+  /** Returns the interceptors that are applied to the body after it has been converted. */
+  @Nonnull
+  public List<BodyInterceptor> getBodyInterceptors() {
+    return bodyInterceptors;
+  }
+
   StmtPositionInfo getStmtPositionInfo() {
     return currentLineNumber > 0
         ? new SimpleStmtPositionInfo(currentLineNumber)
         : StmtPositionInfo.createNoStmtPositionInfo();
   }
 
+  /**
+   * Converts the bytecode of this method into a {@link Body}. Synchronized, as the conversion state
+   * is kept in fields and a {@link BodyCache} may request the body of this method again from
+   * another thread after it has been evicted.
+   */
   @Override
   @Nonnull
-  public Body resolveBody(@Nonnull Iterable<MethodModifier> modifierIt) {
+  public synchronized Body resolveBody(@Nonnull Iterable<MethodModifier> modifierIt) {
 
     /* initialize */
+    if (classFile != null) {
+      readCode(classFile);
+    }
+    resetConversionState();
     nextLocal = maxLocals;
     locals =
         new NonIndexOutofBoundsArrayList<>(
@@ -218,20 +264,104 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
     stmtsThatBranchToLabel = null;
     insnToStmt = null;
     operandStack = null;
+    trapHandler = null;
+    if (classFile != null) {
+      // the code is read again if the body is resolved again, e.g. after it has been evicted
+      instructions = new InsnList();
+      tryCatchBlocks = new ArrayList<>();
+      localVariables = null;
+    }
 
     bodyBuilder.setMethodSignature(lazyMethodSignature.get());
 
+    final List<BodyInterceptorListener> listeners = view.getBodyInterceptorListeners();
     for (BodyInterceptor bodyInterceptor : bodyInterceptors) {
-      try {
-        bodyInterceptor.interceptBody(bodyBuilder, view);
-      } catch (Exception e) {
-        throw new IllegalStateException(
-            "Failed to apply " + bodyInterceptor + " to " + lazyMethodSignature.get(), e);
+      if (listeners.isEmpty()) {
+        interceptBody(bodyInterceptor, bodyBuilder);
+      } else {
+        interceptBody(bodyInterceptor, bodyBuilder, listeners);
       }
     }
     return bodyBuilder.build();
   }
 
+  private void interceptBody(
+      @Nonnull BodyInterceptor bodyInterceptor, @Nonnull Body.BodyBuilder bodyBuilder) {
+    try {
+      bodyInterceptor.interceptBody(bodyBuilder, view);
+    } catch (Exception e) {
+      throw new IllegalStateException(
+          "Failed to apply " + bodyInterceptor + " to " + lazyMethodSignature.get(), e);
+    }
+  }
+
+  /** Applies the interceptor and notifies the listeners before and after, also if it fails. */
+  private void interceptBody(
+      @Nonnull BodyInterceptor bodyInterceptor,
+      @Nonnull Body.BodyBuilder bodyBuilder,
+      @Nonnull List<BodyInterceptorListener> listeners) {
+    for (BodyInterceptorListener listener : listeners) {
+      listener.beforeInterceptBody(bodyInterceptor, bodyBuilder);
+    }
+    Throwable failure = null;
+    final long start = System.nanoTime();
+    try {
+      interceptBody(bodyInterceptor, bodyBuilder);
+    } catch (RuntimeException | Error e) {
+      failure = e;
+      throw e;
+    } finally {
+      final long elapsedTime = System.nanoTime() - start;
+      for (BodyInterceptorListener listener : listeners) {
+        listener.afterInterceptBody(bodyInterceptor, bodyBuilder, elapsedTime, failure);
+      }
+    }
+  }
+
+  /**
+   * Clears the state a previous conversion has left behind. A {@link BodyCache} resolves the body
+   * of this method again after it has been evicted, and the second conversion has to start from the
+   * same state as the first one.
+   */
+  private void resetConversionState() {
+    replacedStmt.clear();
+    inlineExceptionLabels.clear();
+    inlineExceptionHandlers.clear();
+    labelsToStmt.clear();
+    currentLineNumber = -1;
+    maxLineNumber = 0;
+  }
+
+  /** Reads the code of this method from the class file it has been skipped in before. */
+  private void readCode(@Nonnull byte[] classFile) {
+    final MethodNode code = new JSRInlinerAdapter(null, access, name, desc, signature, null);
+    new ClassReader(classFile)
+        .accept(
+            new ClassVisitor(AsmUtil.SUPPORTED_ASM_OPCODE) {
+              @Override
+              public MethodVisitor visitMethod(
+                  int access,
+                  String methodName,
+                  String descriptor,
+                  String signature,
+                  String[] exceptions) {
+                return methodName.equals(name) && descriptor.equals(desc) ? code : null;
+              }
+            },
+            ClassReader.SKIP_FRAMES);
+    instructions = code.instructions;
+    tryCatchBlocks = code.tryCatchBlocks;
+    localVariables = code.localVariables;
+    maxLocals = code.maxLocals;
+    maxStack = code.maxStack;
+  }
+
+  @Nullable
+  @Override
+  public BodyCache getBodyCache() {
+    return view.getBodyCache().orElse(null);
+  }
+
   @Override
   public Object resolveAnnotationsDefaultValue() {
     return resolveAnnotationsInDefaultValue(this.annotationDefault);
@@ -904,10 +1034,11 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
     } else if (val instanceof org.objectweb.asm.Type) {
       org.objectweb.asm.Type t = (org.objectweb.asm.Type) val;
       if (t.getSort() == org.objectweb.asm.Type.METHOD) {
-        List<Type> paramTypes =
-            AsmUtil.toJimpleSignatureDesc(((org.objectweb.asm.Type) val).getDescriptor());
-        Type returnType = paramTypes.remove(paramTypes.size() - 1);
-        v = JavaJimple.getInstance().newMethodType(paramTypes, returnType);
+        JavaIdentifierFactory.MethodDescriptor descriptor =
+            identifierFactory.getMethodDescriptor(t.getDescriptor());
+        v =
+            JavaJimple.getInstance()
+                .newMethodType(descriptor.getParameterTypes(), descriptor.getReturnType());
       } else {
         v =
             JavaJimple.getInstance()
@@ -956,10 +1087,10 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
   private MethodSignature toMethodSignature(Handle methodHandle) {
     String bsmClsName = AsmUtil.toQualifiedName(methodHandle.getOwner());
     JavaClassType bsmCls = identifierFactory.getClassType(bsmClsName);
-    List<Type> bsmSigTypes = AsmUtil.toJimpleSignatureDesc(methodHandle.getDesc());
-    Type returnType = bsmSigTypes.remove(bsmSigTypes.size() - 1);
-    return JavaIdentifierFactory.getInstance()
-        .getMethodSignature(bsmCls, methodHandle.getName(), returnType, bsmSigTypes);
+    JavaIdentifierFactory.MethodDescriptor descriptor =
+        identifierFactory.getMethodDescriptor(methodHandle.getDesc());
+    return identifierFactory.getMethodSignature(
+        bsmCls, methodHandle.getName(), descriptor.getReturnType(), descriptor.getParameterTypes());
   }
 
   private void convertLookupSwitchInsn(@Nonnull LookupSwitchInsnNode insn) {
@@ -994,8 +1125,10 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
       clsName = "java.lang.Object";
     }
     JavaClassType cls = identifierFactory.getClassType(AsmUtil.toQualifiedName(clsName));
-    List<Type> sigTypes = AsmUtil.toJimpleSignatureDesc(insn.desc);
-    Type returnType = sigTypes.remove((sigTypes.size() - 1));
+    JavaIdentifierFactory.MethodDescriptor descriptor =
+        identifierFactory.getMethodDescriptor(insn.desc);
+    List<Type> sigTypes = descriptor.getParameterTypes();
+    Type returnType = descriptor.getReturnType();
     MethodSignature methodSignature =
         identifierFactory.getMethodSignature(cls, insn.name, returnType, sigTypes);
     int nrArgs = sigTypes.size();
@@ -1074,30 +1207,28 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
         identifierFactory.getClassType(JDynamicInvokeExpr.INVOKEDYNAMIC_DUMMY_CLASS_NAME);
 
     // Generate parameters & returnType & parameterTypes
-    List<Type> types = AsmUtil.toJimpleSignatureDesc(insn.desc);
-    int nrArgs = types.size() - 1;
-    Type[] parameterTypes = new Type[nrArgs];
+    JavaIdentifierFactory.MethodDescriptor descriptor =
+        identifierFactory.getMethodDescriptor(insn.desc);
+    List<Type> parameterTypes = descriptor.getParameterTypes();
+    int nrArgs = parameterTypes.size();
     Immediate[] methodArgs = new Immediate[nrArgs];
 
     Operand[] args = new Operand[nrArgs];
     // Beware: Call stack is FIFO, Jimple is linear
 
     for (int i = nrArgs - 1; i >= 0; i--) {
-      parameterTypes[i] = types.get(i);
-
-      args[i] = operandStack.pop(types.get(i));
+      args[i] = operandStack.pop(parameterTypes.get(i));
     }
     merging.mergeInputs(args);
     for (int i = nrArgs - 1; i >= 0; i--) {
       methodArgs[i] = args[i].toImmediate();
     }
-    Type returnType = types.get(types.size() - 1);
+    Type returnType = descriptor.getReturnType();
 
     // we always model invokeDynamic method refs as static method references
     // of methods on the type SootClass.INVOKEDYNAMIC_DUMMY_CLASS_NAME
     MethodSignature methodSig =
-        identifierFactory.getMethodSignature(
-            bclass, insn.name, returnType, Arrays.asList(parameterTypes));
+        identifierFactory.getMethodSignature(bclass, insn.name, returnType, parameterTypes);
 
     JDynamicInvokeExpr indy =
         Jimple.newDynamicInvokeExpr(
@@ -45,6 +45,8 @@ import sootup.core.jimple.common.constant.ClassConstant;
 import sootup.core.model.ClassModifier;
 import sootup.core.model.FieldModifier;
 import sootup.core.model.MethodModifier;
+import sootup.core.typehierarchy.ClassHeader;
+import sootup.core.types.ClassType;
 import sootup.core.types.PrimitiveType;
 import sootup.core.types.Type;
 import sootup.core.types.VoidType;
@@ -77,6 +79,50 @@ public final class AsmUtil {
     }
   }
 
+  /**
+   * Initializes a class node from the already read content of a class file.
+   *
+   * @param classFile The content of the class file.
+   * @param classNode The node to initialize
+   */
+  protected static void initAsmClassSource(
+      @Nonnull byte[] classFile, @Nonnull ClassVisitor classNode) {
+    initAsmClassSource(classFile, classNode, false);
+  }
+
+  /**
+   * Initializes a class node from the already read content of a class file.
+   *
+   * @param classFile The content of the class file.
+   * @param classNode The node to initialize
+   * @param skipCode whether the code of the methods is skipped, e.g. to be read on demand
+   */
+  protected static void initAsmClassSource(
+      @Nonnull byte[] classFile, @Nonnull ClassVisitor classNode, boolean skipCode) {
+    ClassReader clsr = new ClassReader(classFile);
+
+    clsr.accept(classNode, skipCode ? ClassReader.SKIP_CODE : ClassReader.SKIP_FRAMES);
+  }
+
+  /**
+   * Reads the header of a class file without visiting its fields and methods. Only the access flags
+   * and the constant pool entries of the superclass and the interfaces are read.
+   *
+   * @param classFile The content of the class file.
+   * @param classType The type of the class.
+   */
+  @Nonnull
+  public static ClassHeader readClassHeader(
+      @Nonnull byte[] classFile, @Nonnull ClassType classType) {
+    ClassReader clsr = new ClassReader(classFile);
+    String superName = clsr.getSuperName();
+    return new ClassHeader(
+        classType,
+        (clsr.getAccess() & Opcodes.ACC_INTERFACE) != 0,
+        superName == null ? null : toJimpleClassType(superName),
+        asmIdToSignature(Arrays.asList(clsr.getInterfaces())));
+  }
+
   /**
    * Determines if a type is a dword type.
    *
@@ -26,26 +26,49 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import java.io.IOException;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sootup.core.IdentifierFactory;
 import sootup.core.frontend.AbstractClassSource;
 import sootup.core.model.SourceType;
 import sootup.core.transform.BodyInterceptor;
+import sootup.core.typehierarchy.ClassHeader;
 import sootup.core.types.ClassType;
 import sootup.core.views.View;
 import sootup.java.bytecode.frontend.AsmJavaClassProvider;
+import sootup.java.bytecode.frontend.AsmUtil;
+import sootup.java.core.JavaModuleIdentifierFactory;
 import sootup.java.core.JavaSootClass;
 import sootup.java.core.types.JavaClassType;
 
+/**
+ * An {@link sootup.core.inputlocation.AnalysisInputLocation} that reads the classes of a jar or zip
+ * archive. The archive is memory mapped once and class files are looked up in an index of its
+ * central directory. If the archive can not be mapped, it is read through a zip {@link FileSystem}
+ * instead, and so are single entries which the mapped archive can not read. Entries which can not
+ * be read at all are skipped like class files which can not be parsed.
+ *
+ * <p>There is no way to unmap a buffer explicitly, so the mapping lives as long as this input
+ * location references it and is released when both have been garbage collected.
+ */
 public class ArchiveBasedAnalysisInputLocation extends PathBasedAnalysisInputLocation {
 
+  private static final Logger logger =
+      LoggerFactory.getLogger(ArchiveBasedAnalysisInputLocation.class);
+
   // We cache the FileSystem instances as their creation is expensive.
   // The Guava Cache is thread-safe (see JavaDoc of LoadingCache) hence this
   // cache can be safely shared in a static variable.
@@ -72,6 +95,12 @@ public class ArchiveBasedAnalysisInputLocation extends PathBasedAnalysisInputLoc
                     }
                   }));
 
+  /** null until the archive is mapped for the first time, then kept as long as this location */
+  @Nullable private volatile MappedZipArchive mappedArchive;
+
+  /** set if the archive could not be mapped and the zip file system has to be used */
+  private volatile boolean mappingFailed;
+
   public ArchiveBasedAnalysisInputLocation(@Nonnull Path path, @Nullable SourceType srcType) {
     this(path, srcType, Collections.emptyList());
   }
@@ -83,10 +112,142 @@ public class ArchiveBasedAnalysisInputLocation extends PathBasedAnalysisInputLoc
     super(path, srcType, bodyInterceptors);
   }
 
+  /** Returns the mapped archive or null if it can not be mapped. */
+  @Nullable
+  private MappedZipArchive getMappedArchive() {
+    MappedZipArchive archive = mappedArchive;
+    if (archive != null || mappingFailed) {
+      return archive;
+    }
+    synchronized (this) {
+      if (mappedArchive == null && !mappingFailed) {
+        try {
+          mappedArchive = MappedZipArchive.open(path);
+        } catch (IOException e) {
+          logger.debug("Could not map " + path + ", falling back to the zip file system", e);
+          mappingFailed = true;
+        }
+      }
+      return mappedArchive;
+    }
+  }
+
+  @Nonnull
+  private Optional<? extends AbstractClassSource<JavaSootClass>> createClassSource(
+      @Nonnull MappedZipArchive archive,
+      @Nonnull String entryName,
+      @Nonnull ClassType type,
+      @Nonnull AsmJavaClassProvider classProvider) {
+    final byte[] classFile;
+    try {
+      classFile = readEntry(archive, entryName);
+    } catch (IOException e) {
+      logger.warn("Could not read " + entryName + " from " + path + " causing " + e.getMessage());
+      return Optional.empty();
+    }
+    if (classFile == null) {
+      return Optional.empty();
+    }
+    return classProvider.createClassSource(this, path.resolve(entryName), type, classFile);
+  }
+
+  /**
+   * Returns the content of the entry, or null if there is no such entry. Entries which the mapped
+   * archive can not read, e.g. encrypted ones or ones with another compression method than stored
+   * and deflated, are read through the zip file system instead.
+   *
+   * @throws IOException if neither can read the entry
+   */
+  @Nullable
+  private byte[] readEntry(@Nonnull MappedZipArchive archive, @Nonnull String entryName)
+      throws IOException {
+    try {
+      return archive.getEntry(entryName);
+    } catch (IOException mappedException) {
+      logger.debug(
+          "Could not read " + entryName + " from the mapped archive " + path, mappedException);
+      try {
+        return Files.readAllBytes(fileSystemCache.get(path).getPath("/").resolve(entryName));
+      } catch (IOException | ExecutionException | UncheckedExecutionException | ExecutionError e) {
+        // the zip file system can not be opened at all if it does not support one of the entries
+        mappedException.addSuppressed(e);
+        throw mappedException;
+      }
+    }
+  }
+
+  @Override
+  @Nullable
+  Collection<String> listClassNames() {
+    final MappedZipArchive archive = getMappedArchive();
+    if (archive == null) {
+      return null;
+    }
+    return getClassEntryNames(archive).stream()
+        .map(ArchiveBasedAnalysisInputLocation::toClassName)
+        .collect(Collectors.toList());
+  }
+
+  /** Reads the headers of all classes of the archive in parallel. */
+  @Override
+  @Nonnull
+  public Optional<Collection<ClassHeader>> getClassHeaders(@Nonnull View<?> view) {
+    final MappedZipArchive archive = getMappedArchive();
+    if (archive == null) {
+      return Optional.empty();
+    }
+    final IdentifierFactory factory = view.getIdentifierFactory();
+    return Optional.of(
+        getClassEntryNames(archive)
+            .parallelStream()
+            .map(
+                entryName -> {
+                  final ClassType type = factory.getClassType(toClassName(entryName));
+                  try {
+                    return AsmUtil.readClassHeader(readEntry(archive, entryName), type);
+                  } catch (IOException | IllegalArgumentException e) {
+                    logger.warn(
+                        "Could not read the header of "
+                            + type
+                            + " in "
+                            + path
+                            + " causing "
+                            + e.getMessage());
+                    return null;
+                  }
+                })
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList()));
+  }
+
+  /** Returns the names of all entries of the archive that are class files of classes. */
+  @Nonnull
+  private static List<String> getClassEntryNames(@Nonnull MappedZipArchive archive) {
+    final String moduleInfoFilename = JavaModuleIdentifierFactory.MODULE_INFO_FILE + ".class";
+    final List<String> entryNames = new ArrayList<>();
+    for (String entryName : archive.getEntryNames()) {
+      if (entryName.endsWith(".class") && !entryName.endsWith(moduleInfoFilename)) {
+        entryNames.add(entryName);
+      }
+    }
+    return entryNames;
+  }
+
+  @Nonnull
+  private static String toClassName(@Nonnull String entryName) {
+    return entryName.substring(0, entryName.length() - ".class".length()).replace('/', '.');
+  }
+
   @Override
   @Nonnull
   public Optional<? extends AbstractClassSource<JavaSootClass>> getClassSource(
       @Nonnull ClassType type, @Nonnull View<?> view) {
+    final MappedZipArchive archive = getMappedArchive();
+    if (archive != null) {
+      final String entryName =
+          ((JavaClassType) type).getFullyQualifiedName().replace('.', '/') + ".class";
+      return createClassSource(archive, entryName, type, new AsmJavaClassProvider(view));
+    }
     try {
       FileSystem fs = fileSystemCache.get(path);
       final Path archiveRoot = fs.getPath("/");
@@ -101,6 +262,18 @@ public class ArchiveBasedAnalysisInputLocation extends PathBasedAnalysisInputLoc
   @Nonnull
   public Collection<? extends AbstractClassSource<JavaSootClass>> getClassSources(
       @Nonnull View<?> view) {
+    final MappedZipArchive archive = getMappedArchive();
+    if (archive != null) {
+      final IdentifierFactory factory = view.getIdentifierFactory();
+      final AsmJavaClassProvider classProvider = new AsmJavaClassProvider(view);
+      final List<AbstractClassSource<JavaSootClass>> classSources = new ArrayList<>();
+      for (String entryName : getClassEntryNames(archive)) {
+        createClassSource(
+                archive, entryName, factory.getClassType(toClassName(entryName)), classProvider)
+            .ifPresent(classSources::add);
+      }
+      return classSources;
+    }
     // we don't use the filesystem cache here as it could close the filesystem after the timeout
     // while we are still iterating
     try (FileSystem fs = FileSystems.newFileSystem(path, (ClassLoader) null)) {
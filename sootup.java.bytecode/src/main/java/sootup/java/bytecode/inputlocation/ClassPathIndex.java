@@ -0,0 +1,254 @@
+package sootup.java.bytecode.inputlocation;
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.java.core.JavaSootClass;
+
+/**
+ * An index from the fully qualified names of the classes on a class path to the first entry of the
+ * class path that contains them. Only entries that can list their classes cheaply (archives and
+ * directories) are indexed, all other entries have to be probed for each class.
+ *
+ * <p>The class names of archives can be persisted in an index file. An archive whose size or
+ * modification time has changed since is listed again, while directories are always walked.
+ */
+final class ClassPathIndex {
+
+  private static final @Nonnull Logger logger = LoggerFactory.getLogger(ClassPathIndex.class);
+
+  private static final int MAGIC = 0x53435049;
+  private static final int VERSION = 1;
+
+  private static final byte UNINDEXED_ENTRY = 0;
+  private static final byte ARCHIVE_ENTRY = 1;
+  private static final byte DIRECTORY_ENTRY = 2;
+
+  /** maps a class name to the position of the first indexed entry that contains it */
+  @Nonnull private final Map<String, Integer> owners;
+
+  /** the positions of the entries whose classes are not indexed, in ascending order */
+  @Nonnull private final int[] unindexedEntries;
+
+  private ClassPathIndex(@Nonnull Map<String, Integer> owners, @Nonnull int[] unindexedEntries) {
+    this.owners = owners;
+    this.unindexedEntries = unindexedEntries;
+  }
+
+  /**
+   * Returns the position of the first indexed entry that contains the class with the given name or
+   * -1 if no indexed entry contains it.
+   */
+  int getOwner(@Nonnull String className) {
+    return owners.getOrDefault(className, -1);
+  }
+
+  /** Returns the positions of the entries that have to be probed for every class. */
+  @Nonnull
+  int[] getUnindexedEntries() {
+    return unindexedEntries;
+  }
+
+  /**
+   * Indexes the given class path entries in parallel.
+   *
+   * @param indexFile the file the class names of archives are read from and written to, or null if
+   *     the index should not be persisted
+   */
+  @Nonnull
+  static ClassPathIndex create(
+      @Nonnull List<AnalysisInputLocation<JavaSootClass>> entries, @Nullable Path indexFile) {
+    final List<Collection<String>> persisted =
+        indexFile != null && Files.exists(indexFile)
+            ? read(entries, indexFile)
+            : Collections.nCopies(entries.size(), null);
+
+    final List<Collection<String>> classNames =
+        IntStream.range(0, entries.size())
+            .parallel()
+            .mapToObj(
+                i -> persisted.get(i) != null ? persisted.get(i) : listClassNames(entries.get(i)))
+            .collect(Collectors.toList());
+
+    if (indexFile != null
+        && IntStream.range(0, entries.size())
+            .anyMatch(i -> isArchive(entries.get(i)) && persisted.get(i) == null)) {
+      write(entries, classNames, indexFile);
+    }
+
+    final Map<String, Integer> owners = new HashMap<>();
+    final List<Integer> unindexedEntries = new ArrayList<>();
+    for (int i = 0; i < entries.size(); i++) {
+      final Collection<String> names = classNames.get(i);
+      if (names == null) {
+        unindexedEntries.add(i);
+        continue;
+      }
+      for (String name : names) {
+        // the first entry of the class path that contains a class shadows all others
+        owners.putIfAbsent(name, i);
+      }
+    }
+    return new ClassPathIndex(
+        owners, unindexedEntries.stream().mapToInt(Integer::intValue).toArray());
+  }
+
+  @Nullable
+  private static Collection<String> listClassNames(
+      @Nonnull AnalysisInputLocation<JavaSootClass> entry) {
+    if (!(entry instanceof PathBasedAnalysisInputLocation)) {
+      return null;
+    }
+    try {
+      return ((PathBasedAnalysisInputLocation) entry).listClassNames();
+    } catch (IOException e) {
+      logger.warn("Could not list the classes of " + entry + ", it is not indexed", e);
+      return null;
+    }
+  }
+
+  private static boolean isArchive(@Nonnull AnalysisInputLocation<JavaSootClass> entry) {
+    return entry instanceof ArchiveBasedAnalysisInputLocation
+        && Files.isRegularFile(((ArchiveBasedAnalysisInputLocation) entry).path);
+  }
+
+  @Nonnull
+  private static String entryPath(@Nonnull AnalysisInputLocation<JavaSootClass> entry) {
+    return entry instanceof PathBasedAnalysisInputLocation
+        ? ((PathBasedAnalysisInputLocation) entry).path.toAbsolutePath().toString()
+        : entry.toString();
+  }
+
+  /**
+   * Reads the class names of all archives that have not changed since the index file has been
+   * written. The class names of all other entries are null.
+   */
+  @Nonnull
+  private static List<Collection<String>> read(
+      @Nonnull List<AnalysisInputLocation<JavaSootClass>> entries, @Nonnull Path indexFile) {
+    final List<Collection<String>> classNames =
+        new ArrayList<>(Collections.nCopies(entries.size(), null));
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != entries.size()) {
+        return classNames;
+      }
+      for (int i = 0; i < entries.size(); i++) {
+        final AnalysisInputLocation<JavaSootClass> entry = entries.get(i);
+        if (!in.readUTF().equals(entryPath(entry))) {
+          // the class path has changed
+          return Collections.nCopies(entries.size(), null);
+        }
+        if (in.readByte() != ARCHIVE_ENTRY) {
+          continue;
+        }
+        final long size = in.readLong();
+        final long lastModified = in.readLong();
+        final int count = in.readInt();
+        final List<String> names = new ArrayList<>(count);
+        for (int j = 0; j < count; j++) {
+          names.add(in.readUTF());
+        }
+        if (isArchive(entry)) {
+          final Path path = ((ArchiveBasedAnalysisInputLocation) entry).path;
+          if (Files.size(path) == size
+              && Files.getLastModifiedTime(path).toMillis() == lastModified) {
+            classNames.set(i, names);
+          }
+        }
+      }
+      return classNames;
+    } catch (IOException e) {
+      logger.warn("Could not read the class path index " + indexFile + ", it is rebuilt", e);
+      return Collections.nCopies(entries.size(), null);
+    }
+  }
+
+  private static void write(
+      @Nonnull List<AnalysisInputLocation<JavaSootClass>> entries,
+      @Nonnull List<Collection<String>> classNames,
+      @Nonnull Path indexFile) {
+    try {
+      final Path directory = indexFile.toAbsolutePath().getParent();
+      Files.createDirectories(directory);
+      final Path tempFile =
+          Files.createTempFile(directory, indexFile.getFileName().toString(), ".tmp");
+      try {
+        try (DataOutputStream out =
+            new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+          out.writeInt(MAGIC);
+          out.writeInt(VERSION);
+          out.writeInt(entries.size());
+          for (int i = 0; i < entries.size(); i++) {
+            final AnalysisInputLocation<JavaSootClass> entry = entries.get(i);
+            final Collection<String> names = classNames.get(i);
+            out.writeUTF(entryPath(entry));
+            if (names == null) {
+              out.writeByte(UNINDEXED_ENTRY);
+            } else if (!isArchive(entry)) {
+              out.writeByte(DIRECTORY_ENTRY);
+            } else {
+              final Path path = ((ArchiveBasedAnalysisInputLocation) entry).path;
+              out.writeByte(ARCHIVE_ENTRY);
+              out.writeLong(Files.size(path));
+              out.writeLong(Files.getLastModifiedTime(path).toMillis());
+              out.writeInt(names.size());
+              for (String name : names) {
+                out.writeUTF(name);
+              }
+            }
+          }
+        }
+        try {
+          Files.move(tempFile, indexFile, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        Files.deleteIfExists(tempFile);
+      }
+    } catch (IOException e) {
+      logger.warn("Could not write the class path index " + indexFile, e);
+    }
+  }
+}
@@ -30,12 +30,14 @@ import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sootup.core.frontend.AbstractClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.model.SourceType;
 import sootup.core.transform.BodyInterceptor;
+import sootup.core.typehierarchy.ClassHeader;
 import sootup.core.types.ClassType;
 import sootup.core.util.PathUtils;
 import sootup.core.util.StreamUtils;
@@ -55,13 +57,21 @@ public class JavaClassPathAnalysisInputLocation implements AnalysisInputLocation
       LoggerFactory.getLogger(JavaClassPathAnalysisInputLocation.class);
   private static final @Nonnull String WILDCARD_CHAR = "*";
 
-  @Nonnull private final Collection<AnalysisInputLocation<JavaSootClass>> cpEntries;
+  @Nonnull private final List<AnalysisInputLocation<JavaSootClass>> cpEntries;
 
   /** Variable to track if user has specified the SourceType. By default, it will be set to null. */
   private final SourceType srcType;
 
   private final List<BodyInterceptor> bodyInterceptors;
 
+  /** Variable to track if the class path is indexed on the first lookup of a class. */
+  private final boolean indexed;
+
+  /** The file the index is persisted to, or null if it is kept in memory only. */
+  @Nullable private final Path indexFile;
+
+  @Nullable private volatile ClassPathIndex index;
+
   /**
    * Creates a {@link JavaClassPathAnalysisInputLocation} which locates classes in the given class
    * path.
@@ -88,8 +98,54 @@ public class JavaClassPathAnalysisInputLocation implements AnalysisInputLocation
       @Nonnull String classPath,
       @Nonnull SourceType srcType,
       @Nonnull List<BodyInterceptor> bodyInterceptors) {
+    this(classPath, srcType, bodyInterceptors, false, null);
+  }
+
+  /**
+   * Creates a {@link JavaClassPathAnalysisInputLocation} which locates classes in the given class
+   * path. If the class path is indexed, an index from the names of all classes to the entries that
+   * contain them is built in parallel on the first lookup, so a class is located without probing
+   * every entry of the class path.
+   *
+   * @param classPath the class path to search in
+   * @param srcType the source type for the path can be Library, Application, Phantom.
+   * @param indexed whether the class path is indexed
+   */
+  public JavaClassPathAnalysisInputLocation(
+      @Nonnull String classPath,
+      @Nonnull SourceType srcType,
+      @Nonnull List<BodyInterceptor> bodyInterceptors,
+      boolean indexed) {
+    this(classPath, srcType, bodyInterceptors, indexed, null);
+  }
+
+  /**
+   * Creates an indexed {@link JavaClassPathAnalysisInputLocation} whose index is persisted in the
+   * given file. The class names of archives are read from the file as long as the archives do not
+   * change, so the index is built only once for all runs on the same class path.
+   *
+   * @param classPath the class path to search in
+   * @param srcType the source type for the path can be Library, Application, Phantom.
+   * @param indexFile the file the index is read from and written to
+   */
+  public JavaClassPathAnalysisInputLocation(
+      @Nonnull String classPath,
+      @Nonnull SourceType srcType,
+      @Nonnull List<BodyInterceptor> bodyInterceptors,
+      @Nonnull Path indexFile) {
+    this(classPath, srcType, bodyInterceptors, true, indexFile);
+  }
+
+  private JavaClassPathAnalysisInputLocation(
+      @Nonnull String classPath,
+      @Nonnull SourceType srcType,
+      @Nonnull List<BodyInterceptor> bodyInterceptors,
+      boolean indexed,
+      @Nullable Path indexFile) {
     this.srcType = srcType;
     this.bodyInterceptors = bodyInterceptors;
+    this.indexed = indexed;
+    this.indexFile = indexFile;
 
     if (classPath.length() <= 0) {
       throw new IllegalArgumentException("Empty class path given");
@@ -187,13 +243,38 @@ public class JavaClassPathAnalysisInputLocation implements AnalysisInputLocation
     return found;
   }
 
+  @Override
+  @Nonnull
+  public Optional<Collection<ClassHeader>> getClassHeaders(@Nonnull View<?> view) {
+    // the class which is found first is kept like in getClassSources
+    Map<ClassType, ClassHeader> found = new LinkedHashMap<>();
+    for (AnalysisInputLocation<JavaSootClass> inputLocation : cpEntries) {
+      Optional<Collection<ClassHeader>> classHeaders = inputLocation.getClassHeaders(view);
+      if (!classHeaders.isPresent()) {
+        return Optional.empty();
+      }
+      classHeaders.get().forEach(header -> found.putIfAbsent(header.getType(), header));
+    }
+    return Optional.of(found.values());
+  }
+
   @Override
   @Nonnull
   public Optional<? extends AbstractClassSource<JavaSootClass>> getClassSource(
       @Nonnull ClassType type, @Nonnull View<?> view) {
-    for (AnalysisInputLocation<JavaSootClass> inputLocation : cpEntries) {
+    if (indexed) {
+      return getIndexedClassSource(type, view);
+    }
+    return getClassSource(type, view, 0);
+  }
+
+  /** Probes the entries of the class path in order, starting at the given position. */
+  @Nonnull
+  private Optional<? extends AbstractClassSource<JavaSootClass>> getClassSource(
+      @Nonnull ClassType type, @Nonnull View<?> view, int firstEntry) {
+    for (int i = firstEntry; i < cpEntries.size(); i++) {
       final Optional<? extends AbstractClassSource<JavaSootClass>> classSource =
-          inputLocation.getClassSource(type, view);
+          cpEntries.get(i).getClassSource(type, view);
       if (classSource.isPresent()) {
         return classSource;
       }
@@ -201,6 +282,50 @@ public class JavaClassPathAnalysisInputLocation implements AnalysisInputLocation
     return Optional.empty();
   }
 
+  @Nonnull
+  private Optional<? extends AbstractClassSource<JavaSootClass>> getIndexedClassSource(
+      @Nonnull ClassType type, @Nonnull View<?> view) {
+    final ClassPathIndex classPathIndex = getIndex();
+    final int owner = classPathIndex.getOwner(type.getFullyQualifiedName());
+
+    // entries that are not indexed and precede the owner could still shadow the class
+    for (int position : classPathIndex.getUnindexedEntries()) {
+      if (owner >= 0 && position > owner) {
+        break;
+      }
+      final Optional<? extends AbstractClassSource<JavaSootClass>> classSource =
+          cpEntries.get(position).getClassSource(type, view);
+      if (classSource.isPresent()) {
+        return classSource;
+      }
+    }
+    if (owner < 0) {
+      return Optional.empty();
+    }
+    final Optional<? extends AbstractClassSource<JavaSootClass>> classSource =
+        cpEntries.get(owner).getClassSource(type, view);
+    if (classSource.isPresent()) {
+      return classSource;
+    }
+    // the owner could not create the class source, so it is searched as without an index
+    return getClassSource(type, view, owner + 1);
+  }
+
+  @Nonnull
+  private ClassPathIndex getIndex() {
+    ClassPathIndex classPathIndex = index;
+    if (classPathIndex == null) {
+      synchronized (this) {
+        classPathIndex = index;
+        if (classPathIndex == null) {
+          classPathIndex = ClassPathIndex.create(cpEntries, indexFile);
+          index = classPathIndex;
+        }
+      }
+    }
+    return classPathIndex;
+  }
+
   @Nonnull
   private Optional<AnalysisInputLocation<JavaSootClass>> inputLocationForPath(@Nonnull Path path) {
     if (Files.exists(path) && (Files.isDirectory(path) || PathUtils.isArchive(path))) {
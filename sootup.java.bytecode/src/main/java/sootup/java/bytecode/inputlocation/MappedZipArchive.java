@@ -0,0 +1,287 @@
+package sootup.java.bytecode.inputlocation;
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A read-only zip archive that is memory mapped once. On creation, an index from the names of the
+ * entries to the offsets of their records in the central directory is built, so an entry is found
+ * without scanning the archive and its content is read (and inflated) directly into an array of its
+ * exact size.
+ *
+ * <p>Archives that are larger than 2GB can not be mapped into a single buffer and are rejected.
+ * Reading encrypted entries and entries with compression methods other than stored and deflated
+ * fails with an {@link IOException}, so that the caller can read them in another way.
+ *
+ * <p>The mapping is released when the archive is garbage collected.
+ */
+final class MappedZipArchive {
+
+  private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+  private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+  private static final int END_SIGNATURE = 0x06054b50;
+  private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+  private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+
+  private static final int END_LENGTH = 22;
+  private static final int ZIP64_LOCATOR_LENGTH = 20;
+  private static final int CENTRAL_HEADER_LENGTH = 46;
+  private static final int LOCAL_HEADER_LENGTH = 30;
+  private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+
+  private static final int ZIP64_EXTRA_ID = 0x0001;
+  private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+  private static final int METHOD_STORED = 0;
+  private static final int METHOD_DEFLATED = 8;
+  private static final int FLAG_ENCRYPTED = 1;
+
+  @Nonnull private final Path path;
+  @Nonnull private final ByteBuffer buffer;
+
+  /** maps the name of each entry to the offset of its record in the central directory */
+  @Nonnull private final Map<String, Integer> centralDirectoryOffsets;
+
+  private MappedZipArchive(
+      @Nonnull Path path,
+      @Nonnull ByteBuffer buffer,
+      @Nonnull Map<String, Integer> centralDirectoryOffsets) {
+    this.path = path;
+    this.buffer = buffer;
+    this.centralDirectoryOffsets = centralDirectoryOffsets;
+  }
+
+  /**
+   * Maps the archive at the given path and indexes its central directory.
+   *
+   * @throws IOException if the archive can not be read, is too large to be mapped or is not a valid
+   *     zip archive
+   */
+  @Nonnull
+  static MappedZipArchive open(@Nonnull Path path) throws IOException {
+    final MappedByteBuffer mapped;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("The archive " + path + " is too large to be mapped.");
+      }
+      mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+    final ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+    final int end = findEndOfCentralDirectory(path, buffer);
+    long entryCount = unsignedShort(buffer, end + 10);
+    long centralDirectoryOffset = unsignedInt(buffer, end + 16);
+
+    final int locator = end - ZIP64_LOCATOR_LENGTH;
+    if (locator >= 0 && buffer.getInt(locator) == ZIP64_LOCATOR_SIGNATURE) {
+      final int zip64End = checkedOffset(path, buffer, buffer.getLong(locator + 8), 56);
+      if (buffer.getInt(zip64End) != ZIP64_END_SIGNATURE) {
+        throw new IOException("The archive " + path + " has an invalid zip64 end record.");
+      }
+      entryCount = buffer.getLong(zip64End + 32);
+      centralDirectoryOffset = buffer.getLong(zip64End + 48);
+    }
+
+    final Map<String, Integer> offsets = new HashMap<>((int) Math.min(entryCount * 2, 1 << 20));
+    int offset = checkedOffset(path, buffer, centralDirectoryOffset, 0);
+    for (long i = 0; i < entryCount; i++) {
+      checkedOffset(path, buffer, offset, CENTRAL_HEADER_LENGTH);
+      if (buffer.getInt(offset) != CENTRAL_HEADER_SIGNATURE) {
+        throw new IOException("The archive " + path + " has an invalid central directory.");
+      }
+      final int nameLength = unsignedShort(buffer, offset + 28);
+      final int extraLength = unsignedShort(buffer, offset + 30);
+      final int commentLength = unsignedShort(buffer, offset + 32);
+      offsets.put(readString(path, buffer, offset + CENTRAL_HEADER_LENGTH, nameLength), offset);
+      offset += CENTRAL_HEADER_LENGTH + nameLength + extraLength + commentLength;
+    }
+    return new MappedZipArchive(path, buffer, offsets);
+  }
+
+  private static int findEndOfCentralDirectory(@Nonnull Path path, @Nonnull ByteBuffer buffer)
+      throws IOException {
+    final int last = buffer.limit() - END_LENGTH;
+    final int first = Math.max(0, last - MAX_COMMENT_LENGTH);
+    for (int offset = last; offset >= first; offset--) {
+      if (buffer.getInt(offset) == END_SIGNATURE
+          && offset + END_LENGTH + unsignedShort(buffer, offset + 20) == buffer.limit()) {
+        return offset;
+      }
+    }
+    throw new IOException("The file " + path + " is not a zip archive.");
+  }
+
+  /** Returns the names of all entries of the archive. */
+  @Nonnull
+  Collection<String> getEntryNames() {
+    return Collections.unmodifiableSet(centralDirectoryOffsets.keySet());
+  }
+
+  /**
+   * Returns the uncompressed content of the entry with the given name or null if there is no such
+   * entry.
+   */
+  @Nullable
+  byte[] getEntry(@Nonnull String name) throws IOException {
+    final Integer centralOffset = centralDirectoryOffsets.get(name);
+    if (centralOffset == null) {
+      return null;
+    }
+    final int header = centralOffset;
+    final int flags = unsignedShort(buffer, header + 8);
+    final int method = unsignedShort(buffer, header + 10);
+    long compressedSize = unsignedInt(buffer, header + 20);
+    long size = unsignedInt(buffer, header + 24);
+    long localOffset = unsignedInt(buffer, header + 42);
+
+    if (size == ZIP64_MAGIC || compressedSize == ZIP64_MAGIC || localOffset == ZIP64_MAGIC) {
+      // the actual values are stored in the zip64 extra field in this order
+      final int nameLength = unsignedShort(buffer, header + 28);
+      final int extraLength = unsignedShort(buffer, header + 30);
+      int extra = header + CENTRAL_HEADER_LENGTH + nameLength;
+      final int extraEnd = extra + extraLength;
+      while (extra + 4 <= extraEnd) {
+        final int id = unsignedShort(buffer, extra);
+        final int length = unsignedShort(buffer, extra + 2);
+        if (id == ZIP64_EXTRA_ID) {
+          int field = extra + 4;
+          if (size == ZIP64_MAGIC) {
+            size = buffer.getLong(field);
+            field += 8;
+          }
+          if (compressedSize == ZIP64_MAGIC) {
+            compressedSize = buffer.getLong(field);
+            field += 8;
+          }
+          if (localOffset == ZIP64_MAGIC) {
+            localOffset = buffer.getLong(field);
+          }
+          break;
+        }
+        extra += 4 + length;
+      }
+    }
+
+    if ((flags & FLAG_ENCRYPTED) != 0) {
+      throw new IOException("The entry " + name + " of " + path + " is encrypted.");
+    }
+    if (size > Integer.MAX_VALUE - 8) {
+      throw new IOException("The entry " + name + " of " + path + " is too large.");
+    }
+
+    final int local = checkedOffset(path, buffer, localOffset, LOCAL_HEADER_LENGTH);
+    if (buffer.getInt(local) != LOCAL_HEADER_SIGNATURE) {
+      throw new IOException("The entry " + name + " of " + path + " has an invalid header.");
+    }
+    final int data =
+        local
+            + LOCAL_HEADER_LENGTH
+            + unsignedShort(buffer, local + 26)
+            + unsignedShort(buffer, local + 28);
+    checkedOffset(path, buffer, data, compressedSize);
+
+    final ByteBuffer content = buffer.duplicate();
+    content.position(data);
+    switch (method) {
+      case METHOD_STORED:
+        {
+          final byte[] bytes = new byte[(int) size];
+          content.get(bytes);
+          return bytes;
+        }
+      case METHOD_DEFLATED:
+        {
+          // the inflater needs an extra byte of input if the raw deflate format is used
+          final byte[] compressed = new byte[(int) compressedSize + 1];
+          content.get(compressed, 0, (int) compressedSize);
+          final byte[] bytes = new byte[(int) size];
+          final Inflater inflater = new Inflater(true);
+          try {
+            inflater.setInput(compressed);
+            int length = 0;
+            while (length < bytes.length && !inflater.finished()) {
+              final int inflated = inflater.inflate(bytes, length, bytes.length - length);
+              if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                break;
+              }
+              length += inflated;
+            }
+            if (length != bytes.length) {
+              throw new IOException("The entry " + name + " of " + path + " is truncated.");
+            }
+          } catch (DataFormatException e) {
+            throw new IOException("The entry " + name + " of " + path + " is corrupt.", e);
+          } finally {
+            inflater.end();
+          }
+          return bytes;
+        }
+      default:
+        throw new IOException(
+            "The entry " + name + " of " + path + " uses the unsupported method " + method + ".");
+    }
+  }
+
+  private static int checkedOffset(
+      @Nonnull Path path, @Nonnull ByteBuffer buffer, long offset, long length) throws IOException {
+    if (offset < 0 || length < 0 || offset + length > buffer.limit()) {
+      throw new IOException("The archive " + path + " is truncated.");
+    }
+    return (int) offset;
+  }
+
+  @Nonnull
+  private static String readString(
+      @Nonnull Path path, @Nonnull ByteBuffer buffer, int offset, int length) throws IOException {
+    checkedOffset(path, buffer, offset, length);
+    final byte[] bytes = new byte[length];
+    final ByteBuffer duplicate = buffer.duplicate();
+    duplicate.position(offset);
+    duplicate.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static int unsignedShort(@Nonnull ByteBuffer buffer, int offset) {
+    return buffer.getShort(offset) & 0xFFFF;
+  }
+
+  private static long unsignedInt(@Nonnull ByteBuffer buffer, int offset) {
+    return buffer.getInt(offset) & 0xFFFFFFFFL;
+  }
+}
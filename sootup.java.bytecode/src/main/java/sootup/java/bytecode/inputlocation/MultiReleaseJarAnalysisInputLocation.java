@@ -36,6 +36,7 @@ import sootup.core.Language;
 import sootup.core.frontend.AbstractClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.model.SourceType;
+import sootup.core.typehierarchy.ClassHeader;
 import sootup.core.types.ClassType;
 import sootup.core.views.View;
 import sootup.java.bytecode.frontend.AsmModuleSource;
@@ -251,6 +252,20 @@ public class MultiReleaseJarAnalysisInputLocation extends ArchiveBasedAnalysisIn
     return baseInputLocations;
   }
 
+  @Override
+  @Nullable
+  Collection<String> listClassNames() {
+    // the classes depend on the language version
+    return null;
+  }
+
+  @Override
+  @Nonnull
+  public Optional<Collection<ClassHeader>> getClassHeaders(@Nonnull View<?> view) {
+    // the classes depend on the language version
+    return Optional.empty();
+  }
+
   @Override
   @Nonnull
   public Collection<? extends AbstractClassSource<JavaSootClass>> getClassSources(
@@ -7,6 +7,7 @@ import java.util.jar.Attributes;
 import java.util.jar.JarInputStream;
 import java.util.jar.Manifest;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import javax.annotation.Nonnull;
@@ -14,6 +15,8 @@ import javax.annotation.Nullable;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -27,11 +30,13 @@ import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.inputlocation.FileType;
 import sootup.core.model.SourceType;
 import sootup.core.transform.BodyInterceptor;
+import sootup.core.typehierarchy.ClassHeader;
 import sootup.core.types.ClassType;
 import sootup.core.util.PathUtils;
 import sootup.core.util.StreamUtils;
 import sootup.core.views.View;
 import sootup.java.bytecode.frontend.AsmJavaClassProvider;
+import sootup.java.bytecode.frontend.AsmUtil;
 import sootup.java.core.*;
 import sootup.java.core.types.JavaClassType;
 
@@ -66,6 +71,9 @@ import sootup.java.core.types.JavaClassType;
  */
 public abstract class PathBasedAnalysisInputLocation
     implements AnalysisInputLocation<JavaSootClass> {
+  private static final @Nonnull Logger logger =
+      LoggerFactory.getLogger(PathBasedAnalysisInputLocation.class);
+
   private final SourceType sourceType;
   private final List<BodyInterceptor> bodyInterceptors;
   protected Path path;
@@ -187,6 +195,16 @@ public abstract class PathBasedAnalysisInputLocation
     }
   }
 
+  /**
+   * Lists the fully qualified names of all classes of this input location without reading the
+   * classes, or returns null if they can not be listed cheaply and the input location has to be
+   * probed for each class instead.
+   */
+  @Nullable
+  Collection<String> listClassNames() throws IOException {
+    return null;
+  }
+
   @Nonnull
   protected Optional<? extends AbstractClassSource<JavaSootClass>> getClassSourceInternal(
       @Nonnull JavaClassType signature,
@@ -280,6 +298,64 @@ public abstract class PathBasedAnalysisInputLocation
         @Nonnull ClassType type, @Nonnull View<?> view) {
       return getClassSourceInternal((JavaClassType) type, path, new AsmJavaClassProvider(view));
     }
+
+    /** Reads the headers of all classes of the directory in parallel. */
+    @Override
+    @Nonnull
+    public Optional<Collection<ClassHeader>> getClassHeaders(@Nonnull View<?> view) {
+      final Collection<String> classNames;
+      try {
+        classNames = listClassNames();
+      } catch (IOException e) {
+        throw new IllegalArgumentException(e);
+      }
+      final IdentifierFactory factory = view.getIdentifierFactory();
+      return Optional.of(
+          classNames
+              .parallelStream()
+              .map(
+                  className -> {
+                    final Path classFile =
+                        path.resolve(
+                            className.replace(".", path.getFileSystem().getSeparator())
+                                + FileType.CLASS.getExtensionWithDot());
+                    try {
+                      return AsmUtil.readClassHeader(
+                          Files.readAllBytes(classFile), factory.getClassType(className));
+                    } catch (IOException | IllegalArgumentException e) {
+                      logger.warn(
+                          "Could not read the header of "
+                              + classFile
+                              + " causing "
+                              + e.getMessage());
+                      return null;
+                    }
+                  })
+              .filter(Objects::nonNull)
+              .collect(Collectors.toList()));
+    }
+
+    @Override
+    @Nullable
+    Collection<String> listClassNames() throws IOException {
+      final String moduleInfoFilename = JavaModuleIdentifierFactory.MODULE_INFO_FILE + ".class";
+      try (Stream<Path> files = Files.walk(path)) {
+        return files
+            .filter(
+                filePath ->
+                    PathUtils.hasExtension(filePath, FileType.CLASS)
+                        && !filePath.toString().endsWith(moduleInfoFilename))
+            .map(
+                filePath -> {
+                  final String relativePath = path.relativize(filePath).toString();
+                  return relativePath
+                      .substring(
+                          0, relativePath.length() - FileType.CLASS.getExtensionWithDot().length())
+                      .replace(filePath.getFileSystem().getSeparator(), ".");
+                })
+            .collect(Collectors.toList());
+      }
+    }
   }
 
   private static final class WarArchiveAnalysisInputLocation
@@ -358,6 +434,19 @@ public abstract class PathBasedAnalysisInputLocation
       return Optional.empty();
     }
 
+    @Override
+    @Nullable
+    Collection<String> listClassNames() {
+      // the classes are located in the contained input locations
+      return null;
+    }
+
+    @Override
+    @Nonnull
+    public Optional<Collection<ClassHeader>> getClassHeaders(@Nonnull View<?> view) {
+      return Optional.empty();
+    }
+
     /**
      * Extracts the war file at the temporary location to analyze underlying class and jar files
      *
@@ -22,12 +22,12 @@ package sootup.java.bytecode.interceptors;
  */
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import sootup.core.graph.DefUseChains;
 import sootup.core.graph.MutableStmtGraph;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.Value;
@@ -63,6 +63,12 @@ public class Aggregator implements BodyInterceptor {
     this.dontAggregateFieldLocals = dontAggregateFieldLocals;
   }
 
+  @Nonnull
+  @Override
+  public Optional<String> getConfiguration() {
+    return Optional.of("dontAggregateFieldLocals=" + dontAggregateFieldLocals);
+  }
+
   /**
    * Traverse the statements in the given body, looking for aggregation possibilities; that is,
    * given a def d and a use u, d has no other uses, u has no other defs, collapse d and u.
@@ -71,7 +77,8 @@ public class Aggregator implements BodyInterceptor {
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
     MutableStmtGraph graph = builder.getStmtGraph();
     List<Stmt> stmts = builder.getStmts();
-    Map<Value, Collection<Stmt>> usesMap = Body.collectUses(stmts);
+    // the chains are kept up to date by the graph while stmts are aggregated
+    DefUseChains defUseChains = graph.getDefUseChains();
 
     for (Stmt stmt : stmts) {
       if (!(stmt instanceof JAssignStmt)) {
@@ -90,12 +97,11 @@ public class Aggregator implements BodyInterceptor {
         if (!(val instanceof Local)) {
           continue;
         }
-        final Collection<Stmt> usesOfVal = usesMap.get(val);
-        if (usesOfVal.size() > 1) {
+        if (defUseChains.getUses(val).size() > 1) {
           // there are other uses, so it can't be aggregated
           continue;
         }
-        List<AbstractDefinitionStmt> defs = ((Local) val).getDefs(stmts);
+        List<Stmt> defs = defUseChains.getDefs((Local) val);
         if (defs.size() != 1) {
           continue;
         }
@@ -24,6 +24,7 @@ package sootup.java.bytecode.interceptors;
 import com.google.common.collect.Lists;
 import java.util.*;
 import javax.annotation.Nonnull;
+import sootup.core.graph.DefUseChains;
 import sootup.core.graph.StmtGraph;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.Value;
@@ -55,10 +56,12 @@ public class CopyPropagator implements BodyInterceptor {
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
     final StmtGraph<?> stmtGraph = builder.getStmtGraph();
+    // the chains are updated by the graph when a use is replaced
+    final DefUseChains defUseChains = stmtGraph.getDefUseChains();
     for (Stmt stmt : Lists.newArrayList(stmtGraph)) {
       for (Value use : stmt.getUses()) {
         if (use instanceof Local) {
-          List<Stmt> defsOfUse = ((Local) use).getDefsForLocalUse(stmtGraph, stmt);
+          List<Stmt> defsOfUse = defUseChains.getDefsOfUse(stmt, (Local) use);
 
           if (isPropatabable(defsOfUse)) {
             AbstractDefinitionStmt defStmt = (AbstractDefinitionStmt) defsOfUse.get(0);
@@ -23,6 +23,7 @@ package sootup.java.bytecode.interceptors;
 
 import java.util.*;
 import javax.annotation.Nonnull;
+import sootup.core.graph.DefUseChains;
 import sootup.core.graph.MutableStmtGraph;
 import sootup.core.jimple.Jimple;
 import sootup.core.jimple.basic.LValue;
@@ -63,6 +64,12 @@ public class DeadAssignmentEliminator implements BodyInterceptor {
     this.eliminateOnlyStackLocals = eliminateOnlyStackLocals;
   }
 
+  @Nonnull
+  @Override
+  public Optional<String> getConfiguration() {
+    return Optional.of("eliminateOnlyStackLocals=" + eliminateOnlyStackLocals);
+  }
+
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
     MutableStmtGraph stmtGraph = builder.getStmtGraph();
@@ -74,9 +81,9 @@ public class DeadAssignmentEliminator implements BodyInterceptor {
     boolean allEssential = true;
     boolean containsInvoke = false;
     Local thisLocal = null;
+    List<Stmt> selfAssignments = new ArrayList<>();
 
-    for (Iterator<Stmt> iterator = stmtGraph.getNodes().iterator(); iterator.hasNext(); ) {
-      Stmt stmt = iterator.next();
+    for (Stmt stmt : stmtGraph.getNodes()) {
       boolean isEssential = true;
 
       if (stmt instanceof JAssignStmt) {
@@ -86,7 +93,7 @@ public class DeadAssignmentEliminator implements BodyInterceptor {
 
         // Stmt is of the form a = a which is useless
         if (lhs == rhs && lhs instanceof Local) {
-          iterator.remove();
+          selfAssignments.add(stmt);
           continue;
         }
 
@@ -170,13 +177,18 @@ public class DeadAssignmentEliminator implements BodyInterceptor {
       allEssential &= isEssential;
     }
 
+    // remove the self assignments through the graph, so that its blocks stay consistent
+    for (Stmt stmt : selfAssignments) {
+      stmtGraph.removeNode(stmt);
+    }
+
     if (!containsInvoke && allEssential) {
       return;
     }
 
     // Add all the statements which are used to compute values for the essential statements,
-    // recursively
-    Map<LValue, Collection<Stmt>> allDefs = Body.collectDefs(stmtGraph.getNodes());
+    // recursively. Only the definitions reaching a use are needed.
+    DefUseChains defUseChains = stmtGraph.getDefUseChains();
 
     Set<Stmt> essentialStmts = new HashSet<>(stmts.size());
     while (!deque.isEmpty()) {
@@ -184,11 +196,7 @@ public class DeadAssignmentEliminator implements BodyInterceptor {
       if (essentialStmts.add(stmt)) {
         for (Value value : stmt.getUses()) {
           if (value instanceof Local) {
-            Local local = (Local) value;
-            Collection<Stmt> defs = allDefs.get(local);
-            if (defs != null) {
-              deque.addAll(defs);
-            }
+            deque.addAll(defUseChains.getDefsOfUse(stmt, (Local) value));
           }
         }
       }
@@ -196,7 +204,7 @@ public class DeadAssignmentEliminator implements BodyInterceptor {
 
     // Remove the dead statements from the stmtGraph
     for (Stmt stmt : stmts) {
-      if (!essentialStmts.contains(stmt)) {
+      if (!essentialStmts.contains(stmt) && stmtGraph.containsNode(stmt)) {
         stmtGraph.removeNode(stmt);
       }
     }
@@ -205,7 +213,7 @@ public class DeadAssignmentEliminator implements BodyInterceptor {
       return;
     }
 
-    Map<Value, Collection<Stmt>> essentialUses = Body.collectUses(essentialStmts);
+    // only the essential stmts are left in the graph
     // Eliminate dead assignments from invokes such as x = f(), where x is no longer used
     List<JAssignStmt> postProcess = new ArrayList<>();
     for (Stmt stmt : stmts) {
@@ -220,8 +228,7 @@ public class DeadAssignmentEliminator implements BodyInterceptor {
             if (!(value instanceof LValue)) {
               continue;
             }
-            final Collection<Stmt> stmtsWithValuesUse = essentialUses.get(value);
-            if (stmtsWithValuesUse != null) {
+            if (!defUseChains.getUses(value).isEmpty()) {
               deadAssignment = false;
               break;
             }
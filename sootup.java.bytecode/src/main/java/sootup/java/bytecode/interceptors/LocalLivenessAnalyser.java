@@ -24,81 +24,121 @@ package sootup.java.bytecode.interceptors;
 
 import java.util.*;
 import javax.annotation.Nonnull;
+import sootup.core.graph.BasicBlock;
 import sootup.core.graph.StmtGraph;
 import sootup.core.jimple.basic.LValue;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.Value;
 import sootup.core.jimple.common.stmt.Stmt;
 
-/** @author Zun Wang */
+/**
+ * Computes the live locals before and after each stmt of a {@link StmtGraph}.
+ *
+ * <p>The locals are numbered densely, so that a set of locals is a bit vector. Each {@link
+ * BasicBlock} is summarized by the locals it uses before defining them (gen) and the locals it
+ * defines (kill). The analysis iterates only over these summaries, in postorder of the blocks (i.e.
+ * the reverse postorder of the backward flow), until the live locals at the entry of each block are
+ * stable. The sets of the stmts of a block are expanded from the block result the first time one of
+ * them is requested.
+ *
+ * @author Zun Wang
+ */
 public class LocalLivenessAnalyser {
 
-  // Each stmt(node) has out-edges and in-edges
+  // the locals of the graph, the index of a local is its bit in the bit vectors
+  @Nonnull private final Map<Local, Integer> localIndices = new HashMap<>();
+  @Nonnull private final List<Local> locals = new ArrayList<>();
+  private final int words;
+
+  @Nonnull private final List<List<Stmt>> blockStmts = new ArrayList<>();
+  @Nonnull private final Map<Stmt, Integer> blockIndices = new IdentityHashMap<>();
+
+  // the indices of the locals used by each stmt and of the local it defines, or -1
+  @Nonnull private final Map<Stmt, int[]> uses = new IdentityHashMap<>();
+  @Nonnull private final Map<Stmt, Integer> defs = new IdentityHashMap<>();
+
+  // the live locals at the entry of each block, after its tail and at the entries of its handlers
+  @Nonnull private final long[][] blockLiveIn;
+  @Nonnull private final long[][] blockLiveOut;
+  @Nonnull private final long[][] blockLiveAtHandlers;
+
   // A local is live-in at a node if it is live on any its in-edges
-  private final Map<Stmt, Set<Local>> liveIn = new HashMap<>();
+  @Nonnull private final Map<Stmt, Set<Local>> liveIn = new IdentityHashMap<>();
   // A local is live-out at a node if it is live on any of its out-edges.
   // e.g: a = b + c; live-in={b,c}  live-out={a,b,c}
-  private final Map<Stmt, Set<Local>> liveOut = new HashMap<>();
+  @Nonnull private final Map<Stmt, Set<Local>> liveOut = new IdentityHashMap<>();
 
   public LocalLivenessAnalyser(@Nonnull StmtGraph<?> graph) {
-    // initial liveIn and liveOut
-    List<Stmt> startingStmts = new ArrayList<>();
-    for (Stmt stmt : graph.getNodes()) {
-      liveIn.put(stmt, Collections.emptySet());
-      liveOut.put(stmt, Collections.emptySet());
-      if (graph.successors(stmt).isEmpty() && graph.exceptionalSuccessors(stmt).isEmpty()) {
-        startingStmts.add(stmt);
+    List<BasicBlock<?>> blocks = new ArrayList<>();
+    for (BasicBlock<?> block : graph.getBlocks()) {
+      if (block.getStmtCount() == 0) {
+        continue;
+      }
+      List<Stmt> stmts = block.getStmts();
+      for (Stmt stmt : stmts) {
+        blockIndices.put(stmt, blocks.size());
+        numberLocals(stmt);
       }
+      blocks.add(block);
+      blockStmts.add(stmts);
     }
+    words = (locals.size() + 63) >>> 6;
 
-    boolean fixed = false;
-    while (!fixed) {
-      fixed = true;
-      Deque<Stmt> queue = new ArrayDeque<>(startingStmts);
-      HashSet<Stmt> visitedStmts = new HashSet<>();
-      while (!queue.isEmpty()) {
-        Stmt stmt = queue.removeFirst();
-        visitedStmts.add(stmt);
-
-        Set<Local> out = new HashSet<>(liveOut.get(stmt));
-        for (Stmt succ : graph.successors(stmt)) {
-          out = merge(out, liveIn.get(succ));
+    // summarize the blocks
+    int blockCount = blocks.size();
+    int[][] successors = new int[blockCount][];
+    int[][] handlers = new int[blockCount][];
+    long[][] gen = new long[blockCount][words];
+    long[][] kill = new long[blockCount][words];
+    int[] headDefs = new int[blockCount];
+    for (int blockIdx = 0; blockIdx < blockCount; blockIdx++) {
+      BasicBlock<?> block = blocks.get(blockIdx);
+      successors[blockIdx] = toBlockIndices(block.getSuccessors());
+      handlers[blockIdx] = toBlockIndices(block.getExceptionalSuccessors().values());
+      List<Stmt> stmts = blockStmts.get(blockIdx);
+      for (int i = stmts.size() - 1; i >= 0; i--) {
+        Stmt stmt = stmts.get(i);
+        int def = defs.get(stmt);
+        if (def >= 0) {
+          clear(gen[blockIdx], def);
+          set(kill[blockIdx], def);
         }
-        for (Stmt esucc : graph.exceptionalSuccessors(stmt).values()) {
-          out = merge(out, liveIn.get(esucc));
-        }
-        if (isNotEqual(out, liveOut.get(stmt))) {
-          fixed = false;
-          liveOut.put(stmt, new HashSet<>(out));
+        for (int use : uses.get(stmt)) {
+          set(gen[blockIdx], use);
         }
+      }
+      headDefs[blockIdx] = defs.get(stmts.get(0));
+    }
 
-        Set<Local> in = new HashSet<>();
-        for (Value use : stmt.getUses()) {
-          if (use instanceof Local) {
-            in.add((Local) use);
-          }
-        }
-        final List<LValue> defs = stmt.getDefs();
-        if (!defs.isEmpty()) {
-          final Value value = defs.get(0);
-          if (value instanceof Local) {
-            out.remove(value);
-          }
-        }
-        in = merge(in, out);
-        if (isNotEqual(in, liveIn.get(stmt))) {
-          fixed = false;
-          liveIn.put(stmt, in);
-        }
-        for (Stmt pred : graph.predecessors(stmt)) {
-          if (!visitedStmts.contains(pred)) {
-            queue.addLast(pred);
+    blockLiveIn = new long[blockCount][words];
+    blockLiveOut = new long[blockCount][words];
+    blockLiveAtHandlers = new long[blockCount][words];
+    int[] order = postorder(graph, successors, handlers);
+    long[] in = new long[words];
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (int blockIdx : order) {
+        long[] out = blockLiveOut[blockIdx];
+        long[] atHandlers = blockLiveAtHandlers[blockIdx];
+        unionBlockLiveIn(out, successors[blockIdx]);
+        unionBlockLiveIn(atHandlers, handlers[blockIdx]);
+
+        // in = gen + (out - kill) + (atHandlers - def(head)): a handler can be reached after any
+        // stmt of the block, so only the local defined by the head is certainly redefined before
+        long[] blockGen = gen[blockIdx];
+        long[] blockKill = kill[blockIdx];
+        int headDef = headDefs[blockIdx];
+        for (int w = 0; w < words; w++) {
+          long handlerBits = atHandlers[w];
+          if (headDef >= 0 && w == headDef >>> 6) {
+            handlerBits &= ~(1L << headDef);
           }
+          in[w] = blockGen[w] | (out[w] & ~blockKill[w]) | handlerBits;
         }
-        for (Stmt epred : graph.exceptionalPredecessors(stmt)) {
-          if (!visitedStmts.contains(epred)) {
-            queue.addLast(epred);
-          }
+        if (!Arrays.equals(in, blockLiveIn[blockIdx])) {
+          System.arraycopy(in, 0, blockLiveIn[blockIdx], 0, words);
+          changed = true;
         }
       }
     }
@@ -107,51 +147,166 @@ public class LocalLivenessAnalyser {
   /** Get all live locals before the given stmt. */
   @Nonnull
   public Set<Local> getLiveLocalsBeforeStmt(@Nonnull Stmt stmt) {
-    if (!liveIn.containsKey(stmt)) {
-      throw new RuntimeException("Stmt: " + stmt + " is not in StmtGraph!");
-    }
+    expandBlockOf(stmt);
     return liveIn.get(stmt);
   }
 
   /** Get all live locals after the given stmt. */
   @Nonnull
   public Set<Local> getLiveLocalsAfterStmt(@Nonnull Stmt stmt) {
-    if (!liveOut.containsKey(stmt)) {
+    expandBlockOf(stmt);
+    return liveOut.get(stmt);
+  }
+
+  /** Computes the live locals of all stmts of the block of the given stmt, if not done before. */
+  private void expandBlockOf(@Nonnull Stmt stmt) {
+    if (liveIn.containsKey(stmt)) {
+      return;
+    }
+    Integer blockIdx = blockIndices.get(stmt);
+    if (blockIdx == null) {
       throw new RuntimeException("Stmt: " + stmt + " is not in StmtGraph!");
     }
-    return liveOut.get(stmt);
+    long[] atHandlers = blockLiveAtHandlers[blockIdx];
+    long[] live = blockLiveOut[blockIdx].clone();
+    List<Stmt> stmts = blockStmts.get(blockIdx);
+    for (int i = stmts.size() - 1; i >= 0; i--) {
+      Stmt current = stmts.get(i);
+      for (int w = 0; w < words; w++) {
+        live[w] |= atHandlers[w];
+      }
+      liveOut.put(current, toLocalSet(live));
+      int def = defs.get(current);
+      if (def >= 0) {
+        clear(live, def);
+      }
+      for (int use : uses.get(current)) {
+        set(live, use);
+      }
+      liveIn.put(current, toLocalSet(live));
+    }
+  }
+
+  /** Assigns an index to each local the stmt uses or defines and remembers them for the stmt. */
+  private void numberLocals(@Nonnull Stmt stmt) {
+    int[] useIndices = new int[0];
+    int count = 0;
+    for (Value use : stmt.getUses()) {
+      if (use instanceof Local) {
+        if (count == useIndices.length) {
+          useIndices = Arrays.copyOf(useIndices, count * 2 + 1);
+        }
+        useIndices[count++] = indexOf((Local) use);
+      }
+    }
+    uses.put(stmt, count == useIndices.length ? useIndices : Arrays.copyOf(useIndices, count));
+
+    int def = -1;
+    final List<LValue> stmtDefs = stmt.getDefs();
+    if (!stmtDefs.isEmpty()) {
+      final Value value = stmtDefs.get(0);
+      if (value instanceof Local) {
+        def = indexOf((Local) value);
+      }
+    }
+    defs.put(stmt, def);
+  }
+
+  private int indexOf(@Nonnull Local local) {
+    Integer index = localIndices.get(local);
+    if (index == null) {
+      index = locals.size();
+      localIndices.put(local, index);
+      locals.add(local);
+    }
+    return index;
   }
 
-  /**
-   * Merge two local sets into one set.
-   *
-   * @return a merged local set
-   */
   @Nonnull
-  private Set<Local> merge(@Nonnull Set<Local> set1, @Nonnull Set<Local> set2) {
-    if (set1.isEmpty()) {
-      return set2;
-    } else {
-      set1.addAll(set2);
-      return set1;
+  private int[] toBlockIndices(@Nonnull Collection<? extends BasicBlock<?>> blocks) {
+    int[] indices = new int[blocks.size()];
+    int i = 0;
+    for (BasicBlock<?> block : blocks) {
+      indices[i++] = blockIndices.get(block.getHead());
     }
+    return indices;
   }
 
   /**
-   * Check whether two sets contains same locals.
-   *
-   * @return if same return true, else return false;
+   * Orders the blocks in postorder of a depth first search from the starting block. Blocks that are
+   * not reachable from the starting block are appended in postorder of further searches.
    */
-  private boolean isNotEqual(@Nonnull Set<Local> set1, @Nonnull Set<Local> set2) {
-    if (set1.size() != set2.size()) {
-      return true;
-    } else {
-      for (Local local : set1) {
-        if (!set2.contains(local)) {
-          return true;
+  @Nonnull
+  private int[] postorder(
+      @Nonnull StmtGraph<?> graph, @Nonnull int[][] successors, @Nonnull int[][] handlers) {
+    int blockCount = successors.length;
+    int[] order = new int[blockCount];
+    int orderSize = 0;
+    boolean[] visited = new boolean[blockCount];
+    // the next successor to visit of each block on the stack, handlers follow the successors
+    int[] nextSuccessor = new int[blockCount];
+    int[] stack = new int[blockCount];
+
+    Stmt startingStmt = graph.getStartingStmt();
+    Integer startingBlock = startingStmt == null ? null : blockIndices.get(startingStmt);
+    for (int i = -1; i < blockCount; i++) {
+      int root = i < 0 ? (startingBlock == null ? -1 : startingBlock) : i;
+      if (root < 0 || visited[root]) {
+        continue;
+      }
+      int top = 0;
+      stack[top] = root;
+      visited[root] = true;
+      while (top >= 0) {
+        int blockIdx = stack[top];
+        int next = nextSuccessor[blockIdx]++;
+        int[] blockSuccessors = successors[blockIdx];
+        int succ;
+        if (next < blockSuccessors.length) {
+          succ = blockSuccessors[next];
+        } else if (next - blockSuccessors.length < handlers[blockIdx].length) {
+          succ = handlers[blockIdx][next - blockSuccessors.length];
+        } else {
+          order[orderSize++] = blockIdx;
+          top--;
+          continue;
         }
+        if (!visited[succ]) {
+          visited[succ] = true;
+          stack[++top] = succ;
+        }
+      }
+    }
+    return order;
+  }
+
+  private void unionBlockLiveIn(@Nonnull long[] target, @Nonnull int[] blockIdxs) {
+    for (int blockIdx : blockIdxs) {
+      long[] in = blockLiveIn[blockIdx];
+      for (int w = 0; w < words; w++) {
+        target[w] |= in[w];
+      }
+    }
+  }
+
+  @Nonnull
+  private Set<Local> toLocalSet(@Nonnull long[] bits) {
+    Set<Local> set = new HashSet<>();
+    for (int w = 0; w < words; w++) {
+      long word = bits[w];
+      while (word != 0) {
+        set.add(locals.get((w << 6) + Long.numberOfTrailingZeros(word)));
+        word &= word - 1;
       }
     }
-    return false;
+    return set.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(set);
+  }
+
+  private static void set(@Nonnull long[] bits, int index) {
+    bits[index >>> 6] |= 1L << index;
+  }
+
+  private static void clear(@Nonnull long[] bits, int index) {
+    bits[index >>> 6] &= ~(1L << index);
   }
 }
@@ -27,6 +27,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import sootup.core.graph.DefUseChains;
 import sootup.core.graph.MutableStmtGraph;
 import sootup.core.jimple.basic.LValue;
 import sootup.core.jimple.basic.Local;
@@ -99,22 +100,19 @@ public abstract class TypeChecker extends AbstractStmtVisitor<Stmt> {
           if (type_base != null
               && (Type.isObjectLikeType(type_base)
                   || (Type.isObject(type_base) && type_rhs instanceof PrimitiveType))) {
-            Map<LValue, Collection<Stmt>> defs = Body.collectDefs(graph.getNodes());
-            Collection<Stmt> defStmts = defs.get(base);
+            Collection<Stmt> defStmts = graph.getDefUseChains().getDefs(base);
             boolean findDef = false;
-            if (defStmts != null) {
-              for (Stmt defStmt : defStmts) {
-                if (defStmt instanceof JAssignStmt) {
-                  Value arrExpr = ((JAssignStmt) defStmt).getRightOp();
-                  if (arrExpr instanceof JNewArrayExpr) {
-                    arrayType = (ArrayType) arrExpr.getType();
-                    findDef = true;
-                    break;
-                  } else if (arrExpr instanceof JNewMultiArrayExpr) {
-                    arrayType = ((JNewMultiArrayExpr) arrExpr).getBaseType();
-                    findDef = true;
-                    break;
-                  }
+            for (Stmt defStmt : defStmts) {
+              if (defStmt instanceof JAssignStmt) {
+                Value arrExpr = ((JAssignStmt) defStmt).getRightOp();
+                if (arrExpr instanceof JNewArrayExpr) {
+                  arrayType = (ArrayType) arrExpr.getType();
+                  findDef = true;
+                  break;
+                } else if (arrExpr instanceof JNewMultiArrayExpr) {
+                  arrayType = ((JNewMultiArrayExpr) arrExpr).getBaseType();
+                  findDef = true;
+                  break;
                 }
               }
             }
@@ -156,7 +154,7 @@ public abstract class TypeChecker extends AbstractStmtVisitor<Stmt> {
         arrayType = (ArrayType) type_base;
       } else {
         if (type_base instanceof NullType || Type.isObjectLikeType(type_base)) {
-          Map<LValue, Collection<Stmt>> defs = Body.collectDefs(graph.getNodes());
+          DefUseChains defUseChains = graph.getDefUseChains();
           Deque<StmtLocalPair> worklist = new ArrayDeque<>();
           Set<StmtLocalPair> visited = new HashSet<>();
           worklist.add(new StmtLocalPair(stmt, base));
@@ -166,7 +164,7 @@ public abstract class TypeChecker extends AbstractStmtVisitor<Stmt> {
             if (!visited.add(pair)) {
               continue;
             }
-            Collection<Stmt> stmts = defs.get(pair.getLocal());
+            Collection<Stmt> stmts = defUseChains.getDefs(pair.getLocal());
             for (Stmt s : stmts) {
               if (s instanceof JAssignStmt) {
                 Value value = ((JAssignStmt) s).getRightOp();
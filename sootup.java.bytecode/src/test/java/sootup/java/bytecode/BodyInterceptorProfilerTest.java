@@ -0,0 +1,211 @@
+package sootup.java.bytecode;
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.core.cache.provider.FullCacheProvider;
+import sootup.core.cache.provider.LRUBodyCacheProvider;
+import sootup.core.inputlocation.DefaultSourceTypeSpecifier;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.transform.BodyInterceptorProfiler;
+import sootup.core.views.View;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.bytecode.interceptors.BytecodeBodyInterceptors;
+import sootup.java.bytecode.interceptors.NopEliminator;
+import sootup.java.bytecode.interceptors.TypeAssigner;
+import sootup.java.core.views.JavaView;
+
+@Category(Java8Test.class)
+public class BodyInterceptorProfilerTest {
+
+  @Test
+  public void testProfileMiniApp() throws Exception {
+    List<BodyInterceptor> interceptors = BytecodeBodyInterceptors.Default.bodyInterceptors();
+    JavaView view =
+        new JavaView(
+            PathBasedAnalysisInputLocation.create(
+                Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar"),
+                SourceType.Application,
+                interceptors));
+    BodyInterceptorProfiler profiler = new BodyInterceptorProfiler();
+    view.addBodyInterceptorListener(profiler);
+
+    List<SootMethod> methods =
+        view.getClasses().stream()
+            .flatMap(sootClass -> sootClass.getMethods().stream())
+            .filter(SootMethod::hasBody)
+            .collect(Collectors.toList());
+    List<Body> bodies = methods.stream().map(SootMethod::getBody).collect(Collectors.toList());
+    String report = profiler.toString();
+    assertTrue(report, report.startsWith("BodyInterceptorProfiler(" + methods.size() + " methods"));
+    for (BodyInterceptor interceptor : interceptors) {
+      assertTrue(
+          report,
+          report.contains(
+              interceptor.getClass().getSimpleName() + ": " + methods.size() + " bodies"));
+    }
+
+    List<BodyInterceptorProfiler.InterceptorStatistics> interceptorStatistics =
+        profiler.getInterceptorStatistics();
+    assertEquals(interceptors.size(), interceptorStatistics.size());
+    for (BodyInterceptorProfiler.InterceptorStatistics statistics : interceptorStatistics) {
+      assertEquals(methods.size(), statistics.getCount());
+      assertEquals(0, statistics.getFailureCount());
+      assertTrue(statistics.getSlowestMethod().isPresent());
+      assertEquals(
+          methods.size(),
+          statistics.getHistogram(BodyInterceptorProfiler.Metric.WALL_TIME).getCount());
+    }
+    BodyInterceptorProfiler.InterceptorStatistics typeAssigner =
+        profiler.getInterceptorStatistics(TypeAssigner.class).get();
+    if (profiler.isAllocationRecorded()) {
+      assertTrue(typeAssigner.getAllocatedBytes() > 0);
+    }
+    // each interceptor continues with the body the previous one has left
+    for (int i = 1; i < interceptors.size(); i++) {
+      BodyInterceptorProfiler.InterceptorStatistics previous =
+          profiler.getInterceptorStatistics(interceptors.get(i - 1).getClass()).get();
+      BodyInterceptorProfiler.InterceptorStatistics next =
+          profiler.getInterceptorStatistics(interceptors.get(i).getClass()).get();
+      assertEquals(previous.getStmtCountAfter(), next.getStmtCountBefore());
+      assertEquals(previous.getLocalCountAfter(), next.getLocalCountBefore());
+    }
+    BodyInterceptorProfiler.InterceptorStatistics nopEliminator =
+        profiler.getInterceptorStatistics(NopEliminator.class).get();
+    assertTrue(nopEliminator.getStmtCountAfter() <= nopEliminator.getStmtCountBefore());
+
+    for (int i = 0; i < methods.size(); i++) {
+      BodyInterceptorProfiler.MethodStatistics statistics =
+          profiler.getMethodStatistics(methods.get(i).getSignature()).get();
+      assertEquals(bodies.get(i).getStmtGraph().getNodes().size(), statistics.getFinalStmtCount());
+      assertEquals(bodies.get(i).getLocals().size(), statistics.getFinalLocalCount());
+      assertTrue(statistics.getInitialStmtCount() > 0);
+      assertEquals(
+          interceptors.stream().map(BodyInterceptor::getClass).collect(Collectors.toList()),
+          new ArrayList<>(statistics.getInterceptorTimes().keySet()));
+      assertTrue(statistics.getSlowestInterceptor().isPresent());
+    }
+    List<BodyInterceptorProfiler.MethodStatistics> slowestMethods = profiler.getSlowestMethods(3);
+    assertEquals(3, slowestMethods.size());
+    assertTrue(slowestMethods.get(0).getTotalTime() >= slowestMethods.get(2).getTotalTime());
+
+    StringBuilder csv = new StringBuilder();
+    profiler.exportHistograms(BodyInterceptorProfiler.Metric.WALL_TIME, csv);
+    List<String> rows = Arrays.asList(csv.toString().split("\n"));
+    assertEquals("name,lower ns,upper ns,count", rows.get(0));
+    assertTrue(rows.stream().anyMatch(row -> row.startsWith(TypeAssigner.class.getName() + ",")));
+    assertEquals(
+        methods.size(),
+        rows.stream()
+            .filter(row -> row.startsWith("<methods>,"))
+            .mapToLong(row -> Long.parseLong(row.substring(row.lastIndexOf(',') + 1)))
+            .sum());
+
+    profiler.clear();
+    assertTrue(profiler.getInterceptorStatistics().isEmpty());
+    assertFalse(profiler.getMethodStatistics(methods.get(0).getSignature()).isPresent());
+  }
+
+  @Test
+  public void testResolveEvictedBodyAgain() {
+    JavaView view =
+        new JavaView(
+            Collections.singletonList(
+                PathBasedAnalysisInputLocation.create(
+                    Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar"),
+                    SourceType.Application,
+                    Collections.singletonList(new NopEliminator()))),
+            new FullCacheProvider<>(),
+            DefaultSourceTypeSpecifier.getInstance(),
+            new LRUBodyCacheProvider(1));
+    BodyInterceptorProfiler profiler = new BodyInterceptorProfiler();
+    view.addBodyInterceptorListener(profiler);
+    List<SootMethod> methods =
+        view.getClasses().stream()
+            .flatMap(sootClass -> sootClass.getMethods().stream())
+            .filter(SootMethod::hasBody)
+            .limit(2)
+            .collect(Collectors.toList());
+
+    methods.get(0).getBody();
+    BodyInterceptorProfiler.MethodStatistics statistics =
+        profiler.getMethodStatistics(methods.get(0).getSignature()).get();
+    assertEquals(1, statistics.getResolutionCount());
+    // the body of the first method is evicted by the second one and resolved again
+    methods.get(1).getBody();
+    Body body = methods.get(0).getBody();
+    assertEquals(2, statistics.getResolutionCount());
+    assertEquals(body.getStmtGraph().getNodes().size(), statistics.getFinalStmtCount());
+    assertTrue(statistics.toString().contains("2 resolutions"));
+    assertEquals(3, profiler.getInterceptorStatistics(NopEliminator.class).get().getCount());
+  }
+
+  @Test
+  public void testFailingInterceptor() {
+    BodyInterceptor failingInterceptor =
+        new BodyInterceptor() {
+          @Override
+          public void interceptBody(Body.BodyBuilder builder, View<?> view) {
+            throw new IllegalArgumentException("always fails");
+          }
+        };
+    JavaView view =
+        new JavaView(
+            PathBasedAnalysisInputLocation.create(
+                Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar"),
+                SourceType.Application,
+                Arrays.asList(new NopEliminator(), failingInterceptor)));
+    BodyInterceptorProfiler profiler = new BodyInterceptorProfiler();
+    view.addBodyInterceptorListener(profiler);
+
+    SootMethod method =
+        view.getClasses().stream()
+            .flatMap(sootClass -> sootClass.getMethods().stream())
+            .filter(SootMethod::hasBody)
+            .findFirst()
+            .get();
+    try {
+      method.getBody();
+      fail();
+    } catch (IllegalStateException e) {
+      assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+    assertEquals(
+        1,
+        profiler.getInterceptorStatistics(failingInterceptor.getClass()).get().getFailureCount());
+    assertEquals(0, profiler.getInterceptorStatistics(NopEliminator.class).get().getFailureCount());
+  }
+
+  @Test
+  public void testHistogram() {
+    BodyInterceptorProfiler.Histogram histogram = new BodyInterceptorProfiler.Histogram();
+    for (long value : new long[] {0, 1, 2, 3, 4, 7, 8, 1000}) {
+      histogram.record(value);
+    }
+    assertEquals(8, histogram.getCount());
+    assertEquals(1025, histogram.getSum());
+    assertEquals(1000, histogram.getMax());
+    assertEquals(1, histogram.getCount(0));
+    assertEquals(1, histogram.getCount(1));
+    assertEquals(2, histogram.getCount(2));
+    assertEquals(2, histogram.getCount(3));
+    assertEquals(1, histogram.getCount(4));
+    assertEquals(1, histogram.getCount(BodyInterceptorProfiler.Histogram.getBucket(1000)));
+    assertEquals(512, BodyInterceptorProfiler.Histogram.getLowerBound(10));
+    assertEquals(1023, BodyInterceptorProfiler.Histogram.getUpperBound(10));
+    assertEquals(0, histogram.getPercentile(0));
+    assertEquals(7, histogram.getPercentile(75));
+    assertEquals(1000, histogram.getPercentile(100));
+  }
+}
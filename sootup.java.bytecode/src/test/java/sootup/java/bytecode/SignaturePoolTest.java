@@ -0,0 +1,86 @@
+package sootup.java.bytecode;
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.SootField;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.signatures.SignaturePool;
+import sootup.java.bytecode.inputlocation.DefaultRTJarAnalysisInputLocation;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.views.JavaView;
+
+@Category(Java8Test.class)
+public class SignaturePoolTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(SignaturePoolTest.class);
+
+  @Test
+  public void testRuntimeJarPackage() {
+    AnalysisInputLocation<JavaSootClass> inputLocation =
+        new DefaultRTJarAnalysisInputLocation(SourceType.Library, Collections.emptyList());
+    JavaView view = new JavaView(Collections.singletonList(inputLocation));
+    SignaturePool pool = new SignaturePool();
+    view.setSignaturePool(pool);
+    // the frontend converts all bodies of this package
+    List<JavaSootClass> classes =
+        view.getClasses().stream()
+            .filter(c -> c.getType().getPackageName().getName().equals("java.util.jar"))
+            .collect(Collectors.toList());
+    assertFalse(classes.isEmpty());
+
+    int invokes = 0;
+    int declaredCallees = 0;
+    for (JavaSootClass clazz : classes) {
+      for (SootMethod method : clazz.getMethods()) {
+        assertSame(method.getSignature(), pool.intern(method.getSignature()));
+        if (!method.hasBody()) {
+          continue;
+        }
+        for (Stmt stmt : method.getBody().getStmts()) {
+          if (stmt.containsInvokeExpr()) {
+            MethodSignature callee = stmt.getInvokeExpr().getMethodSignature();
+            assertSame(callee, pool.intern(callee));
+            invokes++;
+            // the callee can be compared by reference with the signature of its declaration
+            Optional<? extends SootMethod> declaredCallee = view.getMethod(callee);
+            if (declaredCallee.isPresent()) {
+              assertSame(declaredCallee.get().getSignature(), callee);
+              declaredCallees++;
+            }
+          }
+        }
+      }
+      for (SootField field : clazz.getFields()) {
+        assertSame(field.getSignature(), pool.intern(field.getSignature()));
+      }
+    }
+
+    logger.debug("interned {} invokes of {} classes: {}", invokes, classes.size(), pool);
+    assertTrue(invokes > 0);
+    assertTrue(declaredCallees > 0);
+    // calls to the same methods and fields are spread over many bodies
+    assertTrue(
+        pool.getDuplicateCount(SignaturePool.Kind.METHOD_SIGNATURE)
+            > pool.size(SignaturePool.Kind.METHOD_SIGNATURE));
+    assertTrue(pool.getDuplicateCount(SignaturePool.Kind.FIELD_SIGNATURE) > 0);
+    assertTrue(
+        pool.size(SignaturePool.Kind.METHOD_SUB_SIGNATURE)
+            < pool.size(SignaturePool.Kind.METHOD_SIGNATURE));
+    // the pool is scoped to the view
+    assertNull(JavaIdentifierFactory.getInstance().getSignaturePool());
+  }
+}
@@ -2,16 +2,32 @@ package sootup.java.bytecode.frontend;
 
 import static junit.framework.Assert.assertTrue;
 import static junit.framework.TestCase.fail;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 import categories.Java8Test;
+import com.google.common.io.ByteStreams;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.ZipFile;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import sootup.core.frontend.SootClassSource;
+import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.model.SootClass;
 import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
 import sootup.core.signatures.MethodSignature;
 import sootup.java.bytecode.inputlocation.DefaultRTJarAnalysisInputLocation;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
 import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.JavaSootClass;
 import sootup.java.core.types.JavaClassType;
 import sootup.java.core.views.JavaView;
 
@@ -46,4 +62,48 @@ public class AsmMethodSourceTest {
     final SootMethod method = abstractClass.getMethod(mainMethodSignature.getSubSignature()).get();
     method.getBody().getStmts();
   }
+
+  @Test
+  public void testCodeReadOnDemand() throws IOException {
+    Path jar = Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar");
+    AnalysisInputLocation<JavaSootClass> inputLocation =
+        PathBasedAnalysisInputLocation.create(jar, SourceType.Application);
+    JavaView view = new JavaView(inputLocation);
+    assertFalse(view.isReadCodeOnDemand());
+    AsmJavaClassProvider eagerClassProvider = new AsmJavaClassProvider(view);
+    view.setReadCodeOnDemand(true);
+
+    try (ZipFile zipFile = new ZipFile(jar.toFile())) {
+      for (JavaSootClass sootClass : view.getClasses()) {
+        String entryName = sootClass.getType().getFullyQualifiedName().replace('.', '/') + ".class";
+        byte[] classFile;
+        try (InputStream in = zipFile.getInputStream(zipFile.getEntry(entryName))) {
+          classFile = ByteStreams.toByteArray(in);
+        }
+        SootClassSource<JavaSootClass> eagerClassSource =
+            eagerClassProvider
+                .createClassSource(inputLocation, jar, sootClass.getType(), classFile)
+                .get();
+        Map<MethodSignature, SootMethod> eagerMethods =
+            eagerClassSource.resolveMethods().stream()
+                .collect(Collectors.toMap(SootMethod::getSignature, Function.identity()));
+
+        for (SootMethod method : sootClass.getMethods()) {
+          if (!method.isConcrete()) {
+            continue;
+          }
+          AsmMethodSource methodSource = (AsmMethodSource) method.getBodySource();
+          assertEquals(0, methodSource.instructions.size());
+          String body = methodSource.resolveBody(method.getModifiers()).toString();
+          // the code is released after the body has been resolved
+          assertEquals(0, methodSource.instructions.size());
+
+          SootMethod eagerMethod = eagerMethods.get(method.getSignature());
+          assertEquals(
+              eagerMethod.getBodySource().resolveBody(eagerMethod.getModifiers()).toString(), body);
+          assertEquals(body, methodSource.resolveBody(method.getModifiers()).toString());
+        }
+      }
+    }
+  }
 }
@@ -0,0 +1,144 @@
+package sootup.java.bytecode.inputlocation;
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import sootup.core.frontend.AbstractClassSource;
+import sootup.core.model.SourceType;
+import sootup.core.types.ClassType;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.views.JavaView;
+
+@Category(Java8Test.class)
+public class ClassPathIndexTest {
+
+  final Path jar = Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar");
+  final Path classDirectory = Paths.get("../shared-test-resources/miniTestSuite/java6/binary");
+  final Path rtJar = Paths.get(System.getProperty("java.home") + "/lib/rt.jar");
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private final List<ClassType> types =
+      Arrays.asList(
+          JavaIdentifierFactory.getInstance().getClassType("ds.Employee"),
+          JavaIdentifierFactory.getInstance().getClassType("MiniApp"),
+          JavaIdentifierFactory.getInstance().getClassType("AbstractClass"),
+          JavaIdentifierFactory.getInstance().getClassType("AnnotationUsage$Enums"),
+          JavaIdentifierFactory.getInstance().getClassType("java.util.HashMap"),
+          JavaIdentifierFactory.getInstance().getClassType("does.not.Exist"));
+
+  private static String classPath(Path... paths) {
+    StringBuilder classPath = new StringBuilder();
+    for (Path path : paths) {
+      if (classPath.length() > 0) {
+        classPath.append(File.pathSeparator);
+      }
+      classPath.append(path);
+    }
+    return classPath.toString();
+  }
+
+  /** Asserts that the class path finds the same classes in the same entries with an index. */
+  private void assertSameLookups(
+      JavaClassPathAnalysisInputLocation expected, JavaClassPathAnalysisInputLocation actual) {
+    JavaView view = new JavaView(expected);
+    for (ClassType type : types) {
+      Optional<? extends AbstractClassSource<JavaSootClass>> expectedSource =
+          expected.getClassSource(type, view);
+      Optional<? extends AbstractClassSource<JavaSootClass>> actualSource =
+          actual.getClassSource(type, view);
+      assertEquals(type.toString(), expectedSource.isPresent(), actualSource.isPresent());
+      if (expectedSource.isPresent()) {
+        assertEquals(expectedSource.get().getSourcePath(), actualSource.get().getSourcePath());
+      }
+    }
+  }
+
+  @Test
+  public void testIndexedLookup() {
+    String classPath = classPath(jar, classDirectory, rtJar);
+    assertSameLookups(
+        new JavaClassPathAnalysisInputLocation(classPath),
+        new JavaClassPathAnalysisInputLocation(
+            classPath, SourceType.Application, Collections.emptyList(), true));
+  }
+
+  @Test
+  public void testFirstEntryShadowsLaterEntries() throws IOException {
+    Path copy = tempFolder.newFolder().toPath().resolve("Copy.jar");
+    Files.copy(jar, copy);
+    JavaClassPathAnalysisInputLocation inputLocation =
+        new JavaClassPathAnalysisInputLocation(
+            classPath(copy, jar), SourceType.Application, Collections.emptyList(), true);
+    JavaView view = new JavaView(inputLocation);
+
+    Optional<? extends AbstractClassSource<JavaSootClass>> classSource =
+        inputLocation.getClassSource(types.get(0), view);
+    assertTrue(classSource.isPresent());
+    assertTrue(classSource.get().getSourcePath().startsWith(copy));
+  }
+
+  @Test
+  public void testPersistedIndex() throws IOException {
+    Path indexFile = tempFolder.newFolder().toPath().resolve("classpath.index");
+    String classPath = classPath(jar, classDirectory, rtJar);
+    JavaClassPathAnalysisInputLocation unindexed =
+        new JavaClassPathAnalysisInputLocation(classPath);
+
+    assertSameLookups(
+        unindexed,
+        new JavaClassPathAnalysisInputLocation(
+            classPath, SourceType.Application, Collections.emptyList(), indexFile));
+    assertTrue(Files.exists(indexFile));
+
+    // the class names of the archives are read from the index file
+    assertSameLookups(
+        unindexed,
+        new JavaClassPathAnalysisInputLocation(
+            classPath, SourceType.Application, Collections.emptyList(), indexFile));
+
+    // a corrupt index file is rebuilt
+    byte[] content = Files.readAllBytes(indexFile);
+    Files.write(indexFile, Arrays.copyOf(content, content.length / 2));
+    assertSameLookups(
+        unindexed,
+        new JavaClassPathAnalysisInputLocation(
+            classPath, SourceType.Application, Collections.emptyList(), indexFile));
+    assertEquals(content.length, Files.size(indexFile));
+  }
+}
@@ -0,0 +1,202 @@
+package sootup.java.bytecode.inputlocation;
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import sootup.core.frontend.AbstractClassSource;
+import sootup.core.model.SourceType;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.views.JavaView;
+
+@Category(Java8Test.class)
+public class MappedZipArchiveTest {
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static byte[] readAll(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int read;
+    while ((read = in.read(buffer)) != -1) {
+      out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+
+  /** Compares every entry of the mapped archive with the content read by {@link ZipFile}. */
+  private static void assertSameEntries(Path path) throws IOException {
+    MappedZipArchive archive = MappedZipArchive.open(path);
+    Set<String> names = new HashSet<>();
+    try (ZipFile zipFile = new ZipFile(path.toFile())) {
+      Enumeration<? extends ZipEntry> entries = zipFile.entries();
+      while (entries.hasMoreElements()) {
+        ZipEntry entry = entries.nextElement();
+        names.add(entry.getName());
+        try (InputStream in = zipFile.getInputStream(entry)) {
+          assertArrayEquals(entry.getName(), readAll(in), archive.getEntry(entry.getName()));
+        }
+      }
+    }
+    assertEquals(names, new HashSet<>(archive.getEntryNames()));
+    assertNull(archive.getEntry("does/not/Exist.class"));
+  }
+
+  @Test
+  public void testMiniAppJar() throws IOException {
+    assertSameEntries(Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar"));
+  }
+
+  @Test
+  public void testRtJar() throws IOException {
+    assertSameEntries(Paths.get(System.getProperty("java.home") + "/lib/rt.jar"));
+  }
+
+  @Test
+  public void testStoredEntries() throws IOException {
+    Path path = tempFolder.newFile("stored.zip").toPath();
+    byte[] content = "stored content".getBytes();
+    CRC32 crc = new CRC32();
+    crc.update(content);
+    try (OutputStream out = Files.newOutputStream(path);
+        ZipOutputStream zip = new ZipOutputStream(out)) {
+      zip.setComment("a comment after the central directory");
+      ZipEntry stored = new ZipEntry("a/Stored.class");
+      stored.setMethod(ZipEntry.STORED);
+      stored.setSize(content.length);
+      stored.setCrc(crc.getValue());
+      zip.putNextEntry(stored);
+      zip.write(content);
+      zip.closeEntry();
+      zip.putNextEntry(new ZipEntry("a/Empty.class"));
+      zip.closeEntry();
+    }
+
+    MappedZipArchive archive = MappedZipArchive.open(path);
+    assertArrayEquals(content, archive.getEntry("a/Stored.class"));
+    assertArrayEquals(new byte[0], archive.getEntry("a/Empty.class"));
+    assertSameEntries(path);
+  }
+
+  /**
+   * Neither the mapped archive nor the zip file system can read an entry which is compressed with
+   * bzip2, but it must not keep the input location from reading the other classes.
+   */
+  @Test
+  public void testUnsupportedCompressionMethod() throws IOException {
+    Path miniApp = Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar");
+    Path path = tempFolder.newFile("bzip2.jar").toPath();
+    try (ZipFile zipFile = new ZipFile(miniApp.toFile());
+        OutputStream out = Files.newOutputStream(path);
+        ZipOutputStream zip = new ZipOutputStream(out)) {
+      // the stored entry is written first, so its headers are the first ones of the archive
+      byte[] content = "not compressed with bzip2".getBytes();
+      CRC32 crc = new CRC32();
+      crc.update(content);
+      ZipEntry broken = new ZipEntry("Broken.class");
+      broken.setMethod(ZipEntry.STORED);
+      broken.setSize(content.length);
+      broken.setCrc(crc.getValue());
+      zip.putNextEntry(broken);
+      zip.write(content);
+      zip.closeEntry();
+
+      Enumeration<? extends ZipEntry> entries = zipFile.entries();
+      while (entries.hasMoreElements()) {
+        ZipEntry entry = entries.nextElement();
+        zip.putNextEntry(new ZipEntry(entry.getName()));
+        try (InputStream in = zipFile.getInputStream(entry)) {
+          zip.write(readAll(in));
+        }
+        zip.closeEntry();
+      }
+    }
+    byte[] bytes = Files.readAllBytes(path);
+    setCompressionMethod(bytes, 0, 8);
+    setCompressionMethod(bytes, indexOfCentralDirectory(bytes), 10);
+    Files.write(path, bytes);
+
+    try {
+      MappedZipArchive.open(path).getEntry("Broken.class");
+      fail("the mapped archive can not read bzip2 entries");
+    } catch (IOException expected) {
+      // the input location reads the entry through the zip file system instead
+    }
+
+    ArchiveBasedAnalysisInputLocation inputLocation =
+        new ArchiveBasedAnalysisInputLocation(path, SourceType.Application);
+    JavaView view = new JavaView(inputLocation);
+    Collection<? extends AbstractClassSource<?>> classSources = inputLocation.getClassSources(view);
+    ArchiveBasedAnalysisInputLocation miniAppInputLocation =
+        new ArchiveBasedAnalysisInputLocation(miniApp, SourceType.Application);
+    assertEquals(
+        miniAppInputLocation.getClassSources(new JavaView(miniAppInputLocation)).size(),
+        classSources.size());
+    assertFalse(
+        inputLocation
+            .getClassSource(JavaIdentifierFactory.getInstance().getClassType("Broken"), view)
+            .isPresent());
+  }
+
+  /** Sets the compression method of the header at the offset to bzip2. */
+  private static void setCompressionMethod(byte[] bytes, int header, int methodOffset) {
+    bytes[header + methodOffset] = 12;
+    bytes[header + methodOffset + 1] = 0;
+  }
+
+  private static int indexOfCentralDirectory(byte[] bytes) {
+    for (int i = 0; i + 4 <= bytes.length; i++) {
+      if (bytes[i] == 'P' && bytes[i + 1] == 'K' && bytes[i + 2] == 1 && bytes[i + 3] == 2) {
+        return i;
+      }
+    }
+    throw new AssertionError("no central directory");
+  }
+
+  @Test(expected = IOException.class)
+  public void testNoArchive() throws IOException {
+    Path path = tempFolder.newFile("no.jar").toPath();
+    Files.write(path, Collections.singletonList("this is not a zip archive"));
+    MappedZipArchive.open(path);
+  }
+}
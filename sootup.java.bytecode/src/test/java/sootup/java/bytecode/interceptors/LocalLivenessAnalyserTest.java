@@ -1,14 +1,20 @@
 package sootup.java.bytecode.interceptors;
 
+import static org.junit.Assert.*;
+
 import categories.Java8Test;
-import java.util.Collections;
-import java.util.Set;
+import java.util.*;
+import java.util.stream.Collectors;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import sootup.core.graph.MutableBlockStmtGraph;
 import sootup.core.graph.MutableStmtGraph;
+import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.basic.LValue;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.NoPositionInformation;
 import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.basic.Value;
 import sootup.core.jimple.common.constant.IntConstant;
 import sootup.core.jimple.common.stmt.BranchingStmt;
 import sootup.core.jimple.common.stmt.FallsThroughStmt;
@@ -16,12 +22,17 @@ import sootup.core.jimple.common.stmt.JIfStmt;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.Body;
 import sootup.core.model.Position;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
 import sootup.core.signatures.MethodSignature;
 import sootup.core.types.VoidType;
 import sootup.core.util.ImmutableUtils;
+import sootup.java.bytecode.inputlocation.DefaultRTJarAnalysisInputLocation;
 import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.JavaSootClass;
 import sootup.java.core.language.JavaJimple;
 import sootup.java.core.types.JavaClassType;
+import sootup.java.core.views.JavaView;
 
 /** @author Zun Wang */
 @Category(Java8Test.class)
@@ -90,6 +101,142 @@ public class LocalLivenessAnalyserTest {
     AssertUtils.assertSetsEquiv(Collections.emptySet(), analyser.getLiveLocalsAfterStmt(ret));
   }
 
+  /**
+   * Compares the analyser with a straightforward per-stmt fixpoint on a generated method with more
+   * than 10k stmts, 128 locals and nested backward jumps.
+   */
+  @Test
+  public void testLargeMethod() {
+    MutableStmtGraph graph = createLargeGraph(12000, 128);
+    assertTrue(graph.getNodes().size() > 10000);
+    compareWithReference(graph);
+  }
+
+  /** Compares the analyser with the per-stmt fixpoint on bodies with traps. */
+  @Test
+  public void testRuntimeJarBodies() {
+    JavaView view =
+        new JavaView(
+            Collections.singletonList(
+                new DefaultRTJarAnalysisInputLocation(
+                    SourceType.Library, Collections.emptyList())));
+    // the frontend converts all bodies of this package, many of which have traps
+    List<JavaSootClass> classes =
+        view.getClasses().stream()
+            .filter(c -> c.getType().getPackageName().getName().equals("java.beans.beancontext"))
+            .collect(Collectors.toList());
+    assertFalse(classes.isEmpty());
+    int bodies = 0;
+    int bodiesWithTraps = 0;
+    for (JavaSootClass clazz : classes) {
+      for (SootMethod method : clazz.getMethods()) {
+        if (!method.hasBody()) {
+          continue;
+        }
+        Body body = method.getBody();
+        compareWithReference(body.getStmtGraph());
+        bodies++;
+        if (!body.getTraps().isEmpty()) {
+          bodiesWithTraps++;
+        }
+      }
+    }
+    assertTrue(bodies > 0);
+    assertTrue(bodiesWithTraps > 0);
+  }
+
+  private void compareWithReference(StmtGraph<?> graph) {
+    LocalLivenessAnalyser analyser = new LocalLivenessAnalyser(graph);
+    Map<Stmt, Set<Local>> liveIn = new HashMap<>();
+    Map<Stmt, Set<Local>> liveOut = new HashMap<>();
+    computeReferenceLiveness(graph, liveIn, liveOut);
+
+    for (Stmt stmt : graph.getNodes()) {
+      assertEquals(liveIn.get(stmt), analyser.getLiveLocalsBeforeStmt(stmt));
+      assertEquals(liveOut.get(stmt), analyser.getLiveLocalsAfterStmt(stmt));
+    }
+  }
+
+  /** Computes the live locals of each stmt by iterating over the stmts until nothing changes. */
+  private void computeReferenceLiveness(
+      StmtGraph<?> graph, Map<Stmt, Set<Local>> liveIn, Map<Stmt, Set<Local>> liveOut) {
+    List<Stmt> stmts = new ArrayList<>(graph.getNodes());
+    Collections.reverse(stmts);
+    for (Stmt stmt : stmts) {
+      liveIn.put(stmt, new HashSet<>());
+      liveOut.put(stmt, new HashSet<>());
+    }
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (Stmt stmt : stmts) {
+        Set<Local> out = liveOut.get(stmt);
+        for (Stmt succ : graph.successors(stmt)) {
+          changed |= out.addAll(liveIn.get(succ));
+        }
+        for (Stmt handler : graph.exceptionalSuccessors(stmt).values()) {
+          changed |= out.addAll(liveIn.get(handler));
+        }
+        Set<Local> in = new HashSet<>(out);
+        List<LValue> defs = stmt.getDefs();
+        if (!defs.isEmpty() && defs.get(0) instanceof Local) {
+          in.remove(defs.get(0));
+        }
+        for (Value use : stmt.getUses()) {
+          if (use instanceof Local) {
+            in.add((Local) use);
+          }
+        }
+        changed |= liveIn.get(stmt).addAll(in);
+      }
+    }
+  }
+
+  /**
+   * Builds a method of assignments between the given number of locals, where every 64th stmt is a
+   * conditional jump back into the previous stmts, so that the loops overlap.
+   */
+  private MutableStmtGraph createLargeGraph(int stmtCount, int localCount) {
+    Local[] locals = new Local[localCount];
+    for (int i = 0; i < localCount; i++) {
+      locals[i] = JavaJimple.newLocal("l" + i, intType);
+    }
+    MutableStmtGraph graph = new MutableBlockStmtGraph();
+    List<Stmt> stmts = new ArrayList<>();
+    for (int i = 0; i < stmtCount; i++) {
+      Stmt stmt;
+      if (i % 64 == 63) {
+        stmt =
+            JavaJimple.newIfStmt(
+                JavaJimple.newGtExpr(locals[(i * 13) % localCount], IntConstant.getInstance(0)),
+                noStmtPositionInfo);
+      } else {
+        stmt =
+            JavaJimple.newAssignStmt(
+                locals[(i * 7) % localCount],
+                JavaJimple.newAddExpr(
+                    locals[(i * 31 + 5) % localCount], locals[(i * 17 + 3) % localCount]),
+                noStmtPositionInfo);
+      }
+      stmts.add(stmt);
+    }
+    Stmt ret = JavaJimple.newReturnStmt(locals[0], noStmtPositionInfo);
+    stmts.add(ret);
+
+    graph.setStartingStmt(stmts.get(0));
+    for (int i = 0; i < stmtCount; i++) {
+      Stmt stmt = stmts.get(i);
+      if (stmt instanceof JIfStmt) {
+        graph.putEdge((BranchingStmt) stmt, JIfStmt.FALSE_BRANCH_IDX, stmts.get(i + 1));
+        graph.putEdge(
+            (BranchingStmt) stmt, JIfStmt.TRUE_BRANCH_IDX, stmts.get(Math.max(0, i - 100)));
+      } else {
+        graph.putEdge((FallsThroughStmt) stmt, stmts.get(i + 1));
+      }
+    }
+    return graph;
+  }
+
   private Body createBody() {
 
     Body.BodyBuilder builder = Body.builder();
@@ -22,15 +22,16 @@ package sootup.java.core;
  * #L%
  */
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.ClassUtils;
 import sootup.core.IdentifierFactory;
@@ -39,12 +40,14 @@ import sootup.core.signatures.FieldSubSignature;
 import sootup.core.signatures.MethodSignature;
 import sootup.core.signatures.MethodSubSignature;
 import sootup.core.signatures.PackageName;
+import sootup.core.signatures.SignaturePool;
 import sootup.core.types.ArrayType;
 import sootup.core.types.ClassType;
 import sootup.core.types.NullType;
 import sootup.core.types.PrimitiveType;
 import sootup.core.types.Type;
 import sootup.core.types.VoidType;
+import sootup.core.util.WeakValueCache;
 import sootup.java.core.types.AnnotationType;
 import sootup.java.core.types.JavaClassType;
 
@@ -56,6 +59,9 @@ public class JavaIdentifierFactory implements IdentifierFactory {
 
   @Nonnull private static final JavaIdentifierFactory INSTANCE = new JavaIdentifierFactory();
 
+  /** The number of slots of the method descriptor cache, a power of two. */
+  private static final int METHOD_DESCRIPTOR_CACHE_SIZE = 1 << 12;
+
   @Override
   public boolean isStaticInitializerSubSignature(@Nonnull MethodSubSignature methodSubSignature) {
     return methodSubSignature.getName().equals("<clinit>");
@@ -77,31 +83,58 @@ public class JavaIdentifierFactory implements IdentifierFactory {
     return false;
   }
 
+  /*
+   * The caches below are looked up on every type and signature created by the frontends. They keep
+   * their values weakly, so that types which are no longer referenced can be collected, and they
+   * read present keys without locking.
+   */
+
   /** Caches the created PackageNames for packages. */
-  @Nonnull
-  protected final Cache<String, PackageName> packageCache =
-      CacheBuilder.newBuilder().weakValues().build();
+  @Nonnull protected final WeakValueCache<String, PackageName> packageCache;
 
-  /** Caches annotation types */
-  @Nonnull
-  protected final Cache<String, AnnotationType> annotationTypeCache =
-      CacheBuilder.newBuilder().weakValues().build();
+  /** Caches annotation types by their fully-qualified name. */
+  @Nonnull protected final WeakValueCache<String, AnnotationType> annotationTypeCache;
 
-  /** Caches class types */
-  @Nonnull
-  protected final Cache<String, JavaClassType> classTypeCache =
-      CacheBuilder.newBuilder().weakValues().build();
+  /**
+   * Caches class types by the fully-qualified names they have been requested with, and by their
+   * package and class name separated by a slash, which cannot be part of a fully-qualified name.
+   */
+  @Nonnull protected final WeakValueCache<String, JavaClassType> classTypeCache;
 
-  @Nonnull
-  protected final Map<String, PrimitiveType> primitiveTypeMap = Maps.newHashMapWithExpectedSize(8);
+  /** Caches the types returned by {@link #getType(String)} by their type descriptor. */
+  @Nonnull private final WeakValueCache<String, Type> typeCache;
+
+  /** Caches array types. */
+  @Nonnull private final WeakValueCache<ArrayType, ArrayType> arrayTypeCache;
+
+  /**
+   * Caches parsed method descriptors in the slot of the hash of their descriptor, replacing the
+   * descriptor which was in the slot before. The parsed descriptors are only referenced while
+   * signatures are created, so the cache is bounded instead of keeping them weakly.
+   */
+  @Nonnull private final AtomicReferenceArray<MethodDescriptor> methodDescriptorCache;
+
+  @Nonnull protected final Map<String, PrimitiveType> primitiveTypeMap;
+
+  /** Canonicalizes the method and field signatures created by this factory, if set. */
+  @Nullable private final SignaturePool signaturePool;
 
   public static JavaIdentifierFactory getInstance() {
     return INSTANCE;
   }
 
   JavaIdentifierFactory() {
+    packageCache = new WeakValueCache<>();
+    annotationTypeCache = new WeakValueCache<>();
+    classTypeCache = new WeakValueCache<>();
+    typeCache = new WeakValueCache<>();
+    arrayTypeCache = new WeakValueCache<>();
+    methodDescriptorCache = new AtomicReferenceArray<>(METHOD_DESCRIPTOR_CACHE_SIZE);
+    primitiveTypeMap = Maps.newHashMapWithExpectedSize(8);
+    signaturePool = null;
+
     /* Represents the default package. */
-    packageCache.put(PackageName.DEFAULT_PACKAGE.getName(), PackageName.DEFAULT_PACKAGE);
+    packageCache.putIfAbsent(PackageName.DEFAULT_PACKAGE.getName(), PackageName.DEFAULT_PACKAGE);
 
     // initialize primitive map
     primitiveTypeMap.put(
@@ -135,24 +168,27 @@ public class JavaIdentifierFactory implements IdentifierFactory {
    */
   @Override
   public JavaClassType getClassType(final String className, final String packageName) {
-    PackageName packageIdentifier = getPackageName(packageName);
-    return classTypeCache
-        .asMap()
-        .computeIfAbsent(
-            className + packageName, (k) -> new JavaClassType(className, packageIdentifier));
+    return classTypeCache.computeIfAbsent(
+        packageName + "/" + className,
+        k -> new JavaClassType(className, getPackageName(packageName)));
   }
 
   /**
-   * Always creates a new ClassSignature.
+   * Returns the ClassSignature for the fully-qualified name, which is created once per name.
    *
    * @param fullyQualifiedClassName the fully-qualified name of the class
    * @return a ClassSignature for a Java Class
    */
   @Override
   public JavaClassType getClassType(final String fullyQualifiedClassName) {
-    String className = ClassUtils.getShortClassName(fullyQualifiedClassName);
-    String packageName = ClassUtils.getPackageName(fullyQualifiedClassName);
-    return getClassType(className, packageName);
+    JavaClassType classType = classTypeCache.get(fullyQualifiedClassName);
+    if (classType == null) {
+      String className = ClassUtils.getShortClassName(fullyQualifiedClassName);
+      String packageName = ClassUtils.getPackageName(fullyQualifiedClassName);
+      classType = getClassType(className, packageName);
+      classTypeCache.putIfAbsent(fullyQualifiedClassName, classType);
+    }
+    return classType;
   }
 
   /**
@@ -165,6 +201,11 @@ public class JavaIdentifierFactory implements IdentifierFactory {
    */
   @Override
   public Type getType(final String typeDesc) {
+    return typeCache.computeIfAbsent(typeDesc, this::parseType);
+  }
+
+  @Nonnull
+  private Type parseType(@Nonnull String typeDesc) {
     int len = typeDesc.length();
     StringBuilder stringBuilder = new StringBuilder();
     int nrDims = 0;
@@ -209,7 +250,7 @@ public class JavaIdentifierFactory implements IdentifierFactory {
     }
 
     if (nrDims > 0) {
-      ret = new ArrayType(ret, nrDims);
+      ret = getArrayType(ret, nrDims);
     }
     return ret;
   }
@@ -236,18 +277,17 @@ public class JavaIdentifierFactory implements IdentifierFactory {
 
   @Override
   public ArrayType getArrayType(Type baseType, int dim) {
-    return new ArrayType(baseType, dim);
+    ArrayType arrayType = new ArrayType(baseType, dim);
+    return arrayTypeCache.putIfAbsent(arrayType, arrayType);
   }
 
   public AnnotationType getAnnotationType(final String fullyQualifiedClassName) {
-    String className = ClassUtils.getShortClassName(fullyQualifiedClassName);
-    String packageName = ClassUtils.getPackageName(fullyQualifiedClassName);
-
-    return annotationTypeCache
-        .asMap()
-        .computeIfAbsent(
-            className + packageName,
-            (k) -> new AnnotationType(className, getPackageName(packageName)));
+    return annotationTypeCache.computeIfAbsent(
+        fullyQualifiedClassName,
+        k ->
+            new AnnotationType(
+                ClassUtils.getShortClassName(fullyQualifiedClassName),
+                getPackageName(ClassUtils.getPackageName(fullyQualifiedClassName))));
   }
 
   @Override
@@ -278,11 +318,199 @@ public class JavaIdentifierFactory implements IdentifierFactory {
    */
   @Override
   public PackageName getPackageName(@Nonnull final String packageName) {
-    return packageCache.asMap().computeIfAbsent(packageName, PackageName::new);
+    return packageCache.computeIfAbsent(packageName, PackageName::new);
+  }
+
+  /**
+   * Returns the parameter and return types of a method descriptor as defined by the JVM
+   * specification, e.g. <code>(ILjava/lang/String;)[J</code>. The result is cached, as the
+   * descriptors of frequently called methods are parsed again for each call.
+   *
+   * @param descriptor the method descriptor
+   * @return the parsed method descriptor
+   * @throws IllegalArgumentException if the descriptor is malformed
+   */
+  @Nonnull
+  public MethodDescriptor getMethodDescriptor(@Nonnull String descriptor) {
+    int hash = descriptor.hashCode();
+    int slot = (hash ^ (hash >>> 16)) & (METHOD_DESCRIPTOR_CACHE_SIZE - 1);
+    MethodDescriptor methodDescriptor = methodDescriptorCache.get(slot);
+    if (methodDescriptor == null || !methodDescriptor.descriptor.equals(descriptor)) {
+      methodDescriptor = parseMethodDescriptor(descriptor);
+      methodDescriptorCache.lazySet(slot, methodDescriptor);
+    }
+    return methodDescriptor;
+  }
+
+  @Nonnull
+  private MethodDescriptor parseMethodDescriptor(@Nonnull String descriptor) {
+    int end = descriptor.indexOf(')');
+    if (descriptor.isEmpty() || descriptor.charAt(0) != '(' || end < 0) {
+      throw new IllegalArgumentException("Invalid method descriptor: " + descriptor);
+    }
+    ImmutableList.Builder<Type> parameterTypes = ImmutableList.builder();
+    int index = 1;
+    while (index < end) {
+      int typeEnd = descriptorTypeEnd(descriptor, index);
+      parameterTypes.add(parseDescriptorType(descriptor, index, typeEnd));
+      index = typeEnd;
+    }
+    if (descriptorTypeEnd(descriptor, end + 1) != descriptor.length()) {
+      throw new IllegalArgumentException("Invalid method descriptor: " + descriptor);
+    }
+    Type returnType = parseDescriptorType(descriptor, end + 1, descriptor.length());
+    return new MethodDescriptor(descriptor, parameterTypes.build(), returnType);
+  }
+
+  /** Returns the end index of the field descriptor, or void, starting at the given index. */
+  private static int descriptorTypeEnd(@Nonnull String descriptor, int begin) {
+    int index = begin;
+    while (index < descriptor.length() && descriptor.charAt(index) == '[') {
+      index++;
+    }
+    if (index >= descriptor.length()) {
+      throw new IllegalArgumentException("Invalid method descriptor: " + descriptor);
+    }
+    if (descriptor.charAt(index) == 'L') {
+      int end = descriptor.indexOf(';', index);
+      if (end < 0) {
+        throw new IllegalArgumentException("Invalid method descriptor: " + descriptor);
+      }
+      return end + 1;
+    }
+    return index + 1;
+  }
+
+  @Nonnull
+  private Type parseDescriptorType(@Nonnull String descriptor, int begin, int end) {
+    int dimension = 0;
+    while (descriptor.charAt(begin + dimension) == '[') {
+      dimension++;
+    }
+    Type baseType;
+    char c = descriptor.charAt(begin + dimension);
+    switch (c) {
+      case 'Z':
+        baseType = PrimitiveType.getBoolean();
+        break;
+      case 'B':
+        baseType = PrimitiveType.getByte();
+        break;
+      case 'C':
+        baseType = PrimitiveType.getChar();
+        break;
+      case 'S':
+        baseType = PrimitiveType.getShort();
+        break;
+      case 'I':
+        baseType = PrimitiveType.getInt();
+        break;
+      case 'F':
+        baseType = PrimitiveType.getFloat();
+        break;
+      case 'J':
+        baseType = PrimitiveType.getLong();
+        break;
+      case 'D':
+        baseType = PrimitiveType.getDouble();
+        break;
+      case 'V':
+        if (dimension > 0) {
+          throw new IllegalArgumentException("Invalid method descriptor: " + descriptor);
+        }
+        baseType = VoidType.getInstance();
+        break;
+      case 'L':
+        baseType =
+            getClassType(descriptor.substring(begin + dimension + 1, end - 1).replace('/', '.'));
+        break;
+      default:
+        throw new IllegalArgumentException(
+            "Unknown type '" + c + "' in method descriptor: " + descriptor);
+    }
+    return dimension > 0 ? getArrayType(baseType, dimension) : baseType;
+  }
+
+  /** The parameter types and the return type of a method descriptor. */
+  public static final class MethodDescriptor {
+
+    @Nonnull private final String descriptor;
+    @Nonnull private final List<Type> parameterTypes;
+    @Nonnull private final Type returnType;
+
+    private MethodDescriptor(
+        @Nonnull String descriptor, @Nonnull List<Type> parameterTypes, @Nonnull Type returnType) {
+      this.descriptor = descriptor;
+      this.parameterTypes = parameterTypes;
+      this.returnType = returnType;
+    }
+
+    /** Returns the parameter types in an immutable list. */
+    @Nonnull
+    public List<Type> getParameterTypes() {
+      return parameterTypes;
+    }
+
+    @Nonnull
+    public Type getReturnType() {
+      return returnType;
+    }
+
+    @Override
+    public String toString() {
+      return parameterTypes + " -> " + returnType;
+    }
+  }
+
+  /**
+   * Creates a factory sharing the types of the given factory, which interns its signatures. The
+   * copy constructors of subclasses call it from their {@link #withSignaturePool(SignaturePool)}.
+   */
+  protected JavaIdentifierFactory(
+      @Nonnull JavaIdentifierFactory typeFactory, @Nonnull SignaturePool signaturePool) {
+    packageCache = typeFactory.packageCache;
+    annotationTypeCache = typeFactory.annotationTypeCache;
+    classTypeCache = typeFactory.classTypeCache;
+    typeCache = typeFactory.typeCache;
+    arrayTypeCache = typeFactory.arrayTypeCache;
+    methodDescriptorCache = typeFactory.methodDescriptorCache;
+    primitiveTypeMap = typeFactory.primitiveTypeMap;
+    this.signaturePool = signaturePool;
+  }
+
+  /**
+   * Returns a factory that creates the same types as this one, but interns the method and field
+   * signatures it creates in the given pool, so that equal signatures are the same instance. The
+   * pool is only used by the returned factory, e.g. by the view it is passed to, and not by this
+   * one.
+   *
+   * <p>Subclasses which create types of their own override it to return a copy of themselves, see
+   * {@link #JavaIdentifierFactory(JavaIdentifierFactory, SignaturePool)}.
+   */
+  @Nonnull
+  public JavaIdentifierFactory withSignaturePool(@Nonnull SignaturePool signaturePool) {
+    return new JavaIdentifierFactory(this, signaturePool);
+  }
+
+  @Nullable
+  public SignaturePool getSignaturePool() {
+    return signaturePool;
+  }
+
+  @Nonnull
+  private MethodSignature pooled(@Nonnull MethodSignature signature) {
+    SignaturePool pool = signaturePool;
+    return pool == null ? signature : pool.intern(signature);
+  }
+
+  @Nonnull
+  private FieldSignature pooled(@Nonnull FieldSignature signature) {
+    SignaturePool pool = signaturePool;
+    return pool == null ? signature : pool.intern(signature);
   }
 
   /**
-   * Always creates a new MethodSignature AND a new ClassSignature.
+   * Creates a new MethodSignature AND a new ClassSignature, unless a {@link SignaturePool} is set.
    *
    * @param fullyQualifiedNameDeclClass the fully-qualified name of the declaring class
    * @param methodName the method's name
@@ -303,11 +531,12 @@ public class JavaIdentifierFactory implements IdentifierFactory {
       Type parameterSignature = getType(fqParameterName);
       parameterSignatures.add(parameterSignature);
     }
-    return new MethodSignature(declaringClass, methodName, parameterSignatures, returnType);
+    return pooled(new MethodSignature(declaringClass, methodName, parameterSignatures, returnType));
   }
 
   /**
-   * Always creates a new MethodSignature reusing the given ClassSignature.
+   * Creates a new MethodSignature reusing the given ClassSignature, unless a {@link SignaturePool}
+   * is set.
    *
    * @param declaringClassSignature the ClassSignature of the declaring class
    * @param methodName the method's name
@@ -327,8 +556,8 @@ public class JavaIdentifierFactory implements IdentifierFactory {
       Type parameterSignature = getType(fqParameterName);
       parameterSignatures.add(parameterSignature);
     }
-    return new MethodSignature(
-        declaringClassSignature, methodName, parameterSignatures, returnType);
+    return pooled(
+        new MethodSignature(declaringClassSignature, methodName, parameterSignatures, returnType));
   }
 
   @Override
@@ -338,14 +567,15 @@ public class JavaIdentifierFactory implements IdentifierFactory {
       final Type fqReturnType,
       final List<Type> parameters) {
 
-    return new MethodSignature(declaringClassSignature, methodName, parameters, fqReturnType);
+    return pooled(
+        new MethodSignature(declaringClassSignature, methodName, parameters, fqReturnType));
   }
 
   @Override
   @Nonnull
   public MethodSignature getMethodSignature(
       @Nonnull ClassType declaringClassSignature, @Nonnull MethodSubSignature subSignature) {
-    return new MethodSignature(declaringClassSignature, subSignature);
+    return pooled(new MethodSignature(declaringClassSignature, subSignature));
   }
 
   private static final class MethodSignatureParserPatternHolder {
@@ -447,7 +677,9 @@ public class JavaIdentifierFactory implements IdentifierFactory {
       @Nonnull String name,
       @Nonnull Type returnType,
       @Nonnull Iterable<? extends Type> parameterSignatures) {
-    return new MethodSubSignature(name, parameterSignatures, returnType);
+    MethodSubSignature subSignature = new MethodSubSignature(name, parameterSignatures, returnType);
+    SignaturePool pool = signaturePool;
+    return pool == null ? subSignature : pool.intern(subSignature);
   }
 
   @Nonnull
@@ -600,26 +832,28 @@ public class JavaIdentifierFactory implements IdentifierFactory {
   public FieldSignature getFieldSignature(
       final String fieldName, final ClassType declaringClassSignature, final String fieldType) {
     Type type = getType(fieldType);
-    return new FieldSignature(declaringClassSignature, fieldName, type);
+    return pooled(new FieldSignature(declaringClassSignature, fieldName, type));
   }
 
   @Override
   public FieldSignature getFieldSignature(
       final String fieldName, final ClassType declaringClassSignature, final Type fieldType) {
-    return new FieldSignature(declaringClassSignature, fieldName, fieldType);
+    return pooled(new FieldSignature(declaringClassSignature, fieldName, fieldType));
   }
 
   @Override
   @Nonnull
   public FieldSignature getFieldSignature(
       @Nonnull ClassType declaringClassSignature, @Nonnull FieldSubSignature subSignature) {
-    return new FieldSignature(declaringClassSignature, subSignature);
+    return pooled(new FieldSignature(declaringClassSignature, subSignature));
   }
 
   @Nonnull
   @Override
   public FieldSubSignature getFieldSubSignature(@Nonnull String name, @Nonnull Type type) {
-    return new FieldSubSignature(name, type);
+    FieldSubSignature subSignature = new FieldSubSignature(name, type);
+    SignaturePool pool = signaturePool;
+    return pool == null ? subSignature : pool.intern(subSignature);
   }
 
   @Nonnull
@@ -22,14 +22,14 @@ package sootup.java.core;
  * #L%
  */
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import java.util.List;
 import javax.annotation.Nonnull;
 import org.apache.commons.lang3.ClassUtils;
 import sootup.core.signatures.MethodSignature;
 import sootup.core.signatures.MethodSubSignature;
+import sootup.core.signatures.SignaturePool;
 import sootup.core.types.Type;
+import sootup.core.util.WeakValueCache;
 import sootup.java.core.signatures.ModulePackageName;
 import sootup.java.core.signatures.ModuleSignature;
 import sootup.java.core.types.ModuleJavaClassType;
@@ -38,8 +38,7 @@ public class JavaModuleIdentifierFactory extends JavaIdentifierFactory {
 
   public static final String MODULE_INFO_FILE = "module-info";
 
-  private static final Cache<String, ModuleSignature> modules =
-      CacheBuilder.newBuilder().weakValues().build();
+  private static final WeakValueCache<String, ModuleSignature> modules = new WeakValueCache<>();
 
   private static final JavaModuleIdentifierFactory INSTANCE = new JavaModuleIdentifierFactory();
 
@@ -47,17 +46,30 @@ public class JavaModuleIdentifierFactory extends JavaIdentifierFactory {
     return INSTANCE;
   }
 
+  public JavaModuleIdentifierFactory() {}
+
+  /** Creates a factory sharing the types of the given factory, which interns its signatures. */
+  protected JavaModuleIdentifierFactory(
+      @Nonnull JavaModuleIdentifierFactory typeFactory, @Nonnull SignaturePool signaturePool) {
+    super(typeFactory, signaturePool);
+  }
+
+  @Nonnull
+  @Override
+  public JavaModuleIdentifierFactory withSignaturePool(@Nonnull SignaturePool signaturePool) {
+    return new JavaModuleIdentifierFactory(this, signaturePool);
+  }
+
   public static JavaModuleIdentifierFactory getInstance(@Nonnull String module) {
     return getInstance(getModuleSignature(module));
   }
 
-  private static final Cache<ModuleSignature, JavaModuleIdentifierFactory>
-      moduleIdentifierFactoryWrapper = CacheBuilder.newBuilder().weakValues().build();
+  private static final WeakValueCache<ModuleSignature, JavaModuleIdentifierFactory>
+      moduleIdentifierFactoryWrapper = new WeakValueCache<>();
 
   public static JavaModuleIdentifierFactory getInstance(@Nonnull ModuleSignature moduleSignature) {
-    return moduleIdentifierFactoryWrapper
-        .asMap()
-        .computeIfAbsent(moduleSignature, JavaModuleIdentifierFactoryWrapper::new);
+    return moduleIdentifierFactoryWrapper.computeIfAbsent(
+        moduleSignature, JavaModuleIdentifierFactoryWrapper::new);
   }
 
   static {
@@ -68,7 +80,8 @@ public class JavaModuleIdentifierFactory extends JavaIdentifierFactory {
      *
      * <p>{@link ModuleSignature#UNNAMED_MODULE}
      */
-    modules.put(ModuleSignature.UNNAMED_MODULE.getModuleName(), ModuleSignature.UNNAMED_MODULE);
+    modules.putIfAbsent(
+        ModuleSignature.UNNAMED_MODULE.getModuleName(), ModuleSignature.UNNAMED_MODULE);
   }
 
   @Override
@@ -153,7 +166,7 @@ public class JavaModuleIdentifierFactory extends JavaIdentifierFactory {
    *     the unnamed module.
    */
   public static ModuleSignature getModuleSignature(@Nonnull final String moduleName) {
-    return modules.asMap().computeIfAbsent(moduleName, ModuleSignature::new);
+    return modules.computeIfAbsent(moduleName, ModuleSignature::new);
   }
 
   @Override
@@ -176,19 +189,16 @@ public class JavaModuleIdentifierFactory extends JavaIdentifierFactory {
       @Nonnull final String packageName, @Nonnull final String moduleName) {
     String fqId = moduleName + "." + packageName;
     return (ModulePackageName)
-        packageCache
-            .asMap()
-            .computeIfAbsent(
-                fqId, key -> new ModulePackageName(packageName, getModuleSignature(moduleName)));
+        packageCache.computeIfAbsent(
+            fqId, key -> new ModulePackageName(packageName, getModuleSignature(moduleName)));
   }
 
   public ModulePackageName getPackageName(
       @Nonnull final String packageName, @Nonnull final ModuleSignature moduleSignature) {
     String fqId = moduleSignature.getModuleName() + "." + packageName;
     return (ModulePackageName)
-        packageCache
-            .asMap()
-            .computeIfAbsent(fqId, key -> new ModulePackageName(packageName, moduleSignature));
+        packageCache.computeIfAbsent(
+            fqId, key -> new ModulePackageName(packageName, moduleSignature));
   }
 
   /** Wrapper which refers to a given ModuleSignature when building stuff */
@@ -200,6 +210,19 @@ public class JavaModuleIdentifierFactory extends JavaIdentifierFactory {
       this.moduleSignature = moduleSignature;
     }
 
+    private JavaModuleIdentifierFactoryWrapper(
+        @Nonnull JavaModuleIdentifierFactoryWrapper typeFactory,
+        @Nonnull SignaturePool signaturePool) {
+      super(typeFactory, signaturePool);
+      this.moduleSignature = typeFactory.moduleSignature;
+    }
+
+    @Nonnull
+    @Override
+    public JavaModuleIdentifierFactory withSignaturePool(@Nonnull SignaturePool signaturePool) {
+      return new JavaModuleIdentifierFactoryWrapper(this, signaturePool);
+    }
+
     @Override
     public ModuleJavaClassType getClassType(String fullyQualifiedClassName) {
       int moduleSplitPos = fullyQualifiedClassName.indexOf('/');
@@ -34,6 +34,7 @@ import sootup.core.jimple.common.constant.StringConstant;
 import sootup.core.jimple.common.ref.JCaughtExceptionRef;
 import sootup.core.signatures.SootClassMemberSignature;
 import sootup.core.signatures.SootClassMemberSubSignature;
+import sootup.core.types.ClassType;
 import sootup.core.types.NullType;
 import sootup.core.types.PrimitiveType;
 import sootup.core.types.Type;
@@ -79,7 +80,9 @@ public class JavaJimple extends Jimple {
   }
 
   public EnumConstant newEnumConstant(String value, String type) {
-    return new EnumConstant(value, getIdentifierFactory().getClassType(type));
+    ClassType classType = getIdentifierFactory().getClassType(type);
+    return new EnumConstant(
+        value, classType, getIdentifierFactory().getFieldSignature(value, classType, classType));
   }
 
   public StringConstant newStringConstant(String value) {
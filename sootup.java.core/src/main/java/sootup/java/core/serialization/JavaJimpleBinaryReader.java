@@ -0,0 +1,120 @@
+package sootup.java.core.serialization;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.frontend.BodySource;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.ClassModifier;
+import sootup.core.model.FieldModifier;
+import sootup.core.model.MethodModifier;
+import sootup.core.model.Position;
+import sootup.core.model.SootField;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.FieldSignature;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
+import sootup.core.util.serialization.JimpleBinaryReader;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.JavaSootField;
+import sootup.java.core.JavaSootMethod;
+import sootup.java.core.OverridingJavaClassSource;
+
+/**
+ * Reads classes in the binary Jimple format as {@link JavaSootClass}es. Annotations are not part of
+ * the format, so the classes and their members are read without annotations.
+ */
+public class JavaJimpleBinaryReader extends JimpleBinaryReader {
+
+  public JavaJimpleBinaryReader(@Nonnull InputStream inputStream) throws IOException {
+    super(inputStream, JavaIdentifierFactory.getInstance());
+  }
+
+  @Nonnull
+  @Override
+  public OverridingJavaClassSource readClass(
+      @Nonnull AnalysisInputLocation<?> inputLocation, @Nonnull Path sourcePath)
+      throws IOException {
+    return (OverridingJavaClassSource) super.readClass(inputLocation, sourcePath);
+  }
+
+  @Nonnull
+  @Override
+  protected SootField createField(
+      @Nonnull FieldSignature signature,
+      @Nonnull EnumSet<FieldModifier> modifiers,
+      @Nonnull Position position) {
+    return new JavaSootField(signature, modifiers, Collections.emptyList(), position);
+  }
+
+  @Nonnull
+  @Override
+  protected SootMethod createMethod(
+      @Nonnull BodySource bodySource,
+      @Nonnull MethodSignature signature,
+      @Nonnull EnumSet<MethodModifier> modifiers,
+      @Nonnull List<ClassType> thrownExceptions,
+      @Nonnull Position position) {
+    return new JavaSootMethod(
+        bodySource, signature, modifiers, thrownExceptions, Collections.emptyList(), position);
+  }
+
+  @Nonnull
+  @Override
+  @SuppressWarnings("unchecked")
+  protected OverridingJavaClassSource createClassSource(
+      @Nonnull AnalysisInputLocation<?> inputLocation,
+      @Nonnull Path sourcePath,
+      @Nonnull ClassType classType,
+      @Nonnull EnumSet<ClassModifier> modifiers,
+      @Nullable ClassType superClass,
+      @Nonnull Set<ClassType> interfaces,
+      @Nullable ClassType outerClass,
+      @Nonnull Set<SootField> fields,
+      @Nonnull Set<SootMethod> methods,
+      @Nonnull Position position) {
+    return new OverridingJavaClassSource(
+        (AnalysisInputLocation<JavaSootClass>) inputLocation,
+        sourcePath,
+        classType,
+        superClass,
+        interfaces,
+        outerClass,
+        fields,
+        methods,
+        position,
+        modifiers,
+        Collections.emptyList(),
+        Collections.emptyList(),
+        Collections.emptyList());
+  }
+}
@@ -0,0 +1,169 @@
+package sootup.java.core.serialization;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.frontend.SootClassSource;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.inputlocation.FileType;
+import sootup.core.model.SootClass;
+import sootup.core.model.SourceType;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.types.ClassType;
+import sootup.core.util.PathUtils;
+import sootup.core.util.StreamUtils;
+import sootup.core.util.serialization.JimpleBinaryWriter;
+import sootup.core.views.View;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.JavaSootClass;
+
+/**
+ * An {@link AnalysisInputLocation} for a directory of classes in the binary Jimple format, e.g. a
+ * library that has been lifted once and written with {@link #writeClasses(Iterable, Path)}. A class
+ * is only read when it is requested and the bodies of its methods are only decoded when they are
+ * resolved. The stored bodies are used as they are, i.e. no {@link BodyInterceptor}s are applied.
+ */
+public class JimpleBinaryAnalysisInputLocation implements AnalysisInputLocation<JavaSootClass> {
+
+  @Nonnull private final Path path;
+  @Nullable private final SourceType srcType;
+  @Nonnull private final JimpleBinaryClassProvider classProvider = new JimpleBinaryClassProvider();
+
+  public JimpleBinaryAnalysisInputLocation(@Nonnull Path path) {
+    this(path, null);
+  }
+
+  public JimpleBinaryAnalysisInputLocation(@Nonnull Path path, @Nullable SourceType srcType) {
+    if (!Files.isDirectory(path)) {
+      throw new IllegalArgumentException(
+          "The configured path '"
+              + path
+              + "' pointing to '"
+              + path.toAbsolutePath()
+              + "' is not a directory.");
+    }
+    this.path = path;
+    this.srcType = srcType;
+  }
+
+  /**
+   * Writes each of the given classes with the bodies of its methods to its own file in the binary
+   * Jimple format, in a directory structure that corresponds to the packages of the classes.
+   *
+   * @throws IllegalArgumentException if a body contains a value or type which can not be
+   *     serialized.
+   */
+  public static void writeClasses(
+      @Nonnull Iterable<? extends SootClass<?>> classes, @Nonnull Path directory)
+      throws IOException {
+    for (SootClass<?> sootClass : classes) {
+      final JimpleBinaryWriter writer = new JimpleBinaryWriter();
+      writer.writeClass(sootClass);
+
+      final Path file = getClassFile(directory, sootClass.getType());
+      Files.createDirectories(file.getParent());
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+        writer.writeTo(out);
+      }
+    }
+  }
+
+  @Nonnull
+  private static Path getClassFile(@Nonnull Path directory, @Nonnull ClassType type) {
+    final String packageName = type.getPackageName().toString();
+    final String fileName = type.getClassName() + FileType.JIMPLE_BINARY.getExtensionWithDot();
+    if (packageName.isEmpty()) {
+      return directory.resolve(fileName);
+    }
+    return directory.resolve(packageName.replace('.', File.separatorChar)).resolve(fileName);
+  }
+
+  @Nullable
+  @Override
+  public SourceType getSourceType() {
+    return srcType;
+  }
+
+  @Nonnull
+  @Override
+  public List<BodyInterceptor> getBodyInterceptors() {
+    return Collections.emptyList();
+  }
+
+  @Nonnull
+  @Override
+  public Optional<? extends SootClassSource<JavaSootClass>> getClassSource(
+      @Nonnull ClassType type, @Nonnull View<?> view) {
+    final Path file = getClassFile(path, type);
+    if (!Files.exists(file)) {
+      return Optional.empty();
+    }
+    return classProvider.createClassSource(this, file, type);
+  }
+
+  @Nonnull
+  @Override
+  public Collection<? extends SootClassSource<JavaSootClass>> getClassSources(
+      @Nonnull View<?> view) {
+    final JavaIdentifierFactory identifierFactory = JavaIdentifierFactory.getInstance();
+    try (Stream<Path> files = Files.walk(path)) {
+      return files
+          .filter(file -> PathUtils.hasExtension(file, classProvider.getHandledFileType()))
+          .flatMap(
+              file ->
+                  StreamUtils.optionalToStream(
+                      classProvider.createClassSource(
+                          this, file, identifierFactory.fromPath(path, file))))
+          .collect(Collectors.toList());
+    } catch (IOException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof JimpleBinaryAnalysisInputLocation)) {
+      return false;
+    }
+    return path.equals(((JimpleBinaryAnalysisInputLocation) o).path);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(path);
+  }
+}
@@ -0,0 +1,84 @@
+package sootup.java.core.serialization;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sootup.core.frontend.ClassProvider;
+import sootup.core.frontend.SootClassSource;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.inputlocation.FileType;
+import sootup.core.model.SootClass;
+import sootup.core.types.ClassType;
+import sootup.java.core.JavaSootClass;
+
+/** Reads {@link JavaSootClass}es from files in the binary Jimple format. */
+public class JimpleBinaryClassProvider implements ClassProvider<JavaSootClass> {
+
+  private static final @Nonnull Logger logger =
+      LoggerFactory.getLogger(JimpleBinaryClassProvider.class);
+
+  @Override
+  public Optional<SootClassSource<JavaSootClass>> createClassSource(
+      AnalysisInputLocation<? extends SootClass<?>> inputLocation,
+      Path sourcePath,
+      ClassType classSignature) {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(sourcePath))) {
+      final SootClassSource<JavaSootClass> classSource =
+          new JavaJimpleBinaryReader(in).readClass(inputLocation, sourcePath);
+      if (!classSource.getClassType().equals(classSignature)) {
+        logger.warn(
+            "The file "
+                + sourcePath
+                + " contains "
+                + classSource.getClassType()
+                + " instead of "
+                + classSignature
+                + ".");
+        return Optional.empty();
+      }
+      return Optional.of(classSource);
+    } catch (IOException e) {
+      logger.warn(
+          "The binary Jimple file of "
+              + classSignature
+              + " in path: "
+              + sourcePath
+              + " could not be read because of: "
+              + e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public FileType getHandledFileType() {
+    return FileType.JIMPLE_BINARY;
+  }
+}
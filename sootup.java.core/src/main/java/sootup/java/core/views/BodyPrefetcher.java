@@ -0,0 +1,381 @@
+package sootup.java.core.views;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.Signature;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.transform.BodyInterceptorListener;
+import sootup.core.types.ClassType;
+import sootup.java.core.JavaSootClass;
+
+/**
+ * Resolves the bodies of many methods of a {@link JavaView} in parallel, e.g. to materialize all
+ * bodies of an application before it is analyzed. The bodies are kept by their methods or by the
+ * {@link sootup.core.cache.BodyCache} of the view, just as if {@link SootMethod#getBody()} had been
+ * called.
+ *
+ * <p>The methods are handed to a fixed number of worker threads through a bounded queue. If the
+ * queue is full, the thread that submits the methods resolves the next body itself, so the methods
+ * of a large input are not collected in memory before they are processed. A body that can not be
+ * resolved is reported as a {@link Failure}, the remaining bodies are resolved anyway.
+ *
+ * <p>Classes are resolved on the submitting thread, so the bodies of a {@link JavaView} can be
+ * prefetched in parallel, while a {@link ConcurrentJavaView} additionally resolves the classes
+ * referenced by the interceptors in parallel.
+ */
+public class BodyPrefetcher {
+
+  private static final AtomicInteger threadCount = new AtomicInteger();
+
+  @Nonnull private final JavaView view;
+  private final int parallelism;
+  private final int queueCapacity;
+
+  public BodyPrefetcher(@Nonnull JavaView view, int parallelism) {
+    this(view, parallelism, 4 * parallelism);
+  }
+
+  /**
+   * @param parallelism the number of worker threads
+   * @param queueCapacity the number of methods that can wait for a worker
+   */
+  public BodyPrefetcher(@Nonnull JavaView view, int parallelism, int queueCapacity) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism has to be at least 1");
+    }
+    if (queueCapacity < 1) {
+      throw new IllegalArgumentException("Queue capacity has to be at least 1");
+    }
+    this.view = view;
+    this.parallelism = parallelism;
+    this.queueCapacity = queueCapacity;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  /** Resolves the bodies of the given methods. Methods without a body are skipped. */
+  @Nonnull
+  public Result prefetch(@Nonnull Iterable<? extends SootMethod> methods) {
+    Batch batch = new Batch();
+    return batch.run(
+        () -> {
+          for (SootMethod method : methods) {
+            if (!batch.submit(method)) {
+              return;
+            }
+          }
+        });
+  }
+
+  /**
+   * Resolves the given classes and the bodies of their methods. Types which are not part of the
+   * view are ignored, classes which can not be resolved are reported as failures.
+   */
+  @Nonnull
+  public Result prefetchClasses(@Nonnull Iterable<? extends ClassType> classTypes) {
+    Batch batch = new Batch();
+    return batch.run(
+        () -> {
+          for (ClassType classType : classTypes) {
+            Optional<JavaSootClass> sootClass;
+            try {
+              sootClass = view.getClass(classType);
+            } catch (Exception | LinkageError | AssertionError | StackOverflowError e) {
+              batch.failures.add(new Failure(classType, e));
+              continue;
+            }
+            if (!sootClass.isPresent()) {
+              continue;
+            }
+            for (SootMethod method : sootClass.get().getMethods()) {
+              if (!batch.submit(method)) {
+                return;
+              }
+            }
+          }
+        });
+  }
+
+  /** The state of a single call of {@link #prefetch(Iterable)} or {@link #prefetchClasses}. */
+  private class Batch implements BodyInterceptorListener {
+
+    /** Marks the threads which currently resolve a body of this batch. */
+    @Nonnull private final ThreadLocal<Boolean> resolving = new ThreadLocal<>();
+
+    @Nonnull
+    private final Map<Class<? extends BodyInterceptor>, LongAdder> interceptorTimes =
+        new ConcurrentHashMap<>();
+
+    @Nonnull private final ConcurrentLinkedQueue<Failure> failures = new ConcurrentLinkedQueue<>();
+    @Nonnull private final LongAdder numberOfBodies = new LongAdder();
+    @Nonnull private final AtomicReference<Throwable> fatalError = new AtomicReference<>();
+    private int numberOfMethods = 0;
+
+    @Nullable private ThreadPoolExecutor executor;
+
+    @Nonnull
+    Result run(@Nonnull Runnable submitter) {
+      ThreadFactory threadFactory =
+          runnable -> {
+            Thread thread = new Thread(runnable, "BodyPrefetcher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          };
+      executor =
+          new ThreadPoolExecutor(
+              parallelism,
+              parallelism,
+              0L,
+              TimeUnit.MILLISECONDS,
+              new ArrayBlockingQueue<>(queueCapacity),
+              threadFactory,
+              new ThreadPoolExecutor.CallerRunsPolicy());
+
+      view.addBodyInterceptorListener(this);
+      long start = System.nanoTime();
+      try {
+        submitter.run();
+      } finally {
+        executor.shutdown();
+        awaitTermination(executor);
+        view.removeBodyInterceptorListener(this);
+      }
+      long elapsedTime = System.nanoTime() - start;
+
+      Throwable error = fatalError.get();
+      if (error instanceof Error) {
+        throw (Error) error;
+      }
+      if (error != null) {
+        throw new IllegalStateException("Could not prefetch the bodies", error);
+      }
+      return new Result(
+          numberOfMethods,
+          numberOfBodies.intValue(),
+          new ArrayList<>(failures),
+          elapsedTime,
+          interceptorTimes);
+    }
+
+    /** Returns false if the batch has to be stopped because of a fatal error. */
+    boolean submit(@Nonnull SootMethod method) {
+      if (fatalError.get() != null) {
+        return false;
+      }
+      if (method.hasBody()) {
+        numberOfMethods++;
+        executor.execute(() -> resolve(method));
+      }
+      return true;
+    }
+
+    private void resolve(@Nonnull SootMethod method) {
+      resolving.set(Boolean.TRUE);
+      try {
+        method.getBody();
+        numberOfBodies.increment();
+      } catch (Exception | LinkageError | AssertionError | StackOverflowError e) {
+        failures.add(new Failure(method.getSignature(), e));
+      } catch (Throwable e) {
+        // e.g. an OutOfMemoryError: the remaining bodies are not resolved anymore
+        fatalError.compareAndSet(null, e);
+      } finally {
+        resolving.remove();
+      }
+    }
+
+    @Override
+    public void afterInterceptBody(
+        @Nonnull BodyInterceptor interceptor,
+        @Nonnull Body.BodyBuilder builder,
+        long elapsedTime,
+        @Nullable Throwable failure) {
+      // bodies resolved by other threads in the meantime do not belong to this batch
+      if (resolving.get() != null) {
+        interceptorTimes
+            .computeIfAbsent(interceptor.getClass(), key -> new LongAdder())
+            .add(elapsedTime);
+      }
+    }
+  }
+
+  private static void awaitTermination(@Nonnull ThreadPoolExecutor executor) {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          if (executor.awaitTermination(1, TimeUnit.SECONDS)) {
+            return;
+          }
+        } catch (InterruptedException e) {
+          // the workers finish the submitted methods: keep waiting and restore the flag afterwards
+          interrupted = true;
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /** A method whose body could not be resolved, or a class which could not be resolved at all. */
+  public static class Failure {
+    @Nonnull private final Signature signature;
+    @Nonnull private final Throwable cause;
+
+    Failure(@Nonnull Signature signature, @Nonnull Throwable cause) {
+      this.signature = signature;
+      this.cause = cause;
+    }
+
+    /** Returns the signature of the method or the type of the class that could not be resolved. */
+    @Nonnull
+    public Signature getSignature() {
+      return signature;
+    }
+
+    @Nonnull
+    public Throwable getCause() {
+      return cause;
+    }
+
+    @Override
+    public String toString() {
+      return signature + ": " + cause;
+    }
+  }
+
+  /** The outcome of prefetching the bodies of a batch of methods. */
+  public static class Result {
+    private final int numberOfMethods;
+    private final int numberOfBodies;
+    @Nonnull private final List<Failure> failures;
+    private final long elapsedTime;
+    @Nonnull private final Map<Class<? extends BodyInterceptor>, Long> interceptorTimes;
+
+    Result(
+        int numberOfMethods,
+        int numberOfBodies,
+        @Nonnull List<Failure> failures,
+        long elapsedTime,
+        @Nonnull Map<Class<? extends BodyInterceptor>, LongAdder> interceptorTimes) {
+      this.numberOfMethods = numberOfMethods;
+      this.numberOfBodies = numberOfBodies;
+      this.failures = Collections.unmodifiableList(failures);
+      this.elapsedTime = elapsedTime;
+
+      Map<Class<? extends BodyInterceptor>, Long> sortedTimes = new LinkedHashMap<>();
+      interceptorTimes.entrySet().stream()
+          .sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+          .forEach(entry -> sortedTimes.put(entry.getKey(), entry.getValue().sum()));
+      this.interceptorTimes = Collections.unmodifiableMap(sortedTimes);
+    }
+
+    /** Returns the number of submitted methods which have a body. */
+    public int getNumberOfMethods() {
+      return numberOfMethods;
+    }
+
+    /** Returns the number of bodies which have been resolved successfully. */
+    public int getNumberOfBodies() {
+      return numberOfBodies;
+    }
+
+    /** Returns the methods and classes which could not be resolved. */
+    @Nonnull
+    public List<Failure> getFailures() {
+      return failures;
+    }
+
+    /** Returns the wall time in nanoseconds it took to prefetch the bodies. */
+    public long getElapsedTime() {
+      return elapsedTime;
+    }
+
+    /** Returns the number of resolved bodies per second. */
+    public double getThroughput() {
+      return elapsedTime == 0 ? 0 : numberOfBodies / (elapsedTime / 1e9);
+    }
+
+    /**
+     * Returns the time in nanoseconds spent in each kind of interceptor, summed up over all threads
+     * and sorted by decreasing time. Bodies which were already resolved are not intercepted again
+     * and do not contribute.
+     */
+    @Nonnull
+    public Map<Class<? extends BodyInterceptor>, Long> getInterceptorTimes() {
+      return interceptorTimes;
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder builder =
+          new StringBuilder()
+              .append(numberOfBodies)
+              .append(" of ")
+              .append(numberOfMethods)
+              .append(" bodies in ")
+              .append(TimeUnit.NANOSECONDS.toMillis(elapsedTime))
+              .append(" ms (")
+              .append(Math.round(getThroughput()))
+              .append(" methods/s), ")
+              .append(failures.size())
+              .append(" failures");
+      interceptorTimes.forEach(
+          (interceptor, time) ->
+              builder
+                  .append(", ")
+                  .append(interceptor.getSimpleName())
+                  .append(" ")
+                  .append(TimeUnit.NANOSECONDS.toMillis(time))
+                  .append(" ms"));
+      return builder.toString();
+    }
+  }
+}
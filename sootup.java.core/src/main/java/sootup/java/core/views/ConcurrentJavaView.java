@@ -0,0 +1,420 @@
+package sootup.java.core.views;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.SourceTypeSpecifier;
+import sootup.core.cache.FullCache;
+import sootup.core.cache.provider.BodyCacheProvider;
+import sootup.core.cache.provider.ClassCacheProvider;
+import sootup.core.cache.provider.FullCacheProvider;
+import sootup.core.frontend.AbstractClassSource;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.inputlocation.DefaultSourceTypeSpecifier;
+import sootup.core.types.ClassType;
+import sootup.java.core.JavaSootClass;
+
+/**
+ * A {@link JavaView} that can be queried by multiple threads at the same time. Instead of guarding
+ * every resolution with the monitor of the view, each {@link ClassType} that is not cached yet gets
+ * its own pending resolution. Threads requesting the same class wait for that resolution, while
+ * threads requesting different classes resolve them in parallel. Every class is still built exactly
+ * once.
+ *
+ * <p>The {@link sootup.core.cache.ClassCache} created by the given {@link ClassCacheProvider} has
+ * to be thread-safe, e.g. the {@link FullCache}.
+ */
+public class ConcurrentJavaView extends JavaView {
+
+  @Nonnull
+  private final ConcurrentMap<ClassType, PendingResolution> pendingResolutions =
+      new ConcurrentHashMap<>();
+
+  private final int parallelism;
+  @Nonnull private volatile List<LocationTiming> locationTimings = Collections.emptyList();
+
+  public ConcurrentJavaView(@Nonnull AnalysisInputLocation<? extends JavaSootClass> inputLocation) {
+    this(Collections.singletonList(inputLocation));
+  }
+
+  public ConcurrentJavaView(
+      @Nonnull List<AnalysisInputLocation<? extends JavaSootClass>> inputLocations) {
+    this(inputLocations, new FullCacheProvider<>());
+  }
+
+  public ConcurrentJavaView(
+      @Nonnull List<AnalysisInputLocation<? extends JavaSootClass>> inputLocations,
+      @Nonnull ClassCacheProvider<JavaSootClass> cacheProvider) {
+    this(inputLocations, cacheProvider, DefaultSourceTypeSpecifier.getInstance());
+  }
+
+  public ConcurrentJavaView(
+      @Nonnull List<AnalysisInputLocation<? extends JavaSootClass>> inputLocations,
+      @Nonnull ClassCacheProvider<JavaSootClass> cacheProvider,
+      @Nonnull SourceTypeSpecifier sourceTypeSpecifier) {
+    this(
+        inputLocations,
+        cacheProvider,
+        sourceTypeSpecifier,
+        Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Creates a new instance of the {@link ConcurrentJavaView} class.
+   *
+   * @param parallelism the number of threads that are used to resolve all classes of the view
+   */
+  public ConcurrentJavaView(
+      @Nonnull List<AnalysisInputLocation<? extends JavaSootClass>> inputLocations,
+      @Nonnull ClassCacheProvider<JavaSootClass> cacheProvider,
+      @Nonnull SourceTypeSpecifier sourceTypeSpecifier,
+      int parallelism) {
+    this(inputLocations, cacheProvider, sourceTypeSpecifier, parallelism, null);
+  }
+
+  /**
+   * Creates a new instance of the {@link ConcurrentJavaView} class.
+   *
+   * @param parallelism the number of threads that are used to resolve all classes of the view
+   * @param bodyCacheProvider provides the cache for the bodies of the methods of this view, or
+   *     <code>null</code> if each method keeps its body once it has been resolved.
+   */
+  public ConcurrentJavaView(
+      @Nonnull List<AnalysisInputLocation<? extends JavaSootClass>> inputLocations,
+      @Nonnull ClassCacheProvider<JavaSootClass> cacheProvider,
+      @Nonnull SourceTypeSpecifier sourceTypeSpecifier,
+      int parallelism,
+      @Nullable BodyCacheProvider bodyCacheProvider) {
+    super(inputLocations, cacheProvider, sourceTypeSpecifier, bodyCacheProvider);
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism has to be at least 1");
+    }
+    this.parallelism = parallelism;
+  }
+
+  /** Returns the number of threads that are used to resolve all classes of the view. */
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Returns the timings of the last full resolution in the order of the input locations, or an
+   * empty list if the view has not been fully resolved yet.
+   */
+  @Nonnull
+  public List<LocationTiming> getLocationTimings() {
+    return locationTimings;
+  }
+
+  /** Resolves all classes that are part of the view and stores them in the cache. */
+  @Override
+  @Nonnull
+  public Collection<JavaSootClass> getClasses() {
+    return resolveAll();
+  }
+
+  /** Resolves the class matching the provided {@link ClassType ClassType}. */
+  @Override
+  @Nonnull
+  public Optional<JavaSootClass> getClass(@Nonnull ClassType type) {
+    JavaSootClass cachedClass = cache.getClass(type);
+    if (cachedClass != null) {
+      return Optional.of(cachedClass);
+    }
+    return resolve(type, () -> getAbstractClass(type));
+  }
+
+  @Nonnull
+  @Override
+  protected Optional<JavaSootClass> buildClassFrom(
+      AbstractClassSource<? extends JavaSootClass> classSource) {
+    ClassType classType = classSource.getClassType();
+    JavaSootClass cachedClass = cache.getClass(classType);
+    if (cachedClass != null) {
+      resolveAnnotationDefaults(cachedClass);
+      return Optional.of(cachedClass);
+    }
+    return resolve(classType, () -> Optional.of(classSource));
+  }
+
+  @Nonnull
+  @Override
+  protected Collection<JavaSootClass> resolveAll() {
+    if (isFullyResolved && cache instanceof FullCache) {
+      return cache.getClasses();
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      return pool.submit(this::resolveAllInParallel).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while resolving all classes", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException("Could not resolve all classes", cause);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /** Needs to be executed inside of a {@link ForkJoinPool} to run on its threads. */
+  @Nonnull
+  private Collection<JavaSootClass> resolveAllInParallel() {
+    int locationCount = inputLocations.size();
+    long[] scanTimes = new long[locationCount];
+    AtomicLong[] buildTimes = new AtomicLong[locationCount];
+
+    List<Collection<? extends AbstractClassSource<? extends JavaSootClass>>>
+        classSourcesPerLocation =
+            IntStream.range(0, locationCount)
+                .parallel()
+                .mapToObj(
+                    idx -> {
+                      long start = System.nanoTime();
+                      Collection<? extends AbstractClassSource<? extends JavaSootClass>>
+                          classSources = inputLocations.get(idx).getClassSources(this);
+                      scanTimes[idx] = System.nanoTime() - start;
+                      buildTimes[idx] = new AtomicLong();
+                      return classSources;
+                    })
+                .collect(Collectors.toList());
+
+    // like javas behaviour: if multiple matching Classes(ClassTypes) are found on the
+    // classpath the first is returned (see splitpackage)
+    Map<ClassType, Integer> owningLocation = new HashMap<>();
+    List<AbstractClassSource<? extends JavaSootClass>> classSources = new ArrayList<>();
+    for (int idx = 0; idx < locationCount; idx++) {
+      for (AbstractClassSource<? extends JavaSootClass> classSource :
+          classSourcesPerLocation.get(idx)) {
+        if (owningLocation.putIfAbsent(classSource.getClassType(), idx) == null) {
+          classSources.add(classSource);
+        }
+      }
+    }
+
+    Collection<JavaSootClass> resolvedClasses =
+        classSources
+            .parallelStream()
+            .map(
+                classSource -> {
+                  long start = System.nanoTime();
+                  Optional<JavaSootClass> resolvedClass = buildClassFrom(classSource);
+                  buildTimes[owningLocation.get(classSource.getClassType())].addAndGet(
+                      System.nanoTime() - start);
+                  return resolvedClass;
+                })
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .collect(Collectors.toList());
+
+    List<LocationTiming> timings = new ArrayList<>(locationCount);
+    for (int idx = 0; idx < locationCount; idx++) {
+      timings.add(
+          new LocationTiming(
+              inputLocations.get(idx),
+              classSourcesPerLocation.get(idx).size(),
+              scanTimes[idx],
+              buildTimes[idx].get()));
+    }
+    locationTimings = Collections.unmodifiableList(timings);
+    isFullyResolved = true;
+
+    return resolvedClasses;
+  }
+
+  /**
+   * Builds the class of the given type exactly once. The first thread that asks for a type which is
+   * not cached yet registers a pending resolution and builds the class; every other thread asking
+   * for the same type in the meantime waits for that resolution to finish.
+   *
+   * <p>The class is stored in the cache before its pending resolution is removed, so later requests
+   * are answered by the cache. The annotation defaults are resolved outside of the pending
+   * resolution, as they can refer back to classes which are currently being resolved by another
+   * thread.
+   *
+   * <p>If building the class reaches the same type again on the same thread, e.g. from an input
+   * location or a hierarchy lookup, waiting for the pending resolution would never return. The
+   * class is built directly instead, and the resolution that is still pending returns the class
+   * which has been cached by then, so that the type is still represented by a single instance.
+   */
+  @Nonnull
+  private Optional<JavaSootClass> resolve(
+      @Nonnull ClassType type,
+      @Nonnull
+          Supplier<Optional<? extends AbstractClassSource<? extends JavaSootClass>>>
+              classSourceSupplier) {
+    PendingResolution task =
+        new PendingResolution(() -> buildAndCacheClass(type, classSourceSupplier));
+
+    PendingResolution pendingResolution = pendingResolutions.putIfAbsent(type, task);
+    Optional<JavaSootClass> resolvedClass;
+    if (pendingResolution == null) {
+      try {
+        task.run();
+      } finally {
+        pendingResolutions.remove(type, task);
+      }
+      resolvedClass = awaitResolution(type, task);
+    } else if (pendingResolution.isRunBy(Thread.currentThread())) {
+      resolvedClass = buildAndCacheClass(type, classSourceSupplier);
+    } else {
+      resolvedClass = awaitResolution(type, pendingResolution);
+    }
+
+    resolvedClass.ifPresent(this::resolveAnnotationDefaults);
+    return resolvedClass;
+  }
+
+  /**
+   * Builds the class of the given type and stores it in the cache, unless the cache already
+   * contains a class of the type. Only the thread that runs the pending resolution of the type
+   * calls this method.
+   */
+  @Nonnull
+  private Optional<JavaSootClass> buildAndCacheClass(
+      @Nonnull ClassType type,
+      @Nonnull
+          Supplier<Optional<? extends AbstractClassSource<? extends JavaSootClass>>>
+              classSourceSupplier) {
+    // another thread could have finished the resolution in the meantime
+    JavaSootClass cachedClass = cache.getClass(type);
+    if (cachedClass != null) {
+      return Optional.of(cachedClass);
+    }
+
+    Optional<JavaSootClass> builtClass =
+        classSourceSupplier
+            .get()
+            .<JavaSootClass>map(
+                classSource ->
+                    classSource.buildClass(sourceTypeSpecifier.sourceTypeFor(classSource)));
+    if (!builtClass.isPresent()) {
+      return builtClass;
+    }
+    // a re-entrant resolution on this thread could have cached the class while it was built
+    cachedClass = cache.getClass(type);
+    if (cachedClass != null) {
+      return Optional.of(cachedClass);
+    }
+    cache.putClass(type, builtClass.get());
+    return builtClass;
+  }
+
+  @Nonnull
+  private static Optional<JavaSootClass> awaitResolution(
+      @Nonnull ClassType type, @Nonnull PendingResolution pendingResolution) {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          return pendingResolution.get();
+        } catch (InterruptedException e) {
+          // the resolution is not cancelable: keep waiting and restore the flag afterwards
+          interrupted = true;
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+          }
+          if (cause instanceof Error) {
+            throw (Error) cause;
+          }
+          throw new IllegalStateException("Could not resolve " + type, cause);
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /** The resolution of a class, which knows the thread that is running it. */
+  private static class PendingResolution extends FutureTask<Optional<JavaSootClass>> {
+    @Nullable private volatile Thread runner;
+
+    PendingResolution(@Nonnull Callable<Optional<JavaSootClass>> callable) {
+      super(callable);
+    }
+
+    @Override
+    public void run() {
+      runner = Thread.currentThread();
+      try {
+        super.run();
+      } finally {
+        runner = null;
+      }
+    }
+
+    boolean isRunBy(@Nonnull Thread thread) {
+      return runner == thread;
+    }
+  }
+
+  /** The time that a full resolution of the view spent on a single input location. */
+  public static class LocationTiming {
+    @Nonnull private final AnalysisInputLocation<? extends JavaSootClass> inputLocation;
+    private final int numberOfClassSources;
+    private final long scanTime;
+    private final long buildTime;
+
+    LocationTiming(
+        @Nonnull AnalysisInputLocation<? extends JavaSootClass> inputLocation,
+        int numberOfClassSources,
+        long scanTime,
+        long buildTime) {
+      this.inputLocation = inputLocation;
+      this.numberOfClassSources = numberOfClassSources;
+      this.scanTime = scanTime;
+      this.buildTime = buildTime;
+    }
+
+    @Nonnull
+    public AnalysisInputLocation<? extends JavaSootClass> getInputLocation() {
+      return inputLocation;
+    }
+
+    /** Returns the number of class sources found in the input location, including shadowed ones. */
+    public int getNumberOfClassSources() {
+      return numberOfClassSources;
+    }
+
+    /** Returns the time in nanoseconds it took to scan the input location for class sources. */
+    public long getScanTime() {
+      return scanTime;
+    }
+
+    /**
+     * Returns the time in nanoseconds spent on building the classes of the input location, summed
+     * up over all threads.
+     */
+    public long getBuildTime() {
+      return buildTime;
+    }
+
+    @Override
+    public String toString() {
+      return inputLocation
+          + ": "
+          + numberOfClassSources
+          + " class sources, scan "
+          + TimeUnit.NANOSECONDS.toMillis(scanTime)
+          + " ms, build "
+          + TimeUnit.NANOSECONDS.toMillis(buildTime)
+          + " ms";
+    }
+  }
+}
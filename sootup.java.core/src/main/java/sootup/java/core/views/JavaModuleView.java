@@ -27,7 +27,6 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
-import sootup.core.IdentifierFactory;
 import sootup.core.SourceTypeSpecifier;
 import sootup.core.cache.FullCache;
 import sootup.core.cache.provider.ClassCacheProvider;
@@ -39,6 +38,7 @@ import sootup.core.inputlocation.DefaultSourceTypeSpecifier;
 import sootup.core.inputlocation.EmptyClassLoadingOptions;
 import sootup.core.signatures.PackageName;
 import sootup.core.types.ClassType;
+import sootup.java.core.JavaIdentifierFactory;
 import sootup.java.core.JavaModuleInfo;
 import sootup.java.core.JavaSootClass;
 import sootup.java.core.ModuleInfoAnalysisInputLocation;
@@ -428,8 +428,8 @@ public class JavaModuleView extends JavaView {
 
   @Nonnull
   @Override
-  public IdentifierFactory getIdentifierFactory() {
-    return new JavaLanguage(9).getIdentifierFactory();
+  protected JavaIdentifierFactory getDefaultIdentifierFactory() {
+    return (JavaIdentifierFactory) new JavaLanguage(9).getIdentifierFactory();
   }
 
   @Nonnull
@@ -24,23 +24,34 @@ package sootup.java.core.views;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import sootup.core.IdentifierFactory;
 import sootup.core.SourceTypeSpecifier;
+import sootup.core.cache.BodyCache;
 import sootup.core.cache.ClassCache;
 import sootup.core.cache.FullCache;
+import sootup.core.cache.provider.BodyCacheProvider;
 import sootup.core.cache.provider.ClassCacheProvider;
 import sootup.core.cache.provider.FullCacheProvider;
 import sootup.core.frontend.AbstractClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.inputlocation.DefaultSourceTypeSpecifier;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.SignaturePool;
+import sootup.core.transform.BodyInterceptorListener;
+import sootup.core.typehierarchy.ClassHeader;
 import sootup.core.types.ClassType;
 import sootup.core.views.AbstractView;
 import sootup.java.core.AnnotationUsage;
 import sootup.java.core.JavaAnnotationSootClass;
+import sootup.java.core.JavaIdentifierFactory;
 import sootup.java.core.JavaSootClass;
 import sootup.java.core.language.JavaLanguage;
 import sootup.java.core.types.AnnotationType;
@@ -57,9 +68,19 @@ public class JavaView extends AbstractView<JavaSootClass> {
   @Nonnull protected final List<AnalysisInputLocation<? extends JavaSootClass>> inputLocations;
   @Nonnull protected final ClassCache<JavaSootClass> cache;
   @Nonnull protected final SourceTypeSpecifier sourceTypeSpecifier;
+  @Nonnull protected final Optional<BodyCache> bodyCache;
+
+  @Nonnull
+  private final List<BodyInterceptorListener> bodyInterceptorListeners =
+      new CopyOnWriteArrayList<>();
 
   protected volatile boolean isFullyResolved = false;
 
+  private volatile boolean readCodeOnDemand = false;
+
+  /** The factory which interns the signatures in the pool of this view, if one is set. */
+  @Nullable private volatile JavaIdentifierFactory pooledIdentifierFactory;
+
   public JavaView(@Nonnull AnalysisInputLocation<? extends JavaSootClass> inputLocation) {
     this(Collections.singletonList(inputLocation));
   }
@@ -84,9 +105,25 @@ public class JavaView extends AbstractView<JavaSootClass> {
       @Nonnull List<AnalysisInputLocation<? extends JavaSootClass>> inputLocations,
       @Nonnull ClassCacheProvider<JavaSootClass> cacheProvider,
       @Nonnull SourceTypeSpecifier sourceTypeSpecifier) {
+    this(inputLocations, cacheProvider, sourceTypeSpecifier, null);
+  }
+
+  /**
+   * Creates a new instance of the {@link JavaView} class.
+   *
+   * @param bodyCacheProvider provides the cache for the bodies of the methods of this view, or
+   *     <code>null</code> if each method keeps its body once it has been resolved.
+   */
+  public JavaView(
+      @Nonnull List<AnalysisInputLocation<? extends JavaSootClass>> inputLocations,
+      @Nonnull ClassCacheProvider<JavaSootClass> cacheProvider,
+      @Nonnull SourceTypeSpecifier sourceTypeSpecifier,
+      @Nullable BodyCacheProvider bodyCacheProvider) {
     this.inputLocations = inputLocations;
     this.cache = cacheProvider.createCache();
     this.sourceTypeSpecifier = sourceTypeSpecifier;
+    this.bodyCache =
+        bodyCacheProvider == null ? Optional.empty() : Optional.of(bodyCacheProvider.createCache());
   }
 
   /** Resolves all classes that are part of the view and stores them in the cache. */
@@ -96,6 +133,33 @@ public class JavaView extends AbstractView<JavaSootClass> {
     return resolveAll();
   }
 
+  /**
+   * Reads the headers of all classes of the view from its input locations, without resolving the
+   * classes. Classes which are already resolved provide their own header.
+   */
+  @Override
+  @Nonnull
+  public synchronized Optional<Collection<ClassHeader>> getClassHeaders() {
+    if (isFullyResolved && cache instanceof FullCache) {
+      return Optional.empty();
+    }
+
+    Map<ClassType, ClassHeader> classHeaders = new LinkedHashMap<>();
+    for (JavaSootClass sootClass : cache.getClasses()) {
+      classHeaders.put(sootClass.getType(), new ClassHeader(sootClass));
+    }
+    for (AnalysisInputLocation<? extends JavaSootClass> location : inputLocations) {
+      Optional<Collection<ClassHeader>> locationHeaders = location.getClassHeaders(this);
+      if (!locationHeaders.isPresent()) {
+        return Optional.empty();
+      }
+      // like javas behaviour: if multiple matching Classes(ClassTypes) are found on the
+      // classpath the first is returned (see splitpackage)
+      locationHeaders.get().forEach(header -> classHeaders.putIfAbsent(header.getType(), header));
+    }
+    return Optional.of(classHeaders.values());
+  }
+
   /** Resolves the class matching the provided {@link ClassType ClassType}. */
   @Override
   @Nonnull
@@ -110,10 +174,96 @@ public class JavaView extends AbstractView<JavaSootClass> {
     return abstractClass.flatMap(this::buildClassFrom);
   }
 
+  @Nonnull
+  @Override
+  public Optional<BodyCache> getBodyCache() {
+    return bodyCache;
+  }
+
+  @Nonnull
+  @Override
+  public List<BodyInterceptorListener> getBodyInterceptorListeners() {
+    return bodyInterceptorListeners;
+  }
+
+  /**
+   * Returns whether frontends which support it skip the code of methods when a class is read and
+   * read it again whenever a body is resolved.
+   */
+  public boolean isReadCodeOnDemand() {
+    return readCodeOnDemand;
+  }
+
+  /**
+   * Sets whether frontends which support it skip the code of methods when a class is read and read
+   * it again whenever a body is resolved. Classes whose bodies are not needed, e.g. to build the
+   * type hierarchy, then do not keep the instructions of their methods in memory, while each body
+   * resolution reads its class file again. The setting only applies to classes read afterwards and
+   * is disabled by default.
+   */
+  public void setReadCodeOnDemand(boolean readCodeOnDemand) {
+    this.readCodeOnDemand = readCodeOnDemand;
+  }
+
+  /** Registers a listener that is notified whenever an interceptor is applied to a body. */
+  public void addBodyInterceptorListener(@Nonnull BodyInterceptorListener listener) {
+    bodyInterceptorListeners.add(listener);
+  }
+
+  public boolean removeBodyInterceptorListener(@Nonnull BodyInterceptorListener listener) {
+    return bodyInterceptorListeners.remove(listener);
+  }
+
+  /**
+   * Resolves the bodies of the given methods on <code>parallelism</code> threads, so later calls to
+   * {@link SootMethod#getBody()} are answered by the method or the {@link BodyCache}. Methods
+   * without a body are skipped. A body that can not be resolved is reported in the result instead
+   * of aborting the other resolutions.
+   */
+  @Nonnull
+  public BodyPrefetcher.Result prefetchBodies(
+      @Nonnull Iterable<? extends SootMethod> methods, int parallelism) {
+    return new BodyPrefetcher(this, parallelism).prefetch(methods);
+  }
+
+  /**
+   * Resolves the given classes and the bodies of their methods on <code>parallelism</code> threads.
+   * Types which are not part of the view are ignored.
+   *
+   * @see #prefetchBodies(Iterable, int)
+   */
+  @Nonnull
+  public BodyPrefetcher.Result prefetchBodiesOfClasses(
+      @Nonnull Iterable<? extends ClassType> classTypes, int parallelism) {
+    return new BodyPrefetcher(this, parallelism).prefetchClasses(classTypes);
+  }
+
   @Nonnull
   @Override
   public IdentifierFactory getIdentifierFactory() {
-    return new JavaLanguage(8).getIdentifierFactory();
+    JavaIdentifierFactory identifierFactory = pooledIdentifierFactory;
+    return identifierFactory != null ? identifierFactory : getDefaultIdentifierFactory();
+  }
+
+  /** Returns the factory of the Java version of this view, which does not use a signature pool. */
+  @Nonnull
+  protected JavaIdentifierFactory getDefaultIdentifierFactory() {
+    return (JavaIdentifierFactory) new JavaLanguage(8).getIdentifierFactory();
+  }
+
+  /**
+   * Interns the method and field signatures which are created by the identifier factory of this
+   * view, e.g. while the bodies of its methods are resolved, in the given pool. The pool is only
+   * used by this view. It should be set before classes are resolved, as signatures created before
+   * are not part of it.
+   *
+   * @param signaturePool the pool, or <code>null</code> to stop interning signatures
+   */
+  public void setSignaturePool(@Nullable SignaturePool signaturePool) {
+    pooledIdentifierFactory =
+        signaturePool == null
+            ? null
+            : getDefaultIdentifierFactory().withSignaturePool(signaturePool);
   }
 
   /** Returns the number of classes that are currently stored in the cache. */
@@ -147,12 +297,20 @@ public class JavaView extends AbstractView<JavaSootClass> {
       theClass = cache.getClass(classType);
     }
 
+    resolveAnnotationDefaults(theClass);
+    return Optional.of(theClass);
+  }
+
+  /**
+   * Resolves the default values of the annotations of an annotation class. This needs the class to
+   * be already stored in the cache as the annotations of annotation classes can refer to the
+   * annotation class itself (e.g. {@link java.lang.annotation.Retention}).
+   */
+  protected void resolveAnnotationDefaults(@Nonnull JavaSootClass theClass) {
     if (theClass.getType() instanceof AnnotationType) {
       JavaAnnotationSootClass jasc = (JavaAnnotationSootClass) theClass;
       jasc.getAnnotations(Optional.of(this)).forEach(AnnotationUsage::getValuesWithDefaults);
     }
-
-    return Optional.of(theClass);
   }
 
   @Nonnull
@@ -12,6 +12,7 @@ import sootup.core.cache.provider.MutableFullCacheProvider;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.model.SootMethod;
 import sootup.core.signatures.MethodSubSignature;
+import sootup.core.typehierarchy.ClassHeader;
 import sootup.core.types.ClassType;
 import sootup.core.views.MutableView;
 import sootup.java.core.JavaSootClass;
@@ -40,6 +41,16 @@ public class MutableJavaView extends JavaView implements MutableView {
     super(inputLocations, new MutableFullCacheProvider<>(), sourceTypeSpecifier);
   }
 
+  /**
+   * The headers of a mutable view are always taken from its classes, as classes which have been
+   * removed from the view would be read again from the input locations.
+   */
+  @Override
+  @Nonnull
+  public Optional<Collection<ClassHeader>> getClassHeaders() {
+    return Optional.empty();
+  }
+
   /**
    * Adds the provided class to the mutable view. If the provided class already exists in the view,
    * a warning will be logged and the provided class will not be added a second time.
@@ -93,6 +104,7 @@ public class MutableJavaView extends JavaView implements MutableView {
     JavaSootClass newClazz = clazz.withMethods(filteredMethods);
 
     this.replaceClass(clazz, newClazz);
+    this.bodyCache.ifPresent(bodyCache -> bodyCache.removeBody(method.getSignature()));
     this.fireRemoval(method);
   }
 
@@ -28,6 +28,7 @@ import categories.Java8Test;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import org.junit.Test;
@@ -36,10 +37,12 @@ import sootup.core.IdentifierFactory;
 import sootup.core.signatures.FieldSignature;
 import sootup.core.signatures.MethodSignature;
 import sootup.core.signatures.PackageName;
+import sootup.core.signatures.SignaturePool;
 import sootup.core.types.*;
 import sootup.java.core.JavaIdentifierFactory;
 import sootup.java.core.JavaModuleIdentifierFactory;
 import sootup.java.core.types.JavaClassType;
+import sootup.java.core.types.ModuleJavaClassType;
 
 @Category(Java8Test.class)
 public class JavaIdentifierFactoryTest {
@@ -398,4 +401,127 @@ public class JavaIdentifierFactoryTest {
         JavaModuleIdentifierFactory.getInstance().parseFieldSignature(fieldsSigStr);
     assertEquals(fieldsSigStr, fieldSignature.toString());
   }
+
+  @Test
+  public void getPooledSignatures() {
+    JavaIdentifierFactory identifierFactory = JavaIdentifierFactory.getInstance();
+    List<String> parameters = Collections.singletonList("java.lang.Class");
+    MethodSignature unpooled =
+        identifierFactory.getMethodSignature("java.lang.System", "foo", "java.lang.A", parameters);
+    assertNotSame(
+        unpooled,
+        identifierFactory.getMethodSignature("java.lang.System", "foo", "java.lang.A", parameters));
+
+    SignaturePool pool = new SignaturePool();
+    JavaIdentifierFactory pooledFactory = identifierFactory.withSignaturePool(pool);
+    MethodSignature methodSignature =
+        pooledFactory.getMethodSignature("java.lang.System", "foo", "java.lang.A", parameters);
+    assertEquals(unpooled, methodSignature);
+    assertSame(
+        methodSignature,
+        pooledFactory.getMethodSignature("java.lang.System", "foo", "java.lang.A", parameters));
+    // methods of different classes share the sub signature
+    MethodSignature otherMethodSignature =
+        pooledFactory.getMethodSignature("java.lang.Object", "foo", "java.lang.A", parameters);
+    assertSame(methodSignature.getSubSignature(), otherMethodSignature.getSubSignature());
+    assertSame(
+        methodSignature.getSubSignature(),
+        pooledFactory.getMethodSubSignature(
+            "foo",
+            pooledFactory.getType("java.lang.A"),
+            Collections.singletonList(pooledFactory.getType("java.lang.Class"))));
+
+    FieldSignature fieldSignature =
+        pooledFactory.getFieldSignature(
+            "field", pooledFactory.getClassType("java.lang.System"), "int");
+    assertSame(
+        fieldSignature,
+        pooledFactory.getFieldSignature(
+            "field", pooledFactory.getClassType("java.lang.System"), PrimitiveType.getInt()));
+    assertSame(
+        fieldSignature.getSubSignature(),
+        pooledFactory.getFieldSubSignature("field", PrimitiveType.getInt()));
+
+    assertEquals(2, pool.size(SignaturePool.Kind.METHOD_SIGNATURE));
+    assertEquals(1, pool.size(SignaturePool.Kind.METHOD_SUB_SIGNATURE));
+    assertEquals(1, pool.getDuplicateCount(SignaturePool.Kind.METHOD_SIGNATURE));
+    assertEquals(1, pool.size(SignaturePool.Kind.FIELD_SIGNATURE));
+    assertTrue(pool.getEstimatedSavedBytes() > 0);
+
+    // the pool is only used by the factory it was passed to
+    assertNull(identifierFactory.getSignaturePool());
+    assertNotSame(
+        unpooled,
+        identifierFactory.getMethodSignature("java.lang.System", "foo", "java.lang.A", parameters));
+    // the types are shared with the factory the pool was added to
+    assertSame(identifierFactory.getType("java.lang.A"), pooledFactory.getType("java.lang.A"));
+  }
+
+  @Test
+  public void getPooledModuleSignatures() {
+    JavaModuleIdentifierFactory moduleFactory =
+        JavaModuleIdentifierFactory.getInstance("java.base");
+    SignaturePool pool = new SignaturePool();
+    JavaModuleIdentifierFactory pooledFactory = moduleFactory.withSignaturePool(pool);
+
+    // the copy keeps the module of the factory it has been created from
+    ClassType classType = pooledFactory.getClassType("java.lang.System");
+    assertEquals(moduleFactory.getClassType("java.lang.System"), classType);
+    assertTrue(classType instanceof ModuleJavaClassType);
+    assertEquals(
+        "java.base",
+        ((ModulePackageName) classType.getPackageName()).getModuleSignature().getModuleName());
+
+    MethodSignature methodSignature =
+        pooledFactory.getMethodSignature(
+            classType, "foo", PrimitiveType.getInt(), Collections.emptyList());
+    assertSame(
+        methodSignature,
+        pooledFactory.getMethodSignature(
+            classType, "foo", PrimitiveType.getInt(), Collections.emptyList()));
+    assertEquals(1, pool.size(SignaturePool.Kind.METHOD_SIGNATURE));
+    assertNull(moduleFactory.getSignaturePool());
+  }
+
+  @Test
+  public void getCachedTypes() {
+    JavaIdentifierFactory typeFactory = JavaIdentifierFactory.getInstance();
+    assertSame(
+        typeFactory.getType("java.lang.String[][]"), typeFactory.getType("java.lang.String[][]"));
+    assertSame(typeFactory.getType("int[]"), typeFactory.getArrayType(PrimitiveType.getInt(), 1));
+    assertSame(
+        typeFactory.getType("java.lang.String"), typeFactory.getClassType("java.lang.String"));
+    assertSame(
+        typeFactory.getAnnotationType("java.lang.Deprecated"),
+        typeFactory.getAnnotationType("java.lang.Deprecated"));
+    // the class and the package name are not simply concatenated
+    assertNotEquals(typeFactory.getClassType("Ba", "b"), typeFactory.getClassType("B", "ab"));
+  }
+
+  @Test
+  public void getMethodDescriptor() {
+    JavaIdentifierFactory typeFactory = JavaIdentifierFactory.getInstance();
+    JavaIdentifierFactory.MethodDescriptor descriptor =
+        typeFactory.getMethodDescriptor("(I[[Ljava/lang/String;Ljava/util/Map$Entry;Z)[J");
+    assertEquals(
+        Arrays.asList(
+            PrimitiveType.getInt(),
+            typeFactory.getType("java.lang.String[][]"),
+            typeFactory.getClassType("java.util.Map$Entry"),
+            PrimitiveType.getBoolean()),
+        descriptor.getParameterTypes());
+    assertEquals(typeFactory.getType("long[]"), descriptor.getReturnType());
+    assertSame(
+        descriptor,
+        typeFactory.getMethodDescriptor("(I[[Ljava/lang/String;Ljava/util/Map$Entry;Z)[J"));
+
+    JavaIdentifierFactory.MethodDescriptor voidDescriptor = typeFactory.getMethodDescriptor("()V");
+    assertTrue(voidDescriptor.getParameterTypes().isEmpty());
+    assertSame(VoidType.getInstance(), voidDescriptor.getReturnType());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void getInvalidMethodDescriptor() {
+    JavaIdentifierFactory.getInstance().getMethodDescriptor("(Ljava/lang/String)V");
+  }
 }
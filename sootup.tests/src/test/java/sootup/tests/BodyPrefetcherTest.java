@@ -0,0 +1,144 @@
+package sootup.tests;
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.typehierarchy.ClassHeader;
+import sootup.core.types.ClassType;
+import sootup.core.views.View;
+import sootup.java.bytecode.inputlocation.DefaultRTJarAnalysisInputLocation;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.bytecode.interceptors.BytecodeBodyInterceptors;
+import sootup.java.bytecode.interceptors.NopEliminator;
+import sootup.java.bytecode.interceptors.TypeAssigner;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.views.BodyPrefetcher;
+import sootup.java.core.views.ConcurrentJavaView;
+import sootup.java.core.views.JavaView;
+
+@Category(Java8Test.class)
+public class BodyPrefetcherTest {
+  static Path pathToJar = Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar");
+
+  private static List<ClassType> classTypes(String... classNames) {
+    JavaIdentifierFactory identifierFactory = JavaIdentifierFactory.getInstance();
+    return Arrays.stream(classNames)
+        .map(identifierFactory::getClassType)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testPrefetchClasses() {
+    // the rt.jar provides many bodies, the interceptors are applied to the bodies of the MiniApp
+    List<AnalysisInputLocation<? extends JavaSootClass>> inputLocations =
+        Arrays.asList(
+            PathBasedAnalysisInputLocation.create(
+                pathToJar,
+                SourceType.Application,
+                BytecodeBodyInterceptors.Default.bodyInterceptors()),
+            new DefaultRTJarAnalysisInputLocation());
+    ConcurrentJavaView view = new ConcurrentJavaView(inputLocations);
+    List<ClassType> classTypes =
+        inputLocations.get(0).getClassHeaders(view).get().stream()
+            .map(ClassHeader::getType)
+            .collect(Collectors.toList());
+    classTypes.addAll(
+        classTypes(
+            "java.util.TreeMap",
+            "java.util.LinkedList",
+            "java.util.LinkedHashMap",
+            "java.util.jar.JarFile",
+            "java.util.jar.Manifest",
+            "java.util.jar.Attributes",
+            "java.beans.beancontext.BeanContextSupport",
+            "java.beans.beancontext.BeanContextServicesSupport",
+            "does.not.Exist"));
+    BodyPrefetcher.Result result = view.prefetchBodiesOfClasses(classTypes, 4);
+
+    // the frontend converts all bodies of these classes
+    assertTrue(result.getFailures().toString(), result.getFailures().isEmpty());
+    assertTrue(result.getNumberOfMethods() > 300);
+    assertEquals(result.getNumberOfMethods(), result.getNumberOfBodies());
+    assertTrue(result.getThroughput() > 0);
+    assertTrue(result.getInterceptorTimes().containsKey(TypeAssigner.class));
+
+    // the bodies are the same as the ones resolved on a single thread
+    JavaView sequentialView = new JavaView(inputLocations);
+    for (ClassType classType : classTypes) {
+      Optional<JavaSootClass> sootClass = view.getClass(classType);
+      if (!sootClass.isPresent()) {
+        continue;
+      }
+      for (SootMethod method : sootClass.get().getMethods()) {
+        if (!method.hasBody()) {
+          continue;
+        }
+        SootMethod sequentialMethod = sequentialView.getMethod(method.getSignature()).get();
+        assertEquals(sequentialMethod.getBody().toString(), method.getBody().toString());
+      }
+    }
+
+    // the bodies are kept by the methods and are not intercepted again
+    BodyPrefetcher.Result secondResult = view.prefetchBodiesOfClasses(classTypes, 4);
+    assertEquals(result.getNumberOfMethods(), secondResult.getNumberOfMethods());
+    assertTrue(secondResult.getInterceptorTimes().isEmpty());
+    assertTrue(view.getBodyInterceptorListeners().isEmpty());
+  }
+
+  @Test
+  public void testFailuresDoNotAbortBatch() {
+    BodyInterceptor failingInterceptor =
+        new BodyInterceptor() {
+          @Override
+          public void interceptBody(Body.BodyBuilder builder, View<?> view) {
+            if (builder.getMethodSignature().getName().equals("<init>")) {
+              throw new IllegalArgumentException("no constructors");
+            }
+          }
+        };
+    List<AnalysisInputLocation<? extends JavaSootClass>> inputLocations =
+        Collections.singletonList(
+            PathBasedAnalysisInputLocation.create(
+                pathToJar,
+                SourceType.Application,
+                Arrays.asList(new NopEliminator(), failingInterceptor)));
+    JavaView view = new JavaView(inputLocations);
+    List<SootMethod> methods =
+        view.getClasses().stream()
+            .flatMap(sootClass -> sootClass.getMethods().stream())
+            .collect(Collectors.toList());
+
+    // a small queue lets the submitting thread resolve bodies as well
+    BodyPrefetcher.Result result = new BodyPrefetcher(view, 2, 1).prefetch(methods);
+
+    List<SootMethod> constructors =
+        methods.stream()
+            .filter(method -> method.getName().equals("<init>"))
+            .collect(Collectors.toList());
+    assertFalse(constructors.isEmpty());
+    assertEquals(constructors.size(), result.getFailures().size());
+    assertEquals(methods.stream().filter(SootMethod::hasBody).count(), result.getNumberOfMethods());
+    assertEquals(result.getNumberOfMethods() - constructors.size(), result.getNumberOfBodies());
+    for (BodyPrefetcher.Failure failure : result.getFailures()) {
+      assertEquals("<init>", ((MethodSignature) failure.getSignature()).getName());
+      assertTrue(failure.getCause() instanceof IllegalStateException);
+      assertTrue(failure.getCause().getCause() instanceof IllegalArgumentException);
+    }
+    assertEquals(
+        new HashSet<>(Arrays.asList(NopEliminator.class, failingInterceptor.getClass())),
+        result.getInterceptorTimes().keySet());
+  }
+}
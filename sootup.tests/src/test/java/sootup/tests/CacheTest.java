@@ -1,22 +1,32 @@
 package sootup.tests;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 import categories.Java8Test;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import sootup.core.cache.BodyCache;
+import sootup.core.cache.ClassWeigher;
+import sootup.core.cache.provider.BoundedLRUCacheProvider;
 import sootup.core.cache.provider.FullCacheProvider;
+import sootup.core.cache.provider.LRUBodyCacheProvider;
 import sootup.core.cache.provider.LRUCacheProvider;
+import sootup.core.cache.provider.SoftBodyCacheProvider;
 import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.inputlocation.DefaultSourceTypeSpecifier;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
 import sootup.core.model.SourceType;
 import sootup.core.types.ClassType;
 import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
 import sootup.java.core.JavaSootClass;
+import sootup.java.core.views.ConcurrentJavaView;
 import sootup.java.core.views.JavaView;
 
 /**
@@ -77,4 +87,145 @@ public class CacheTest {
     newView.getClasses();
     assertEquals(6, newView.getNumberOfStoredClasses());
   }
+
+  /** Test the {@link sootup.core.cache.BoundedLRUCache} class bounded by the number of classes */
+  @Test
+  public void boundedLRUCacheSizeTest() {
+    JavaView view = new JavaView(inputLocations, new BoundedLRUCacheProvider<>(1));
+    assertEquals(0, view.getNumberOfStoredClasses());
+
+    ClassType miniAppClassType = view.getIdentifierFactory().getClassType("MiniApp");
+    view.getClass(miniAppClassType);
+    assertEquals(1, view.getNumberOfStoredClasses());
+
+    ClassType utilsOperationClassType =
+        view.getIdentifierFactory().getClassType("utils.Operations");
+    view.getClass(utilsOperationClassType);
+    assertEquals(1, view.getNumberOfStoredClasses());
+
+    view.getClasses();
+    assertEquals(1, view.getNumberOfStoredClasses());
+
+    JavaView newView = new JavaView(inputLocations, new BoundedLRUCacheProvider<>(100));
+    newView.getClasses();
+    assertEquals(6, newView.getNumberOfStoredClasses());
+  }
+
+  /** Test the {@link sootup.core.cache.BoundedLRUCache} class bounded by the weight of classes */
+  @Test
+  public void boundedLRUCacheWeightTest() {
+    JavaView fullView = new JavaView(inputLocations, new FullCacheProvider<>());
+    ClassWeigher<JavaSootClass> weigher = ClassWeigher.members();
+    long totalWeight = fullView.getClasses().stream().mapToLong(weigher::weigh).sum();
+
+    JavaView view =
+        new JavaView(inputLocations, new BoundedLRUCacheProvider<>(100, totalWeight, weigher));
+    view.getClasses();
+    assertEquals(6, view.getNumberOfStoredClasses());
+
+    JavaView smallView =
+        new JavaView(inputLocations, new BoundedLRUCacheProvider<>(100, totalWeight - 1, weigher));
+    smallView.getClasses();
+    assertEquals(5, smallView.getNumberOfStoredClasses());
+
+    // the most recently used class is kept, even if it exceeds the weight on its own
+    JavaView tinyView = new JavaView(inputLocations, new BoundedLRUCacheProvider<>(100, 1));
+    tinyView.getClasses();
+    assertEquals(1, tinyView.getNumberOfStoredClasses());
+  }
+
+  /** Test the {@link sootup.core.cache.BoundedLRUCache} class shared by multiple threads */
+  @Test
+  public void boundedLRUCacheConcurrentTest() {
+    JavaView view = new ConcurrentJavaView(inputLocations, new BoundedLRUCacheProvider<>(3));
+    assertEquals(6, view.getClasses().size());
+    assertTrue(view.getNumberOfStoredClasses() <= 3);
+  }
+
+  /** Test the {@link sootup.core.cache.LRUBodyCache} class */
+  @Test
+  public void lruBodyCacheTest() {
+    JavaView view =
+        new JavaView(
+            inputLocations,
+            new FullCacheProvider<>(),
+            DefaultSourceTypeSpecifier.getInstance(),
+            new LRUBodyCacheProvider(1));
+    BodyCache bodyCache = view.getBodyCache().get();
+    List<SootMethod> methods =
+        view.getClasses().stream()
+            .flatMap(clazz -> clazz.getMethods().stream())
+            .filter(SootMethod::isConcrete)
+            .limit(2)
+            .collect(Collectors.toList());
+    SootMethod first = methods.get(0);
+    SootMethod second = methods.get(1);
+
+    Body firstBody = first.getBody();
+    assertSame(firstBody, first.getBody());
+    assertEquals(1, bodyCache.getHitCount());
+    assertEquals(1, bodyCache.getMissCount());
+
+    second.getBody();
+    assertEquals(1, bodyCache.size());
+
+    // the body of the first method has been evicted and needs to be rebuilt
+    Body rebuiltBody = first.getBody();
+    assertNotSame(firstBody, rebuiltBody);
+    assertEquals(firstBody.toString(), rebuiltBody.toString());
+    assertEquals(1, bodyCache.getHitCount());
+    assertEquals(3, bodyCache.getMissCount());
+    assertEquals(1, bodyCache.getRebuildCount());
+  }
+
+  /** The {@link sootup.core.cache.LRUBodyCache} only remembers the last evicted bodies. */
+  @Test
+  public void lruBodyCacheEvictionBookkeepingTest() {
+    JavaView view =
+        new JavaView(
+            inputLocations,
+            new FullCacheProvider<>(),
+            DefaultSourceTypeSpecifier.getInstance(),
+            new LRUBodyCacheProvider(1));
+    BodyCache bodyCache = view.getBodyCache().get();
+    List<SootMethod> methods =
+        view.getClasses().stream()
+            .flatMap(clazz -> clazz.getMethods().stream())
+            .filter(SootMethod::isConcrete)
+            .limit(3)
+            .collect(Collectors.toList());
+    methods.forEach(SootMethod::getBody);
+    assertEquals(0, bodyCache.getRebuildCount());
+
+    // the eviction of the first body has been forgotten when the second one was evicted
+    methods.get(0).getBody();
+    assertEquals(0, bodyCache.getRebuildCount());
+    methods.get(2).getBody();
+    assertEquals(1, bodyCache.getRebuildCount());
+  }
+
+  /** Test the {@link sootup.core.cache.SoftBodyCache} class */
+  @Test
+  public void softBodyCacheTest() {
+    JavaView view =
+        new JavaView(
+            inputLocations,
+            new FullCacheProvider<>(),
+            DefaultSourceTypeSpecifier.getInstance(),
+            new SoftBodyCacheProvider());
+    BodyCache bodyCache = view.getBodyCache().get();
+    ClassType miniAppClassType = view.getIdentifierFactory().getClassType("MiniApp");
+    for (SootMethod method : view.getClass(miniAppClassType).get().getMethods()) {
+      assertSame(method.getBody(), method.getBody());
+    }
+    assertEquals(bodyCache.getMissCount(), bodyCache.getHitCount());
+    assertTrue(bodyCache.size() <= bodyCache.getMissCount());
+  }
+
+  /** Without a body cache, every method keeps its body */
+  @Test
+  public void noBodyCacheTest() {
+    JavaView view = new JavaView(inputLocations, new FullCacheProvider<>());
+    assertFalse(view.getBodyCache().isPresent());
+  }
 }
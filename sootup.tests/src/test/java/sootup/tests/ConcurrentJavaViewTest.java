@@ -0,0 +1,246 @@
+package sootup.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import categories.Java8Test;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.core.cache.provider.FullCacheProvider;
+import sootup.core.frontend.AbstractClassSource;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.inputlocation.DefaultSourceTypeSpecifier;
+import sootup.core.model.SourceType;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.types.ClassType;
+import sootup.core.views.View;
+import sootup.java.bytecode.inputlocation.DefaultRTJarAnalysisInputLocation;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.views.ConcurrentJavaView;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Resolves the same classes from multiple threads at once and compares the {@link
+ * ConcurrentJavaView} with the monitor based {@link JavaView}.
+ */
+@Category(Java8Test.class)
+public class ConcurrentJavaViewTest {
+  static final int THREADS = 8;
+  static Path pathToJar = Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar");
+  static List<AnalysisInputLocation<? extends JavaSootClass>> inputLocations;
+  static List<ClassType> classTypes;
+
+  @BeforeClass
+  public static void setupProject() {
+    inputLocations =
+        Arrays.asList(
+            PathBasedAnalysisInputLocation.create(pathToJar, SourceType.Application),
+            new DefaultRTJarAnalysisInputLocation());
+
+    JavaIdentifierFactory identifierFactory = JavaIdentifierFactory.getInstance();
+    classTypes =
+        Arrays.asList(
+                "MiniApp",
+                "utils.Operations",
+                "java.lang.Object",
+                "java.lang.String",
+                "java.lang.Integer",
+                "java.lang.Thread",
+                "java.lang.annotation.Retention",
+                "java.lang.annotation.Documented",
+                "java.lang.annotation.Target",
+                "java.util.ArrayList",
+                "java.util.HashMap",
+                "java.util.LinkedList",
+                "java.util.TreeMap",
+                "java.util.Collections",
+                "java.util.concurrent.ConcurrentHashMap",
+                "java.io.File",
+                "java.io.PrintStream",
+                "java.nio.file.Files",
+                "does.not.Exist")
+            .stream()
+            .map(identifierFactory::getClassType)
+            .collect(Collectors.toList());
+  }
+
+  @Test
+  public void resolveEachClassOnce() throws Exception {
+    ConcurrentJavaView view = new ConcurrentJavaView(inputLocations);
+    List<Map<ClassType, Optional<JavaSootClass>>> results = resolveConcurrently(view);
+
+    Map<ClassType, Optional<JavaSootClass>> first = results.get(0);
+    for (Map<ClassType, Optional<JavaSootClass>> result : results) {
+      for (ClassType classType : classTypes) {
+        // every thread has to see the very same instance
+        assertSame(first.get(classType).orElse(null), result.get(classType).orElse(null));
+      }
+    }
+    assertEquals(classTypes.size() - 1, view.getNumberOfStoredClasses());
+    assertTrue(!first.get(classTypes.get(classTypes.size() - 1)).isPresent());
+  }
+
+  @Test
+  public void resolveLikeMonitorBasedView() throws Exception {
+    Map<ClassType, Optional<JavaSootClass>> concurrent =
+        resolveConcurrently(new ConcurrentJavaView(inputLocations)).get(0);
+    Map<ClassType, Optional<JavaSootClass>> synchronizedResults =
+        resolveConcurrently(new JavaView(inputLocations)).get(0);
+
+    for (ClassType classType : classTypes) {
+      Optional<JavaSootClass> expected = synchronizedResults.get(classType);
+      Optional<JavaSootClass> actual = concurrent.get(classType);
+      assertEquals(expected.isPresent(), actual.isPresent());
+      if (expected.isPresent()) {
+        assertEquals(expected.get().getType(), actual.get().getType());
+        assertEquals(expected.get().getMethods().size(), actual.get().getMethods().size());
+        assertEquals(expected.get().getFields().size(), actual.get().getFields().size());
+      }
+    }
+  }
+
+  @Test
+  public void resolveAllWhileQueryingClasses() throws Exception {
+    ConcurrentJavaView view =
+        new ConcurrentJavaView(
+            Collections.singletonList(
+                PathBasedAnalysisInputLocation.create(pathToJar, SourceType.Application)));
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<Collection<JavaSootClass>>> futures = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        futures.add(executor.submit(view::getClasses));
+      }
+      for (Future<Collection<JavaSootClass>> future : futures) {
+        assertEquals(6, future.get().size());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(6, view.getNumberOfStoredClasses());
+  }
+
+  @Test
+  public void resolveAllInParallelFirstLocationWins() {
+    AnalysisInputLocation<JavaSootClass> first =
+        PathBasedAnalysisInputLocation.create(pathToJar, SourceType.Application);
+    AnalysisInputLocation<JavaSootClass> second =
+        PathBasedAnalysisInputLocation.create(pathToJar, SourceType.Library);
+    ConcurrentJavaView view =
+        new ConcurrentJavaView(
+            Arrays.asList(first, second),
+            new FullCacheProvider<>(),
+            DefaultSourceTypeSpecifier.getInstance(),
+            4);
+    assertTrue(view.getLocationTimings().isEmpty());
+
+    Collection<JavaSootClass> classes = view.getClasses();
+    assertEquals(6, classes.size());
+    for (JavaSootClass clazz : classes) {
+      assertSame(first, clazz.getClassSource().getClassSource());
+      assertTrue(clazz.isApplicationClass());
+    }
+
+    List<ConcurrentJavaView.LocationTiming> timings = view.getLocationTimings();
+    assertEquals(2, timings.size());
+    assertSame(first, timings.get(0).getInputLocation());
+    assertSame(second, timings.get(1).getInputLocation());
+    assertEquals(6, timings.get(0).getNumberOfClassSources());
+    assertEquals(6, timings.get(1).getNumberOfClassSources());
+    assertEquals(0, timings.get(1).getBuildTime());
+  }
+
+  @Test(timeout = 60000)
+  public void resolveSameClassAgainWhileBuildingIt() {
+    AnalysisInputLocation<JavaSootClass> location =
+        PathBasedAnalysisInputLocation.create(pathToJar, SourceType.Application);
+    ClassType miniApp = JavaIdentifierFactory.getInstance().getClassType("MiniApp");
+    List<Optional<JavaSootClass>> reentrantResults = new ArrayList<>();
+    // looks up the class it is asked for in the view, like e.g. a hierarchy lookup would
+    AnalysisInputLocation<JavaSootClass> reentrantLocation =
+        new AnalysisInputLocation<JavaSootClass>() {
+          @Nonnull
+          @Override
+          public Optional<? extends AbstractClassSource<JavaSootClass>> getClassSource(
+              @Nonnull ClassType type, @Nonnull View<?> view) {
+            if (type.equals(miniApp) && reentrantResults.isEmpty()) {
+              reentrantResults.add(Optional.empty());
+              reentrantResults.set(0, view.getClass(type).map(JavaSootClass.class::cast));
+            }
+            return location.getClassSource(type, view);
+          }
+
+          @Nonnull
+          @Override
+          public Collection<? extends AbstractClassSource<JavaSootClass>> getClassSources(
+              @Nonnull View<?> view) {
+            return location.getClassSources(view);
+          }
+
+          @Nullable
+          @Override
+          public SourceType getSourceType() {
+            return location.getSourceType();
+          }
+
+          @Nonnull
+          @Override
+          public List<BodyInterceptor> getBodyInterceptors() {
+            return location.getBodyInterceptors();
+          }
+        };
+    ConcurrentJavaView view = new ConcurrentJavaView(reentrantLocation);
+
+    Optional<JavaSootClass> miniAppClass = view.getClass(miniApp);
+    assertTrue(miniAppClass.isPresent());
+    assertEquals(1, reentrantResults.size());
+    // the re-entrant resolution has built the class, which is the only instance of its type
+    assertSame(reentrantResults.get(0).get(), miniAppClass.get());
+    assertSame(miniAppClass.get(), view.getClass(miniApp).get());
+    assertEquals(1, view.getNumberOfStoredClasses());
+  }
+
+  /** Lets {@link #THREADS} threads resolve all {@link #classTypes} in different orders. */
+  private List<Map<ClassType, Optional<JavaSootClass>>> resolveConcurrently(JavaView view)
+      throws InterruptedException, ExecutionException {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch startSignal = new CountDownLatch(1);
+    try {
+      List<Future<Map<ClassType, Optional<JavaSootClass>>>> futures = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        List<ClassType> order = new ArrayList<>(classTypes);
+        Collections.shuffle(order, new Random(i));
+        futures.add(
+            executor.submit(
+                () -> {
+                  startSignal.await();
+                  Map<ClassType, Optional<JavaSootClass>> resolved = new HashMap<>();
+                  for (ClassType classType : order) {
+                    resolved.put(classType, view.getClass(classType));
+                  }
+                  return resolved;
+                }));
+      }
+      startSignal.countDown();
+
+      List<Map<ClassType, Optional<JavaSootClass>>> results = new ArrayList<>();
+      for (Future<Map<ClassType, Optional<JavaSootClass>>> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
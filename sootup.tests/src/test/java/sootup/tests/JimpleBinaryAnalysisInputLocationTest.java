@@ -0,0 +1,115 @@
+package sootup.tests;
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import sootup.core.model.SootField;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.types.ClassType;
+import sootup.java.bytecode.inputlocation.DefaultRTJarAnalysisInputLocation;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.serialization.JimpleBinaryAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Tests that classes written in the binary Jimple format are read by the {@link
+ * JimpleBinaryAnalysisInputLocation} as they have been lifted from bytecode.
+ */
+@Category(Java8Test.class)
+public class JimpleBinaryAnalysisInputLocationTest {
+  static Path pathToJar = Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar");
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static void assertSameClass(JavaSootClass expected, JavaSootClass actual) {
+    assertEquals(expected.getType(), actual.getType());
+    assertEquals(expected.getModifiers(), actual.getModifiers());
+    assertEquals(expected.getSuperclass(), actual.getSuperclass());
+    assertEquals(expected.getOuterClass(), actual.getOuterClass());
+    assertEquals(expected.getInterfaces(), actual.getInterfaces());
+
+    Map<?, SootField> fields =
+        actual.getFields().stream()
+            .collect(Collectors.toMap(SootField::getSignature, Function.identity()));
+    assertEquals(expected.getFields().size(), fields.size());
+    for (SootField field : expected.getFields()) {
+      SootField actualField = fields.get(field.getSignature());
+      assertNotNull(actualField);
+      assertEquals(field.getModifiers(), actualField.getModifiers());
+    }
+
+    Map<?, SootMethod> methods =
+        actual.getMethods().stream()
+            .collect(Collectors.toMap(SootMethod::getSignature, Function.identity()));
+    assertEquals(expected.getMethods().size(), methods.size());
+    for (SootMethod method : expected.getMethods()) {
+      SootMethod actualMethod = methods.get(method.getSignature());
+      assertNotNull(actualMethod);
+      assertEquals(method.getModifiers(), actualMethod.getModifiers());
+      assertEquals(method.getExceptionSignatures(), actualMethod.getExceptionSignatures());
+      if (method.hasBody()) {
+        assertEquals(method.getBody().toString(), actualMethod.getBody().toString());
+      }
+    }
+  }
+
+  @Test
+  public void miniAppTest() throws IOException {
+    Path directory = tempFolder.newFolder().toPath();
+    JavaView bytecodeView =
+        new JavaView(PathBasedAnalysisInputLocation.create(pathToJar, SourceType.Application));
+    Collection<JavaSootClass> classes = bytecodeView.getClasses();
+    JimpleBinaryAnalysisInputLocation.writeClasses(classes, directory);
+
+    JavaView binaryView =
+        new JavaView(new JimpleBinaryAnalysisInputLocation(directory, SourceType.Application));
+    Set<ClassType> binaryClassTypes =
+        binaryView.getClasses().stream().map(JavaSootClass::getType).collect(Collectors.toSet());
+    assertEquals(
+        classes.stream().map(JavaSootClass::getType).collect(Collectors.toSet()), binaryClassTypes);
+    for (JavaSootClass sootClass : classes) {
+      assertSameClass(sootClass, binaryView.getClass(sootClass.getType()).get());
+    }
+  }
+
+  @Test
+  public void lazyLoadingTest() throws IOException {
+    Path directory = tempFolder.newFolder().toPath();
+    JavaView rtView =
+        new JavaView(
+            new DefaultRTJarAnalysisInputLocation(SourceType.Library, Collections.emptyList()));
+    Collection<JavaSootClass> classes =
+        Stream.of("java.util.Arrays", "java.util.TreeMap", "java.util.stream.Collectors")
+            .map(name -> rtView.getClass(rtView.getIdentifierFactory().getClassType(name)).get())
+            .collect(Collectors.toList());
+    JimpleBinaryAnalysisInputLocation.writeClasses(classes, directory);
+    assertTrue(Files.exists(directory.resolve(Paths.get("java", "util", "TreeMap.jbin"))));
+
+    JavaView binaryView = new JavaView(new JimpleBinaryAnalysisInputLocation(directory));
+    for (JavaSootClass sootClass : classes) {
+      assertSameClass(sootClass, binaryView.getClass(sootClass.getType()).get());
+    }
+    assertEquals(classes.size(), binaryView.getNumberOfStoredClasses());
+    assertFalse(
+        binaryView
+            .getClass(binaryView.getIdentifierFactory().getClassType("java.util.HashMap"))
+            .isPresent());
+  }
+}
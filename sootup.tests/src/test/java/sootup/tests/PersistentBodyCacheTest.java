@@ -0,0 +1,231 @@
+package sootup.tests;
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import sootup.core.cache.BodyCache;
+import sootup.core.cache.provider.FullCacheProvider;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.inputlocation.DefaultSourceTypeSpecifier;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.util.serialization.JimpleBinaryReader;
+import sootup.core.util.serialization.JimpleBinaryWriter;
+import sootup.core.views.View;
+import sootup.java.bytecode.cache.provider.PersistentBodyCacheProvider;
+import sootup.java.bytecode.inputlocation.DefaultRTJarAnalysisInputLocation;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.bytecode.interceptors.Aggregator;
+import sootup.java.bytecode.interceptors.BytecodeBodyInterceptors;
+import sootup.java.bytecode.interceptors.NopEliminator;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Tests the binary Jimple format and the {@link sootup.java.bytecode.cache.PersistentBodyCache}
+ * that stores bodies in it. It uses the MiniApp.jar and some classes of the runtime library.
+ */
+@Category(Java8Test.class)
+public class PersistentBodyCacheTest {
+  static Path pathToJar = Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar");
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static List<BodyInterceptor> defaultInterceptors() {
+    return BytecodeBodyInterceptors.Default.bodyInterceptors();
+  }
+
+  private static JavaView createView(
+      AnalysisInputLocation<? extends JavaSootClass> inputLocation, Path cacheDirectory) {
+    return new JavaView(
+        Collections.singletonList(inputLocation),
+        new FullCacheProvider<>(),
+        DefaultSourceTypeSpecifier.getInstance(),
+        new PersistentBodyCacheProvider(cacheDirectory, null));
+  }
+
+  private static JavaView createMiniAppView(
+      List<BodyInterceptor> bodyInterceptors, Path cacheDirectory) {
+    return createView(
+        PathBasedAnalysisInputLocation.create(pathToJar, SourceType.Application, bodyInterceptors),
+        cacheDirectory);
+  }
+
+  private static Map<MethodSignature, String> getBodies(JavaView view) {
+    return view.getClasses().stream()
+        .flatMap(clazz -> clazz.getMethods().stream())
+        .filter(SootMethod::isConcrete)
+        .collect(Collectors.toMap(SootMethod::getSignature, m -> m.getBody().toString()));
+  }
+
+  private static Body roundTrip(Body body) throws IOException {
+    JimpleBinaryWriter writer = new JimpleBinaryWriter();
+    writer.writeBody(body);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writer.writeTo(out);
+    return new JimpleBinaryReader(
+            new ByteArrayInputStream(out.toByteArray()), JavaIdentifierFactory.getInstance())
+        .readBody();
+  }
+
+  @Test
+  public void binaryFormatRoundTripTest() throws IOException {
+    JavaView miniAppView =
+        new JavaView(
+            PathBasedAnalysisInputLocation.create(
+                pathToJar, SourceType.Application, defaultInterceptors()));
+    // the bodies of the runtime library are not transformed to cover all kinds of stmts
+    JavaView rtView =
+        new JavaView(
+            new DefaultRTJarAnalysisInputLocation(SourceType.Library, Collections.emptyList()));
+    Stream<JavaSootClass> rtClasses =
+        Stream.of(
+                "java.util.Arrays",
+                "java.util.TreeMap",
+                "java.util.concurrent.ConcurrentLinkedQueue",
+                "java.util.stream.Collectors")
+            .map(name -> rtView.getClass(rtView.getIdentifierFactory().getClassType(name)).get());
+
+    List<SootMethod> methods =
+        Stream.concat(miniAppView.getClasses().stream(), rtClasses)
+            .flatMap(clazz -> clazz.getMethods().stream())
+            .filter(SootMethod::isConcrete)
+            .collect(Collectors.toList());
+    assertFalse(methods.isEmpty());
+    for (SootMethod method : methods) {
+      Body body = method.getBody();
+      Body readBody = roundTrip(body);
+      assertEquals(body.getMethodSignature(), readBody.getMethodSignature());
+      assertEquals(body.getLocals(), readBody.getLocals());
+      assertEquals(body.toString(), readBody.toString());
+    }
+  }
+
+  @Test
+  public void persistentBodyCacheTest() throws IOException {
+    Path cacheDirectory = tempFolder.newFolder().toPath();
+
+    JavaView coldView = createMiniAppView(defaultInterceptors(), cacheDirectory);
+    Map<MethodSignature, String> coldBodies = getBodies(coldView);
+    BodyCache coldCache = coldView.getBodyCache().get();
+    assertEquals(0, coldCache.getHitCount());
+    assertEquals(coldBodies.size(), coldCache.getMissCount());
+    assertEquals(0, coldCache.getRebuildCount());
+
+    // a new view reads all bodies from the cache directory
+    JavaView warmView = createMiniAppView(defaultInterceptors(), cacheDirectory);
+    Map<MethodSignature, String> warmBodies = getBodies(warmView);
+    BodyCache warmCache = warmView.getBodyCache().get();
+    assertEquals(coldBodies, warmBodies);
+    assertEquals(coldBodies.size(), warmCache.getHitCount());
+    assertEquals(0, warmCache.getMissCount());
+  }
+
+  @Test
+  public void changedInterceptorsTest() throws IOException {
+    Path cacheDirectory = tempFolder.newFolder().toPath();
+    getBodies(createMiniAppView(defaultInterceptors(), cacheDirectory));
+
+    JavaView view = createMiniAppView(Collections.emptyList(), cacheDirectory);
+    Map<MethodSignature, String> bodies = getBodies(view);
+    BodyCache bodyCache = view.getBodyCache().get();
+    assertEquals(0, bodyCache.getHitCount());
+    assertEquals(bodies.size(), bodyCache.getMissCount());
+  }
+
+  @Test
+  public void corruptEntryTest() throws IOException {
+    Path cacheDirectory = tempFolder.newFolder().toPath();
+    Map<MethodSignature, String> bodies =
+        getBodies(createMiniAppView(defaultInterceptors(), cacheDirectory));
+
+    List<Path> entries;
+    try (Stream<Path> files = Files.walk(cacheDirectory)) {
+      entries = files.filter(Files::isRegularFile).collect(Collectors.toList());
+    }
+    assertEquals(bodies.size(), entries.size());
+    for (Path entry : entries) {
+      byte[] content = Files.readAllBytes(entry);
+      Files.write(entry, Arrays.copyOf(content, content.length / 2));
+    }
+
+    JavaView view = createMiniAppView(defaultInterceptors(), cacheDirectory);
+    assertEquals(bodies, getBodies(view));
+    BodyCache bodyCache = view.getBodyCache().get();
+    assertEquals(bodies.size(), bodyCache.getRebuildCount());
+
+    // the rebuilt bodies have replaced the corrupt entries
+    JavaView warmView = createMiniAppView(defaultInterceptors(), cacheDirectory);
+    assertEquals(bodies, getBodies(warmView));
+    assertEquals(bodies.size(), warmView.getBodyCache().get().getHitCount());
+  }
+
+  @Test
+  public void interceptorConfigurationTest() throws IOException {
+    Path cacheDirectory = tempFolder.newFolder().toPath();
+    getBodies(createMiniAppView(Collections.singletonList(new Aggregator(false)), cacheDirectory));
+
+    // a differently configured instance of the same interceptor does not use the entries
+    JavaView view =
+        createMiniAppView(Collections.singletonList(new Aggregator(true)), cacheDirectory);
+    Map<MethodSignature, String> bodies = getBodies(view);
+    assertEquals(0, view.getBodyCache().get().getHitCount());
+    JavaView warmView =
+        createMiniAppView(Collections.singletonList(new Aggregator(true)), cacheDirectory);
+    assertEquals(bodies, getBodies(warmView));
+    assertEquals(bodies.size(), warmView.getBodyCache().get().getHitCount());
+  }
+
+  /** An interceptor with an option that it does not describe. */
+  private static class UndescribedInterceptor implements BodyInterceptor {
+    private final boolean option;
+
+    UndescribedInterceptor(boolean option) {
+      this.option = option;
+    }
+
+    @Override
+    public void interceptBody(Body.BodyBuilder builder, View<?> view) {
+      if (option) {
+        new NopEliminator().interceptBody(builder, view);
+      }
+    }
+  }
+
+  @Test
+  public void undescribedInterceptorTest() throws IOException {
+    Path cacheDirectory = tempFolder.newFolder().toPath();
+    List<BodyInterceptor> interceptors =
+        Arrays.asList(new NopEliminator(), new UndescribedInterceptor(true));
+    Map<MethodSignature, String> bodies =
+        getBodies(createMiniAppView(interceptors, cacheDirectory));
+    assertFalse(bodies.isEmpty());
+
+    JavaView view = createMiniAppView(interceptors, cacheDirectory);
+    assertEquals(bodies, getBodies(view));
+    assertEquals(0, view.getBodyCache().get().getHitCount());
+    try (Stream<Path> files = Files.walk(cacheDirectory)) {
+      assertFalse(files.anyMatch(Files::isRegularFile));
+    }
+  }
+}
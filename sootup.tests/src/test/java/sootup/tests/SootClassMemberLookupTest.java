@@ -0,0 +1,95 @@
+package sootup.tests;
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.core.IdentifierFactory;
+import sootup.core.frontend.ResolveException;
+import sootup.core.model.SourceType;
+import sootup.core.types.PrimitiveType;
+import sootup.java.bytecode.inputlocation.DefaultRTJarAnalysisInputLocation;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.JavaSootField;
+import sootup.java.core.JavaSootMethod;
+import sootup.java.core.views.JavaView;
+
+/** Tests the lookup of methods and fields of a {@link JavaSootClass} by their signatures. */
+@Category(Java8Test.class)
+public class SootClassMemberLookupTest {
+
+  private final JavaView view =
+      new JavaView(new DefaultRTJarAnalysisInputLocation(SourceType.Library));
+
+  private JavaSootClass getClass(String name) {
+    return view.getClass(view.getIdentifierFactory().getClassType(name)).get();
+  }
+
+  @Test
+  public void methodLookup() {
+    JavaSootClass stringClass = getClass("java.lang.String");
+    for (JavaSootMethod method : stringClass.getMethods()) {
+      assertSame(method, stringClass.getMethod(method.getSignature().getSubSignature()).get());
+      assertSame(method, stringClass.getMethod(method.getName(), method.getParameterTypes()).get());
+    }
+
+    IdentifierFactory factory = view.getIdentifierFactory();
+    assertFalse(
+        stringClass
+            .getMethod(
+                factory.parseMethodSubSignature("java.lang.String valueOf(java.lang.String)"))
+            .isPresent());
+    assertFalse(
+        stringClass
+            .getMethod("valueOf", Collections.singletonList(PrimitiveType.getShort()))
+            .isPresent());
+    assertFalse(stringClass.getMethod("noSuchMethod", Collections.emptyList()).isPresent());
+  }
+
+  @Test
+  public void ambiguousMethodLookup() {
+    // StringBuilder has bridge methods that differ from the overriding method in their return type
+    JavaSootClass stringBuilderClass = getClass("java.lang.StringBuilder");
+    List<JavaSootMethod> appendMethods =
+        stringBuilderClass.getMethods().stream()
+            .filter(
+                method ->
+                    method.getName().equals("append")
+                        && method
+                            .getParameterTypes()
+                            .equals(Collections.singletonList(PrimitiveType.getChar())))
+            .collect(Collectors.toList());
+    assertTrue(appendMethods.size() > 1);
+    for (JavaSootMethod method : appendMethods) {
+      assertSame(
+          method, stringBuilderClass.getMethod(method.getSignature().getSubSignature()).get());
+    }
+    try {
+      stringBuilderClass.getMethod("append", Collections.singletonList(PrimitiveType.getChar()));
+      fail("the lookup by name and parameters is ambiguous");
+    } catch (ResolveException expected) {
+      // expected
+    }
+  }
+
+  @Test
+  public void fieldLookup() {
+    JavaSootClass hashMapClass = getClass("java.util.HashMap");
+    assertFalse(hashMapClass.getFields().isEmpty());
+    for (JavaSootField field : hashMapClass.getFields()) {
+      assertSame(field, hashMapClass.getField(field.getSignature().getSubSignature()).get());
+      assertSame(field, hashMapClass.getField(field.getName()).get());
+    }
+    assertFalse(hashMapClass.getField("noSuchField").isPresent());
+    assertFalse(
+        hashMapClass
+            .getField(
+                view.getIdentifierFactory()
+                    .getFieldSubSignature("size", view.getIdentifierFactory().getType("long")))
+            .isPresent());
+  }
+}
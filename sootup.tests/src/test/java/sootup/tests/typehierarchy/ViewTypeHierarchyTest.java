@@ -12,11 +12,16 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import java.io.File;
 import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.tuple.Pair;
@@ -27,6 +32,7 @@ import sootup.core.IdentifierFactory;
 import sootup.core.model.ClassModifier;
 import sootup.core.model.SootClass;
 import sootup.core.model.SourceType;
+import sootup.core.typehierarchy.ClassHeader;
 import sootup.core.typehierarchy.ViewTypeHierarchy;
 import sootup.core.types.ArrayType;
 import sootup.core.types.ClassType;
@@ -35,6 +41,8 @@ import sootup.core.types.PrimitiveType;
 import sootup.core.types.Type;
 import sootup.core.util.ImmutableUtils;
 import sootup.java.bytecode.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.JavaSootClass;
 import sootup.java.core.OverridingJavaClassSource;
 import sootup.java.core.views.JavaView;
 
@@ -213,6 +221,66 @@ public class ViewTypeHierarchyTest {
             .contains(sootClass.getType()));
   }
 
+  private SootClass createClass(ClassType type, ClassType superClass, Set<ClassType> interfaces) {
+    OverridingJavaClassSource classSource =
+        new OverridingJavaClassSource(
+            analysisInputLocation,
+            null,
+            type,
+            superClass,
+            interfaces,
+            null,
+            Collections.emptySet(),
+            Collections.emptySet(),
+            null,
+            EnumSet.noneOf(ClassModifier.class),
+            Collections.emptyList(),
+            Collections.emptyList(),
+            Collections.emptyList());
+    return new SootClass(classSource, SourceType.Application);
+  }
+
+  @Test
+  public void addTypeUpdatesComputedClosures() {
+    IdentifierFactory factory = view.getIdentifierFactory();
+    ClassType abstractDataStructure = factory.getClassType("ds.AbstractDataStrcture");
+    ClassType employee = factory.getClassType("ds.Employee");
+    ClassType runnable = factory.getClassType("java.lang.Runnable");
+    ClassType type = factory.getClassType("adummytype.Type");
+    ClassType subType = factory.getClassType("adummytype.SubType");
+
+    // the subclass is added before its superclass is known to the hierarchy
+    typeHierarchy.addType(createClass(subType, type, Collections.emptySet()));
+    Set<ClassType> subclasses = typeHierarchy.subclassesOf(abstractDataStructure);
+    Set<ClassType> implementers = typeHierarchy.implementersOf(runnable);
+    assertEquals(Collections.emptySet(), typeHierarchy.implementedInterfacesOf(subType));
+    assertEquals(Collections.singletonList(type), typeHierarchy.superClassesOf(subType));
+    assertFalse(typeHierarchy.isSubtype(abstractDataStructure, subType));
+
+    typeHierarchy.addType(createClass(type, employee, Collections.singleton(runnable)));
+
+    Set<ClassType> expectedSubclasses = new HashSet<>(subclasses);
+    expectedSubclasses.add(type);
+    expectedSubclasses.add(subType);
+    assertEquals(expectedSubclasses, typeHierarchy.subclassesOf(abstractDataStructure));
+    Set<ClassType> expectedImplementers = new HashSet<>(implementers);
+    expectedImplementers.add(type);
+    expectedImplementers.add(subType);
+    assertEquals(expectedImplementers, typeHierarchy.implementersOf(runnable));
+    assertEquals(Collections.singleton(subType), typeHierarchy.subclassesOf(type));
+
+    assertTrue(typeHierarchy.implementedInterfacesOf(subType).contains(runnable));
+    assertEquals(
+        Stream.concat(Stream.of(type, employee), typeHierarchy.superClassesOf(employee).stream())
+            .collect(Collectors.toList()),
+        typeHierarchy.superClassesOf(subType));
+    assertTrue(typeHierarchy.isSubtype(abstractDataStructure, subType));
+    assertTrue(typeHierarchy.isSubtype(runnable, subType));
+    assertTrue(typeHierarchy.isSubtype(type, subType));
+    assertFalse(typeHierarchy.isSubtype(subType, type));
+    assertFalse(typeHierarchy.isSubtype(subType, subType));
+  }
+
   @Test
   public void arraySubtyping() {
     IdentifierFactory factory = view.getIdentifierFactory();
@@ -323,4 +391,31 @@ public class ViewTypeHierarchyTest {
         "Collection[] should be a subtype of Object[]",
         typeHierarchy.isSubtype(objectArrayDim1Type, collectionArrayDim1Type));
   }
+
+  @Test
+  public void classHeaders() {
+    IdentifierFactory factory = view.getIdentifierFactory();
+    // the hierarchy is built from the class headers without resolving any class
+    assertTrue(typeHierarchy.subtypesOf(factory.getClassType("java.util.AbstractList")).size() > 5);
+    assertEquals(0, view.getNumberOfStoredClasses());
+
+    JavaView miniAppView =
+        new JavaView(
+            PathBasedAnalysisInputLocation.create(
+                Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar"),
+                SourceType.Application));
+    Map<ClassType, ClassHeader> headers =
+        miniAppView.getClassHeaders().get().stream()
+            .collect(Collectors.toMap(ClassHeader::getType, Function.identity()));
+    Collection<JavaSootClass> classes = miniAppView.getClasses();
+    assertEquals(classes.size(), headers.size());
+    for (JavaSootClass sootClass : classes) {
+      ClassHeader header = headers.get(sootClass.getType());
+      assertEquals(sootClass.isInterface(), header.isInterface());
+      assertEquals(sootClass.getSuperclass(), header.getSuperclass());
+      assertEquals(sootClass.getInterfaces(), new HashSet<>(header.getInterfaces()));
+    }
+    // the headers of a fully resolved view are taken from its classes
+    assertFalse(miniAppView.getClassHeaders().isPresent());
+  }
 }